@@ -0,0 +1,235 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.microsoft.identity.common.internal.authscheme.AbstractAuthenticationScheme;
+import com.microsoft.identity.common.internal.authscheme.BearerAuthenticationSchemeInternal;
+import com.microsoft.identity.common.internal.broker.BrokerPayloadBinaryCodec;
+import com.microsoft.identity.common.internal.broker.BrokerRequest;
+import com.microsoft.identity.common.internal.broker.BrokerResult;
+import com.microsoft.identity.common.internal.request.AuthenticationSchemeTypeAdapter;
+import com.microsoft.identity.common.internal.util.GzipUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Encoding and decoding of the broker request and result payloads, as the broker adapters put
+ * them into a Bundle: plain JSON, JSON gzipped past the break-even size, or the binary codec.
+ * <p>
+ * The Bundle itself is left out, it needs the Parcel natives that only exist on a device.
+ * <p>
+ * {@link #roundTripBySize(SizedRequest)} sweeps the JSON size and, for gzip_json, compresses at
+ * every size; it is what {@link GzipUtil#COMPRESSION_BREAK_EVEN_BYTES} is derived from.
+ */
+@State(Scope.Benchmark)
+public class BrokerPayloadBenchmark {
+
+    private static final String JSON = "json";
+    private static final String GZIP_JSON = "gzip_json";
+    private static final String BINARY = "binary";
+
+    @Param({JSON, GZIP_JSON, BINARY})
+    public String encoding;
+
+    private Gson mGson;
+
+    private BrokerPayloadBinaryCodec<BrokerRequest> mRequestCodec;
+
+    private BrokerPayloadBinaryCodec<BrokerResult> mResultCodec;
+
+    private BrokerRequest mRequest;
+
+    private BrokerResult mResult;
+
+    private Object mEncodedRequest;
+
+    private Object mEncodedResult;
+
+    /**
+     * A broker request whose claims are padded with random base64url characters, which compress
+     * about as poorly as real tokens do, to a JSON size of {@link #jsonBytes}.
+     */
+    @State(Scope.Benchmark)
+    public static class SizedRequest {
+
+        private static final String BASE64_URL_CHARS =
+                "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+        @Param({"384", "512", "768", "1024", "1536", "2048", "4096"})
+        public int jsonBytes;
+
+        private BrokerRequest mRequest;
+
+        @Setup
+        public void setUp() {
+            final BrokerRequest unpadded = createRequest("");
+            final int padding = jsonBytes - createGson().toJson(unpadded, BrokerRequest.class).length();
+            final Random random = new Random(jsonBytes);
+            final StringBuilder claims = new StringBuilder(Math.max(padding, 0));
+
+            for (int i = 0; i < padding; i++) {
+                claims.append(BASE64_URL_CHARS.charAt(random.nextInt(BASE64_URL_CHARS.length())));
+            }
+
+            mRequest = createRequest(claims.toString());
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        mGson = createGson();
+        mRequestCodec = new BrokerPayloadBinaryCodec<>(BrokerRequest.class, mGson, mGson);
+        mResultCodec = new BrokerPayloadBinaryCodec<>(BrokerResult.class, mGson, mGson);
+
+        mRequest = createRequest("{\"access_token\":{\"deviceid\":{\"essential\":true}}}");
+        mResult = new BrokerResult.Builder()
+                .accessToken(CacheFixtures.createToken(1500))
+                .idToken(CacheFixtures.createToken(900))
+                .refreshToken(CacheFixtures.createToken(700))
+                .homeAccountId("uid.utid")
+                .localAccountId("uid")
+                .userName("user@contoso.com")
+                .clientId(CacheFixtures.CLIENT_ID)
+                .scope(CacheFixtures.TARGET)
+                .authority("https://login.microsoftonline.com/common")
+                .environment(CacheFixtures.ENVIRONMENT)
+                .tenantId(CacheFixtures.REALM)
+                .expiresOn(1600000000L)
+                .extendedExpiresOn(1600003600L)
+                .cachedAt(1599996400L)
+                .httpStatusCode(200)
+                .success(true)
+                .build();
+
+        mEncodedRequest = encode(mRequest, BrokerRequest.class, mRequestCodec);
+        mEncodedResult = encode(mResult, BrokerResult.class, mResultCodec);
+    }
+
+    @Benchmark
+    public Object encodeRequest() throws IOException {
+        return encode(mRequest, BrokerRequest.class, mRequestCodec);
+    }
+
+    @Benchmark
+    public Object decodeRequest() throws IOException {
+        return decode(mEncodedRequest, BrokerRequest.class, mRequestCodec);
+    }
+
+    @Benchmark
+    public Object encodeResult() throws IOException {
+        return encode(mResult, BrokerResult.class, mResultCodec);
+    }
+
+    @Benchmark
+    public Object decodeResult() throws IOException {
+        return decode(mEncodedResult, BrokerResult.class, mResultCodec);
+    }
+
+    @Benchmark
+    public Object roundTripBySize(final SizedRequest sizedRequest) throws IOException {
+        final BrokerRequest request = sizedRequest.mRequest;
+
+        switch (encoding) {
+            case JSON:
+                return mGson.fromJson(mGson.toJson(request, BrokerRequest.class), BrokerRequest.class);
+            case GZIP_JSON:
+                // Compressed regardless of the break-even size, to measure what it costs
+                return GzipUtil.fromCompressedJson(
+                        GzipUtil.compressString(mGson.toJson(request, BrokerRequest.class)),
+                        mGson,
+                        BrokerRequest.class
+                );
+            case BINARY:
+                return mRequestCodec.decode(mRequestCodec.encode(request));
+            default:
+                throw new IllegalStateException("Unknown encoding: " + encoding);
+        }
+    }
+
+    private static Gson createGson() {
+        return new GsonBuilder()
+                .registerTypeAdapter(
+                        AbstractAuthenticationScheme.class,
+                        new AuthenticationSchemeTypeAdapter()
+                ).create();
+    }
+
+    private static BrokerRequest createRequest(final String claims) {
+        return new BrokerRequest.Builder()
+                .authority("https://login.microsoftonline.com/common")
+                .scope("user.read openid profile offline_access")
+                .redirect("msauth://com.contoso/hash")
+                .clientId(CacheFixtures.CLIENT_ID)
+                .correlationId("2a8b8d2c-2b1e-4c4e-9f65-4b6ac1b4e0a5")
+                .claims(claims)
+                .forceRefresh(false)
+                .applicationName("com.contoso")
+                .applicationVersion("1.0")
+                .msalVersion("2.0.0")
+                .authenticationScheme(new BearerAuthenticationSchemeInternal())
+                .build();
+    }
+
+    private <T> Object encode(final T payload,
+                              final Class<T> type,
+                              final BrokerPayloadBinaryCodec<T> codec) throws IOException {
+        switch (encoding) {
+            case JSON:
+                return mGson.toJson(payload, type);
+            case GZIP_JSON:
+                return GzipUtil.toJsonPayload(mGson, payload, type);
+            case BINARY:
+                return codec.encode(payload);
+            default:
+                throw new IllegalStateException("Unknown encoding: " + encoding);
+        }
+    }
+
+    private <T> T decode(final Object encoded,
+                         final Class<T> type,
+                         final BrokerPayloadBinaryCodec<T> codec) throws IOException {
+        switch (encoding) {
+            case JSON:
+                return mGson.fromJson((String) encoded, type);
+            case GZIP_JSON:
+                final GzipUtil.JsonPayload jsonPayload = (GzipUtil.JsonPayload) encoded;
+                if (jsonPayload.isCompressed()) {
+                    return GzipUtil.fromCompressedJson(jsonPayload.getCompressed(), mGson, type);
+                }
+                return mGson.fromJson(jsonPayload.getJson(), type);
+            case BINARY:
+                return codec.decode((byte[]) encoded);
+            default:
+                throw new IllegalStateException("Unknown encoding: " + encoding);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.benchmarks;
+
+import com.microsoft.identity.common.internal.cache.IAccountCredentialCache;
+import com.microsoft.identity.common.internal.dto.AccessTokenRecord;
+import com.microsoft.identity.common.internal.dto.AccountRecord;
+import com.microsoft.identity.common.internal.dto.CredentialType;
+import com.microsoft.identity.common.internal.dto.IdTokenRecord;
+import com.microsoft.identity.common.internal.dto.RefreshTokenRecord;
+import com.microsoft.identity.common.internal.providers.microsoft.MicrosoftAccount;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds realistic cache contents: a number of accounts, each with an access token, a refresh
+ * token and an id token for the benchmark's client id.
+ */
+final class CacheFixtures {
+
+    static final String CLIENT_ID = "4b0db8c2-9f26-4417-8bde-3f0e3656f8e0";
+    static final String ENVIRONMENT = "login.microsoftonline.com";
+    static final String REALM = "f645ad92-e38d-4d1a-b510-d1b09a74a8ca";
+    static final String TARGET = "user.read openid profile offline_access";
+
+    private static final String BEARER = "Bearer";
+
+    private CacheFixtures() {
+        // Utility class.
+    }
+
+    /**
+     * Fills the cache with enough accounts to hold about the requested number of credentials.
+     *
+     * @param cache           The cache to fill.
+     * @param credentialCount The number of credentials to save, three per account.
+     * @return The account in the middle of the cache, the one the benchmarks look up.
+     */
+    static AccountRecord populate(final IAccountCredentialCache cache, final int credentialCount) {
+        final int accountCount = Math.max(1, credentialCount / 3);
+        AccountRecord lookupAccount = null;
+
+        for (int i = 0; i < accountCount; i++) {
+            final AccountRecord account = createAccount(i);
+            cache.saveAccount(account);
+            cache.saveCredential(createAccessToken(account));
+            cache.saveCredential(createRefreshToken(account));
+            cache.saveCredential(createIdToken(account));
+
+            if (i == accountCount / 2) {
+                lookupAccount = account;
+            }
+        }
+
+        return lookupAccount;
+    }
+
+    static AccountRecord createAccount(final int index) {
+        final String objectId = String.format("%08d-0000-0000-0000-000000000000", index);
+        final AccountRecord account = new AccountRecord();
+        account.setHomeAccountId(objectId + "." + REALM);
+        account.setEnvironment(ENVIRONMENT);
+        account.setRealm(REALM);
+        account.setLocalAccountId(objectId);
+        account.setUsername("user" + index + "@contoso.com");
+        account.setAuthorityType(MicrosoftAccount.AUTHORITY_TYPE_V1_V2);
+        return account;
+    }
+
+    static AccessTokenRecord createAccessToken(final AccountRecord account) {
+        final long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        final AccessTokenRecord accessToken = new AccessTokenRecord();
+        accessToken.setHomeAccountId(account.getHomeAccountId());
+        accessToken.setEnvironment(account.getEnvironment());
+        accessToken.setCredentialType(CredentialType.AccessToken.name());
+        accessToken.setClientId(CLIENT_ID);
+        accessToken.setRealm(account.getRealm());
+        accessToken.setTarget(TARGET);
+        accessToken.setAccessTokenType(BEARER);
+        accessToken.setAuthority("https://" + ENVIRONMENT + "/" + REALM);
+        accessToken.setCachedAt(String.valueOf(now));
+        accessToken.setExpiresOn(String.valueOf(now + TimeUnit.HOURS.toSeconds(1)));
+        accessToken.setExtendedExpiresOn(String.valueOf(now + TimeUnit.HOURS.toSeconds(2)));
+        accessToken.setSecret(createToken(1200));
+        return accessToken;
+    }
+
+    static RefreshTokenRecord createRefreshToken(final AccountRecord account) {
+        final RefreshTokenRecord refreshToken = new RefreshTokenRecord();
+        refreshToken.setHomeAccountId(account.getHomeAccountId());
+        refreshToken.setEnvironment(account.getEnvironment());
+        refreshToken.setCredentialType(CredentialType.RefreshToken.name());
+        refreshToken.setClientId(CLIENT_ID);
+        refreshToken.setTarget(TARGET);
+        refreshToken.setFamilyId("1");
+        refreshToken.setCachedAt(String.valueOf(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis())));
+        refreshToken.setSecret(createToken(800));
+        return refreshToken;
+    }
+
+    static IdTokenRecord createIdToken(final AccountRecord account) {
+        final IdTokenRecord idToken = new IdTokenRecord();
+        idToken.setHomeAccountId(account.getHomeAccountId());
+        idToken.setEnvironment(account.getEnvironment());
+        idToken.setCredentialType(CredentialType.IdToken.name());
+        idToken.setClientId(CLIENT_ID);
+        idToken.setRealm(account.getRealm());
+        idToken.setAuthority("https://" + ENVIRONMENT + "/" + REALM);
+        idToken.setSecret(createToken(900));
+        return idToken;
+    }
+
+    /**
+     * @param length The token length.
+     * @return A token-like string of the given length.
+     */
+    static String createToken(final int length) {
+        final StringBuilder token = new StringBuilder(length);
+
+        for (int i = 0; i < length; i++) {
+            token.append((char) ('a' + (i * 7) % 26));
+        }
+
+        return token.toString();
+    }
+}
@@ -0,0 +1,144 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.benchmarks;
+
+import com.microsoft.identity.common.internal.cache.CacheKey;
+import com.microsoft.identity.common.internal.dto.CredentialType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.microsoft.identity.common.internal.cache.CacheKeyValueDelegate.CACHE_VALUE_SEPARATOR;
+
+/**
+ * Classification of every key in a cache, as a cache scan does via isAccount()/isCredential(),
+ * with {@link CacheKey#parse(String)} against the per-key HashSet and String.contains() scan it
+ * replaced.
+ */
+@State(Scope.Benchmark)
+public class CacheKeyParseBenchmark {
+
+    private static final CredentialType[] TYPES = new CredentialType[]{
+            CredentialType.AccessToken,
+            CredentialType.RefreshToken,
+            CredentialType.IdToken,
+            null // Account
+    };
+
+    @Param({"1000", "10000"})
+    public int keyCount;
+
+    private List<String> mKeys;
+
+    @Setup
+    public void setUp() {
+        mKeys = new ArrayList<>(keyCount);
+
+        for (int i = 0; i < keyCount; i++) {
+            final CredentialType type = TYPES[i % TYPES.length];
+            final String homeAccountId = UUID.randomUUID() + "." + UUID.randomUUID();
+            final String environment = "login.microsoftonline.com";
+            final String realm = UUID.randomUUID().toString();
+
+            if (null == type) {
+                mKeys.add(homeAccountId + CACHE_VALUE_SEPARATOR + environment + CACHE_VALUE_SEPARATOR + realm);
+            } else {
+                mKeys.add(homeAccountId
+                        + CACHE_VALUE_SEPARATOR + environment
+                        + CACHE_VALUE_SEPARATOR + type.name().toLowerCase(Locale.US)
+                        + CACHE_VALUE_SEPARATOR + UUID.randomUUID()
+                        + CACHE_VALUE_SEPARATOR + realm
+                        + CACHE_VALUE_SEPARATOR + "user.read"
+                );
+            }
+        }
+    }
+
+    @Benchmark
+    public int legacyScan() {
+        int credentials = 0;
+
+        for (final String key : mKeys) {
+            // isAccount(), then isCredential()
+            if (null != legacyCredentialTypeFor(key) && null != legacyCredentialTypeFor(key)) {
+                credentials++;
+            }
+        }
+
+        return credentials;
+    }
+
+    @Benchmark
+    public int parse() {
+        int credentials = 0;
+
+        for (final String key : mKeys) {
+            if (!CacheKey.parse(key).isAccount() && CacheKey.parse(key).isCredential()) {
+                credentials++;
+            }
+        }
+
+        return credentials;
+    }
+
+    /**
+     * The key classification previously performed by
+     * SharedPreferencesAccountCredentialCache#getCredentialTypeForCredentialCacheKey, less its
+     * logging.
+     */
+    private static CredentialType legacyCredentialTypeFor(final String cacheKey) {
+        final Set<String> credentialTypesLowerCase = new HashSet<>();
+
+        for (final String credentialTypeStr : CredentialType.valueSet()) {
+            credentialTypesLowerCase.add(credentialTypeStr.toLowerCase(Locale.US));
+        }
+
+        for (final String credentialTypeStr : credentialTypesLowerCase) {
+            if (cacheKey.contains(CACHE_VALUE_SEPARATOR + credentialTypeStr + CACHE_VALUE_SEPARATOR)) {
+                if (CredentialType.AccessToken.name().equalsIgnoreCase(credentialTypeStr)) {
+                    return CredentialType.AccessToken;
+                } else if (CredentialType.AccessToken_With_AuthScheme.name().equalsIgnoreCase(credentialTypeStr)) {
+                    return CredentialType.AccessToken_With_AuthScheme;
+                } else if (CredentialType.RefreshToken.name().equalsIgnoreCase(credentialTypeStr)) {
+                    return CredentialType.RefreshToken;
+                } else if (CredentialType.IdToken.name().equalsIgnoreCase(credentialTypeStr)) {
+                    return CredentialType.IdToken;
+                } else if (CredentialType.V1IdToken.name().equalsIgnoreCase(credentialTypeStr)) {
+                    return CredentialType.V1IdToken;
+                }
+            }
+        }
+
+        return null;
+    }
+}
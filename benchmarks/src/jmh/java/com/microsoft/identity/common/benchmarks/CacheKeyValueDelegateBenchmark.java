@@ -0,0 +1,84 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.benchmarks;
+
+import com.microsoft.identity.common.internal.cache.CacheKeyValueDelegate;
+import com.microsoft.identity.common.internal.dto.AccessTokenRecord;
+import com.microsoft.identity.common.internal.dto.AccountRecord;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link CacheKeyValueDelegate} cache key generation and cache value parsing, which run for every
+ * credential written to or read from the cache.
+ */
+@State(Scope.Benchmark)
+public class CacheKeyValueDelegateBenchmark {
+
+    private CacheKeyValueDelegate mDelegate;
+
+    private AccountRecord mAccount;
+
+    private AccessTokenRecord mAccessToken;
+
+    private String mAccessTokenCacheValue;
+
+    private String mAccountCacheValue;
+
+    @Setup
+    public void setUp() {
+        mDelegate = new CacheKeyValueDelegate();
+        mAccount = CacheFixtures.createAccount(42);
+        mAccessToken = CacheFixtures.createAccessToken(mAccount);
+        mAccessTokenCacheValue = mDelegate.generateCacheValue(mAccessToken);
+        mAccountCacheValue = mDelegate.generateCacheValue(mAccount);
+    }
+
+    @Benchmark
+    public String generateAccessTokenCacheKey() {
+        return mDelegate.generateCacheKey(mAccessToken);
+    }
+
+    @Benchmark
+    public String generateAccountCacheKey() {
+        return mDelegate.generateCacheKey(mAccount);
+    }
+
+    @Benchmark
+    public String generateAccessTokenCacheValue() {
+        return mDelegate.generateCacheValue(mAccessToken);
+    }
+
+    @Benchmark
+    public AccessTokenRecord accessTokenFromCacheValue() {
+        return mDelegate.fromCacheValue(mAccessTokenCacheValue, AccessTokenRecord.class);
+    }
+
+    @Benchmark
+    public AccountRecord accountFromCacheValue() {
+        return mDelegate.fromCacheValue(mAccountCacheValue, AccountRecord.class);
+    }
+}
@@ -0,0 +1,102 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.benchmarks;
+
+import com.microsoft.identity.common.internal.cache.CacheKeyValueDelegate;
+import com.microsoft.identity.common.internal.cache.SharedPreferencesAccountCredentialCache;
+import com.microsoft.identity.common.internal.dto.AccountRecord;
+import com.microsoft.identity.common.internal.dto.Credential;
+import com.microsoft.identity.common.internal.dto.CredentialType;
+import com.microsoft.identity.common.internal.logging.ILoggerCallback;
+import com.microsoft.identity.common.internal.logging.Logger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+
+/**
+ * The cost of logging during a credential cache scan. Run with the gc profiler (the default for
+ * this module) and compare gc.alloc.rate.norm between log levels: below the enabled level the
+ * lazily formatted log calls should not allocate.
+ */
+@State(Scope.Benchmark)
+public class CacheScanLoggingBenchmark {
+
+    @Param({"WARN", "INFO", "VERBOSE"})
+    public String logLevel;
+
+    @Param({"false", "true"})
+    public boolean allowPii;
+
+    @Param({"1000"})
+    public int credentialCount;
+
+    private SharedPreferencesAccountCredentialCache mCache;
+
+    private AccountRecord mAccount;
+
+    @Setup
+    public void setUp() {
+        Logger.getInstance().setLogLevel(Logger.LogLevel.valueOf(logLevel));
+        Logger.setAllowPii(allowPii);
+        Logger.getInstance().setExternalLogger(new ILoggerCallback() {
+            @Override
+            public void log(final String tag,
+                            final Logger.LogLevel logLevel,
+                            final String message,
+                            final boolean containsPII) {
+                // Messages are consumed, not written anywhere
+            }
+        });
+
+        mCache = new SharedPreferencesAccountCredentialCache(
+                new CacheKeyValueDelegate(),
+                new InMemorySharedPreferencesFileManager("cache_scan_" + credentialCount)
+        );
+        mAccount = CacheFixtures.populate(mCache, credentialCount);
+    }
+
+    @TearDown
+    public void tearDown() {
+        Logger.getInstance().setExternalLogger(null);
+        Logger.setAllowPii(false);
+    }
+
+    @Benchmark
+    public List<Credential> scanAccessTokens() {
+        return mCache.getCredentialsFilteredBy(
+                mAccount.getHomeAccountId(),
+                mAccount.getEnvironment(),
+                CredentialType.AccessToken,
+                CacheFixtures.CLIENT_ID,
+                mAccount.getRealm(),
+                CacheFixtures.TARGET,
+                null
+        );
+    }
+}
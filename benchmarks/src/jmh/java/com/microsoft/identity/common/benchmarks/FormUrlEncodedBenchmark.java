@@ -0,0 +1,71 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.benchmarks;
+
+import com.microsoft.identity.common.internal.net.FormUrlEncoder;
+import com.microsoft.identity.common.internal.net.ObjectMapper;
+import com.microsoft.identity.common.internal.providers.microsoft.microsoftsts.MicrosoftStsTokenRequest;
+import com.microsoft.identity.common.internal.providers.oauth2.TokenRequest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.UnsupportedEncodingException;
+import java.util.UUID;
+
+/**
+ * Form url encoding of a refresh token grant, the body of every silent token request. Both
+ * benchmarks produce the bytes that are posted; compare their gc.alloc.rate.norm to see what the
+ * JSON round trip of {@link ObjectMapper} costs over {@link FormUrlEncoder}.
+ */
+@State(Scope.Benchmark)
+public class FormUrlEncodedBenchmark {
+
+    private MicrosoftStsTokenRequest mTokenRequest;
+
+    @Setup
+    public void setUp() {
+        mTokenRequest = new MicrosoftStsTokenRequest();
+        mTokenRequest.setClientId(CacheFixtures.CLIENT_ID);
+        mTokenRequest.setScope(CacheFixtures.TARGET + " openid profile offline_access");
+        mTokenRequest.setRefreshToken(CacheFixtures.createToken(700));
+        mTokenRequest.setGrantType(TokenRequest.GrantTypes.REFRESH_TOKEN);
+        mTokenRequest.setRedirectUri("msauth://com.contoso/hash");
+        mTokenRequest.setCorrelationId(UUID.randomUUID());
+        mTokenRequest.setClientAppName("com.contoso");
+        mTokenRequest.setClientAppVersion("1.0");
+    }
+
+    @Benchmark
+    public byte[] serializeObjectToFormUrlEncoded() throws UnsupportedEncodingException {
+        return ObjectMapper.serializeObjectToFormUrlEncoded(mTokenRequest)
+                .getBytes(ObjectMapper.ENCODING_SCHEME);
+    }
+
+    @Benchmark
+    public byte[] formUrlEncoder() throws UnsupportedEncodingException {
+        return FormUrlEncoder.encode(mTokenRequest);
+    }
+}
@@ -0,0 +1,113 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.benchmarks;
+
+import com.microsoft.identity.common.internal.cache.ISharedPreferencesFileManager;
+import com.microsoft.identity.common.internal.util.Predicate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link ISharedPreferencesFileManager} backed by a map, so the cache can be benchmarked without
+ * SharedPreferences and without disk I/O. Values are stored as given, not encrypted.
+ */
+final class InMemorySharedPreferencesFileManager implements ISharedPreferencesFileManager {
+
+    private final String mFileName;
+    private final Map<String, String> mEntries = new ConcurrentHashMap<>();
+    private final AtomicLong mWriteGeneration = new AtomicLong();
+
+    InMemorySharedPreferencesFileManager(final String fileName) {
+        mFileName = fileName;
+    }
+
+    @Override
+    public void putString(final String key, final String value) {
+        mEntries.put(key, value);
+        mWriteGeneration.incrementAndGet();
+    }
+
+    @Override
+    public String getString(final String key) {
+        return mEntries.get(key);
+    }
+
+    @Override
+    public void putLong(final String key, final long value) {
+        putString(key, String.valueOf(value));
+    }
+
+    @Override
+    public long getLong(final String key) {
+        final String value = mEntries.get(key);
+        return null == value ? 0 : Long.parseLong(value);
+    }
+
+    @Override
+    public String getSharedPreferencesFileName() {
+        return mFileName;
+    }
+
+    @Override
+    public Map<String, String> getAll() {
+        return new HashMap<>(mEntries);
+    }
+
+    @Override
+    public Map<String, String> getAll(final Predicate<String> keyFilter) {
+        final Map<String, String> entries = new HashMap<>();
+
+        for (final Map.Entry<String, String> entry : mEntries.entrySet()) {
+            if (keyFilter.test(entry.getKey())) {
+                entries.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return entries;
+    }
+
+    @Override
+    public boolean contains(final String key) {
+        return mEntries.containsKey(key);
+    }
+
+    @Override
+    public void clear() {
+        mEntries.clear();
+        mWriteGeneration.incrementAndGet();
+    }
+
+    @Override
+    public void remove(final String key) {
+        mEntries.remove(key);
+        mWriteGeneration.incrementAndGet();
+    }
+
+    @Override
+    public long getWriteGeneration() {
+        return mWriteGeneration.get();
+    }
+}
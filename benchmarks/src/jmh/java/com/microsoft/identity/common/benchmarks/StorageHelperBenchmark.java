@@ -0,0 +1,91 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.benchmarks;
+
+import com.microsoft.identity.common.adal.internal.AuthenticationSettings;
+import com.microsoft.identity.common.adal.internal.cache.StorageHelper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+/**
+ * {@link StorageHelper} encryption and decryption of a credential sized value with a software
+ * (app supplied) key, with and without the decrypted value cache.
+ */
+@State(Scope.Benchmark)
+public class StorageHelperBenchmark {
+
+    @Param({"0", "256"})
+    public int decryptedValueCacheSize;
+
+    @Param({"1200"})
+    public int valueLength;
+
+    private StorageHelper mStorageHelper;
+
+    private String mClearText;
+
+    private String mEncrypted;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException, IOException {
+        final byte[] secretKey = new byte[32];
+        new SecureRandom().nextBytes(secretKey);
+        AuthenticationSettings.INSTANCE.setSecretKey(secretKey);
+        AuthenticationSettings.INSTANCE.setDecryptedValueCacheSize(decryptedValueCacheSize);
+
+        mStorageHelper = new StorageHelper(new BenchmarkContext()) {
+            @Override
+            protected boolean isBrokerProcess() {
+                // There is no ActivityManager to ask
+                return false;
+            }
+        };
+        mClearText = CacheFixtures.createToken(valueLength);
+        mEncrypted = mStorageHelper.encrypt(mClearText);
+    }
+
+    @TearDown
+    public void tearDown() {
+        AuthenticationSettings.INSTANCE.clearSecretKeysForTestCases();
+        AuthenticationSettings.INSTANCE.setDecryptedValueCacheSize(0);
+    }
+
+    @Benchmark
+    public String encrypt() throws GeneralSecurityException, IOException {
+        return mStorageHelper.encrypt(mClearText);
+    }
+
+    @Benchmark
+    public String decrypt() throws GeneralSecurityException, IOException {
+        return mStorageHelper.decrypt(mEncrypted);
+    }
+}
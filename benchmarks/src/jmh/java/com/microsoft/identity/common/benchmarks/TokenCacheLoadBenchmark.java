@@ -0,0 +1,95 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.benchmarks;
+
+import com.microsoft.identity.common.internal.authscheme.AbstractAuthenticationScheme;
+import com.microsoft.identity.common.internal.authscheme.BearerAuthenticationSchemeInternal;
+import com.microsoft.identity.common.internal.cache.CacheKeyValueDelegate;
+import com.microsoft.identity.common.internal.cache.IAccountCredentialCache;
+import com.microsoft.identity.common.internal.cache.ICacheRecord;
+import com.microsoft.identity.common.internal.cache.IndexedAccountCredentialCache;
+import com.microsoft.identity.common.internal.cache.MicrosoftStsAccountCredentialAdapter;
+import com.microsoft.identity.common.internal.cache.MsalOAuth2TokenCache;
+import com.microsoft.identity.common.internal.cache.SharedPreferencesAccountCredentialCache;
+import com.microsoft.identity.common.internal.dto.AccountRecord;
+import com.microsoft.identity.common.internal.logging.Logger;
+import com.microsoft.identity.common.internal.providers.microsoft.MicrosoftAccount;
+import com.microsoft.identity.common.internal.providers.microsoft.MicrosoftRefreshToken;
+import com.microsoft.identity.common.internal.providers.microsoft.microsoftsts.MicrosoftStsAuthorizationRequest;
+import com.microsoft.identity.common.internal.providers.microsoft.microsoftsts.MicrosoftStsOAuth2Strategy;
+import com.microsoft.identity.common.internal.providers.microsoft.microsoftsts.MicrosoftStsTokenResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link MsalOAuth2TokenCache#load} of one account's tokens from caches of increasing size, with
+ * and without the in-memory credential index.
+ */
+@State(Scope.Benchmark)
+public class TokenCacheLoadBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int credentialCount;
+
+    @Param({"indexed", "shared_preferences"})
+    public String cache;
+
+    private MsalOAuth2TokenCache<
+            MicrosoftStsOAuth2Strategy,
+            MicrosoftStsAuthorizationRequest,
+            MicrosoftStsTokenResponse,
+            MicrosoftAccount,
+            MicrosoftRefreshToken> mTokenCache;
+
+    private AccountRecord mAccount;
+
+    private final AbstractAuthenticationScheme mAuthScheme = new BearerAuthenticationSchemeInternal();
+
+    @Setup
+    public void setUp() {
+        Logger.getInstance().setLogLevel(Logger.LogLevel.WARN);
+
+        final CacheKeyValueDelegate cacheKeyValueDelegate = new CacheKeyValueDelegate();
+        final InMemorySharedPreferencesFileManager fileManager =
+                new InMemorySharedPreferencesFileManager("token_cache_" + cache + "_" + credentialCount);
+        final IAccountCredentialCache accountCredentialCache = "indexed".equals(cache)
+                ? IndexedAccountCredentialCache.getInstance(cacheKeyValueDelegate, fileManager)
+                : new SharedPreferencesAccountCredentialCache(cacheKeyValueDelegate, fileManager);
+
+        mAccount = CacheFixtures.populate(accountCredentialCache, credentialCount);
+        mTokenCache = new MsalOAuth2TokenCache<>(
+                new BenchmarkContext(),
+                accountCredentialCache,
+                new MicrosoftStsAccountCredentialAdapter()
+        );
+    }
+
+    @Benchmark
+    public ICacheRecord load() {
+        return mTokenCache.load(CacheFixtures.CLIENT_ID, CacheFixtures.TARGET, mAccount, mAuthScheme);
+    }
+}
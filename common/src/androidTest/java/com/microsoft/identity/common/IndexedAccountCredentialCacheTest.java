@@ -0,0 +1,264 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common;
+
+import android.content.Context;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.microsoft.identity.common.adal.internal.AndroidSecretKeyEnabledHelper;
+import com.microsoft.identity.common.adal.internal.cache.StorageHelper;
+import com.microsoft.identity.common.internal.cache.CacheKeyValueDelegate;
+import com.microsoft.identity.common.internal.cache.IndexedAccountCredentialCache;
+import com.microsoft.identity.common.internal.cache.SharedPreferencesAccountCredentialCache;
+import com.microsoft.identity.common.internal.cache.SharedPreferencesFileManager;
+import com.microsoft.identity.common.internal.dto.AccessTokenRecord;
+import com.microsoft.identity.common.internal.dto.Credential;
+import com.microsoft.identity.common.internal.dto.CredentialType;
+import com.microsoft.identity.common.internal.dto.RefreshTokenRecord;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static com.microsoft.identity.common.SharedPreferencesAccountCredentialCacheTest.CACHED_AT;
+import static com.microsoft.identity.common.SharedPreferencesAccountCredentialCacheTest.CLIENT_ID;
+import static com.microsoft.identity.common.SharedPreferencesAccountCredentialCacheTest.ENVIRONMENT;
+import static com.microsoft.identity.common.SharedPreferencesAccountCredentialCacheTest.EXPIRES_ON;
+import static com.microsoft.identity.common.SharedPreferencesAccountCredentialCacheTest.HOME_ACCOUNT_ID;
+import static com.microsoft.identity.common.SharedPreferencesAccountCredentialCacheTest.REALM;
+import static com.microsoft.identity.common.SharedPreferencesAccountCredentialCacheTest.REALM2;
+import static com.microsoft.identity.common.SharedPreferencesAccountCredentialCacheTest.SECRET;
+import static com.microsoft.identity.common.SharedPreferencesAccountCredentialCacheTest.TARGET;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class IndexedAccountCredentialCacheTest extends AndroidSecretKeyEnabledHelper {
+
+    private static final String sAccountCredentialSharedPreferences =
+            "com.microsoft.identity.client.account_credential_cache";
+
+    private IndexedAccountCredentialCache mIndexedCache;
+    private SharedPreferencesAccountCredentialCache mUnindexedCache;
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        final Context testContext = InstrumentationRegistry.getTargetContext();
+        final CacheKeyValueDelegate delegate = new CacheKeyValueDelegate();
+        mIndexedCache = new IndexedAccountCredentialCache(
+                delegate,
+                new SharedPreferencesFileManager(
+                        testContext,
+                        sAccountCredentialSharedPreferences,
+                        new StorageHelper(testContext)
+                )
+        );
+        // A separate file manager on the same file, as another cache in this process would have
+        mUnindexedCache = new SharedPreferencesAccountCredentialCache(
+                delegate,
+                new SharedPreferencesFileManager(
+                        testContext,
+                        sAccountCredentialSharedPreferences,
+                        new StorageHelper(testContext)
+                )
+        );
+    }
+
+    @After
+    public void tearDown() {
+        mIndexedCache.clearAll();
+    }
+
+    @Test
+    public void testWriteThrough() {
+        final AccessTokenRecord accessToken = newAccessToken(REALM);
+        mIndexedCache.saveCredential(accessToken);
+
+        final List<Credential> persisted = mUnindexedCache.getCredentials();
+        assertEquals(1, persisted.size());
+        assertEquals(accessToken, persisted.get(0));
+    }
+
+    @Test
+    public void testFilteredLookupMatchesUnindexedCache() {
+        mIndexedCache.saveCredential(newAccessToken(REALM));
+        mIndexedCache.saveCredential(newAccessToken(REALM2));
+        mIndexedCache.saveCredential(newRefreshToken());
+
+        final List<Credential> indexed = mIndexedCache.getCredentialsFilteredBy(
+                HOME_ACCOUNT_ID,
+                ENVIRONMENT,
+                CredentialType.AccessToken,
+                CLIENT_ID,
+                REALM,
+                TARGET,
+                null
+        );
+        final List<Credential> unindexed = mUnindexedCache.getCredentialsFilteredBy(
+                HOME_ACCOUNT_ID,
+                ENVIRONMENT,
+                CredentialType.AccessToken,
+                CLIENT_ID,
+                REALM,
+                TARGET,
+                null
+        );
+
+        assertEquals(1, indexed.size());
+        assertEquals(unindexed, indexed);
+    }
+
+    @Test
+    public void testWildcardLookup() {
+        mIndexedCache.saveCredential(newAccessToken(REALM));
+        mIndexedCache.saveCredential(newAccessToken(REALM2));
+        mIndexedCache.saveCredential(newRefreshToken());
+
+        final List<Credential> all = mIndexedCache.getCredentialsFilteredBy(
+                HOME_ACCOUNT_ID.toUpperCase(),
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+
+        assertEquals(3, all.size());
+    }
+
+    @Test
+    public void testRemoveCredential() {
+        final RefreshTokenRecord refreshToken = newRefreshToken();
+        mIndexedCache.saveCredential(refreshToken);
+
+        assertTrue(mIndexedCache.removeCredential(refreshToken));
+        assertFalse(mIndexedCache.removeCredential(refreshToken));
+        assertTrue(mIndexedCache.getCredentials().isEmpty());
+        assertTrue(mUnindexedCache.getCredentials().isEmpty());
+    }
+
+    @Test
+    public void testExternalWriteInvalidatesIndex() throws InterruptedException {
+        final AccessTokenRecord accessToken = newAccessToken(REALM);
+
+        // Populate the index while the cache is empty
+        assertTrue(mIndexedCache.getCredentials().isEmpty());
+
+        // Write through another cache instance backed by the same file, on a worker thread
+        final Thread writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                mUnindexedCache.saveCredential(accessToken);
+            }
+        });
+        writer.start();
+        writer.join();
+
+        // Seen straight away, without waiting for the main thread
+        final List<Credential> credentials = mIndexedCache.getCredentials();
+        assertEquals(1, credentials.size());
+        assertEquals(accessToken, credentials.get(0));
+    }
+
+    @Test
+    public void testExternalWriteAfterUnchangedSaveInvalidatesIndex() {
+        final AccessTokenRecord accessToken = newAccessToken(REALM);
+
+        // The second save does not change the stored value
+        mIndexedCache.saveCredential(accessToken);
+        mIndexedCache.saveCredential(accessToken);
+
+        final AccessTokenRecord renewed = newAccessToken(REALM);
+        renewed.setSecret("renewed-secret");
+        mUnindexedCache.saveCredential(renewed);
+
+        final List<Credential> credentials = mIndexedCache.getCredentials();
+        assertEquals(1, credentials.size());
+        assertEquals("renewed-secret", credentials.get(0).getSecret());
+    }
+
+    @Test
+    public void testSavesAreCopiedOnWrite() {
+        final AccessTokenRecord accessToken = newAccessToken(REALM);
+        mIndexedCache.saveCredential(accessToken);
+
+        // The saved instance is not the indexed record
+        accessToken.setSecret("mutated-after-save");
+
+        final Credential indexed = mIndexedCache.getCredentials().get(0);
+        assertEquals(SECRET, indexed.getSecret());
+        // Reads are served without a copy
+        assertSame(indexed, mIndexedCache.getCredentials().get(0));
+
+        // Saving replaces the indexed record, it leaves the one already handed out untouched
+        final AccessTokenRecord renewed = newAccessToken(REALM);
+        renewed.setSecret("renewed-secret");
+        mIndexedCache.saveCredential(renewed);
+
+        final List<Credential> credentials = mIndexedCache.getCredentials();
+        assertEquals(1, credentials.size());
+        assertEquals("renewed-secret", credentials.get(0).getSecret());
+        assertEquals(SECRET, indexed.getSecret());
+        assertTrue(mIndexedCache.removeCredential(credentials.get(0)));
+    }
+
+    @Test
+    public void testGetCredentialMissingKey() {
+        assertNull(mIndexedCache.getCredential("not-a-key"));
+    }
+
+    private static AccessTokenRecord newAccessToken(final String realm) {
+        final AccessTokenRecord accessToken = new AccessTokenRecord();
+        accessToken.setCachedAt(CACHED_AT);
+        accessToken.setExpiresOn(EXPIRES_ON);
+        accessToken.setSecret(SECRET);
+        accessToken.setHomeAccountId(HOME_ACCOUNT_ID);
+        accessToken.setRealm(realm);
+        accessToken.setEnvironment(ENVIRONMENT);
+        accessToken.setCredentialType(CredentialType.AccessToken.name());
+        accessToken.setClientId(CLIENT_ID);
+        accessToken.setTarget(TARGET);
+        return accessToken;
+    }
+
+    private static RefreshTokenRecord newRefreshToken() {
+        final RefreshTokenRecord refreshToken = new RefreshTokenRecord();
+        refreshToken.setCredentialType(CredentialType.RefreshToken.name());
+        refreshToken.setEnvironment(ENVIRONMENT);
+        refreshToken.setHomeAccountId(HOME_ACCOUNT_ID);
+        refreshToken.setClientId(CLIENT_ID);
+        refreshToken.setSecret(SECRET);
+        refreshToken.setTarget(TARGET);
+        return refreshToken;
+    }
+}
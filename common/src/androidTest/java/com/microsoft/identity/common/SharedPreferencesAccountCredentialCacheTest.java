@@ -31,6 +31,7 @@ import com.microsoft.identity.common.adal.internal.AndroidSecretKeyEnabledHelper
 import com.microsoft.identity.common.adal.internal.cache.StorageHelper;
 import com.microsoft.identity.common.internal.authscheme.BearerAuthenticationSchemeInternal;
 import com.microsoft.identity.common.internal.cache.CacheKeyValueDelegate;
+import com.microsoft.identity.common.internal.cache.CredentialFilter;
 import com.microsoft.identity.common.internal.cache.SharedPreferencesAccountCredentialCache;
 import com.microsoft.identity.common.internal.cache.SharedPreferencesFileManager;
 import com.microsoft.identity.common.internal.dto.AccessTokenRecord;
@@ -45,6 +46,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static com.microsoft.identity.common.internal.cache.CacheKeyValueDelegate.CACHE_VALUE_SEPARATOR;
@@ -1378,6 +1380,72 @@ public class SharedPreferencesAccountCredentialCacheTest extends AndroidSecretKe
         assertEquals(0, mSharedPreferencesAccountCredentialCache.getCredentials().size());
     }
 
+    @Test
+    public void getCredentialsFilteredByMultipleFilters() {
+        // Save an AccessToken into the cache
+        final AccessTokenRecord accessToken = new AccessTokenRecord();
+        accessToken.setCredentialType(CredentialType.AccessToken.name());
+        accessToken.setHomeAccountId(HOME_ACCOUNT_ID);
+        accessToken.setRealm(REALM);
+        accessToken.setEnvironment(ENVIRONMENT);
+        accessToken.setClientId(CLIENT_ID);
+        accessToken.setTarget(TARGET);
+        accessToken.setCachedAt(CACHED_AT);
+        accessToken.setExpiresOn(EXPIRES_ON);
+        accessToken.setSecret(SECRET);
+        mSharedPreferencesAccountCredentialCache.saveCredential(accessToken);
+
+        // Save a RefreshToken into the cache
+        final RefreshTokenRecord refreshToken = new RefreshTokenRecord();
+        refreshToken.setCredentialType(CredentialType.RefreshToken.name());
+        refreshToken.setEnvironment(ENVIRONMENT);
+        refreshToken.setHomeAccountId(HOME_ACCOUNT_ID);
+        refreshToken.setClientId(CLIENT_ID);
+        refreshToken.setSecret(SECRET);
+        refreshToken.setTarget(TARGET);
+        mSharedPreferencesAccountCredentialCache.saveCredential(refreshToken);
+
+        final List<List<Credential>> results =
+                mSharedPreferencesAccountCredentialCache.getCredentialsFilteredBy(
+                        Arrays.asList(
+                                new CredentialFilter(
+                                        HOME_ACCOUNT_ID,
+                                        ENVIRONMENT,
+                                        CredentialType.AccessToken,
+                                        CLIENT_ID,
+                                        REALM,
+                                        TARGET,
+                                        null
+                                ),
+                                new CredentialFilter(
+                                        HOME_ACCOUNT_ID,
+                                        ENVIRONMENT,
+                                        CredentialType.RefreshToken,
+                                        CLIENT_ID,
+                                        null,
+                                        null,
+                                        null
+                                ),
+                                new CredentialFilter(
+                                        HOME_ACCOUNT_ID,
+                                        ENVIRONMENT,
+                                        CredentialType.IdToken,
+                                        CLIENT_ID,
+                                        REALM,
+                                        null,
+                                        null
+                                )
+                        )
+                );
+
+        assertEquals(3, results.size());
+        assertEquals(1, results.get(0).size());
+        assertEquals(accessToken, results.get(0).get(0));
+        assertEquals(1, results.get(1).size());
+        assertEquals(refreshToken, results.get(1).get(0));
+        assertTrue(results.get(2).isEmpty());
+    }
+
     @Test
     public void clearAll() {
         // Save an Account into the cache
@@ -451,6 +451,42 @@ public class StorageHelperTests extends AndroidSecretKeyEnabledHelper {
         assertTrue("Decrypted data is same", decryptedValue.equals(unencryptedValue));
     }
 
+    @Test
+    public void testDecryptWithDecryptedValueCache() throws IOException, GeneralSecurityException {
+        final Context context = getInstrumentation().getTargetContext();
+        final StorageHelper storageHelper = new StorageHelper(context);
+        AuthenticationSettings.INSTANCE.setDecryptedValueCacheSize(10);
+
+        try {
+            final String unencryptedValue = "SomeValue1234";
+            final String encryptedValue = storageHelper.encrypt(unencryptedValue);
+
+            assertEquals(unencryptedValue, storageHelper.decrypt(encryptedValue));
+            assertEquals(unencryptedValue, storageHelper.decrypt(encryptedValue));
+
+            // Tamper with the encrypted data, leaving the MAC digest as-is
+            final String prefix = encryptedValue.substring(0, 3);
+            final byte[] bytes = Base64.decode(encryptedValue.substring(3), Base64.DEFAULT);
+            bytes[5] ^= 1;
+            final String tamperedValue = prefix + new String(
+                    Base64.encode(bytes, Base64.NO_WRAP),
+                    AuthenticationConstants.ENCODING_UTF8
+            );
+
+            assertThrowsException(
+                    GeneralSecurityException.class,
+                    null,
+                    new AndroidTestHelper.ThrowableRunnable() {
+                        @Override
+                        public void run() throws GeneralSecurityException, IOException {
+                            storageHelper.decrypt(tamperedValue);
+                        }
+                    });
+        } finally {
+            AuthenticationSettings.INSTANCE.setDecryptedValueCacheSize(0);
+        }
+    }
+
     @Test
     public void testSecretKeySerialization() throws UnsupportedEncodingException {
         final Context context = getInstrumentation().getTargetContext();
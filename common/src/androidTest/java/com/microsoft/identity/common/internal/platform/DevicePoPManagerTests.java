@@ -45,6 +45,8 @@ import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
 
 @RunWith(AndroidJUnit4.class)
 public class DevicePoPManagerTests {
@@ -289,4 +291,59 @@ public class DevicePoPManagerTests {
         Assert.assertEquals(nonce, jwtClaimsSet.getClaim("nonce"));
         Assert.assertNotNull(jwtClaimsSet.getClaim("cnf"));
     }
+
+    @Test
+    public void testMintSignedAccessTokens()
+            throws ClientException, MalformedURLException, ParseException {
+        final String accessToken = "a_token_for_you";
+        final List<SignedHttpRequestParameters> requests = Arrays.asList(
+                SignedHttpRequestParameters.builder()
+                        .httpMethod("GET")
+                        .timestamp(12345)
+                        .requestUrl(new URL("https://www.contoso.com/path1"))
+                        .build(),
+                SignedHttpRequestParameters.builder()
+                        .httpMethod("POST")
+                        .timestamp(67890)
+                        .requestUrl(new URL("https://www.fabrikam.com/path2"))
+                        .nonce("a_nonce_value")
+                        .build()
+        );
+
+        mDevicePopManager.generateAsymmetricKey(mContext);
+        final List<String> shrs = mDevicePopManager.mintSignedAccessTokens(accessToken, requests);
+
+        Assert.assertEquals(requests.size(), shrs.size());
+        final String thumbprint = mDevicePopManager.getAsymmetricKeyThumbprint();
+        for (int ii = 0; ii < requests.size(); ii++) {
+            final SignedJWT jwt = SignedJWT.parse(shrs.get(ii));
+            final JWTClaimsSet jwtClaimsSet = jwt.getJWTClaimsSet();
+            Assert.assertEquals(thumbprint, jwt.getHeader().getKeyID());
+            Assert.assertEquals(accessToken, jwtClaimsSet.getClaim("at"));
+            Assert.assertEquals(requests.get(ii).getHttpMethod(), jwtClaimsSet.getClaim("m"));
+            Assert.assertEquals(requests.get(ii).getTimestamp(), jwtClaimsSet.getClaim("ts"));
+            Assert.assertEquals(requests.get(ii).getRequestUrl().getPath(), jwtClaimsSet.getClaim("p"));
+        }
+    }
+
+    @Test
+    public void testRegeneratedKeyIsUsedForSigning()
+            throws ClientException, MalformedURLException, ParseException {
+        mDevicePopManager.generateAsymmetricKey(mContext);
+        final String firstThumbprint = mDevicePopManager.getAsymmetricKeyThumbprint();
+
+        mDevicePopManager.clearAsymmetricKey();
+        final String secondThumbprint = mDevicePopManager.generateAsymmetricKey(mContext);
+        Assert.assertNotEquals(firstThumbprint, secondThumbprint);
+        Assert.assertEquals(secondThumbprint, mDevicePopManager.getAsymmetricKeyThumbprint());
+
+        final String shr = mDevicePopManager.mintSignedAccessToken(
+                "GET",
+                12345,
+                new URL("https://www.contoso.com"),
+                "a_token_for_you",
+                null
+        );
+        Assert.assertEquals(secondThumbprint, SignedJWT.parse(shr).getHeader().getKeyID());
+    }
 }
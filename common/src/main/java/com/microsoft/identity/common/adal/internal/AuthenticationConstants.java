@@ -647,7 +647,7 @@ public final class AuthenticationConstants {
         /**
          * The maximum broker protocol version that common supports.
          */
-        public static final String BROKER_PROTOCOL_VERSION_CODE = "5.0";
+        public static final String BROKER_PROTOCOL_VERSION_CODE = "6.0";
 
         /**
          * The key of maximum broker protocol version that client advertised.
@@ -1095,6 +1095,11 @@ public final class AuthenticationConstants {
          */
         public static final String BROKER_REQUEST_V2_COMPRESSED = "broker_request_v2_compressed";
 
+        /**
+         * String to send MSAL V2 Request params as a binary payload.
+         */
+        public static final String BROKER_REQUEST_V2_BINARY = "broker_request_v2_binary";
+
         /**
          * String to return Msal V2 response.
          */
@@ -1105,6 +1110,11 @@ public final class AuthenticationConstants {
          */
         public static final String BROKER_RESULT_V2_COMPRESSED = "broker_result_v2_compressed";
 
+        /**
+         * String to return MSAL V2 response as a binary payload.
+         */
+        public static final String BROKER_RESULT_V2_BINARY = "broker_result_v2_binary";
+
         /**
          * Represents the broker device mode boolean (true = shared device mode).
          * This is used to determine what PublicClientApplication MSAL will return to its caller.
@@ -83,6 +83,8 @@ public enum AuthenticationSettings {
 
     private int mReadTimeOut = DEFAULT_READ_CONNECT_TIMEOUT;
 
+    private int mDecryptedValueCacheSize = 0;
+
     /**
      * Get bytes to derive secretKey to use in encrypt/decrypt.
      *
@@ -391,5 +393,29 @@ public enum AuthenticationSettings {
     public boolean getDisableWebViewHardwareAcceleration() {
         return mEnableHardwareAcceleration;
     }
-}
 
+    /**
+     * Gets the number of decrypted cache values retained in memory.
+     *
+     * @return the number of decrypted values retained, 0 if disabled.
+     * @see #setDecryptedValueCacheSize(int)
+     */
+    public int getDecryptedValueCacheSize() {
+        return mDecryptedValueCacheSize;
+    }
+
+    /**
+     * Sets the number of decrypted cache values to retain in memory, so that repeated reads of
+     * unchanged entries do not need to be decrypted again. Retained values are keyed by the MAC
+     * of their encrypted blob. Disabled (0) by default.
+     *
+     * @param size the non-negative number of decrypted values to retain.
+     */
+    public void setDecryptedValueCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Invalid size");
+        }
+
+        mDecryptedValueCacheSize = size;
+    }
+}
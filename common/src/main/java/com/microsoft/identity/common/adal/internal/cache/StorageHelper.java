@@ -56,7 +56,6 @@ import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.SecureRandom;
@@ -157,6 +156,16 @@ public class StorageHelper implements IStorageHelper {
 
     private static final String ANDROID_KEY_STORE = "AndroidKeyStore";
 
+    /**
+     * Derived HMAC keys, Cipher/Mac instances and decrypted values, shared by all instances.
+     */
+    private static final StorageHelperCryptoContext sCryptoContext = new StorageHelperCryptoContext(
+            CIPHER_ALGORITHM,
+            HMAC_ALGORITHM,
+            HMAC_KEY_HASH_ALGORITHM,
+            KEYSPEC_ALGORITHM
+    );
+
     /**
      * Type of Secret key to be used.
      */
@@ -246,8 +255,8 @@ public class StorageHelper implements IStorageHelper {
         final IvParameterSpec ivSpec = new IvParameterSpec(iv);
 
         // Set to encrypt mode
-        final Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
-        final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        final Cipher cipher = sCryptoContext.getCipher();
+        final Mac mac = sCryptoContext.getMac();
         cipher.init(Cipher.ENCRYPT_MODE, mEncryptionKey, ivSpec);
 
         final byte[] encrypted = cipher.doFinal(bytes);
@@ -272,6 +281,15 @@ public class StorageHelper implements IStorageHelper {
         System.arraycopy(macDigest, 0, blobVerAndEncryptedDataAndIVAndMacDigest, blobVersion.length
                 + encrypted.length + iv.length, macDigest.length);
 
+        // The value is likely to be read back shortly; retain it if enabled
+        sCryptoContext.setMaxDecryptedValues(AuthenticationSettings.INSTANCE.getDecryptedValueCacheSize());
+        sCryptoContext.putDecryptedValue(
+                blobVerAndEncryptedDataAndIVAndMacDigest,
+                blobVersion.length + encrypted.length + iv.length,
+                mEncryptionHMACKey,
+                clearText
+        );
+
         final String encryptedText = new String(Base64.encode(blobVerAndEncryptedDataAndIVAndMacDigest,
                 Base64.NO_WRAP), AuthenticationConstants.ENCODING_UTF8);
         Logger.verbose(TAG + methodName, "Finished encryption");
@@ -307,6 +325,8 @@ public class StorageHelper implements IStorageHelper {
             }
         }
 
+        sCryptoContext.setMaxDecryptedValues(AuthenticationSettings.INSTANCE.getDecryptedValueCacheSize());
+
         final String packageName = getPackageName();
         final List<KeyType> keysForDecryptionType = getKeysForDecryptionType(encryptedBlob, packageName);
 
@@ -455,11 +475,18 @@ public class StorageHelper implements IStorageHelper {
             throw new IOException("Invalid byte array input for decryption.");
         }
 
+        // Skip verification and decryption entirely if this exact blob was seen before
+        final String retained = sCryptoContext.getDecryptedValue(bytes, macIndex, hmacKey);
+
+        if (null != retained) {
+            return retained;
+        }
+
         // Calculate digest again and compare to the appended value
         // incoming message: version+encryptedData+IV+Digest
         // Digest of EncryptedData+IV excluding key Version and digest
-        final Cipher cipher = Cipher.getInstance(CIPHER_ALGORITHM);
-        final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        final Cipher cipher = sCryptoContext.getCipher();
+        final Mac mac = sCryptoContext.getMac();
         mac.init(hmacKey);
         mac.update(bytes, 0, macIndex);
         final byte[] macDigest = mac.doFinal();
@@ -487,6 +514,8 @@ public class StorageHelper implements IStorageHelper {
                 AuthenticationConstants.ENCODING_UTF8
         );
 
+        sCryptoContext.putDecryptedValue(bytes, macIndex, hmacKey, decrypted);
+
         return decrypted;
     }
 
@@ -778,14 +807,7 @@ public class StorageHelper implements IStorageHelper {
      * @throws NoSuchAlgorithmException
      */
     private SecretKey getHMacKey(final SecretKey key) throws NoSuchAlgorithmException {
-        // Some keys may not produce byte[] with getEncoded
-        final byte[] encodedKey = key.getEncoded();
-        if (encodedKey != null) {
-            final MessageDigest digester = MessageDigest.getInstance(HMAC_KEY_HASH_ALGORITHM);
-            return new SecretKeySpec(digester.digest(encodedKey), KEYSPEC_ALGORITHM);
-        }
-
-        return key;
+        return sCryptoContext.getHMacKey(key);
     }
 
     private char getEncodeVersionLengthPrefix() {
@@ -860,6 +882,8 @@ public class StorageHelper implements IStorageHelper {
                 Logger.verbose(TAG + methodName, "Delete KeyFile failed");
             }
         }
+
+        sCryptoContext.clear();
     }
 
     @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
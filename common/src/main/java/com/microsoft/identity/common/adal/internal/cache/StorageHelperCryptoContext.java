@@ -0,0 +1,258 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.adal.internal.cache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Crypto state shared by {@link StorageHelper} instances: derived HMAC keys memoized per
+ * {@link SecretKey}, per-thread {@link Cipher} and {@link Mac} instances and an optional,
+ * bounded cache of decrypted values keyed by the MAC digest of their encrypted blob.
+ */
+final class StorageHelperCryptoContext {
+
+    /**
+     * The maximum number of derived HMAC keys to retain. Only a handful of keys are ever in use.
+     */
+    private static final int MAX_HMAC_KEYS = 8;
+
+    private final String mCipherAlgorithm;
+    private final String mHmacAlgorithm;
+    private final String mHmacKeyHashAlgorithm;
+    private final String mKeySpecAlgorithm;
+
+    private final Map<SecretKey, SecretKey> mHmacKeys =
+            new LinkedHashMap<SecretKey, SecretKey>(MAX_HMAC_KEYS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<SecretKey, SecretKey> eldest) {
+                    return size() > MAX_HMAC_KEYS;
+                }
+            };
+
+    private final ThreadLocal<Cipher> mCipher = new ThreadLocal<>();
+    private final ThreadLocal<Mac> mMac = new ThreadLocal<>();
+
+    private final Map<ByteBuffer, DecryptedValue> mDecryptedValues =
+            new LinkedHashMap<ByteBuffer, DecryptedValue>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<ByteBuffer, DecryptedValue> eldest) {
+                    return size() > mMaxDecryptedValues;
+                }
+            };
+
+    private int mMaxDecryptedValues;
+
+    StorageHelperCryptoContext(@NonNull final String cipherAlgorithm,
+                               @NonNull final String hmacAlgorithm,
+                               @NonNull final String hmacKeyHashAlgorithm,
+                               @NonNull final String keySpecAlgorithm) {
+        mCipherAlgorithm = cipherAlgorithm;
+        mHmacAlgorithm = hmacAlgorithm;
+        mHmacKeyHashAlgorithm = hmacKeyHashAlgorithm;
+        mKeySpecAlgorithm = keySpecAlgorithm;
+    }
+
+    /**
+     * Derive HMAC key from given key, reusing a previously derived key where possible.
+     *
+     * @param key SecretKey from which HMAC key has to be derived
+     * @return SecretKey
+     * @throws NoSuchAlgorithmException
+     */
+    @NonNull
+    SecretKey getHMacKey(@NonNull final SecretKey key) throws NoSuchAlgorithmException {
+        synchronized (mHmacKeys) {
+            final SecretKey hmacKey = mHmacKeys.get(key);
+
+            if (null != hmacKey) {
+                return hmacKey;
+            }
+        }
+
+        // Some keys may not produce byte[] with getEncoded
+        final byte[] encodedKey = key.getEncoded();
+
+        if (encodedKey == null) {
+            return key;
+        }
+
+        final MessageDigest digester = MessageDigest.getInstance(mHmacKeyHashAlgorithm);
+        final SecretKey hmacKey = new SecretKeySpec(digester.digest(encodedKey), mKeySpecAlgorithm);
+
+        synchronized (mHmacKeys) {
+            mHmacKeys.put(key, hmacKey);
+        }
+
+        return hmacKey;
+    }
+
+    /**
+     * Gets the {@link Cipher} of the calling thread. Callers must (re-)init it before use.
+     */
+    @NonNull
+    Cipher getCipher() throws GeneralSecurityException {
+        Cipher cipher = mCipher.get();
+
+        if (null == cipher) {
+            cipher = Cipher.getInstance(mCipherAlgorithm);
+            mCipher.set(cipher);
+        }
+
+        return cipher;
+    }
+
+    /**
+     * Gets the {@link Mac} of the calling thread. Callers must (re-)init it before use.
+     */
+    @NonNull
+    Mac getMac() throws GeneralSecurityException {
+        Mac mac = mMac.get();
+
+        if (null == mac) {
+            mac = Mac.getInstance(mHmacAlgorithm);
+            mMac.set(mac);
+        }
+
+        return mac;
+    }
+
+    /**
+     * Sets the maximum number of decrypted values to retain. 0 disables the cache.
+     */
+    void setMaxDecryptedValues(final int maxDecryptedValues) {
+        synchronized (mDecryptedValues) {
+            if (mMaxDecryptedValues == maxDecryptedValues) {
+                return;
+            }
+
+            mMaxDecryptedValues = maxDecryptedValues;
+
+            // Shrink to the new bound, evicting the least recently used values first
+            final Iterator<ByteBuffer> iterator = mDecryptedValues.keySet().iterator();
+
+            while (mDecryptedValues.size() > mMaxDecryptedValues && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the previously decrypted value of the supplied blob, if it was decrypted (or
+     * encrypted) with the same HMAC key and is still retained.
+     *
+     * @param bytes    The encrypted blob: version+encryptedData+IV+Digest.
+     * @param macIndex The offset of the MAC digest within the blob.
+     * @param hmacKey  The HMAC key the blob would be verified with.
+     * @return The decrypted value or null, if not retained.
+     */
+    @Nullable
+    String getDecryptedValue(@NonNull final byte[] bytes,
+                             final int macIndex,
+                             @NonNull final SecretKey hmacKey) {
+        synchronized (mDecryptedValues) {
+            if (mMaxDecryptedValues <= 0) {
+                return null;
+            }
+
+            final DecryptedValue value = mDecryptedValues.get(
+                    ByteBuffer.wrap(bytes, macIndex, bytes.length - macIndex).slice()
+            );
+
+            // The digest alone is not trusted; the whole blob must be the one that was verified
+            if (null != value
+                    && value.mHmacKey.equals(hmacKey)
+                    && Arrays.equals(value.mBytes, bytes)) {
+                return value.mPlainText;
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Retains the decrypted value of the supplied (verified) blob, if the cache is enabled.
+     *
+     * @param bytes     The encrypted blob: version+encryptedData+IV+Digest.
+     * @param macIndex  The offset of the MAC digest within the blob.
+     * @param hmacKey   The HMAC key the blob was verified with.
+     * @param plainText The decrypted value.
+     */
+    void putDecryptedValue(@NonNull final byte[] bytes,
+                           final int macIndex,
+                           @NonNull final SecretKey hmacKey,
+                           @NonNull final String plainText) {
+        synchronized (mDecryptedValues) {
+            if (mMaxDecryptedValues <= 0) {
+                return;
+            }
+
+            mDecryptedValues.put(
+                    ByteBuffer.wrap(Arrays.copyOfRange(bytes, macIndex, bytes.length)),
+                    new DecryptedValue(bytes.clone(), hmacKey, plainText)
+            );
+        }
+    }
+
+    /**
+     * Discards all memoized keys and decrypted values.
+     */
+    void clear() {
+        synchronized (mHmacKeys) {
+            mHmacKeys.clear();
+        }
+
+        synchronized (mDecryptedValues) {
+            mDecryptedValues.clear();
+        }
+    }
+
+    private static final class DecryptedValue {
+        private final byte[] mBytes;
+        private final SecretKey mHmacKey;
+        private final String mPlainText;
+
+        DecryptedValue(@NonNull final byte[] bytes,
+                       @NonNull final SecretKey hmacKey,
+                       @NonNull final String plainText) {
+            mBytes = bytes;
+            mHmacKey = hmacKey;
+            mPlainText = plainText;
+        }
+    }
+}
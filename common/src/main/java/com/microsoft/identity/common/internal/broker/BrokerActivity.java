@@ -95,10 +95,11 @@ public final class BrokerActivity extends Activity {
     protected void onActivityResult(int requestCode, int resultCode, Intent data) {
 
         final String methodName = ":onActivityResult";
-        Logger.info(TAG + methodName,
-                "Result received from Broker "
-                        + "Request code: " + requestCode
-                        + " Result code: " + requestCode
+        Logger.infoFormat(
+                TAG + methodName,
+                "Result received from Broker Request code: %s Result code: %s",
+                requestCode,
+                requestCode
         );
 
         if (resultCode == AuthenticationConstants.UIResponse.TOKEN_BROKER_RESPONSE ||
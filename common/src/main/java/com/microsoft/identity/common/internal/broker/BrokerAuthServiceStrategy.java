@@ -45,7 +45,6 @@ import com.microsoft.identity.common.internal.telemetry.events.BrokerEndEvent;
 import com.microsoft.identity.common.internal.telemetry.events.BrokerStartEvent;
 
 import java.util.List;
-import java.util.concurrent.ExecutionException;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -96,7 +95,8 @@ public class BrokerAuthServiceStrategy extends BrokerBaseStrategy {
     }
 
     /**
-     * Perform an operation with Broker's MicrosoftAuthService on a background thread.
+     * Perform an operation with Broker's MicrosoftAuthService on a background thread, over the
+     * connection kept by {@link MicrosoftAuthServiceConnectionManager}.
      *
      * @param appContext           app context.
      * @param authServiceOperation the task to be performed.
@@ -114,19 +114,18 @@ public class BrokerAuthServiceStrategy extends BrokerBaseStrategy {
         );
 
         final T result;
-        final IMicrosoftAuthService service;
-        final MicrosoftAuthClient client = new MicrosoftAuthClient(appContext);
+        final MicrosoftAuthServiceConnectionManager connectionManager =
+                MicrosoftAuthServiceConnectionManager.getInstance();
+        MicrosoftAuthServiceConnectionManager.Connection connection = null;
         try {
-            //Do we want a time out here?
-            final MicrosoftAuthServiceFuture authServiceFuture = client.connect();
-            service = authServiceFuture.get();
-            result = authServiceOperation.perform(service);
-        } catch (final RemoteException | InterruptedException | ExecutionException e) {
-            final String errorDescription;
-            if (e instanceof RemoteException) {
-                errorDescription = "RemoteException occurred while attempting to invoke remote service";
-            } else {
-                errorDescription = "Exception occurred while awaiting (get) return of MicrosoftAuthService";
+            connection = connectionManager.acquire(appContext);
+            result = authServiceOperation.perform(connectionManager.getService(connection));
+        } catch (final RemoteException e) {
+            final String errorDescription = "RemoteException occurred while attempting to invoke remote service";
+
+            // The binder may be dead; don't hand it to the next operation
+            if (connection != null) {
+                connectionManager.invalidate(connection);
             }
 
             Logger.error(TAG + methodName, errorDescription, e);
@@ -148,7 +147,9 @@ public class BrokerAuthServiceStrategy extends BrokerBaseStrategy {
                             .putErrorDescription(e.getMessage()));
             throw e;
         } finally {
-            client.disconnect();
+            if (connection != null) {
+                connectionManager.release(connection);
+            }
         }
 
         Telemetry.emit(
@@ -111,7 +111,9 @@ public class BrokerContentProviderStrategy extends BrokerBaseStrategy {
                 parameters.getAndroidApplicationContext(),
                 contentProviderOperation.getUriPath()
         );
-        Logger.info(TAG + methodName, "Request to BrokerContentProvider for uri path " +
+        Logger.infoFormat(
+                TAG + methodName,
+                "Request to BrokerContentProvider for uri path %s",
                 contentProviderOperation.getUriPath()
         );
 
@@ -442,8 +444,9 @@ public class BrokerContentProviderStrategy extends BrokerBaseStrategy {
     }
 
     private Uri getContentProviderURI(@NonNull final Context context, @NonNull final String path) {
-        final BrokerValidator brokerValidator = new BrokerValidator(context);
-        final String activeBrokerPackage = brokerValidator.getCurrentActiveBrokerPackageName();
+        final BrokerProtocolVersionCache.ActiveBroker activeBroker =
+                BrokerProtocolVersionCache.getInstance().getActiveBroker(context);
+        final String activeBrokerPackage = activeBroker == null ? null : activeBroker.getPackageName();
         final String authority = activeBrokerPackage + "." + AUTHORITY;
         return Uri.parse(CONTENT_SCHEME + authority + path);
     }
@@ -0,0 +1,367 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.broker;
+
+import androidx.annotation.NonNull;
+
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.SerializedName;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary encoding of broker IPC payloads ({@link BrokerRequest}, {@link BrokerResult}),
+ * used in place of gzipped JSON once both sides have negotiated a broker protocol version which
+ * supports it (see {@link com.microsoft.identity.common.internal.util.BrokerProtocolVersionUtil}).
+ * <p>
+ * The payload is a header (magic, schema version, field count) followed by one entry per non-null
+ * field, including those inherited from superclasses: the field's {@link SerializedName} (or its
+ * name, as for Gson), a type tag and the length-prefixed or fixed-width value. Fields are identified by name so that client and broker built from different versions of
+ * this library can skip fields they do not know. Fields which are neither strings nor primitives
+ * are embedded as JSON, written and read with the supplied Gson instances.
+ *
+ * @param <T> The payload type.
+ */
+public class BrokerPayloadBinaryCodec<T> {
+
+    /**
+     * The first two bytes of every payload.
+     */
+    static final short MAGIC = 0x4D42;
+
+    /**
+     * The schema version this codec writes, and the highest it reads.
+     */
+    static final byte SCHEMA_VERSION = 1;
+
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_BOOLEAN = 2;
+    private static final byte TYPE_INT = 3;
+    private static final byte TYPE_LONG = 4;
+    private static final byte TYPE_JSON = 5;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // Typical requests and results fit without the stream having to grow
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private final Gson mWriteGson;
+    private final Gson mReadGson;
+    private final Constructor<T> mConstructor;
+    private final TypeAdapter<T> mPayloadAdapter;
+    private final List<FieldBinding> mFields;
+    private final Map<String, FieldBinding> mFieldsByName;
+
+    /**
+     * The reflection metadata of one serialized field, computed once per codec.
+     */
+    private static final class FieldBinding {
+
+        private final Field mField;
+        private final String mName;
+        private final byte mType;
+
+        FieldBinding(@NonNull final Field field, @NonNull final String name, final byte type) {
+            mField = field;
+            mName = name;
+            mType = type;
+        }
+    }
+
+    /**
+     * Constructor of BrokerPayloadBinaryCodec.
+     *
+     * @param payloadClass The payload type.
+     * @param writeGson    The Gson used to write fields embedded as JSON.
+     * @param readGson     The Gson used to read fields embedded as JSON.
+     */
+    public BrokerPayloadBinaryCodec(@NonNull final Class<T> payloadClass,
+                                    @NonNull final Gson writeGson,
+                                    @NonNull final Gson readGson) {
+        mWriteGson = writeGson;
+        mReadGson = readGson;
+        mConstructor = getNoArgsConstructor(payloadClass);
+        mPayloadAdapter = readGson.getAdapter(payloadClass);
+
+        final List<FieldBinding> fields = new ArrayList<>();
+        final Map<String, FieldBinding> fieldsByName = new HashMap<>();
+
+        // Walk the class hierarchy as Gson does, so that inherited fields are kept
+        for (Class<?> current = payloadClass;
+             current != null && current != Object.class;
+             current = current.getSuperclass()) {
+            for (final Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())
+                        || Modifier.isTransient(field.getModifiers())
+                        || field.isSynthetic()) {
+                    continue;
+                }
+
+                // Name fields as Gson does, so that both encodings agree
+                final SerializedName serializedName = field.getAnnotation(SerializedName.class);
+                final String name = serializedName == null ? field.getName() : serializedName.value();
+
+                if (fieldsByName.containsKey(name)) {
+                    throw new IllegalArgumentException(
+                            payloadClass + " declares multiple fields named " + name
+                    );
+                }
+
+                field.setAccessible(true);
+                final FieldBinding binding = new FieldBinding(field, name, getType(field.getType()));
+                fields.add(binding);
+                fieldsByName.put(binding.mName, binding);
+            }
+        }
+
+        mFields = Collections.unmodifiableList(fields);
+        mFieldsByName = Collections.unmodifiableMap(fieldsByName);
+    }
+
+    /**
+     * Encodes the supplied payload.
+     *
+     * @param payload The payload to encode.
+     * @return The encoded bytes.
+     * @throws IOException If a field could not be read.
+     */
+    @NonNull
+    public byte[] encode(@NonNull final T payload) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        final DataOutputStream out = new DataOutputStream(bytes);
+
+        try {
+            final List<FieldBinding> presentFields = new ArrayList<>(mFields.size());
+            final List<Object> presentValues = new ArrayList<>(mFields.size());
+
+            for (final FieldBinding binding : mFields) {
+                final Object value = binding.mField.get(payload);
+                if (value != null) {
+                    presentFields.add(binding);
+                    presentValues.add(value);
+                }
+            }
+
+            out.writeShort(MAGIC);
+            out.writeByte(SCHEMA_VERSION);
+            out.writeShort(presentFields.size());
+
+            for (int i = 0; i < presentFields.size(); i++) {
+                final FieldBinding binding = presentFields.get(i);
+                out.writeUTF(binding.mName);
+                out.writeByte(binding.mType);
+                writeValue(out, binding, presentValues.get(i));
+            }
+        } catch (final IllegalAccessException e) {
+            throw new IOException("Unable to read broker payload field.", e);
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a payload produced by {@link #encode(Object)}, possibly by a different version of
+     * this library. Fields this version does not know are skipped.
+     *
+     * @param encoded The encoded bytes.
+     * @return The decoded payload.
+     * @throws IOException If the bytes are not a payload of a supported schema version.
+     */
+    @NonNull
+    public T decode(@NonNull final byte[] encoded) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded));
+
+        if (in.readShort() != MAGIC) {
+            throw new IOException("Not a binary broker payload.");
+        }
+
+        final byte schemaVersion = in.readByte();
+        if (schemaVersion > SCHEMA_VERSION) {
+            throw new IOException("Unsupported binary broker payload schema version: " + schemaVersion);
+        }
+
+        final T payload = newPayload();
+        final int fieldCount = in.readUnsignedShort();
+
+        try {
+            for (int i = 0; i < fieldCount; i++) {
+                final String name = in.readUTF();
+                final byte type = in.readByte();
+                final FieldBinding binding = mFieldsByName.get(name);
+
+                if (binding == null || binding.mType != type) {
+                    skipValue(in, type);
+                } else {
+                    binding.mField.set(payload, readValue(in, binding));
+                }
+            }
+        } catch (final IllegalAccessException e) {
+            throw new IOException("Unable to write broker payload field.", e);
+        }
+
+        return payload;
+    }
+
+    @Nullable
+    private static <T> Constructor<T> getNoArgsConstructor(@NonNull final Class<T> payloadClass) {
+        try {
+            final Constructor<T> constructor = payloadClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (final NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    @NonNull
+    private T newPayload() throws IOException {
+        if (mConstructor == null) {
+            // Payloads built through a Builder have no no-arg constructor; let Gson construct the
+            // instance, as it would when reading the JSON encoding
+            return mPayloadAdapter.fromJsonTree(new JsonObject());
+        }
+
+        try {
+            return mConstructor.newInstance();
+        } catch (final InstantiationException
+                | IllegalAccessException
+                | InvocationTargetException e) {
+            throw new IOException("Unable to construct broker payload.", e);
+        }
+    }
+
+    private void writeValue(@NonNull final DataOutputStream out,
+                            @NonNull final FieldBinding binding,
+                            @NonNull final Object value) throws IOException {
+        switch (binding.mType) {
+            case TYPE_STRING:
+                writeString(out, (String) value);
+                break;
+            case TYPE_BOOLEAN:
+                out.writeBoolean((Boolean) value);
+                break;
+            case TYPE_INT:
+                out.writeInt((Integer) value);
+                break;
+            case TYPE_LONG:
+                out.writeLong((Long) value);
+                break;
+            default:
+                writeString(out, mWriteGson.toJson(value, binding.mField.getGenericType()));
+                break;
+        }
+    }
+
+    private Object readValue(@NonNull final DataInputStream in,
+                             @NonNull final FieldBinding binding) throws IOException {
+        switch (binding.mType) {
+            case TYPE_STRING:
+                return readString(in);
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            case TYPE_INT:
+                return in.readInt();
+            case TYPE_LONG:
+                return in.readLong();
+            default:
+                return mReadGson.fromJson(readString(in), binding.mField.getGenericType());
+        }
+    }
+
+    private static void skipValue(@NonNull final DataInputStream in, final byte type) throws IOException {
+        switch (type) {
+            case TYPE_STRING:
+            case TYPE_JSON:
+                in.skipBytes(readLength(in));
+                break;
+            case TYPE_BOOLEAN:
+                in.skipBytes(1);
+                break;
+            case TYPE_INT:
+                in.skipBytes(4);
+                break;
+            case TYPE_LONG:
+                in.skipBytes(8);
+                break;
+            default:
+                throw new IOException("Unknown binary broker payload field type: " + type);
+        }
+    }
+
+    private static void writeString(@NonNull final DataOutputStream out,
+                                    @NonNull final String value) throws IOException {
+        final byte[] utf8 = value.getBytes(UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(@NonNull final DataInputStream in) throws IOException {
+        final byte[] utf8 = new byte[readLength(in)];
+        in.readFully(utf8);
+        return new String(utf8, UTF_8);
+    }
+
+    private static int readLength(@NonNull final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+
+        // A truncated or corrupt payload must fail as an IOException, like any other bad input
+        if (length < 0 || length > in.available()) {
+            throw new IOException("Invalid binary broker payload field length: " + length);
+        }
+
+        return length;
+    }
+
+    private static byte getType(@NonNull final Class<?> fieldType) {
+        if (fieldType == String.class) {
+            return TYPE_STRING;
+        } else if (fieldType == boolean.class || fieldType == Boolean.class) {
+            return TYPE_BOOLEAN;
+        } else if (fieldType == int.class || fieldType == Integer.class) {
+            return TYPE_INT;
+        } else if (fieldType == long.class || fieldType == Long.class) {
+            return TYPE_LONG;
+        } else {
+            return TYPE_JSON;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.broker;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.microsoft.identity.common.exception.ClientException;
+import com.microsoft.identity.common.internal.logging.Logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Remembers, per broker package and signing certificate hash, the broker protocol version
+ * negotiated through hello() and the strategy over which it was negotiated, so that subsequent
+ * broker operations can skip the handshake. The active broker package and its signature hash,
+ * which the key is built from, are cached as well so that building the key doesn't take a round
+ * trip to AccountManager and PackageManager.
+ * <p>
+ * Entries are dropped when any package is added, replaced or removed, and should be dropped by
+ * the caller when an operation over a cached strategy fails; either also drops the active broker.
+ */
+public class BrokerProtocolVersionCache {
+
+    private static final String TAG = BrokerProtocolVersionCache.class.getSimpleName();
+
+    private static final String KEY_DELIMITER = "|";
+
+    private static final BrokerProtocolVersionCache sInstance = new BrokerProtocolVersionCache();
+
+    private final ConcurrentMap<String, Entry> mEntries = new ConcurrentHashMap<>();
+    private final AtomicReference<ActiveBroker> mActiveBroker = new AtomicReference<>();
+    private final AtomicBoolean mPackageReceiverRegistered = new AtomicBoolean();
+
+    // Bumped whenever the active broker is dropped, so that a lookup racing with it is not cached
+    private long mActiveBrokerGeneration;
+
+    /**
+     * A negotiated protocol version and the strategy it was negotiated over.
+     */
+    public static final class Entry {
+
+        private final BrokerBaseStrategy mStrategy;
+        private final String mNegotiatedBrokerProtocolVersion;
+
+        Entry(@NonNull final BrokerBaseStrategy strategy,
+              @Nullable final String negotiatedBrokerProtocolVersion) {
+            mStrategy = strategy;
+            mNegotiatedBrokerProtocolVersion = negotiatedBrokerProtocolVersion;
+        }
+
+        @NonNull
+        public BrokerBaseStrategy getStrategy() {
+            return mStrategy;
+        }
+
+        @Nullable
+        public String getNegotiatedBrokerProtocolVersion() {
+            return mNegotiatedBrokerProtocolVersion;
+        }
+    }
+
+    /**
+     * The active broker package and the hash of its signing certificate.
+     */
+    public static final class ActiveBroker {
+
+        private final String mPackageName;
+        private final String mSignatureHash;
+
+        ActiveBroker(@NonNull final String packageName,
+                     @NonNull final String signatureHash) {
+            mPackageName = packageName;
+            mSignatureHash = signatureHash;
+        }
+
+        @NonNull
+        public String getPackageName() {
+            return mPackageName;
+        }
+
+        @NonNull
+        public String getSignatureHash() {
+            return mSignatureHash;
+        }
+    }
+
+    BrokerProtocolVersionCache() {
+    }
+
+    public static BrokerProtocolVersionCache getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Builds the key under which a negotiation is cached.
+     *
+     * @param brokerPackageName               The active broker package.
+     * @param signatureHash                   The hash of its signing certificate.
+     * @param requiredBrokerProtocolVersion   The minimum protocol version required by the caller,
+     *                                        which is part of the hello() request.
+     * @return The cache key.
+     */
+    @NonNull
+    public static String getKey(@NonNull final String brokerPackageName,
+                                @NonNull final String signatureHash,
+                                @Nullable final String requiredBrokerProtocolVersion) {
+        return brokerPackageName
+                + KEY_DELIMITER + signatureHash
+                + KEY_DELIMITER + (requiredBrokerProtocolVersion == null ? "" : requiredBrokerProtocolVersion);
+    }
+
+    /**
+     * Gets the active broker, looking it up and verifying its signature only if it isn't cached.
+     * Like the negotiations, it is only cached once the package receiver is registered.
+     *
+     * @param context The application context.
+     * @return The active broker, or null if there is no verified active broker.
+     */
+    @Nullable
+    public ActiveBroker getActiveBroker(@NonNull final Context context) {
+        final ActiveBroker cachedActiveBroker = mActiveBroker.get();
+
+        if (cachedActiveBroker != null) {
+            return cachedActiveBroker;
+        }
+
+        final long generation;
+        synchronized (this) {
+            generation = mActiveBrokerGeneration;
+        }
+
+        final ActiveBroker activeBroker = lookUpActiveBroker(context);
+
+        if (activeBroker != null && registerPackageReceiver(context)) {
+            synchronized (this) {
+                if (generation == mActiveBrokerGeneration) {
+                    mActiveBroker.set(activeBroker);
+                }
+            }
+        }
+
+        return activeBroker;
+    }
+
+    @Nullable
+    @VisibleForTesting
+    ActiveBroker lookUpActiveBroker(@NonNull final Context context) {
+        final String methodName = ":lookUpActiveBroker";
+        final BrokerValidator brokerValidator = new BrokerValidator(context);
+        final String activeBrokerPackageName = brokerValidator.getCurrentActiveBrokerPackageName();
+
+        if (activeBrokerPackageName == null) {
+            return null;
+        }
+
+        try {
+            return new ActiveBroker(
+                    activeBrokerPackageName,
+                    brokerValidator.verifySignatureAndThrow(activeBrokerPackageName)
+            );
+        } catch (final ClientException e) {
+            Logger.warn(TAG + methodName, "Unable to read broker signature: " + e.getErrorCode());
+            return null;
+        }
+    }
+
+    @Nullable
+    public Entry get(@NonNull final String key) {
+        return mEntries.get(key);
+    }
+
+    /**
+     * Caches a successful negotiation. The first call registers a receiver which clears the cache
+     * whenever a package is added, replaced or removed; if that fails nothing is cached.
+     *
+     * @param context                         The application context.
+     * @param key                             The key from {@link #getKey(String, String, String)}.
+     * @param strategy                        The strategy over which hello() succeeded.
+     * @param negotiatedBrokerProtocolVersion The negotiated protocol version.
+     */
+    public void put(@NonNull final Context context,
+                    @NonNull final String key,
+                    @NonNull final BrokerBaseStrategy strategy,
+                    @Nullable final String negotiatedBrokerProtocolVersion) {
+        if (registerPackageReceiver(context)) {
+            mEntries.put(key, new Entry(strategy, negotiatedBrokerProtocolVersion));
+        }
+    }
+
+    public void invalidate(@NonNull final String key) {
+        mEntries.remove(key);
+        // The failure may be down to a different broker having become active
+        clearActiveBroker();
+    }
+
+    public void clear() {
+        mEntries.clear();
+        clearActiveBroker();
+    }
+
+    private synchronized void clearActiveBroker() {
+        mActiveBrokerGeneration++;
+        mActiveBroker.set(null);
+    }
+
+    private boolean registerPackageReceiver(@NonNull final Context context) {
+        final String methodName = ":registerPackageReceiver";
+
+        if (!mPackageReceiverRegistered.compareAndSet(false, true)) {
+            return true;
+        }
+
+        final IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addDataScheme("package");
+
+        try {
+            context.getApplicationContext().registerReceiver(new BroadcastReceiver() {
+                @Override
+                public void onReceive(final Context context, final Intent intent) {
+                    Logger.infoFormat(
+                            TAG + methodName,
+                            "Package change received [%s], clearing negotiated broker protocol versions.",
+                            intent.getAction()
+                    );
+                    clear();
+                }
+            }, filter);
+            return true;
+        } catch (final RuntimeException e) {
+            // Without the receiver a broker update could go unnoticed; don't cache at all
+            Logger.warn(
+                    TAG + methodName,
+                    "Unable to register package receiver: " + e.getMessage()
+            );
+            mPackageReceiverRegistered.set(false);
+            return false;
+        }
+    }
+}
@@ -47,7 +47,7 @@ public class InactiveBrokerClient {
         mBrokerAccountServiceConnection = new BrokerAccountServiceConnection(future);
 
         mBound = mContext.bindService(getIntentForBrokerAccountService(), mBrokerAccountServiceConnection, Context.BIND_AUTO_CREATE);
-        Logger.verbose(TAG + "connect", "The status for BrokerAccountService bindService call is: " + Boolean.valueOf(mBound));
+        Logger.verboseFormat(TAG + "connect", "The status for BrokerAccountService bindService call is: %s", Boolean.valueOf(mBound));
 
         if (!mBound) {
             throw new ClientException("Service is unavailable or does not support binding. BrokerAccountService.");
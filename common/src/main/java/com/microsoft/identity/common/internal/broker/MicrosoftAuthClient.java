@@ -35,6 +35,7 @@ import com.microsoft.identity.common.internal.logging.Logger;
 import java.util.List;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 /**
  * Client that wraps the code necessary to bind to the MicrosoftAuthService (Android Bound Service)
@@ -66,12 +67,23 @@ public class MicrosoftAuthClient {
      * @return MicrosoftAuthServiceFuture
      */
     public MicrosoftAuthServiceFuture connect() throws ClientException {
+        return connect(null);
+    }
+
+    /**
+     * Binds to the service and returns a future that provides the proxy for the calling the Microsoft auth service
+     *
+     * @param connectionListener notified when the service connects, or its process goes away while bound.
+     * @return MicrosoftAuthServiceFuture
+     */
+    public MicrosoftAuthServiceFuture connect(@Nullable final MicrosoftAuthServiceConnection.ConnectionListener connectionListener)
+            throws ClientException {
 
         MicrosoftAuthServiceFuture future = new MicrosoftAuthServiceFuture();
-        mMicrosoftAuthServiceConnection = new MicrosoftAuthServiceConnection(future);
+        mMicrosoftAuthServiceConnection = new MicrosoftAuthServiceConnection(future, connectionListener);
 
         mBound = mContext.bindService(mMicrosoftAuthServiceIntent, mMicrosoftAuthServiceConnection, Context.BIND_AUTO_CREATE);
-        Logger.info(TAG + "connect", "The status for MicrosoftAuthService bindService call is: " + Boolean.valueOf(mBound));
+        Logger.infoFormat(TAG + "connect", "The status for MicrosoftAuthService bindService call is: %s", Boolean.valueOf(mBound));
 
         if (!mBound) {
             throw new ClientException("Service is unavailable or does not support binding.  Microsoft Auth Service.");
@@ -26,6 +26,8 @@ package com.microsoft.identity.common.internal.broker;
 import android.content.ComponentName;
 import android.os.IBinder;
 
+import androidx.annotation.Nullable;
+
 import com.microsoft.identity.client.IMicrosoftAuthService;
 import com.microsoft.identity.common.internal.logging.Logger;
 
@@ -34,15 +36,41 @@ public class MicrosoftAuthServiceConnection implements android.content.ServiceCo
     private static final String TAG = MicrosoftAuthServiceConnection.class.getSimpleName();
     private IMicrosoftAuthService mMicrosoftAuthService;
     private MicrosoftAuthServiceFuture mMicrosoftAuthServiceFuture;
+    private ConnectionListener mConnectionListener;
+
+    /**
+     * Notified when the connection to the bound service is established or lost.
+     */
+    public interface ConnectionListener {
+
+        /**
+         * Called when the connection to the service has been established.
+         */
+        void onConnected();
+
+        /**
+         * Called when the connection to the service has been lost.
+         */
+        void onDisconnected();
+    }
 
     public MicrosoftAuthServiceConnection(MicrosoftAuthServiceFuture future) {
+        this(future, null);
+    }
+
+    public MicrosoftAuthServiceConnection(MicrosoftAuthServiceFuture future,
+                                          @Nullable ConnectionListener connectionListener) {
         mMicrosoftAuthServiceFuture = future;
+        mConnectionListener = connectionListener;
     }
 
     @Override
     public void onServiceConnected(ComponentName name, IBinder service) {
         Logger.info(TAG, "MicrosoftAuthService is connected.");
         mMicrosoftAuthService = IMicrosoftAuthService.Stub.asInterface(service);
+        if (mConnectionListener != null) {
+            mConnectionListener.onConnected();
+        }
         mMicrosoftAuthServiceFuture.setMicrosoftAuthService(mMicrosoftAuthService);
     }
 
@@ -65,6 +93,9 @@ public class MicrosoftAuthServiceConnection implements android.content.ServiceCo
     @Override
     public void onServiceDisconnected(ComponentName name) {
         Logger.info(TAG, "MicrosoftAuthService is disconnected.");
+        if (mConnectionListener != null) {
+            mConnectionListener.onDisconnected();
+        }
     }
 
 
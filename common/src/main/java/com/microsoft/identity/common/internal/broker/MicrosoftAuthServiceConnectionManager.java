@@ -0,0 +1,410 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.broker;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.client.IMicrosoftAuthService;
+import com.microsoft.identity.common.exception.BaseException;
+import com.microsoft.identity.common.exception.BrokerCommunicationException;
+import com.microsoft.identity.common.internal.logging.Logger;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the binding to the broker's MicrosoftAuthService alive across operations.
+ * <p>
+ * Callers {@link #acquire(Context)} a connection, use its service and {@link #release(Connection)}
+ * it. The binding is shared by concurrent callers and is only unbound once it has been unused for
+ * the idle timeout, so back-to-back broker calls pay for a single bindService round trip. A
+ * connection which fails is {@link #invalidate(Connection) invalidated} and the next caller binds
+ * afresh.
+ */
+public class MicrosoftAuthServiceConnectionManager {
+
+    private static final String TAG = MicrosoftAuthServiceConnectionManager.class.getSimpleName();
+
+    /**
+     * The default time to wait for the service to connect.
+     */
+    public static final long DEFAULT_CONNECT_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    /**
+     * The default time an unused binding is kept alive.
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final String IDLE_THREAD_NAME = "msal-auth-service-idle";
+
+    private static final MicrosoftAuthServiceConnectionManager sInstance =
+            new MicrosoftAuthServiceConnectionManager();
+
+    private final ScheduledThreadPoolExecutor mIdleExecutor;
+
+    private final ClientFactory mClientFactory;
+
+    // Held by the caller binding the service, so that concurrent callers wait for its connection
+    // without the manager being locked for the duration of bindService
+    private final Object mBindLock = new Object();
+
+    private volatile long mConnectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
+    private volatile long mIdleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+
+    // Guarded by this
+    private Connection mConnection;
+    private ScheduledFuture<?> mIdleDisconnect;
+
+    private final AtomicLong mBindCount = new AtomicLong();
+    private final AtomicLong mReuseCount = new AtomicLong();
+    private final AtomicLong mTotalBindLatencyMillis = new AtomicLong();
+    private final AtomicLong mLastBindLatencyMillis = new AtomicLong();
+
+    /**
+     * A shared binding to the MicrosoftAuthService.
+     */
+    public static final class Connection {
+
+        private final MicrosoftAuthClient mClient;
+        private final long mBindStartMillis;
+
+        // Set once bound, before the connection is shared
+        private MicrosoftAuthServiceFuture mFuture;
+
+        // Guarded by the manager, starts out held by the caller binding it
+        private int mReferenceCount = 1;
+        private boolean mInvalidated;
+
+        private Connection(@NonNull final MicrosoftAuthClient client,
+                           final long bindStartMillis) {
+            mClient = client;
+            mBindStartMillis = bindStartMillis;
+        }
+    }
+
+    /**
+     * Creates the client used to bind to the MicrosoftAuthService.
+     */
+    interface ClientFactory {
+
+        @NonNull
+        MicrosoftAuthClient create(@NonNull Context context);
+    }
+
+    MicrosoftAuthServiceConnectionManager() {
+        this(new ClientFactory() {
+            @NonNull
+            @Override
+            public MicrosoftAuthClient create(@NonNull final Context context) {
+                return new MicrosoftAuthClient(context);
+            }
+        });
+    }
+
+    MicrosoftAuthServiceConnectionManager(@NonNull final ClientFactory clientFactory) {
+        mClientFactory = clientFactory;
+        mIdleExecutor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull final Runnable runnable) {
+                final Thread thread = new Thread(runnable, IDLE_THREAD_NAME);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        mIdleExecutor.setRemoveOnCancelPolicy(true);
+    }
+
+    public static MicrosoftAuthServiceConnectionManager getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Sets the time to wait for the service to connect before failing the operation.
+     *
+     * @param connectTimeoutMillis The connect timeout, in milliseconds.
+     */
+    public void setConnectTimeoutMillis(final long connectTimeoutMillis) {
+        mConnectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    /**
+     * Sets the time an unused binding is kept alive before it is unbound.
+     *
+     * @param idleTimeoutMillis The idle timeout, in milliseconds.
+     */
+    public void setIdleTimeoutMillis(final long idleTimeoutMillis) {
+        mIdleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Binds to the MicrosoftAuthService ahead of the first broker operation, e.g. at app start.
+     * Returns without waiting for the service to connect; the binding is released after the idle
+     * timeout unless an operation picks it up first.
+     *
+     * @param context The application context.
+     */
+    public void prewarm(@NonNull final Context context) {
+        final String methodName = ":prewarm";
+
+        try {
+            release(getOrBind(context));
+        } catch (final BaseException | RuntimeException e) {
+            Logger.warn(
+                    TAG + methodName,
+                    "Unable to pre-warm MicrosoftAuthService connection: " + e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Acquires a connection to the MicrosoftAuthService, binding to it if there is no live
+     * binding, and waits up to the connect timeout for it to connect. Every acquired connection
+     * must be passed to {@link #release(Connection)}.
+     *
+     * @param context The application context.
+     * @return The connection.
+     * @throws BaseException If the service could not be bound or did not connect in time.
+     */
+    @NonNull
+    public Connection acquire(@NonNull final Context context) throws BaseException {
+        final Connection connection = getOrBind(context);
+
+        try {
+            getService(connection);
+            return connection;
+        } catch (final BaseException e) {
+            invalidate(connection);
+            release(connection);
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the service proxy of an acquired connection.
+     *
+     * @param connection The acquired connection.
+     * @return The service proxy.
+     * @throws BaseException If the service did not connect in time.
+     */
+    @NonNull
+    public IMicrosoftAuthService getService(@NonNull final Connection connection) throws BaseException {
+        final String methodName = ":getService";
+
+        try {
+            final IMicrosoftAuthService service = connection.mFuture.get(
+                    mConnectTimeoutMillis,
+                    TimeUnit.MILLISECONDS
+            );
+            return service;
+        } catch (final TimeoutException e) {
+            final String errorDescription = "Timed out waiting for MicrosoftAuthService to connect.";
+            Logger.error(TAG + methodName, errorDescription, e);
+            throw new BrokerCommunicationException(errorDescription, e);
+        } catch (final InterruptedException | ExecutionException e) {
+            final String errorDescription = "Exception occurred while awaiting (get) return of MicrosoftAuthService";
+            Logger.error(TAG + methodName, errorDescription, e);
+            throw new BrokerCommunicationException(errorDescription, e);
+        }
+    }
+
+    /**
+     * Releases a connection acquired through {@link #acquire(Context)}. The binding is unbound
+     * once it has been unused for the idle timeout, or straight away if it was invalidated.
+     *
+     * @param connection The connection to release.
+     */
+    public synchronized void release(@NonNull final Connection connection) {
+        connection.mReferenceCount--;
+
+        if (connection.mReferenceCount > 0) {
+            return;
+        }
+
+        if (connection.mInvalidated) {
+            connection.mClient.disconnect();
+        } else if (connection == mConnection) {
+            mIdleDisconnect = mIdleExecutor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    disconnectIfIdle(connection);
+                }
+            }, mIdleTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Marks a connection as unusable, e.g. after a RemoteException, so that subsequent callers
+     * bind afresh. It is unbound once its last holder releases it.
+     *
+     * @param connection The connection to invalidate.
+     */
+    public synchronized void invalidate(@NonNull final Connection connection) {
+        connection.mInvalidated = true;
+
+        if (connection == mConnection) {
+            mConnection = null;
+            cancelIdleDisconnect();
+        }
+
+        if (connection.mReferenceCount == 0) {
+            connection.mClient.disconnect();
+        }
+    }
+
+    /**
+     * Gets the number of times the service was bound.
+     *
+     * @return The bind count.
+     */
+    public long getBindCount() {
+        return mBindCount.get();
+    }
+
+    /**
+     * Gets the number of acquisitions served by an existing binding.
+     *
+     * @return The reuse count.
+     */
+    public long getReuseCount() {
+        return mReuseCount.get();
+    }
+
+    /**
+     * Gets the total time taken by bindings to connect.
+     *
+     * @return The total bind latency, in milliseconds.
+     */
+    public long getTotalBindLatencyMillis() {
+        return mTotalBindLatencyMillis.get();
+    }
+
+    /**
+     * Gets the time the most recent binding took to connect.
+     *
+     * @return The last bind latency, in milliseconds.
+     */
+    public long getLastBindLatencyMillis() {
+        return mLastBindLatencyMillis.get();
+    }
+
+    @NonNull
+    private Connection getOrBind(@NonNull final Context context) throws BaseException {
+        final Connection existingConnection = reuse();
+
+        if (existingConnection != null) {
+            return existingConnection;
+        }
+
+        synchronized (mBindLock) {
+            // Another caller may have bound while this one waited
+            final Connection boundConnection = reuse();
+
+            if (boundConnection != null) {
+                return boundConnection;
+            }
+
+            final Connection connection = new Connection(
+                    mClientFactory.create(context.getApplicationContext()),
+                    System.currentTimeMillis()
+            );
+
+            // bindService is a round trip to the system, release and invalidate are not held up by it
+            connection.mFuture = connection.mClient.connect(
+                    new MicrosoftAuthServiceConnection.ConnectionListener() {
+                        @Override
+                        public void onConnected() {
+                            recordBindLatency(connection);
+                        }
+
+                        @Override
+                        public void onDisconnected() {
+                            invalidate(connection);
+                        }
+                    }
+            );
+            mBindCount.incrementAndGet();
+
+            synchronized (this) {
+                if (!connection.mInvalidated) {
+                    mConnection = connection;
+                }
+            }
+
+            return connection;
+        }
+    }
+
+    @Nullable
+    private synchronized Connection reuse() {
+        final String methodName = ":reuse";
+        cancelIdleDisconnect();
+
+        if (mConnection == null) {
+            return null;
+        }
+
+        mConnection.mReferenceCount++;
+        mReuseCount.incrementAndGet();
+        Logger.verbose(
+                TAG + methodName,
+                "Reusing MicrosoftAuthService connection."
+        );
+
+        return mConnection;
+    }
+
+    private synchronized void disconnectIfIdle(@NonNull final Connection connection) {
+        final String methodName = ":disconnectIfIdle";
+
+        if (connection == mConnection && connection.mReferenceCount == 0) {
+            Logger.verbose(
+                    TAG + methodName,
+                    "Unbinding idle MicrosoftAuthService connection."
+            );
+            mConnection = null;
+            mIdleDisconnect = null;
+            connection.mClient.disconnect();
+        }
+    }
+
+    private void cancelIdleDisconnect() {
+        if (mIdleDisconnect != null) {
+            mIdleDisconnect.cancel(false);
+            mIdleDisconnect = null;
+        }
+    }
+
+    private void recordBindLatency(@NonNull final Connection connection) {
+        final long bindLatency = System.currentTimeMillis() - connection.mBindStartMillis;
+        mLastBindLatencyMillis.set(bindLatency);
+        mTotalBindLatencyMillis.addAndGet(bindLatency);
+    }
+}
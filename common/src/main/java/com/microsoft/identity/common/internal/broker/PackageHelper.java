@@ -126,7 +126,7 @@ public class PackageHelper {
             Logger.error(TAG + methodName, "Package is not found. Package name: " + packageName, e);
         }
 
-        Logger.info(TAG + methodName, " Is package installed and enabled? [" + enabled + "]");
+        Logger.infoFormat(TAG + methodName, " Is package installed and enabled? [%s]", enabled);
         return enabled;
     }
 
@@ -210,6 +210,36 @@ public abstract class AbstractAccountCredentialCache implements IAccountCredenti
         return matchingCredentials;
     }
 
+    /**
+     * Applies each of the supplied filters to the same set of Credentials.
+     *
+     * @param filters        The criteria to match.
+     * @param allCredentials The Credentials to filter.
+     * @return One List of matching Credentials per filter, in the same order as the filters.
+     */
+    @NonNull
+    protected List<List<Credential>> getCredentialsFilteredByInternal(@NonNull final List<CredentialFilter> filters,
+                                                                      @NonNull final List<Credential> allCredentials) {
+        final List<List<Credential>> result = new ArrayList<>(filters.size());
+
+        for (final CredentialFilter filter : filters) {
+            result.add(
+                    getCredentialsFilteredByInternal(
+                            filter.getHomeAccountId(),
+                            filter.getEnvironment(),
+                            filter.getCredentialType(),
+                            filter.getClientId(),
+                            filter.getRealm(),
+                            filter.getTarget(),
+                            filter.getAuthScheme(),
+                            allCredentials
+                    )
+            );
+        }
+
+        return result;
+    }
+
     /**
      * Examines the intersections of the provided targets (scopes).
      *
@@ -0,0 +1,211 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.internal.cache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.microsoft.identity.common.internal.dto.AccountCredentialBase;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gson {@link TypeAdapterFactory} for {@link AccountCredentialBase} subclasses which reads each
+ * cache value in a single streaming pass: the fields declared via {@link SerializedName} are
+ * read straight into the new instance with their own adapters, and any others are captured into
+ * {@link AccountCredentialBase#getAdditionalFields()}.
+ * <p>
+ * Gson caches the adapters it creates per type, so the fields of each class are resolved once.
+ */
+class AccountCredentialBaseTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @Nullable
+    public <T> TypeAdapter<T> create(@NonNull final Gson gson, @NonNull final TypeToken<T> type) {
+        final Class<? super T> rawType = type.getRawType();
+
+        if (!AccountCredentialBase.class.isAssignableFrom(rawType)
+                || Modifier.isAbstract(rawType.getModifiers())) {
+            return null;
+        }
+
+        final TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+        final TypeAdapter<JsonElement> jsonElementAdapter = gson.getAdapter(JsonElement.class);
+        final Map<String, BoundField> boundFields = bindFields(gson, rawType);
+        final Constructor<? super T> constructor = getNoArgsConstructor(rawType);
+
+        return new TypeAdapter<T>() {
+            @Override
+            public void write(final JsonWriter out, final T value) throws IOException {
+                delegate.write(out, value);
+            }
+
+            @Override
+            public T read(final JsonReader in) throws IOException {
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    return null;
+                }
+
+                final T result = newInstance(constructor, delegate);
+                final Map<String, JsonElement> additionalFields = new HashMap<>();
+
+                in.beginObject();
+
+                while (in.hasNext()) {
+                    final String name = in.nextName();
+                    final BoundField boundField = boundFields.get(name);
+
+                    if (null == boundField) {
+                        additionalFields.put(name, jsonElementAdapter.read(in));
+                    } else if (boundField.mAlternate) {
+                        // Alternates are bound, but are also retained as they were found
+                        final JsonElement value = jsonElementAdapter.read(in);
+                        boundField.set(result, boundField.mAdapter.fromJsonTree(value));
+                        additionalFields.put(name, value);
+                    } else {
+                        boundField.set(result, boundField.mAdapter.read(in));
+                    }
+                }
+
+                in.endObject();
+
+                ((AccountCredentialBase) result).setAdditionalFields(additionalFields);
+
+                return result;
+            }
+        };
+    }
+
+    /**
+     * For the supplied Class, binds each JSON name dictated by @SerializedName declared on its
+     * Fields (up to, but excluding, {@link AccountCredentialBase}) to its Field. Alternate names
+     * are bound as well, unless they are also declared as a primary name.
+     */
+    @NonNull
+    private static Map<String, BoundField> bindFields(@NonNull final Gson gson,
+                                                      @NonNull final Class<?> clazz) {
+        final Map<String, BoundField> primaryFields = new HashMap<>();
+        final Map<String, BoundField> alternateFields = new HashMap<>();
+
+        for (Class<?> current = clazz;
+             null != current && AccountCredentialBase.class != current;
+             current = current.getSuperclass()) {
+            for (final Field field : current.getDeclaredFields()) {
+                final SerializedName serializedName = field.getAnnotation(SerializedName.class);
+
+                if (null == serializedName
+                        || (field.getModifiers() & (Modifier.TRANSIENT | Modifier.STATIC)) != 0) {
+                    continue;
+                }
+
+                field.setAccessible(true);
+                final TypeAdapter<?> adapter = gson.getAdapter(TypeToken.get(field.getGenericType()));
+                primaryFields.put(serializedName.value(), new BoundField(field, adapter, false));
+
+                for (final String alternate : serializedName.alternate()) {
+                    alternateFields.put(alternate, new BoundField(field, adapter, true));
+                }
+            }
+        }
+
+        alternateFields.keySet().removeAll(primaryFields.keySet());
+        primaryFields.putAll(alternateFields);
+
+        return primaryFields;
+    }
+
+    @Nullable
+    private static <T> Constructor<T> getNoArgsConstructor(@NonNull final Class<T> clazz) {
+        try {
+            final Constructor<T> constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (final NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @NonNull
+    private static <T> T newInstance(@Nullable final Constructor<? super T> constructor,
+                                     @NonNull final TypeAdapter<T> delegate) {
+        if (null == constructor) {
+            // Let Gson construct the instance, as it would have
+            return delegate.fromJsonTree(new JsonObject());
+        }
+
+        try {
+            return (T) constructor.newInstance();
+        } catch (final InstantiationException
+                | IllegalAccessException
+                | InvocationTargetException e) {
+            throw new IllegalStateException("Failed to construct " + constructor.getDeclaringClass(), e);
+        }
+    }
+
+    private static final class BoundField {
+
+        private final Field mField;
+        private final TypeAdapter<?> mAdapter;
+        private final boolean mAlternate;
+
+        BoundField(@NonNull final Field field,
+                   @NonNull final TypeAdapter<?> adapter,
+                   final boolean alternate) {
+            mField = field;
+            mAdapter = adapter;
+            mAlternate = alternate;
+        }
+
+        void set(@NonNull final Object target, @Nullable final Object value) {
+            // As Gson does, a JSON null leaves primitives at their default
+            if (null == value && mField.getType().isPrimitive()) {
+                return;
+            }
+
+            try {
+                mField.set(target, value);
+            } catch (final IllegalAccessException e) {
+                // The field was made accessible when it was bound
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
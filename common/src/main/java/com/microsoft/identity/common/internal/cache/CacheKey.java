@@ -0,0 +1,261 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.internal.cache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.adal.internal.util.StringExtensions;
+import com.microsoft.identity.common.internal.dto.CredentialType;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.microsoft.identity.common.internal.cache.CacheKeyValueDelegate.CACHE_VALUE_SEPARATOR;
+
+/**
+ * A parsed Account or Credential cache key, as produced by
+ * {@link CacheKeyValueDelegate#generateCacheKey(com.microsoft.identity.common.internal.dto.AccountRecord)}
+ * and {@link CacheKeyValueDelegate#generateCacheKey(com.microsoft.identity.common.internal.dto.Credential)}.
+ * <p>
+ * Credential keys take the form
+ * {@code <home_account_id>-<environment>-<credential_type>-<client_id>-<realm>-<target>[-<auth_scheme>]};
+ * Account keys take the form {@code <home_account_id>-<environment>-<realm>}.
+ * <p>
+ * Because individual segments (such as GUIDs) may themselves contain the separator, only the
+ * credential type segment can be located unambiguously. Credential keys are therefore split into
+ * the text preceding and following that segment.
+ * <p>
+ * Parsed keys are memoized, so repeatedly scanning the same cache does not re-parse its keys.
+ */
+public final class CacheKey {
+
+    /**
+     * The maximum number of parsed keys retained by {@link #parse(String)}.
+     */
+    private static final int MAX_MEMOIZED_KEYS = 4096;
+
+    /**
+     * The CredentialTypes which may be persisted to the cache, lowercased as they appear in keys.
+     */
+    private static final CredentialType[] SUPPORTED_TYPES = new CredentialType[]{
+            CredentialType.AccessToken,
+            CredentialType.AccessToken_With_AuthScheme,
+            CredentialType.RefreshToken,
+            CredentialType.IdToken,
+            CredentialType.V1IdToken
+    };
+
+    private static final String[] SUPPORTED_TYPE_SEGMENTS = new String[SUPPORTED_TYPES.length];
+
+    static {
+        for (int i = 0; i < SUPPORTED_TYPES.length; i++) {
+            SUPPORTED_TYPE_SEGMENTS[i] = SUPPORTED_TYPES[i].name().toLowerCase(Locale.US);
+        }
+    }
+
+    private static final Map<String, CacheKey> sParsedKeys =
+            new LinkedHashMap<String, CacheKey>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, CacheKey> eldest) {
+                    return size() > MAX_MEMOIZED_KEYS;
+                }
+            };
+
+    private final String mKey;
+    private final CredentialType mCredentialType;
+    private final String mHomeAccountIdAndEnvironment;
+    private final String mClientIdRealmAndTarget;
+
+    private CacheKey(@NonNull final String key,
+                     @Nullable final CredentialType credentialType,
+                     @Nullable final String homeAccountIdAndEnvironment,
+                     @Nullable final String clientIdRealmAndTarget) {
+        mKey = key;
+        mCredentialType = credentialType;
+        mHomeAccountIdAndEnvironment = homeAccountIdAndEnvironment;
+        mClientIdRealmAndTarget = clientIdRealmAndTarget;
+    }
+
+    /**
+     * Parses the supplied cache key, returning a memoized instance if this key was seen recently.
+     *
+     * @param cacheKey The cache key to parse.
+     * @return The parsed CacheKey.
+     */
+    @NonNull
+    public static CacheKey parse(@NonNull final String cacheKey) {
+        if (StringExtensions.isNullOrBlank(cacheKey)) {
+            throw new IllegalArgumentException("Param [cacheKey] cannot be null.");
+        }
+
+        synchronized (sParsedKeys) {
+            final CacheKey memoized = sParsedKeys.get(cacheKey);
+
+            if (null != memoized) {
+                return memoized;
+            }
+        }
+
+        final CacheKey parsed = parseInternal(cacheKey);
+
+        synchronized (sParsedKeys) {
+            sParsedKeys.put(cacheKey, parsed);
+        }
+
+        return parsed;
+    }
+
+    /**
+     * Parses the supplied cache key without consulting or populating the memoized keys.
+     */
+    @NonNull
+    static CacheKey parseInternal(@NonNull final String cacheKey) {
+        final int separatorLength = CACHE_VALUE_SEPARATOR.length();
+
+        // The credential type is never the first or the last segment of a key
+        int segmentStart = cacheKey.indexOf(CACHE_VALUE_SEPARATOR);
+
+        while (segmentStart >= 0) {
+            segmentStart += separatorLength;
+            final int segmentEnd = cacheKey.indexOf(CACHE_VALUE_SEPARATOR, segmentStart);
+
+            if (segmentEnd < 0) {
+                break;
+            }
+
+            final int segmentLength = segmentEnd - segmentStart;
+
+            for (int i = 0; i < SUPPORTED_TYPE_SEGMENTS.length; i++) {
+                final String typeSegment = SUPPORTED_TYPE_SEGMENTS[i];
+
+                if (typeSegment.length() == segmentLength
+                        && cacheKey.regionMatches(segmentStart, typeSegment, 0, segmentLength)) {
+                    return new CacheKey(
+                            cacheKey,
+                            SUPPORTED_TYPES[i],
+                            cacheKey.substring(0, segmentStart - separatorLength),
+                            cacheKey.substring(segmentEnd + separatorLength)
+                    );
+                }
+            }
+
+            segmentStart = segmentEnd;
+        }
+
+        return new CacheKey(cacheKey, null, null, null);
+    }
+
+    /**
+     * Gets the raw cache key.
+     *
+     * @return The cache key, as persisted.
+     */
+    @NonNull
+    public String getKey() {
+        return mKey;
+    }
+
+    /**
+     * Gets the CredentialType named by this key.
+     *
+     * @return The CredentialType or null, if this key does not name a supported CredentialType.
+     */
+    @Nullable
+    public CredentialType getCredentialType() {
+        return mCredentialType;
+    }
+
+    /**
+     * Returns true if this key names a supported CredentialType.
+     *
+     * @return True if this is a Credential key, false otherwise.
+     */
+    public boolean isCredential() {
+        return null != mCredentialType;
+    }
+
+    /**
+     * Returns true if this key does not name a CredentialType.
+     *
+     * @return True if this is an Account key, false otherwise.
+     */
+    public boolean isAccount() {
+        return null == mCredentialType;
+    }
+
+    /**
+     * For Credential keys, gets the segments which precede the credential type.
+     *
+     * @return The {@code <home_account_id>-<environment>} portion of the key or null, if this is
+     * not a Credential key.
+     */
+    @Nullable
+    public String getHomeAccountIdAndEnvironment() {
+        return mHomeAccountIdAndEnvironment;
+    }
+
+    /**
+     * For Credential keys, gets the segments which follow the credential type.
+     *
+     * @return The {@code <client_id>-<realm>-<target>[-<auth_scheme>]} portion of the key or null,
+     * if this is not a Credential key.
+     */
+    @Nullable
+    public String getClientIdRealmAndTarget() {
+        return mClientIdRealmAndTarget;
+    }
+
+    /**
+     * Clears all memoized keys.
+     */
+    static void clearMemoizedKeys() {
+        synchronized (sParsedKeys) {
+            sParsedKeys.clear();
+        }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof CacheKey)) {
+            return false;
+        }
+
+        return mKey.equals(((CacheKey) o).mKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return mKey.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return mKey;
+    }
+}
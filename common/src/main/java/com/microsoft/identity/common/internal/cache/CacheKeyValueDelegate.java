@@ -22,14 +22,11 @@
 // THE SOFTWARE.
 package com.microsoft.identity.common.internal.cache;
 
-import androidx.annotation.Nullable;
-
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
-import com.google.gson.annotations.SerializedName;
 import com.microsoft.identity.common.adal.internal.util.StringExtensions;
 import com.microsoft.identity.common.internal.dto.AccessTokenRecord;
 import com.microsoft.identity.common.internal.dto.AccountCredentialBase;
@@ -40,15 +37,7 @@ import com.microsoft.identity.common.internal.dto.RefreshTokenRecord;
 import com.microsoft.identity.common.internal.logging.Logger;
 import com.microsoft.identity.common.internal.providers.oauth2.TokenRequest;
 
-import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Locale;
-import java.util.Map;
-import java.util.Set;
 
 import static com.microsoft.identity.common.internal.cache.CacheKeyValueDelegate.CacheKeyReplacements.AUTH_SCHEME;
 import static com.microsoft.identity.common.internal.cache.CacheKeyValueDelegate.CacheKeyReplacements.CLIENT_ID;
@@ -77,7 +66,9 @@ public class CacheKeyValueDelegate implements ICacheKeyValueDelegate {
      * Default constructor of CacheKeyValueDelegate.
      */
     public CacheKeyValueDelegate() {
-        mGson = new Gson();
+        mGson = new GsonBuilder()
+                .registerTypeAdapterFactory(new AccountCredentialBaseTypeAdapterFactory())
+                .create();
         Logger.verbose(TAG, "Init: " + TAG);
     }
 
@@ -199,32 +190,9 @@ public class CacheKeyValueDelegate implements ICacheKeyValueDelegate {
         final String methodName = "fromCacheValue";
 
         try {
-            final T resultObject = (T) mGson.fromJson(string, t);
-
-            if (!StringExtensions.isNullOrBlank(string)) {
-                // Turn the incoming String into a JSONObject
-                final JsonObject incomingJson = new JsonParser().parse(string).getAsJsonObject();
-
-                // Get all of the fields we were expecting to get
-                final Set<String> expectedFields = getExpectedJsonFields(t);
-
-                // Remove the expected fields from the initial JSONObject
-                for (final String expectedField : expectedFields) {
-                    incomingJson.remove(expectedField);
-                }
-
-                // Add whatever is leftover to the additionalFields Map
-                final Map<String, JsonElement> additionalFields = new HashMap<>();
-
-                for (final String key : incomingJson.keySet()) {
-                    additionalFields.put(key, incomingJson.get(key));
-                }
-
-                resultObject.setAdditionalFields(additionalFields);
-            }
-
-            // return the fully-formed object
-            return resultObject;
+            // Unexpected fields are captured into additionalFields as the value is read, see
+            // AccountCredentialBaseTypeAdapterFactory
+            return (T) mGson.fromJson(string, t);
         } catch (JsonSyntaxException e) {
             Logger.error(
                     TAG + ":" + methodName,
@@ -234,65 +202,4 @@ public class CacheKeyValueDelegate implements ICacheKeyValueDelegate {
             return null;
         }
     }
-
-    /**
-     * For the supplied Class, return a Set of expected JSON values as dictated by @SerializedName
-     * declared on its Fields.
-     *
-     * @param clazz The Class to inspect.
-     * @return A Set of expected JSON values, as Strings.
-     */
-    private static Set<String> getExpectedJsonFields(final Class<? extends AccountCredentialBase> clazz) {
-        final Set<String> serializedNames = new HashSet<>();
-        final List<Field> fieldsToInspect = getFieldsUpTo(clazz, AccountCredentialBase.class);
-        final List<Field> annotatedFields = getSerializedNameAnnotatedFields(fieldsToInspect);
-
-        for (final Field annotatedField : annotatedFields) {
-            final SerializedName serializedName = annotatedField.getAnnotation(SerializedName.class);
-            serializedNames.add(serializedName.value());
-        }
-
-        return serializedNames;
-    }
-
-    /**
-     * For the supplied List of Fields, return those which are annotated with @SerializedName.
-     *
-     * @param fieldsToInspect The Fields to inspect.
-     * @return Those Fields which are annotated with @SerializedName.
-     */
-    private static List<Field> getSerializedNameAnnotatedFields(final List<Field> fieldsToInspect) {
-        final List<Field> annotatedFields = new ArrayList<>();
-
-        for (final Field field : fieldsToInspect) {
-            SerializedName serializedName = field.getAnnotation(SerializedName.class);
-            if (null != serializedName) {
-                annotatedFields.add(field);
-            }
-        }
-
-        return annotatedFields;
-    }
-
-    /**
-     * Recursively inspect the supplied Class to obtain its Fields up the inheritance hierarchy
-     * to supplied upper-bound Class.
-     *
-     * @param startClass The base Class to inspect.
-     * @param upperBound The Class' upper-bounded inheritor or null, if Object should be used.
-     * @return A List of Fields on the supplied object and its superclasses.
-     */
-    private static List<Field> getFieldsUpTo(
-            final Class<?> startClass,
-            @Nullable Class<?> upperBound) {
-        List<Field> currentClassFields = new ArrayList<>(Arrays.asList(startClass.getDeclaredFields()));
-        Class<?> parentClass = startClass.getSuperclass();
-
-        if (parentClass != null && (upperBound == null || !(parentClass.equals(upperBound)))) {
-            List<Field> parentClassFields = getFieldsUpTo(parentClass, upperBound);
-            currentClassFields.addAll(parentClassFields);
-        }
-
-        return currentClassFields;
-    }
 }
@@ -112,6 +112,15 @@ public interface IAccountCredentialCache {
             final String authScheme
     );
 
+    /**
+     * Returns the Credentials matching each of the supplied criteria, walking the cache once.
+     *
+     * @param filters The criteria to match.
+     * @return A List with one mutable List of matching Credentials per supplied filter, in the
+     * same order as the filters.
+     */
+    List<List<Credential>> getCredentialsFilteredBy(final List<CredentialFilter> filters);
+
     /**
      * Removes the supplied Account from the cache.
      *
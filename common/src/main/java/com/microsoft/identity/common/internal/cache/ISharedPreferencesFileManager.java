@@ -24,6 +24,8 @@ package com.microsoft.identity.common.internal.cache;
 
 import android.content.SharedPreferences;
 
+import com.microsoft.identity.common.internal.util.Predicate;
+
 import java.util.Map;
 
 
@@ -77,6 +79,16 @@ public interface ISharedPreferencesFileManager {
      */
     Map<String, String> getAll();
 
+    /**
+     * Returns the entries in the {@link SharedPreferences} file whose keys are accepted by the
+     * supplied filter. Keys are evaluated before their values are read, so values belonging to
+     * rejected keys are never decrypted.
+     *
+     * @param keyFilter The filter to apply to each key.
+     * @return A Map of the matching entries.
+     */
+    Map<String, String> getAll(Predicate<String> keyFilter);
+
     /**
      * Tests if the {@link SharedPreferences} file contains an entry for the supplied key.
      *
@@ -96,4 +108,13 @@ public interface ISharedPreferencesFileManager {
      * @param key The key whose value should be cleared.
      */
     void remove(final String key);
+
+    /**
+     * Returns a counter of the writes made to the {@link SharedPreferences} file, by this instance
+     * or by any other instance on the same file in this process. It moves on as soon as a write
+     * has been applied, so a reader that sees it unchanged has seen every write.
+     *
+     * @return The write generation of the file.
+     */
+    long getWriteGeneration();
 }
@@ -0,0 +1,526 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.internal.cache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.adal.internal.util.StringExtensions;
+import com.microsoft.identity.common.internal.dto.AccountRecord;
+import com.microsoft.identity.common.internal.dto.Credential;
+import com.microsoft.identity.common.internal.dto.CredentialType;
+import com.microsoft.identity.common.internal.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A {@link SharedPreferencesAccountCredentialCache} which keeps a decrypted, deserialized copy of
+ * its contents in memory.
+ * <p>
+ * Credentials are indexed by home_account_id, environment, client_id and {@link CredentialType};
+ * realm, target and auth scheme are matched against the (small) set of Credentials found at the
+ * leaf of that index. Writes go through to SharedPreferences. Every read checks the
+ * {@link ISharedPreferencesFileManager#getWriteGeneration() write generation} of the file, so a
+ * write made to the same file by anyone else in this process invalidates the index as soon as it
+ * has been applied; the index is rebuilt on the next read.
+ * <p>
+ * The index is copy on write: saved records are copied on the way in and indexed records are
+ * replaced, never modified. Records are returned as they are indexed, without a copy, and must be
+ * treated as read-only; save a modified copy to change one.
+ */
+public class IndexedAccountCredentialCache extends SharedPreferencesAccountCredentialCache {
+
+    private static final String TAG = IndexedAccountCredentialCache.class.getSimpleName();
+
+    private static final long STALE_GENERATION = -1;
+
+    // Shared instances, keyed by SharedPreferences file name
+    private static final Map<String, IndexedAccountCredentialCache> sInstances = new HashMap<>();
+
+    private final ISharedPreferencesFileManager mSharedPreferencesFileManager;
+
+    private final ICacheKeyValueDelegate mCacheValueDelegate;
+
+    // Guarded by this
+    private final Map<String, AccountRecord> mAccountsByKey = new HashMap<>();
+
+    // Guarded by this
+    private final Map<String, Credential> mCredentialsByKey = new HashMap<>();
+
+    // home_account_id -> environment -> client_id -> credential type -> Credentials
+    // Guarded by this
+    private final Map<String, Map<String, Map<String, Map<CredentialType, List<Credential>>>>>
+            mCredentialIndex = new HashMap<>();
+
+    // The write generation of the file the index was built from or kept up to date with
+    // Guarded by this
+    private long mIndexedGeneration = STALE_GENERATION;
+
+    /**
+     * Constructor of IndexedAccountCredentialCache.
+     *
+     * @param accountCacheValueDelegate    ICacheKeyValueDelegate
+     * @param sharedPreferencesFileManager ISharedPreferencesFileManager
+     */
+    public IndexedAccountCredentialCache(
+            @NonNull final ICacheKeyValueDelegate accountCacheValueDelegate,
+            @NonNull final ISharedPreferencesFileManager sharedPreferencesFileManager) {
+        super(accountCacheValueDelegate, sharedPreferencesFileManager);
+        Logger.verbose(TAG, "Init: " + TAG);
+        mSharedPreferencesFileManager = sharedPreferencesFileManager;
+        mCacheValueDelegate = accountCacheValueDelegate;
+    }
+
+    /**
+     * Returns the process-wide instance for the supplied SharedPreferences file, creating it if
+     * necessary, so that the file is only ever loaded and decrypted once per process.
+     *
+     * @param accountCacheValueDelegate    ICacheKeyValueDelegate
+     * @param sharedPreferencesFileManager ISharedPreferencesFileManager
+     * @return The shared IndexedAccountCredentialCache for the supplied file.
+     */
+    public static synchronized IndexedAccountCredentialCache getInstance(
+            @NonNull final ICacheKeyValueDelegate accountCacheValueDelegate,
+            @NonNull final ISharedPreferencesFileManager sharedPreferencesFileManager) {
+        final String fileName = sharedPreferencesFileManager.getSharedPreferencesFileName();
+        IndexedAccountCredentialCache instance = sInstances.get(fileName);
+
+        if (null == instance) {
+            instance = new IndexedAccountCredentialCache(
+                    accountCacheValueDelegate,
+                    sharedPreferencesFileManager
+            );
+            sInstances.put(fileName, instance);
+        }
+
+        return instance;
+    }
+
+    @Override
+    public synchronized void saveAccount(@NonNull final AccountRecord account) {
+        Logger.verbose(TAG, "Saving Account...");
+        final String cacheKey = mCacheValueDelegate.generateCacheKey(account);
+        final String cacheValue = mCacheValueDelegate.generateCacheValue(account);
+        ensureIndexLoaded();
+        write(cacheKey, cacheValue);
+
+        final AccountRecord copy = mCacheValueDelegate.fromCacheValue(cacheValue, account.getClass());
+
+        if (null == copy) {
+            mIndexedGeneration = STALE_GENERATION;
+            return;
+        }
+
+        mAccountsByKey.put(cacheKey, copy);
+    }
+
+    @Override
+    public synchronized void saveCredential(@NonNull final Credential credential) {
+        Logger.verbose(TAG, "Saving credential...");
+        final String cacheKey = mCacheValueDelegate.generateCacheKey(credential);
+        final String cacheValue = mCacheValueDelegate.generateCacheValue(credential);
+        ensureIndexLoaded();
+        write(cacheKey, cacheValue);
+        unindexCredential(cacheKey);
+
+        final Credential copy = mCacheValueDelegate.fromCacheValue(cacheValue, credential.getClass());
+
+        if (null == copy) {
+            mIndexedGeneration = STALE_GENERATION;
+            return;
+        }
+
+        indexCredential(cacheKey, copy);
+    }
+
+    @Override
+    @Nullable
+    public synchronized AccountRecord getAccount(@NonNull final String cacheKey) {
+        ensureIndexLoaded();
+        return mAccountsByKey.get(cacheKey);
+    }
+
+    @Override
+    @Nullable
+    public synchronized Credential getCredential(@NonNull final String cacheKey) {
+        ensureIndexLoaded();
+        return mCredentialsByKey.get(cacheKey);
+    }
+
+    @Override
+    @NonNull
+    public synchronized List<AccountRecord> getAccounts() {
+        ensureIndexLoaded();
+        return new ArrayList<>(mAccountsByKey.values());
+    }
+
+    @Override
+    @NonNull
+    public synchronized List<AccountRecord> getAccountsFilteredBy(
+            @Nullable final String homeAccountId,
+            @Nullable final String environment,
+            @Nullable final String realm) {
+        ensureIndexLoaded();
+        return getAccountsFilteredByInternal(
+                homeAccountId,
+                environment,
+                realm,
+                new ArrayList<>(mAccountsByKey.values())
+        );
+    }
+
+    @Override
+    @NonNull
+    public synchronized List<Credential> getCredentials() {
+        ensureIndexLoaded();
+        return new ArrayList<>(mCredentialsByKey.values());
+    }
+
+    @Override
+    @NonNull
+    public synchronized List<Credential> getCredentialsFilteredBy(
+            @Nullable final String homeAccountId,
+            @Nullable final String environment,
+            @Nullable final CredentialType credentialType,
+            @Nullable final String clientId,
+            @Nullable final String realm,
+            @Nullable final String target,
+            @Nullable final String authScheme) {
+        ensureIndexLoaded();
+
+        final List<Credential> candidates = new ArrayList<>();
+
+        for (final Map<String, Map<String, Map<CredentialType, List<Credential>>>> byEnvironment
+                : select(mCredentialIndex, homeAccountId)) {
+            for (final Map<String, Map<CredentialType, List<Credential>>> byClientId
+                    : select(byEnvironment, environment)) {
+                for (final Map<CredentialType, List<Credential>> byType
+                        : select(byClientId, clientId)) {
+                    if (null == credentialType) {
+                        for (final List<Credential> credentials : byType.values()) {
+                            candidates.addAll(credentials);
+                        }
+                    } else {
+                        final List<Credential> credentials = byType.get(credentialType);
+
+                        if (null != credentials) {
+                            candidates.addAll(credentials);
+                        }
+                    }
+                }
+            }
+        }
+
+        // The index has already matched the leading fields, this only resolves realm/target
+        return getCredentialsFilteredByInternal(
+                homeAccountId,
+                environment,
+                credentialType,
+                clientId,
+                realm,
+                target,
+                authScheme,
+                candidates
+        );
+    }
+
+    @Override
+    @NonNull
+    public synchronized List<List<Credential>> getCredentialsFilteredBy(
+            @NonNull final List<CredentialFilter> filters) {
+        final List<List<Credential>> result = new ArrayList<>(filters.size());
+
+        // Each lookup is served from the index, no need to walk the whole cache
+        for (final CredentialFilter filter : filters) {
+            result.add(
+                    getCredentialsFilteredBy(
+                            filter.getHomeAccountId(),
+                            filter.getEnvironment(),
+                            filter.getCredentialType(),
+                            filter.getClientId(),
+                            filter.getRealm(),
+                            filter.getTarget(),
+                            filter.getAuthScheme()
+                    )
+            );
+        }
+
+        return result;
+    }
+
+    @Override
+    public synchronized boolean removeAccount(@NonNull final AccountRecord accountToRemove) {
+        if (null == accountToRemove) {
+            throw new IllegalArgumentException("Param [accountToRemove] cannot be null.");
+        }
+
+        ensureIndexLoaded();
+
+        final String cacheKey = findKey(
+                mAccountsByKey,
+                mCacheValueDelegate.generateCacheKey(accountToRemove),
+                accountToRemove
+        );
+
+        if (null == cacheKey) {
+            Logger.info(TAG, "Account was removed? [false]");
+            return false;
+        }
+
+        write(cacheKey, null);
+        mAccountsByKey.remove(cacheKey);
+        Logger.info(TAG, "Account was removed? [true]");
+
+        return true;
+    }
+
+    @Override
+    public synchronized boolean removeCredential(@NonNull final Credential credentialToRemove) {
+        if (null == credentialToRemove) {
+            throw new IllegalArgumentException("Param [credentialToRemove] cannot be null.");
+        }
+
+        ensureIndexLoaded();
+
+        final String cacheKey = findKey(
+                mCredentialsByKey,
+                mCacheValueDelegate.generateCacheKey(credentialToRemove),
+                credentialToRemove
+        );
+
+        if (null == cacheKey) {
+            Logger.info(TAG, "Credential was removed? [false]");
+            return false;
+        }
+
+        write(cacheKey, null);
+        unindexCredential(cacheKey);
+        Logger.info(TAG, "Credential was removed? [true]");
+
+        return true;
+    }
+
+    @Override
+    public synchronized void clearAll() {
+        final long generation = mSharedPreferencesFileManager.getWriteGeneration();
+        super.clearAll();
+        clearIndex();
+        // Start from an empty index, unless someone else wrote in the meantime
+        mIndexedGeneration = mSharedPreferencesFileManager.getWriteGeneration() == generation + 1
+                ? generation + 1
+                : STALE_GENERATION;
+    }
+
+    private void ensureIndexLoaded() {
+        // Read before loading, so that writes made during the load (for example, undecryptable
+        // entries being removed) leave the index stale
+        final long generation = mSharedPreferencesFileManager.getWriteGeneration();
+
+        if (generation == mIndexedGeneration) {
+            return;
+        }
+
+        Logger.verbose(TAG, "Building in-memory index...");
+
+        mIndexedGeneration = generation;
+        clearIndex();
+
+        mAccountsByKey.putAll(getAccountsWithKeys());
+
+        for (final Map.Entry<String, Credential> entry : getCredentialsWithKeys().entrySet()) {
+            indexCredential(entry.getKey(), entry.getValue());
+        }
+
+        Logger.verbose(
+                TAG,
+                "Indexed [" + mAccountsByKey.size() + "] Accounts, ["
+                        + mCredentialsByKey.size() + "] Credentials"
+        );
+    }
+
+    private void clearIndex() {
+        mAccountsByKey.clear();
+        mCredentialsByKey.clear();
+        mCredentialIndex.clear();
+    }
+
+    private void indexCredential(@NonNull final String cacheKey,
+                                 @NonNull final Credential credential) {
+        final CredentialType type = CredentialType.fromString(credential.getCredentialType());
+
+        if (null == type) {
+            Logger.warn(TAG, "Skipping Credential of unknown type.");
+            return;
+        }
+
+        mCredentialsByKey.put(cacheKey, credential);
+
+        Map<String, Map<String, Map<CredentialType, List<Credential>>>> byEnvironment =
+                mCredentialIndex.get(normalize(credential.getHomeAccountId()));
+
+        if (null == byEnvironment) {
+            byEnvironment = new HashMap<>();
+            mCredentialIndex.put(normalize(credential.getHomeAccountId()), byEnvironment);
+        }
+
+        Map<String, Map<CredentialType, List<Credential>>> byClientId =
+                byEnvironment.get(normalize(credential.getEnvironment()));
+
+        if (null == byClientId) {
+            byClientId = new HashMap<>();
+            byEnvironment.put(normalize(credential.getEnvironment()), byClientId);
+        }
+
+        Map<CredentialType, List<Credential>> byType =
+                byClientId.get(normalize(credential.getClientId()));
+
+        if (null == byType) {
+            byType = new HashMap<>();
+            byClientId.put(normalize(credential.getClientId()), byType);
+        }
+
+        List<Credential> credentials = byType.get(type);
+
+        if (null == credentials) {
+            credentials = new ArrayList<>();
+            byType.put(type, credentials);
+        }
+
+        credentials.add(credential);
+    }
+
+    private void unindexCredential(@NonNull final String cacheKey) {
+        final Credential credential = mCredentialsByKey.remove(cacheKey);
+
+        if (null == credential) {
+            return;
+        }
+
+        final Map<String, Map<String, Map<CredentialType, List<Credential>>>> byEnvironment =
+                mCredentialIndex.get(normalize(credential.getHomeAccountId()));
+
+        if (null == byEnvironment) {
+            return;
+        }
+
+        final Map<String, Map<CredentialType, List<Credential>>> byClientId =
+                byEnvironment.get(normalize(credential.getEnvironment()));
+
+        if (null == byClientId) {
+            return;
+        }
+
+        final Map<CredentialType, List<Credential>> byType =
+                byClientId.get(normalize(credential.getClientId()));
+
+        if (null == byType) {
+            return;
+        }
+
+        final List<Credential> credentials =
+                byType.get(CredentialType.fromString(credential.getCredentialType()));
+
+        if (null != credentials) {
+            // Remove by identity, equal Credentials may legitimately live under different keys
+            for (int i = 0; i < credentials.size(); i++) {
+                if (credentials.get(i) == credential) {
+                    credentials.remove(i);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the cache key under which the supplied record is stored. The generated key is tried
+     * first; if the stored entry does not match, falls back to a scan of the in-memory entries.
+     */
+    @Nullable
+    private static <T> String findKey(@NonNull final Map<String, T> entries,
+                                      @NonNull final String generatedKey,
+                                      @NonNull final T record) {
+        if (record.equals(entries.get(generatedKey))) {
+            return generatedKey;
+        }
+
+        for (final Map.Entry<String, T> entry : entries.entrySet()) {
+            if (record.equals(entry.getValue())) {
+                return entry.getKey();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the children of the supplied index level matching the sought value, or all of its
+     * children if the sought value is a wildcard.
+     */
+    @NonNull
+    private static <V> Iterable<V> select(@NonNull final Map<String, V> level,
+                                          @Nullable final String soughtValue) {
+        if (StringExtensions.isNullOrBlank(soughtValue)) {
+            return level.values();
+        }
+
+        final V match = level.get(normalize(soughtValue));
+
+        if (null == match) {
+            return new ArrayList<>();
+        }
+
+        final List<V> result = new ArrayList<>(1);
+        result.add(match);
+
+        return result;
+    }
+
+    @NonNull
+    private static String normalize(@Nullable final String value) {
+        return null == value ? "" : value.toLowerCase(Locale.US);
+    }
+
+    /**
+     * Writes the supplied value through to SharedPreferences, or removes the entry if the value
+     * is null. The index stays current if this write is the only one since it was last current;
+     * the caller updates it to match.
+     */
+    private void write(@NonNull final String cacheKey, @Nullable final String cacheValue) {
+        final long generation = mSharedPreferencesFileManager.getWriteGeneration();
+
+        if (null == cacheValue) {
+            mSharedPreferencesFileManager.remove(cacheKey);
+        } else {
+            mSharedPreferencesFileManager.putString(cacheKey, cacheValue);
+        }
+
+        mIndexedGeneration = generation == mIndexedGeneration
+                && mSharedPreferencesFileManager.getWriteGeneration() == generation + 1
+                ? generation + 1
+                : STALE_GENERATION;
+    }
+}
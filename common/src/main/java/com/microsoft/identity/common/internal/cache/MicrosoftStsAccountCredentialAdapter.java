@@ -98,6 +98,7 @@ public class MicrosoftStsAccountCredentialAdapter
 
             // Optional fields
             accessToken.setExtendedExpiresOn(getExtendedExpiresOn(response));
+            accessToken.setRefreshOn(getRefreshOn(cachedAt, response));
             accessToken.setAuthority(strategy.getAuthorityFromTokenEndpoint());
             accessToken.setAccessTokenType(response.getTokenType());
 
@@ -273,6 +274,10 @@ public class MicrosoftStsAccountCredentialAdapter
         return String.valueOf(currentTimeSecs + extExpiresIn);
     }
 
+    private String getRefreshOn(final long cachedAt, final MicrosoftStsTokenResponse response) {
+        return null == response.getRefreshIn() ? null : String.valueOf(cachedAt + response.getRefreshIn());
+    }
+
     private String getRealm(final MicrosoftStsOAuth2Strategy msStrategy, final MicrosoftStsTokenResponse msTokenResponse) {
         final MicrosoftStsAccount msAccount = msStrategy.createAccount(msTokenResponse);
         return msAccount.getRealm();
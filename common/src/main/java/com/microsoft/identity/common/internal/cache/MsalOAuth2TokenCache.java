@@ -105,7 +105,7 @@ public class MsalOAuth2TokenCache
                                         GenericAccount,
                                         GenericRefreshToken> accountCredentialAdapter) {
         super(context);
-        Logger.verbose(TAG, "Init: " + TAG);
+        Logger.verboseFormat(TAG, "Init: %s", TAG);
         mAccountCredentialCache = accountCredentialCache;
         mAccountCredentialAdapter = accountCredentialAdapter;
     }
@@ -141,7 +141,7 @@ public class MsalOAuth2TokenCache
                         storageHelper
                 );
         final IAccountCredentialCache accountCredentialCache =
-                new SharedPreferencesAccountCredentialCache(
+                IndexedAccountCredentialCache.getInstance(
                         cacheKeyValueDelegate,
                         sharedPreferencesFileManager
                 );
@@ -375,6 +375,51 @@ public class MsalOAuth2TokenCache
         return associatedRecord;
     }
 
+    /**
+     * Loads a sparse ICacheRecord for each of the supplied AccountRecords, reading the IdTokens
+     * of all of them in a single cache query.
+     *
+     * @param clientId The client_id relative to which IdTokens should be loaded.
+     * @param accounts The target AccountRecords.
+     * @return One sparse ICacheRecord per AccountRecord, in the same order.
+     * @see #getSparseCacheRecordForAccount(String, AccountRecord)
+     */
+    @NonNull
+    List<ICacheRecord> getSparseCacheRecordsForAccounts(@NonNull final String clientId,
+                                                        @NonNull final List<AccountRecord> accounts) {
+        final List<ICacheRecord> result = new ArrayList<>(accounts.size());
+
+        if (accounts.isEmpty()) {
+            return result;
+        }
+
+        final List<CredentialFilter> filters = new ArrayList<>();
+
+        for (final AccountRecord acct : accounts) {
+            filters.addAll(getIdTokenFiltersForAccountRecord(clientId, acct));
+        }
+
+        final List<List<Credential>> idTokens = mAccountCredentialCache.getCredentialsFilteredBy(filters);
+        final int filtersPerAccount = filters.size() / accounts.size();
+
+        for (int i = 0; i < accounts.size(); i++) {
+            final CacheRecord associatedRecord = new CacheRecord();
+            associatedRecord.setAccount(accounts.get(i));
+
+            for (int j = i * filtersPerAccount; j < (i + 1) * filtersPerAccount; j++) {
+                for (final Credential credential : idTokens.get(j)) {
+                    if (credential instanceof IdTokenRecord) {
+                        setToCacheRecord(associatedRecord, (IdTokenRecord) credential);
+                    }
+                }
+            }
+
+            result.add(associatedRecord);
+        }
+
+        return result;
+    }
+
     /**
      * Helper method to remove an old refresh token if it's MRRT ot FRT.
      */
@@ -385,18 +430,20 @@ public class MsalOAuth2TokenCache
                 refreshTokenRecord.getFamilyId()
         );
 
-        Logger.info(
+        Logger.infoFormat(
                 TAG + methodName,
-                "isFamilyRefreshToken? [" + isFamilyRefreshToken + "]"
+                "isFamilyRefreshToken? [%s]",
+                isFamilyRefreshToken
         );
 
         final boolean isMultiResourceCapable = MicrosoftAccount.AUTHORITY_TYPE_V1_V2.equals(
                 accountRecord.getAuthorityType()
         );
 
-        Logger.info(
+        Logger.infoFormat(
                 TAG + methodName,
-                "isMultiResourceCapable? [" + isMultiResourceCapable + "]"
+                "isMultiResourceCapable? [%s]",
+                isMultiResourceCapable
         );
 
         if (isFamilyRefreshToken || isMultiResourceCapable) {
@@ -410,9 +457,10 @@ public class MsalOAuth2TokenCache
                     clientId
             );
 
-            Logger.info(
+            Logger.infoFormat(
                     TAG + methodName,
-                    "Refresh tokens removed: [" + refreshTokensRemoved + "]"
+                    "Refresh tokens removed: [%s]",
+                    refreshTokensRemoved
             );
 
             if (refreshTokensRemoved > 1) {
@@ -527,31 +575,58 @@ public class MsalOAuth2TokenCache
                 account.getAuthorityType()
         );
 
-        // Load the AccessTokens
-        final List<Credential> accessTokens = mAccountCredentialCache.getCredentialsFilteredBy(
-                account.getHomeAccountId(),
-                account.getEnvironment(),
-                getAccessTokenCredentialTypeForAuthenticationScheme(authScheme),
-                clientId,
-                account.getRealm(),
-                target,
-                authScheme.getName()
+        // Load the AccessTokens, RefreshTokens, IdTokens and v1 IdTokens in a single pass,
+        // along with any RT for this account which might serve as a fallback FRT
+        final List<List<Credential>> credentials = mAccountCredentialCache.getCredentialsFilteredBy(
+                Arrays.asList(
+                        new CredentialFilter(
+                                account.getHomeAccountId(),
+                                account.getEnvironment(),
+                                getAccessTokenCredentialTypeForAuthenticationScheme(authScheme),
+                                clientId,
+                                account.getRealm(),
+                                target,
+                                authScheme.getName()
+                        ),
+                        new CredentialFilter(
+                                account.getHomeAccountId(),
+                                account.getEnvironment(),
+                                CredentialType.RefreshToken,
+                                clientId,
+                                isMultiResourceCapable
+                                        ? null // wildcard (*)
+                                        : account.getRealm(),
+                                isMultiResourceCapable
+                                        ? null // wildcard (*)
+                                        : target,
+                                null // not applicable
+                        ),
+                        new CredentialFilter(
+                                account.getHomeAccountId(),
+                                account.getEnvironment(),
+                                CredentialType.IdToken,
+                                clientId,
+                                account.getRealm(),
+                                null, // wildcard (*),
+                                null // not applicable
+                        ),
+                        new CredentialFilter(
+                                account.getHomeAccountId(),
+                                account.getEnvironment(),
+                                CredentialType.V1IdToken,
+                                clientId,
+                                account.getRealm(),
+                                null, // wildcard (*)
+                                null // not applicable
+                        ),
+                        getFamilyRefreshTokenFilterForAccount(account)
+                )
         );
 
-        // Load the RefreshTokens
-        List<Credential> refreshTokens = mAccountCredentialCache.getCredentialsFilteredBy(
-                account.getHomeAccountId(),
-                account.getEnvironment(),
-                CredentialType.RefreshToken,
-                clientId,
-                isMultiResourceCapable
-                        ? null // wildcard (*)
-                        : account.getRealm(),
-                isMultiResourceCapable
-                        ? null // wildcard (*)
-                        : target,
-                null // not applicable
-        );
+        final List<Credential> accessTokens = credentials.get(0);
+        List<Credential> refreshTokens = credentials.get(1);
+        final List<Credential> idTokens = credentials.get(2);
+        final List<Credential> v1IdTokens = credentials.get(3);
 
         if (refreshTokens.isEmpty()) {
             // If we didn't find an RT in the cache, this could be a "TSL-seed" or "dual-client stack"
@@ -575,7 +650,7 @@ public class MsalOAuth2TokenCache
             // into same binary. If you do this, you'll get confusing errors that the RT used doesn't
             // match the client app registration. This assumption means we don't need to implement
             // "FoCI probing" and/or track FoCI app meta
-            final Credential fallbackFrt = getFamilyRefreshTokenForAccount(account);
+            final Credential fallbackFrt = getFamilyRefreshToken(credentials.get(4));
 
             if (null != fallbackFrt) {
                 refreshTokens = new ArrayList<>();
@@ -583,28 +658,6 @@ public class MsalOAuth2TokenCache
             }
         }
 
-        // Load the IdTokens
-        final List<Credential> idTokens = mAccountCredentialCache.getCredentialsFilteredBy(
-                account.getHomeAccountId(),
-                account.getEnvironment(),
-                CredentialType.IdToken,
-                clientId,
-                account.getRealm(),
-                null, // wildcard (*),
-                null // not applicable
-        );
-
-        // Load the v1 IdTokens
-        final List<Credential> v1IdTokens = mAccountCredentialCache.getCredentialsFilteredBy(
-                account.getHomeAccountId(),
-                account.getEnvironment(),
-                CredentialType.V1IdToken,
-                clientId,
-                account.getRealm(),
-                null, // wildcard (*)
-                null // not applicable
-        );
-
         final CacheRecord result = new CacheRecord();
         result.setAccount(account);
         result.setAccessToken(accessTokens.isEmpty() ? null : (AccessTokenRecord) accessTokens.get(0));
@@ -624,14 +677,30 @@ public class MsalOAuth2TokenCache
      */
     @Nullable
     private RefreshTokenRecord getFamilyRefreshTokenForAccount(@NonNull final AccountRecord account) {
-        final String methodName = ":getFamilyRefreshTokensForAccount";
-
-        // Our eventual result - init to null, will assign if valid FRT is found
-        RefreshTokenRecord result = null;
-
         // Look for an arbitrary RT matching the current user.
-        // If we find one, check that it is FoCI, if it is, assume it works.
+        final CredentialFilter filter = getFamilyRefreshTokenFilterForAccount(account);
         final List<Credential> fallbackRts = mAccountCredentialCache.getCredentialsFilteredBy(
+                filter.getHomeAccountId(),
+                filter.getEnvironment(),
+                filter.getCredentialType(),
+                filter.getClientId(),
+                filter.getRealm(),
+                filter.getTarget(),
+                filter.getAuthScheme()
+        );
+
+        return getFamilyRefreshToken(fallbackRts);
+    }
+
+    /**
+     * Returns the criteria used to look up the RTs which may be used as an FRT by this account.
+     *
+     * @param account The account for which an FRT is sought.
+     * @return The filter matching any RT for the supplied account.
+     */
+    @NonNull
+    private static CredentialFilter getFamilyRefreshTokenFilterForAccount(@NonNull final AccountRecord account) {
+        return new CredentialFilter(
                 account.getHomeAccountId(),
                 account.getEnvironment(),
                 CredentialType.RefreshToken,
@@ -640,7 +709,22 @@ public class MsalOAuth2TokenCache
                 null, // wildcard (*) -- all FRTs are MRRTs by definition
                 null // not applicable
         );
+    }
 
+    /**
+     * Returns the first FRT among the supplied RTs.
+     *
+     * @param fallbackRts The RTs to inspect.
+     * @return A matching FRT credential, if exists. May be null.
+     */
+    @Nullable
+    private static RefreshTokenRecord getFamilyRefreshToken(@NonNull final List<Credential> fallbackRts) {
+        final String methodName = ":getFamilyRefreshToken";
+
+        // Our eventual result - init to null, will assign if valid FRT is found
+        RefreshTokenRecord result = null;
+
+        // If we find an RT, check that it is FoCI, if it is, assume it works.
         if (!fallbackRts.isEmpty()) {
             Logger.verbose(
                     TAG + methodName,
@@ -703,18 +787,25 @@ public class MsalOAuth2TokenCache
             // Set this result as the 0th entry in the result...
             result.add(primaryCacheRecord);
 
-            final List<ICacheRecord> corollaryCacheRecords = getAccountsWithAggregatedAccountData(
+            final AccountRecord anyMatchingAccount = getAccount(
                     account.getEnvironment(),
                     clientId,
-                    account.getHomeAccountId()
+                    account.getHomeAccountId(),
+                    null // realm
             );
 
-            // corollaryCacheRecords will contain the original element that we've already added to
-            // our result so skip that element, but add the rest...
-            for (final ICacheRecord cacheRecord : corollaryCacheRecords) {
-                if (!account.equals(cacheRecord.getAccount())) {
-                    result.add(cacheRecord);
+            if (null != anyMatchingAccount) {
+                // The corollary accounts will contain the original account that we've already
+                // added to our result so skip that one, but add the rest...
+                final List<AccountRecord> corollaryAccounts = new ArrayList<>();
+
+                for (final AccountRecord acct : getAllTenantAccountsForAccountByClientId(clientId, anyMatchingAccount)) {
+                    if (!account.equals(acct)) {
+                        corollaryAccounts.add(acct);
+                    }
                 }
+
+                result.addAll(getSparseCacheRecordsForAccounts(clientId, corollaryAccounts));
             }
 
             return result;
@@ -726,18 +817,43 @@ public class MsalOAuth2TokenCache
                                                            @NonNull AccountRecord accountRecord) {
         final List<IdTokenRecord> result = new ArrayList<>();
 
-        final List<Credential> idTokens = mAccountCredentialCache.getCredentialsFilteredBy(
-                accountRecord.getHomeAccountId(),
-                accountRecord.getEnvironment(),
-                CredentialType.IdToken,
-                clientId, // If null, behaves as wildcard
-                accountRecord.getRealm(),
-                null, // wildcard (*),
-                null // not applicable
+        final List<List<Credential>> idTokensByType = mAccountCredentialCache.getCredentialsFilteredBy(
+                getIdTokenFiltersForAccountRecord(clientId, accountRecord)
         );
 
-        idTokens.addAll(
-                mAccountCredentialCache.getCredentialsFilteredBy(
+        for (final List<Credential> idTokens : idTokensByType) {
+            for (final Credential credential : idTokens) {
+                if (credential instanceof IdTokenRecord) {
+                    result.add((IdTokenRecord) credential);
+                }
+            }
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Returns the criteria used to look up the IdTokens and v1 IdTokens of an AccountRecord.
+     *
+     * @param clientId      The client_id relative to which IdTokens should be loaded. If null,
+     *                      behaves as a wildcard.
+     * @param accountRecord The target AccountRecord.
+     * @return The IdToken filter followed by the v1 IdToken filter.
+     */
+    @NonNull
+    private static List<CredentialFilter> getIdTokenFiltersForAccountRecord(@Nullable final String clientId,
+                                                                            @NonNull final AccountRecord accountRecord) {
+        return Arrays.asList(
+                new CredentialFilter(
+                        accountRecord.getHomeAccountId(),
+                        accountRecord.getEnvironment(),
+                        CredentialType.IdToken,
+                        clientId, // If null, behaves as wildcard
+                        accountRecord.getRealm(),
+                        null, // wildcard (*),
+                        null // not applicable
+                ),
+                new CredentialFilter(
                         accountRecord.getHomeAccountId(),
                         accountRecord.getEnvironment(),
                         CredentialType.V1IdToken,
@@ -747,14 +863,6 @@ public class MsalOAuth2TokenCache
                         null // not applicable
                 )
         );
-
-        for (final Credential credential : idTokens) {
-            if (credential instanceof IdTokenRecord) {
-                result.add((IdTokenRecord) credential);
-            }
-        }
-
-        return Collections.unmodifiableList(result);
     }
 
     @Override
@@ -766,20 +874,22 @@ public class MsalOAuth2TokenCache
                 "Removing credential..."
         );
 
-        Logger.verbosePII(
-                TAG + methodName,
-                "ClientId: [" + credential.getClientId() + "]"
-                        + "\n"
-                        + "CredentialType: [" + credential.getCredentialType() + "]"
-                        + "\n"
-                        + "CachedAt: [" + credential.getCachedAt() + "]"
-                        + "\n"
-                        + "Environment: [" + credential.getEnvironment() + "]"
-                        + "\n"
-                        + "HomeAccountId: [" + credential.getHomeAccountId() + "]"
-                        + "\n"
-                        + "IsExpired?: [" + credential.isExpired() + "]"
-        );
+        if (Logger.isLoggable(Logger.LogLevel.VERBOSE, true)) {
+            Logger.verbosePII(
+                    TAG + methodName,
+                    "ClientId: [" + credential.getClientId() + "]"
+                            + "\n"
+                            + "CredentialType: [" + credential.getCredentialType() + "]"
+                            + "\n"
+                            + "CachedAt: [" + credential.getCachedAt() + "]"
+                            + "\n"
+                            + "Environment: [" + credential.getEnvironment() + "]"
+                            + "\n"
+                            + "HomeAccountId: [" + credential.getHomeAccountId() + "]"
+                            + "\n"
+                            + "IsExpired?: [" + credential.isExpired() + "]"
+            );
+        }
 
         return mAccountCredentialCache.removeCredential(credential);
     }
@@ -792,22 +902,25 @@ public class MsalOAuth2TokenCache
                                     @Nullable final String realm) {
         final String methodName = ":getAccount";
 
-        Logger.verbosePII(
-                TAG + methodName,
-                "Environment: [" + environment + "]"
-                        + "\n"
-                        + "ClientId: [" + clientId + "]"
-                        + "\n"
-                        + "HomeAccountId: [" + homeAccountId + "]"
-                        + "\n"
-                        + "Realm: [" + realm + "]"
-        );
+        if (Logger.isLoggable(Logger.LogLevel.VERBOSE, true)) {
+            Logger.verbosePII(
+                    TAG + methodName,
+                    "Environment: [" + environment + "]"
+                            + "\n"
+                            + "ClientId: [" + clientId + "]"
+                            + "\n"
+                            + "HomeAccountId: [" + homeAccountId + "]"
+                            + "\n"
+                            + "Realm: [" + realm + "]"
+            );
+        }
 
         final List<AccountRecord> allAccounts = getAccounts(environment, clientId);
 
-        Logger.info(
+        Logger.infoFormat(
                 TAG + methodName,
-                "Found " + allAccounts.size() + " accounts"
+                "Found %s accounts",
+                allAccounts.size()
         );
 
         // Return the sought Account matching the supplied homeAccountId and realm, if applicable
@@ -845,14 +958,7 @@ public class MsalOAuth2TokenCache
                     anyMatchingAccount
             );
 
-            for (final AccountRecord accountRecord : corollaryAccounts) {
-                result.add(
-                        getSparseCacheRecordForAccount(
-                                clientId,
-                                accountRecord
-                        )
-                );
-            }
+            result.addAll(getSparseCacheRecordsForAccounts(clientId, corollaryAccounts));
         }
 
         return Collections.unmodifiableList(result);
@@ -867,9 +973,10 @@ public class MsalOAuth2TokenCache
 
         final List<AccountRecord> accounts = getAccounts(environment, clientId);
 
-        Logger.verbosePII(
+        Logger.verbosePIIFormat(
                 TAG + methodName,
-                "LocalAccountId: [" + localAccountId + "]"
+                "LocalAccountId: [%s]",
+                localAccountId
         );
 
         for (final AccountRecord account : accounts) {
@@ -903,11 +1010,10 @@ public class MsalOAuth2TokenCache
             }
         }
 
-        Logger.verbose(
+        Logger.verboseFormat(
                 TAG + methodName,
-                "Found "
-                        + accounts.size()
-                        + " accounts matching username."
+                "Found %s accounts matching username.",
+                accounts.size()
         );
 
         return result;
@@ -979,11 +1085,11 @@ public class MsalOAuth2TokenCache
                                            @NonNull final String clientId) {
         final String methodName = ":getAccounts";
 
-        Logger.verbosePII(
+        Logger.verbosePIIFormat(
                 TAG + methodName,
-                "Environment: [" + environment + "]"
-                        + "\n"
-                        + "ClientId: [" + clientId + "]"
+                "Environment: [%s]\nClientId: [%s]",
+                environment,
+                clientId
         );
 
         final List<AccountRecord> accountsForThisApp = new ArrayList<>();
@@ -996,48 +1102,50 @@ public class MsalOAuth2TokenCache
                         null // wildcard (*) realm
                 );
 
-        Logger.verbose(
+        Logger.verboseFormat(
                 TAG + methodName,
-                "Found " + accountsForEnvironment.size() + " accounts for this environment"
+                "Found %s accounts for this environment",
+                accountsForEnvironment.size()
         );
 
-        // Grab the Credentials for this app...start with the v2 IdTokens....
-        final List<Credential> appCredentials =
+        // Grab the Credentials for this app: the v2 IdTokens, any V1IdTokens and any refresh tokens
+        final List<Credential> appCredentials = new ArrayList<>();
+        final List<List<Credential>> appCredentialsByType =
                 mAccountCredentialCache.getCredentialsFilteredBy(
-                        null, // homeAccountId
-                        environment,
-                        CredentialType.IdToken,
-                        clientId,
-                        null, // realm
-                        null, // target,
-                        null // not applicable
+                        Arrays.asList(
+                                new CredentialFilter(
+                                        null, // homeAccountId
+                                        environment,
+                                        CredentialType.IdToken,
+                                        clientId,
+                                        null, // realm
+                                        null, // target,
+                                        null // not applicable
+                                ),
+                                new CredentialFilter(
+                                        null, // homeAccountId
+                                        environment,
+                                        CredentialType.V1IdToken,
+                                        clientId,
+                                        null, // realm
+                                        null, // target
+                                        null // not applicable
+                                ),
+                                new CredentialFilter(
+                                        null,
+                                        environment,
+                                        CredentialType.RefreshToken,
+                                        clientId,
+                                        null,
+                                        null,
+                                        null
+                                )
+                        )
                 );
 
-        // And also grab any V1IdTokens....
-        appCredentials.addAll(
-                mAccountCredentialCache.getCredentialsFilteredBy(
-                        null, // homeAccountId
-                        environment,
-                        CredentialType.V1IdToken,
-                        clientId,
-                        null, // realm
-                        null, // target
-                        null // not applicable
-                )
-        );
-
-        // And any refresh tokens...
-        appCredentials.addAll(
-                mAccountCredentialCache.getCredentialsFilteredBy(
-                        null,
-                        environment,
-                        CredentialType.RefreshToken,
-                        clientId,
-                        null,
-                        null,
-                        null
-                )
-        );
+        for (final List<Credential> credentialsOfType : appCredentialsByType) {
+            appCredentials.addAll(credentialsOfType);
+        }
 
         // For each Account with an associated RT, add it to the result List...
         for (final AccountRecord account : accountsForEnvironment) {
@@ -1046,9 +1154,10 @@ public class MsalOAuth2TokenCache
             }
         }
 
-        Logger.verbose(
+        Logger.verboseFormat(
                 TAG + methodName,
-                "Found " + accountsForThisApp.size() + " accounts for this clientId"
+                "Found %s accounts for this clientId",
+                accountsForThisApp.size()
         );
 
         return Collections.unmodifiableList(accountsForThisApp);
@@ -1097,28 +1206,13 @@ public class MsalOAuth2TokenCache
                 clientId
         );
 
-        for (final AccountRecord accountRecord : allMatchingAccounts) {
-            final List<IdTokenRecord> idTokensForAccount = getIdTokensForAccountRecord(
-                    clientId,
-                    accountRecord
-            );
+        // Construct the cache records and set their IdTokens...
+        result.addAll(getSparseCacheRecordsForAccounts(clientId, allMatchingAccounts));
 
-            // Construct the cache record....
-            final CacheRecord cacheRecord = new CacheRecord();
-            cacheRecord.setAccount(accountRecord);
-
-            // Set the IdTokens...
-            for (IdTokenRecord idTokenRecord : idTokensForAccount) {
-                setToCacheRecord(cacheRecord, idTokenRecord);
-            }
-
-            result.add(cacheRecord);
-
-        }
-
-        Logger.verbose(
+        Logger.verboseFormat(
                 TAG + methodName,
-                "Found " + result.size() + " accounts with IdTokens"
+                "Found %s accounts with IdTokens",
+                result.size()
         );
 
         return Collections.unmodifiableList(result);
@@ -1148,11 +1242,11 @@ public class MsalOAuth2TokenCache
         final String accountHomeId = account.getHomeAccountId();
         final String accountEnvironment = account.getEnvironment();
 
-        Logger.verbosePII(
+        Logger.verbosePIIFormat(
                 TAG + methodName,
-                "HomeAccountId: [" + accountHomeId + "]"
-                        + "\n"
-                        + "Environment: [" + accountEnvironment + "]"
+                "HomeAccountId: [%s]\nEnvironment: [%s]",
+                accountHomeId,
+                accountEnvironment
         );
 
         for (final Credential credential : appCredentials) {
@@ -1228,18 +1322,20 @@ public class MsalOAuth2TokenCache
                                                @Nullable final CredentialType... typesToRemove) {
         final String methodName = ":removeAccount";
 
-        Logger.verbosePII(
-                TAG + methodName,
-                "Environment: [" + environment + "]"
-                        + "\n"
-                        + "ClientId: [" + clientId + "]"
-                        + "\n"
-                        + "HomeAccountId: [" + homeAccountId + "]"
-                        + "\n"
-                        + "Realm: [" + realm + "]"
-                        + "\n"
-                        + "CredentialTypes to delete: [" + Arrays.toString(typesToRemove) + "]"
-        );
+        if (Logger.isLoggable(Logger.LogLevel.VERBOSE, true)) {
+            Logger.verbosePII(
+                    TAG + methodName,
+                    "Environment: [" + environment + "]"
+                            + "\n"
+                            + "ClientId: [" + clientId + "]"
+                            + "\n"
+                            + "HomeAccountId: [" + homeAccountId + "]"
+                            + "\n"
+                            + "Realm: [" + realm + "]"
+                            + "\n"
+                            + "CredentialTypes to delete: [" + Arrays.toString(typesToRemove) + "]"
+            );
+        }
 
         final AccountRecord targetAccount;
         if (null == environment
@@ -1264,9 +1360,10 @@ public class MsalOAuth2TokenCache
         // If no realm is provided, remove the Account/Credentials from all realms.
         final boolean isRealmAgnostic = (null == realm);
 
-        Logger.verbose(
+        Logger.verboseFormat(
                 TAG + methodName,
-                "IsRealmAgnostic? " + isRealmAgnostic
+                "IsRealmAgnostic? %s",
+                isRealmAgnostic
         );
 
         if (null != typesToRemove && typesToRemove.length > 0) {
@@ -1342,11 +1439,10 @@ public class MsalOAuth2TokenCache
             result.add(credential.getClientId());
         }
 
-        Logger.verbose(
+        Logger.verboseFormat(
                 TAG + methodName,
-                "Found ["
-                        + result.size()
-                        + "] clientIds/"
+                "Found [%s] clientIds/",
+                result.size()
         );
 
         return result;
@@ -1361,9 +1457,10 @@ public class MsalOAuth2TokenCache
 
         final List<AccountRecord> accounts = getAccounts(environment, clientId);
 
-        Logger.verbosePII(
+        Logger.verbosePIIFormat(
                 TAG + methodName,
-                "homeAccountId: [" + homeAccountId + "]"
+                "homeAccountId: [%s]",
+                homeAccountId
         );
 
         for (final AccountRecord account : accounts) {
@@ -1505,16 +1602,18 @@ public class MsalOAuth2TokenCache
                 referenceToken.getAccessTokenType()
         );
 
-        Logger.verbose(
+        Logger.verboseFormat(
                 TAG + ":" + methodName,
-                "Inspecting " + accessTokens.size() + " accessToken[s]."
+                "Inspecting %s accessToken[s].",
+                accessTokens.size()
         );
 
         for (final Credential accessToken : accessTokens) {
             if (scopesIntersect(referenceToken, (AccessTokenRecord) accessToken, true)) {
-                Logger.infoPII(
+                Logger.infoPIIFormat(
                         TAG + ":" + methodName,
-                        "Removing credential: " + accessToken
+                        "Removing credential: %s",
+                        accessToken
                 );
                 mAccountCredentialCache.removeCredential(accessToken);
             }
@@ -1539,9 +1638,11 @@ public class MsalOAuth2TokenCache
         for (final String scope : token2Scopes) {
             if (token1Scopes.contains(scope)) {
                 Logger.info(TAG + ":" + methodName, "Scopes intersect.");
-                Logger.infoPII(
+                Logger.infoPIIFormat(
                         TAG + ":" + methodName,
-                        token1Scopes.toString() + " contains [" + scope + "]"
+                        "%s contains [%s]",
+                        token1Scopes,
+                        scope
                 );
                 result = true;
                 break;
@@ -1694,9 +1795,10 @@ public class MsalOAuth2TokenCache
                     rt.getClientId()
             );
 
-            Logger.info(
+            Logger.infoFormat(
                     TAG + methodName,
-                    "Refresh tokens removed: [" + refreshTokensRemoved + "]"
+                    "Refresh tokens removed: [%s]",
+                    refreshTokensRemoved
             );
 
             if (refreshTokensRemoved > 1) {
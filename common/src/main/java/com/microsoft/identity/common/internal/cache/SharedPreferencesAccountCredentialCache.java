@@ -34,14 +34,14 @@ import com.microsoft.identity.common.internal.dto.IAccountRecord;
 import com.microsoft.identity.common.internal.dto.IdTokenRecord;
 import com.microsoft.identity.common.internal.dto.RefreshTokenRecord;
 import com.microsoft.identity.common.internal.logging.Logger;
+import com.microsoft.identity.common.internal.util.Predicate;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 
 import static com.microsoft.identity.common.internal.cache.CacheKeyValueDelegate.CACHE_VALUE_SEPARATOR;
 
@@ -83,6 +83,20 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
     private static final String ACCOUNT_RECORD_DESERIALIZATION_FAILED = DESERIALIZATION_FAILED + AccountRecord.class.getSimpleName();
     private static final String CREDENTIAL_DESERIALIZATION_FAILED = DESERIALIZATION_FAILED + Credential.class.getSimpleName();
 
+    private static final Predicate<String> ACCOUNT_KEYS = new Predicate<String>() {
+        @Override
+        public boolean test(final String cacheKey) {
+            return isAccount(cacheKey);
+        }
+    };
+
+    private static final Predicate<String> CREDENTIAL_KEYS = new Predicate<String>() {
+        @Override
+        public boolean test(final String cacheKey) {
+            return isCredential(cacheKey);
+        }
+    };
+
     // SharedPreferences used to store Accounts and Credentials
     private final ISharedPreferencesFileManager mSharedPreferencesFileManager;
 
@@ -97,7 +111,7 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
     public SharedPreferencesAccountCredentialCache(
             @NonNull final ICacheKeyValueDelegate accountCacheValueDelegate,
             @NonNull final ISharedPreferencesFileManager sharedPreferencesFileManager) {
-        Logger.verbose(TAG, "Init: " + TAG);
+        Logger.verboseFormat(TAG, "Init: %s", TAG);
         mSharedPreferencesFileManager = sharedPreferencesFileManager;
         mCacheValueDelegate = accountCacheValueDelegate;
     }
@@ -105,9 +119,9 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
     @Override
     public synchronized void saveAccount(@NonNull final AccountRecord account) {
         Logger.verbose(TAG, "Saving Account...");
-        Logger.verbose(TAG, "Account type: [" + account.getClass().getSimpleName() + "]");
+        Logger.verboseFormat(TAG, "Account type: [%s]", account.getClass().getSimpleName());
         final String cacheKey = mCacheValueDelegate.generateCacheKey(account);
-        Logger.verbosePII(TAG, "Generated cache key: [" + cacheKey + "]");
+        Logger.verbosePIIFormat(TAG, "Generated cache key: [%s]", cacheKey);
         final String cacheValue = mCacheValueDelegate.generateCacheValue(account);
         mSharedPreferencesFileManager.putString(cacheKey, cacheValue);
     }
@@ -116,7 +130,7 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
     public synchronized void saveCredential(@NonNull Credential credential) {
         Logger.verbose(TAG, "Saving credential...");
         final String cacheKey = mCacheValueDelegate.generateCacheKey(credential);
-        Logger.verbosePII(TAG, "Generated cache key: [" + cacheKey + "]");
+        Logger.verbosePIIFormat(TAG, "Generated cache key: [%s]", cacheKey);
         final String cacheValue = mCacheValueDelegate.generateCacheValue(credential);
         mSharedPreferencesFileManager.putString(cacheKey, cacheValue);
     }
@@ -150,7 +164,7 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
     public synchronized Credential getCredential(@NonNull final String cacheKey) {
         // TODO add support for more Credential types...
         Logger.verbose(TAG, "getCredential()");
-        Logger.verbosePII(TAG, "Using cache key: [" + cacheKey + "]");
+        Logger.verbosePIIFormat(TAG, "Using cache key: [%s]", cacheKey);
 
         final CredentialType type = getCredentialTypeForCredentialCacheKey(cacheKey);
         Class<? extends Credential> clazz = null;
@@ -188,32 +202,47 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
         return credential;
     }
 
+    /**
+     * Loads every Account in the backing SharedPreferences file, keyed by its cache key.
+     *
+     * @return A mutable Map of cache keys to Accounts.
+     */
     @NonNull
-    private Map<String, AccountRecord> getAccountsWithKeys() {
+    protected Map<String, AccountRecord> getAccountsWithKeys() {
+        return getAccountsWithKeys(ACCOUNT_KEYS);
+    }
+
+    /**
+     * Loads the Accounts in the backing SharedPreferences file whose cache keys are accepted by
+     * the supplied filter. Values for rejected keys are neither decrypted nor deserialized.
+     *
+     * @param keyFilter The filter to apply to each cache key.
+     * @return A mutable Map of cache keys to Accounts.
+     */
+    @NonNull
+    private Map<String, AccountRecord> getAccountsWithKeys(@NonNull final Predicate<String> keyFilter) {
         Logger.verbose(TAG, "Loading Accounts + keys...");
-        final Map<String, ?> cacheValues = mSharedPreferencesFileManager.getAll();
+        final Map<String, ?> cacheValues = mSharedPreferencesFileManager.getAll(keyFilter);
         final Map<String, AccountRecord> accounts = new HashMap<>();
 
         for (Map.Entry<String, ?> cacheValue : cacheValues.entrySet()) {
             final String cacheKey = cacheValue.getKey();
-            if (isAccount(cacheKey)) {
-                final AccountRecord account = mCacheValueDelegate.fromCacheValue(
-                        cacheValue.getValue().toString(),
-                        AccountRecord.class
-                );
+            final AccountRecord account = mCacheValueDelegate.fromCacheValue(
+                    cacheValue.getValue().toString(),
+                    AccountRecord.class
+            );
 
-                if (null == account) {
-                    Logger.warn(
-                            TAG,
-                            ACCOUNT_RECORD_DESERIALIZATION_FAILED
-                    );
-                } else {
-                    accounts.put(cacheKey, account);
-                }
+            if (null == account) {
+                Logger.warn(
+                        TAG,
+                        ACCOUNT_RECORD_DESERIALIZATION_FAILED
+                );
+            } else {
+                accounts.put(cacheKey, account);
             }
         }
 
-        Logger.verbose(TAG, "Returning [" + accounts.size() + "] Accounts w/ keys...");
+        Logger.verboseFormat(TAG, "Returning [%s] Accounts w/ keys...", accounts.size());
 
         return accounts;
     }
@@ -224,7 +253,7 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
         Logger.verbose(TAG, "Loading Accounts...(no arg)");
         final Map<String, AccountRecord> allAccounts = getAccountsWithKeys();
         final List<AccountRecord> accounts = new ArrayList<>(allAccounts.values());
-        Logger.info(TAG, "Found [" + accounts.size() + "] Accounts...");
+        Logger.infoFormat(TAG, "Found [%s] Accounts...", accounts.size());
         return accounts;
     }
 
@@ -236,7 +265,12 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
             @Nullable final String realm) {
         Logger.verbose(TAG, "Loading Accounts...");
 
-        final List<AccountRecord> allAccounts = getAccounts();
+        // Only decrypt the Accounts whose cache keys could match
+        final List<AccountRecord> allAccounts = new ArrayList<>(
+                getAccountsWithKeys(
+                        new AccountKeyFilter(homeAccountId, environment, realm)
+                ).values()
+        );
 
         final List<AccountRecord> matchingAccounts = getAccountsFilteredByInternal(
                 homeAccountId,
@@ -245,37 +279,52 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
                 allAccounts
         );
 
-        Logger.verbose(TAG, "Found [" + matchingAccounts.size() + "] matching Accounts...");
+        Logger.verboseFormat(TAG, "Found [%s] matching Accounts...", matchingAccounts.size());
 
         return matchingAccounts;
     }
 
+    /**
+     * Loads every Credential in the backing SharedPreferences file, keyed by its cache key.
+     *
+     * @return A mutable Map of cache keys to Credentials.
+     */
+    @NonNull
+    protected Map<String, Credential> getCredentialsWithKeys() {
+        return getCredentialsWithKeys(CREDENTIAL_KEYS);
+    }
+
+    /**
+     * Loads the Credentials in the backing SharedPreferences file whose cache keys are accepted
+     * by the supplied filter. Values for rejected keys are neither decrypted nor deserialized.
+     *
+     * @param keyFilter The filter to apply to each cache key.
+     * @return A mutable Map of cache keys to Credentials.
+     */
     @NonNull
-    private Map<String, Credential> getCredentialsWithKeys() {
+    private Map<String, Credential> getCredentialsWithKeys(@NonNull final Predicate<String> keyFilter) {
         Logger.verbose(TAG, "Loading Credentials with keys...");
-        final Map<String, ?> cacheValues = mSharedPreferencesFileManager.getAll();
+        final Map<String, ?> cacheValues = mSharedPreferencesFileManager.getAll(keyFilter);
         final Map<String, Credential> credentials = new HashMap<>();
 
         for (Map.Entry<String, ?> cacheValue : cacheValues.entrySet()) {
             final String cacheKey = cacheValue.getKey();
-            if (isCredential(cacheKey)) {
-                final Credential credential = mCacheValueDelegate.fromCacheValue(
-                        cacheValue.getValue().toString(),
-                        credentialClassForType(cacheKey)
-                );
+            final Credential credential = mCacheValueDelegate.fromCacheValue(
+                    cacheValue.getValue().toString(),
+                    credentialClassForType(cacheKey)
+            );
 
-                if (null == credential) {
-                    Logger.warn(
-                            TAG,
-                            CREDENTIAL_DESERIALIZATION_FAILED
-                    );
-                } else {
-                    credentials.put(cacheKey, credential);
-                }
+            if (null == credential) {
+                Logger.warn(
+                        TAG,
+                        CREDENTIAL_DESERIALIZATION_FAILED
+                );
+            } else {
+                credentials.put(cacheKey, credential);
             }
         }
 
-        Logger.verbose(TAG, "Loaded [" + credentials.size() + "] Credentials...");
+        Logger.verboseFormat(TAG, "Loaded [%s] Credentials...", credentials.size());
 
         return credentials;
     }
@@ -301,7 +350,24 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
             @Nullable final String authScheme) {
         Logger.verbose(TAG, "getCredentialsFilteredBy()");
 
-        final List<Credential> allCredentials = getCredentials();
+        // Only decrypt the Credentials whose cache keys could match
+        final List<Credential> allCredentials = new ArrayList<>(
+                getCredentialsWithKeys(
+                        new CredentialKeyFilter(
+                                Collections.singletonList(
+                                        new CredentialFilter(
+                                                homeAccountId,
+                                                environment,
+                                                credentialType,
+                                                clientId,
+                                                realm,
+                                                target,
+                                                authScheme
+                                        )
+                                )
+                        )
+                ).values()
+        );
 
         final List<Credential> matchingCredentials = getCredentialsFilteredByInternal(
                 homeAccountId,
@@ -314,11 +380,25 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
                 allCredentials
         );
 
-        Logger.verbose(TAG, "Found [" + matchingCredentials.size() + "] matching Credentials...");
+        Logger.verboseFormat(TAG, "Found [%s] matching Credentials...", matchingCredentials.size());
 
         return matchingCredentials;
     }
 
+    @Override
+    @NonNull
+    public List<List<Credential>> getCredentialsFilteredBy(@NonNull final List<CredentialFilter> filters) {
+        Logger.verboseFormat(TAG, "getCredentialsFilteredBy() [%s] filters", filters.size());
+
+        // Load (and decrypt) the entries matching any of the filters once, then resolve every
+        // filter against the result
+        final List<Credential> allCredentials = new ArrayList<>(
+                getCredentialsWithKeys(new CredentialKeyFilter(filters)).values()
+        );
+
+        return getCredentialsFilteredByInternal(filters, allCredentials);
+    }
+
     @Override
     public boolean removeAccount(@NonNull final AccountRecord accountToRemove) {
         Logger.info(TAG, "Removing Account...");
@@ -326,11 +406,18 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
             throw new IllegalArgumentException("Param [accountToRemove] cannot be null.");
         }
 
-        final Map<String, AccountRecord> accounts = getAccountsWithKeys();
+        // Only decrypt the Accounts whose cache keys could match
+        final Map<String, AccountRecord> accounts = getAccountsWithKeys(
+                new AccountKeyFilter(
+                        accountToRemove.getHomeAccountId(),
+                        accountToRemove.getEnvironment(),
+                        accountToRemove.getRealm()
+                )
+        );
 
         boolean accountRemoved = false;
         for (final Map.Entry<String, AccountRecord> entry : accounts.entrySet()) {
-            Logger.verbosePII(TAG, "Inspecting: [" + entry.getKey() + "]");
+            Logger.verbosePIIFormat(TAG, "Inspecting: [%s]", entry.getKey());
             final IAccountRecord currentAccount = entry.getValue();
 
             if (currentAccount.equals(accountToRemove)) {
@@ -340,7 +427,7 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
             }
         }
 
-        Logger.info(TAG, "Account was removed? [" + accountRemoved + "]");
+        Logger.infoFormat(TAG, "Account was removed? [%s]", accountRemoved);
 
         return accountRemoved;
     }
@@ -353,11 +440,26 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
             throw new IllegalArgumentException("Param [credentialToRemove] cannot be null.");
         }
 
-        final Map<String, Credential> credentials = getCredentialsWithKeys();
+        // Only decrypt the Credentials whose cache keys could match
+        final Map<String, Credential> credentials = getCredentialsWithKeys(
+                new CredentialKeyFilter(
+                        Collections.singletonList(
+                                new CredentialFilter(
+                                        credentialToRemove.getHomeAccountId(),
+                                        credentialToRemove.getEnvironment(),
+                                        CredentialType.fromString(credentialToRemove.getCredentialType()),
+                                        credentialToRemove.getClientId(),
+                                        null, // wildcard (*)
+                                        null, // wildcard (*)
+                                        null // not applicable
+                                )
+                        )
+                )
+        );
 
         boolean credentialRemoved = false;
         for (final Map.Entry<String, Credential> entry : credentials.entrySet()) {
-            Logger.verbosePII(TAG, "Inspecting: [" + entry.getKey() + "]");
+            Logger.verbosePIIFormat(TAG, "Inspecting: [%s]", entry.getKey());
             final Credential currentCredential = entry.getValue();
 
             if (currentCredential.equals(credentialToRemove)) {
@@ -367,7 +469,7 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
             }
         }
 
-        Logger.info(TAG, "Credential was removed? [" + credentialRemoved + "]");
+        Logger.infoFormat(TAG, "Credential was removed? [%s]", credentialRemoved);
 
         return credentialRemoved;
     }
@@ -381,11 +483,11 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
 
     private Class<? extends Credential> credentialClassForType(@NonNull final String cacheKey) {
         Logger.verbose(TAG, "Resolving class for key/CredentialType...");
-        Logger.verbosePII(TAG, "Supplied key: [" + cacheKey + "]");
+        Logger.verbosePIIFormat(TAG, "Supplied key: [%s]", cacheKey);
 
         final CredentialType targetType = getCredentialTypeForCredentialCacheKey(cacheKey);
 
-        Logger.verbose(TAG, "CredentialType matched: [" + targetType + "]");
+        Logger.verboseFormat(TAG, "CredentialType matched: [%s]", targetType);
 
         return getTargetClassForCredentialType(cacheKey, targetType);
     }
@@ -398,62 +500,141 @@ public class SharedPreferencesAccountCredentialCache extends AbstractAccountCred
      */
     @Nullable
     public static CredentialType getCredentialTypeForCredentialCacheKey(@NonNull final String cacheKey) {
-        if (StringExtensions.isNullOrBlank(cacheKey)) {
-            throw new IllegalArgumentException("Param [cacheKey] cannot be null.");
+        return CacheKey.parse(cacheKey).getCredentialType();
+    }
+
+    /**
+     * Lowercases and trims a query value the same way
+     * {@link CacheKeyValueDelegate#generateCacheKey(Credential)} sanitizes key segments.
+     */
+    @Nullable
+    private static String toKeySegment(@Nullable final String value) {
+        return StringExtensions.isNullOrBlank(value) ? null : value.toLowerCase(Locale.US).trim();
+    }
+
+    /**
+     * Rejects Account cache keys which cannot possibly match the supplied criteria.
+     * <p>
+     * Cache key segments may themselves contain the separator, so this filter is conservative:
+     * a key it accepts must still have its deserialized value matched against the criteria.
+     */
+    private static class AccountKeyFilter implements Predicate<String> {
+
+        private final String mHomeAccountId;
+        private final String mEnvironment;
+        private final String mRealm;
+
+        AccountKeyFilter(@Nullable final String homeAccountId,
+                         @Nullable final String environment,
+                         @Nullable final String realm) {
+            mHomeAccountId = toKeySegment(homeAccountId);
+            mEnvironment = toKeySegment(environment);
+            mRealm = toKeySegment(realm);
         }
 
-        Logger.verbosePII(TAG, "Evaluating cache key for CredentialType [" + cacheKey + "]");
+        @Override
+        public boolean test(final String cacheKey) {
+            // <home_account_id>-<environment>-<realm>
+            return (null == mHomeAccountId || cacheKey.startsWith(mHomeAccountId + CACHE_VALUE_SEPARATOR))
+                    && (null == mEnvironment || cacheKey.contains(CACHE_VALUE_SEPARATOR + mEnvironment + CACHE_VALUE_SEPARATOR))
+                    && (null == mRealm || cacheKey.endsWith(CACHE_VALUE_SEPARATOR + mRealm))
+                    && isAccount(cacheKey);
+        }
+    }
+
+    /**
+     * Rejects Credential cache keys which cannot possibly match any of the supplied filters.
+     * <p>
+     * Cache key segments may themselves contain the separator, so this filter is conservative:
+     * a key it accepts must still have its deserialized value matched against the filters.
+     */
+    private static class CredentialKeyFilter implements Predicate<String> {
+
+        private final List<CredentialKeySegments> mFilters;
 
-        final Set<String> credentialTypesLowerCase = new HashSet<>();
+        CredentialKeyFilter(@NonNull final List<CredentialFilter> filters) {
+            mFilters = new ArrayList<>(filters.size());
 
-        for (final String credentialTypeStr : CredentialType.valueSet()) {
-            credentialTypesLowerCase.add(credentialTypeStr.toLowerCase(Locale.US));
+            for (final CredentialFilter filter : filters) {
+                mFilters.add(new CredentialKeySegments(filter));
+            }
         }
 
-        CredentialType type = null;
-        for (final String credentialTypeStr : credentialTypesLowerCase) {
-            if (cacheKey.contains(CACHE_VALUE_SEPARATOR + credentialTypeStr + CACHE_VALUE_SEPARATOR)) {
-                Logger.verbose(TAG, "Cache key is a Credential type...");
-
-                if (CredentialType.AccessToken.name().equalsIgnoreCase(credentialTypeStr)) {
-                    type = CredentialType.AccessToken;
-                    break;
-                } else if (CredentialType.AccessToken_With_AuthScheme.name().equalsIgnoreCase(credentialTypeStr)) {
-                    type = CredentialType.AccessToken_With_AuthScheme;
-                    break;
-                } else if (CredentialType.RefreshToken.name().equalsIgnoreCase(credentialTypeStr)) {
-                    type = CredentialType.RefreshToken;
-                    break;
-                } else if (CredentialType.IdToken.name().equalsIgnoreCase(credentialTypeStr)) {
-                    type = CredentialType.IdToken;
-                    break;
-                } else if (CredentialType.V1IdToken.name().equalsIgnoreCase(credentialTypeStr)) {
-                    type = CredentialType.V1IdToken;
-                    break;
-                } else {
-                    // TODO Log a warning and skip this value?
-                    Logger.warn(TAG, "Unexpected credential type.");
+        @Override
+        public boolean test(final String cacheKey) {
+            final CacheKey key = CacheKey.parse(cacheKey);
+
+            if (!key.isCredential()) {
+                return false;
+            }
+
+            for (final CredentialKeySegments filter : mFilters) {
+                if (filter.mayMatch(key)) {
+                    return true;
                 }
             }
+
+            return false;
         }
+    }
 
-        Logger.verbose(TAG, "Cache key was type: [" + type + "]");
+    /**
+     * The criteria of a single {@link CredentialFilter}, normalized once into the form they take
+     * inside a cache key.
+     */
+    private static class CredentialKeySegments {
+
+        private final String mHomeAccountIdPrefix;
+        private final String mEnvironmentSuffix;
+        private final CredentialType mCredentialType;
+        private final String mClientIdPrefix;
+        private final String mRealmSegment;
+
+        CredentialKeySegments(@NonNull final CredentialFilter filter) {
+            final String homeAccountId = toKeySegment(filter.getHomeAccountId());
+            final String environment = toKeySegment(filter.getEnvironment());
+            final String clientId = toKeySegment(filter.getClientId());
+            final String realm = toKeySegment(filter.getRealm());
+
+            mCredentialType = filter.getCredentialType();
+            mHomeAccountIdPrefix = null == homeAccountId ? null : homeAccountId + CACHE_VALUE_SEPARATOR;
+            mEnvironmentSuffix = null == environment ? null : CACHE_VALUE_SEPARATOR + environment;
+
+            // Family refresh tokens are keyed by family id rather than client id, and without
+            // a type we cannot know whether this is one of them
+            final boolean matchesOnKeyedFields = null != mCredentialType
+                    && CredentialType.RefreshToken != mCredentialType;
+
+            mClientIdPrefix = null == clientId || !matchesOnKeyedFields
+                    ? null
+                    : clientId + CACHE_VALUE_SEPARATOR;
+
+            // Only AccessTokens and IdTokens are matched on realm
+            mRealmSegment = null == realm || !matchesOnKeyedFields
+                    ? null
+                    : CACHE_VALUE_SEPARATOR + realm + CACHE_VALUE_SEPARATOR;
+        }
 
-        return type;
+        boolean mayMatch(@NonNull final CacheKey key) {
+            // <home_account_id>-<environment>
+            final String head = key.getHomeAccountIdAndEnvironment();
+            // <client_id>-<realm>-<target>[-<auth_scheme>]
+            final String tail = key.getClientIdRealmAndTarget();
+
+            return (null == mCredentialType || mCredentialType == key.getCredentialType())
+                    && (null == mHomeAccountIdPrefix || head.startsWith(mHomeAccountIdPrefix))
+                    && (null == mEnvironmentSuffix || head.endsWith(mEnvironmentSuffix))
+                    && (null == mClientIdPrefix || tail.startsWith(mClientIdPrefix))
+                    && (null == mRealmSegment || tail.contains(mRealmSegment));
+        }
     }
 
-    private boolean isAccount(@NonNull final String cacheKey) {
-        Logger.verbosePII(TAG, "Evaluating cache key: [" + cacheKey + "]");
-        boolean isAccount = null == getCredentialTypeForCredentialCacheKey(cacheKey);
-        Logger.verbose(TAG, "isAccount? [" + isAccount + "]");
-        return isAccount;
+    private static boolean isAccount(@NonNull final String cacheKey) {
+        return CacheKey.parse(cacheKey).isAccount();
     }
 
-    private boolean isCredential(@NonNull String cacheKey) {
-        Logger.verbosePII(TAG, "Evaluating cache key: [" + cacheKey + "]");
-        boolean isCredential = null != getCredentialTypeForCredentialCacheKey(cacheKey);
-        Logger.verbose(TAG, "isCredential? [" + isCredential + "]");
-        return isCredential;
+    private static boolean isCredential(@NonNull String cacheKey) {
+        return CacheKey.parse(cacheKey).isCredential();
     }
 
 }
@@ -33,11 +33,15 @@ import androidx.annotation.Nullable;
 import com.microsoft.identity.common.adal.internal.cache.IStorageHelper;
 import com.microsoft.identity.common.adal.internal.util.StringExtensions;
 import com.microsoft.identity.common.internal.logging.Logger;
+import com.microsoft.identity.common.internal.util.Predicate;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Convenience class for accessing {@link SharedPreferences}.
@@ -46,9 +50,20 @@ public class SharedPreferencesFileManager implements ISharedPreferencesFileManag
 
     private static final String TAG = SharedPreferencesFileManager.class.getSimpleName();
 
+    private static final Predicate<String> ALL_KEYS = new Predicate<String>() {
+        @Override
+        public boolean test(final String key) {
+            return true;
+        }
+    };
+
+    // Write counters shared by every instance on the same file, keyed by file name
+    private static final ConcurrentMap<String, AtomicLong> sWriteGenerations = new ConcurrentHashMap<>();
+
     private final String mSharedPreferencesFileName;
     private final SharedPreferences mSharedPreferences;
     private final IStorageHelper mStorageHelper;
+    private final AtomicLong mWriteGeneration;
 
     /**
      * Constructs an instance of SharedPreferencesFileManager.
@@ -61,8 +76,9 @@ public class SharedPreferencesFileManager implements ISharedPreferencesFileManag
     public SharedPreferencesFileManager(
             final Context context,
             final String name) {
-        Logger.verbose(TAG, "Init: " + TAG);
+        Logger.verboseFormat(TAG, "Init: %s", TAG);
         mSharedPreferencesFileName = name;
+        mWriteGeneration = getWriteGenerationOf(name);
         mSharedPreferences = context.getSharedPreferences(name, Context.MODE_PRIVATE);
         mStorageHelper = null;
     }
@@ -79,8 +95,9 @@ public class SharedPreferencesFileManager implements ISharedPreferencesFileManag
             final Context context,
             final String name,
             final int operatingMode) {
-        Logger.verbose(TAG, "Init with operating mode: " + TAG);
+        Logger.verboseFormat(TAG, "Init with operating mode: %s", TAG);
         mSharedPreferencesFileName = name;
+        mWriteGeneration = getWriteGenerationOf(name);
         mSharedPreferences = context.getSharedPreferences(name, operatingMode);
         mStorageHelper = null;
     }
@@ -98,8 +115,9 @@ public class SharedPreferencesFileManager implements ISharedPreferencesFileManag
             final Context context,
             final String name,
             final IStorageHelper storageHelper) {
-        Logger.verbose(TAG, "Init with storage helper:  " + TAG);
+        Logger.verboseFormat(TAG, "Init with storage helper:  %s", TAG);
         mSharedPreferencesFileName = name;
+        mWriteGeneration = getWriteGenerationOf(name);
         mSharedPreferences = context.getSharedPreferences(name, Context.MODE_PRIVATE);
         mStorageHelper = storageHelper;
     }
@@ -118,8 +136,9 @@ public class SharedPreferencesFileManager implements ISharedPreferencesFileManag
             final String name,
             final int operatingMode,
             final IStorageHelper storageHelper) {
-        Logger.verbose(TAG, "Init with operating mode and storage helper " + TAG);
+        Logger.verboseFormat(TAG, "Init with operating mode and storage helper %s", TAG);
         mSharedPreferencesFileName = name;
+        mWriteGeneration = getWriteGenerationOf(name);
         mSharedPreferences = context.getSharedPreferences(name, operatingMode);
         mStorageHelper = storageHelper;
     }
@@ -138,6 +157,7 @@ public class SharedPreferencesFileManager implements ISharedPreferencesFileManag
         }
 
         editor.apply();
+        mWriteGeneration.incrementAndGet();
     }
 
     @Override
@@ -189,13 +209,23 @@ public class SharedPreferencesFileManager implements ISharedPreferencesFileManag
 
     @Override
     public final Map<String, String> getAll() {
+        return getAll(ALL_KEYS);
+    }
+
+    @Override
+    public final Map<String, String> getAll(@NonNull final Predicate<String> keyFilter) {
         final Map<String, String> entries = (Map<String, String>) mSharedPreferences.getAll();
+        final Iterator<Map.Entry<String, String>> iterator = entries.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            final Map.Entry<String, String> entry = iterator.next();
 
-        if (null != mStorageHelper) {
-            final Iterator<Map.Entry<String, String>> iterator = entries.entrySet().iterator();
+            if (!keyFilter.test(entry.getKey())) {
+                iterator.remove();
+                continue;
+            }
 
-            while (iterator.hasNext()) {
-                final Map.Entry<String, String> entry = iterator.next();
+            if (null != mStorageHelper) {
                 final String decryptedValue = decrypt(entry.getValue());
 
                 if (TextUtils.isEmpty(decryptedValue)) {
@@ -221,6 +251,7 @@ public class SharedPreferencesFileManager implements ISharedPreferencesFileManag
         final SharedPreferences.Editor editor = mSharedPreferences.edit();
         editor.clear();
         editor.apply();
+        mWriteGeneration.incrementAndGet();
     }
 
     @Override
@@ -233,15 +264,28 @@ public class SharedPreferencesFileManager implements ISharedPreferencesFileManag
         final SharedPreferences.Editor editor = mSharedPreferences.edit();
         editor.remove(key);
         editor.apply();
+        mWriteGeneration.incrementAndGet();
 
-        Logger.infoPII(
+        Logger.infoPIIFormat(
                 TAG,
-                "Removed cache key ["
-                        + key
-                        + "]"
+                "Removed cache key [%s]",
+                key
         );
     }
 
+    @Override
+    public long getWriteGeneration() {
+        return mWriteGeneration.get();
+    }
+
+    @NonNull
+    private static AtomicLong getWriteGenerationOf(@NonNull final String name) {
+        final AtomicLong writeGeneration = new AtomicLong();
+        final AtomicLong existingWriteGeneration = sWriteGenerations.putIfAbsent(name, writeGeneration);
+
+        return null == existingWriteGeneration ? writeGeneration : existingWriteGeneration;
+    }
+
     @Nullable
     private String encrypt(@NonNull final String clearText) {
         return encryptDecryptInternal(clearText, true);
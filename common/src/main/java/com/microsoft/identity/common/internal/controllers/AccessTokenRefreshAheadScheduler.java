@@ -0,0 +1,253 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.controllers;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.internal.dto.AccessTokenRecord;
+import com.microsoft.identity.common.internal.logging.DiagnosticContext;
+import com.microsoft.identity.common.internal.logging.Logger;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renews access tokens in the background once they pass their refresh point (see
+ * {@link AccessTokenRecord#shouldRefresh()}), so that callers are served the still-valid cached
+ * token instead of waiting on the network when it lapses.
+ * <p>
+ * At most one refresh is pending per access token. Refreshes run on a single low-priority thread
+ * fed by a bounded queue; refreshes which do not fit are dropped, to be scheduled again by a
+ * later request.
+ * <p>
+ * Each refresh runs under a {@link DiagnosticContext} of its own, so its token request carries
+ * a new correlation id; the correlation id of the request which scheduled it is logged alongside.
+ */
+public class AccessTokenRefreshAheadScheduler {
+
+    private static final String TAG = AccessTokenRefreshAheadScheduler.class.getSimpleName();
+
+    private static final int QUEUE_CAPACITY = 32;
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+    private static final String THREAD_NAME = "msal-refresh-ahead";
+
+    private static final AccessTokenRefreshAheadScheduler sInstance =
+            new AccessTokenRefreshAheadScheduler(createDefaultExecutor());
+
+    /**
+     * The work performed to renew an access token.
+     */
+    public interface RefreshOperation {
+
+        /**
+         * Renews the access token and saves the result to the cache.
+         *
+         * @return True if the token was renewed, false if the token endpoint returned an error.
+         * @throws Exception If the token request could not be made.
+         */
+        boolean refresh() throws Exception;
+    }
+
+    private final ExecutorService mExecutor;
+    private final Set<String> mPendingRefreshes =
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private final AtomicLong mRefreshAheadHitCount = new AtomicLong();
+    private final AtomicLong mScheduledRefreshCount = new AtomicLong();
+    private final AtomicLong mDroppedRefreshCount = new AtomicLong();
+    private final AtomicLong mFailedRefreshCount = new AtomicLong();
+    private final AtomicLong mCompletedRefreshCount = new AtomicLong();
+    private final AtomicLong mLatencySavedMillis = new AtomicLong();
+
+    AccessTokenRefreshAheadScheduler(@NonNull final ExecutorService executor) {
+        mExecutor = executor;
+    }
+
+    public static AccessTokenRefreshAheadScheduler getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Records that the supplied access token was returned past its refresh point and, unless a
+     * refresh of it is already pending, enqueues the supplied operation to renew it.
+     *
+     * @param accessToken The access token being returned to the caller.
+     * @param operation   The operation which renews it.
+     * @return True if a new refresh was enqueued, false otherwise.
+     */
+    public boolean scheduleRefresh(@NonNull final AccessTokenRecord accessToken,
+                                   @NonNull final RefreshOperation operation) {
+        final String methodName = ":scheduleRefresh";
+        mRefreshAheadHitCount.incrementAndGet();
+
+        final String refreshKey = getRefreshKey(accessToken);
+        final String scheduledBy = DiagnosticContext.getRequestContext().get(DiagnosticContext.CORRELATION_ID);
+
+        if (!mPendingRefreshes.add(refreshKey)) {
+            Logger.verbose(
+                    TAG + methodName,
+                    "A refresh of this access token is already pending."
+            );
+            return false;
+        }
+
+        try {
+            mExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    runRefresh(refreshKey, scheduledBy, operation);
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            mPendingRefreshes.remove(refreshKey);
+            mDroppedRefreshCount.incrementAndGet();
+            Logger.warn(
+                    TAG + methodName,
+                    "Refresh-ahead queue is full, dropping refresh."
+            );
+            return false;
+        }
+
+        mScheduledRefreshCount.incrementAndGet();
+        Logger.info(
+                TAG + methodName,
+                "Access token passed its refresh point, scheduled background refresh."
+        );
+        return true;
+    }
+
+    private void runRefresh(@NonNull final String refreshKey,
+                            @Nullable final String scheduledBy,
+                            @NonNull final RefreshOperation operation) {
+        final String methodName = ":runRefresh";
+        final long startTime = System.currentTimeMillis();
+
+        CommandDispatcher.initializeDiagnosticContext(null);
+        Logger.info(
+                TAG + methodName,
+                "Starting background refresh scheduled by request: " + scheduledBy
+        );
+
+        try {
+            if (operation.refresh()) {
+                // The round trip is one a caller would otherwise have waited on once the token lapsed
+                mLatencySavedMillis.addAndGet(System.currentTimeMillis() - startTime);
+                mCompletedRefreshCount.incrementAndGet();
+            } else {
+                mFailedRefreshCount.incrementAndGet();
+                Logger.warn(
+                        TAG + methodName,
+                        "Background refresh failed, the token endpoint returned an error."
+                );
+            }
+        } catch (final Exception e) {
+            mFailedRefreshCount.incrementAndGet();
+            Logger.warn(
+                    TAG + methodName,
+                    "Background refresh failed: " + e.getClass().getSimpleName()
+            );
+            Logger.errorPII(
+                    TAG + methodName,
+                    "Background refresh failed.",
+                    e
+            );
+        } finally {
+            mPendingRefreshes.remove(refreshKey);
+            DiagnosticContext.clear();
+        }
+    }
+
+    /**
+     * Gets the number of requests served a cached access token which had passed its refresh point.
+     *
+     * @return The refresh-ahead hit count.
+     */
+    public long getRefreshAheadHitCount() {
+        return mRefreshAheadHitCount.get();
+    }
+
+    public long getScheduledRefreshCount() {
+        return mScheduledRefreshCount.get();
+    }
+
+    public long getDroppedRefreshCount() {
+        return mDroppedRefreshCount.get();
+    }
+
+    public long getFailedRefreshCount() {
+        return mFailedRefreshCount.get();
+    }
+
+    public long getCompletedRefreshCount() {
+        return mCompletedRefreshCount.get();
+    }
+
+    /**
+     * Gets the total duration of the completed background refreshes, which callers did not have
+     * to wait on.
+     *
+     * @return The latency saved, in milliseconds.
+     */
+    public long getLatencySavedMillis() {
+        return mLatencySavedMillis.get();
+    }
+
+    private static String getRefreshKey(@NonNull final AccessTokenRecord accessToken) {
+        return accessToken.getHomeAccountId()
+                + "|" + accessToken.getEnvironment()
+                + "|" + accessToken.getClientId()
+                + "|" + accessToken.getCredentialType()
+                + "|" + accessToken.getRealm()
+                + "|" + accessToken.getTarget();
+    }
+
+    private static ExecutorService createDefaultExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1,
+                1,
+                IDLE_THREAD_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(QUEUE_CAPACITY),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(@NonNull final Runnable runnable) {
+                        final Thread thread = new Thread(runnable, THREAD_NAME);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -344,15 +344,14 @@ public abstract class BaseController {
             if (tokenResult.getErrorResponse() != null) {
                 final String errorCode = tokenResult.getErrorResponse().getError();
                 final String subErrorCode = tokenResult.getErrorResponse().getSubError();
-                Logger.info(TAG, "Error: " + errorCode + " Suberror: " + subErrorCode);
+                Logger.infoFormat(TAG, "Error: %s Suberror: %s", errorCode, subErrorCode);
 
                 if (INVALID_GRANT.equals(errorCode) && BAD_TOKEN.equals(subErrorCode)) {
                     boolean isRemoved = tokenCache.removeCredential(cacheRecord.getRefreshToken());
-                    Logger.info(
+                    Logger.infoFormat(
                             TAG,
-                            "Refresh token is invalid, "
-                                    + "attempting to delete the RT from cache, result:"
-                                    + isRemoved
+                            "Refresh token is invalid, attempting to delete the RT from cache, result:%s",
+                            isRemoved
                     );
                 }
             } else {
@@ -408,9 +407,10 @@ public abstract class BaseController {
             AuthorizationResult authResult = (AuthorizationResult) result;
 
             if (authResult.getAuthorizationStatus() != null) {
-                Logger.info(
+                Logger.infoFormat(
                         TAG,
-                        "Authorization Status: " + authResult.getAuthorizationStatus().toString()
+                        "Authorization Status: %s",
+                        authResult.getAuthorizationStatus()
                 );
             }
         }
@@ -487,9 +487,10 @@ public abstract class BaseController {
         }
 
         if (!StringExtensions.isNullOrBlank(refreshTokenRequest.getScope())) {
-            Logger.infoPII(
+            Logger.infoPIIFormat(
                     TAG + methodName,
-                    "Scopes: [" + refreshTokenRequest.getScope() + "]"
+                    "Scopes: [%s]",
+                    refreshTokenRequest.getScope()
             );
         }
 
@@ -660,7 +661,7 @@ public abstract class BaseController {
                 );
             }
         } else {
-            Logger.info(TAG, "No Foci tokens found for homeAccountId " + homeAccountId);
+            Logger.infoFormat(TAG, "No Foci tokens found for homeAccountId %s", homeAccountId);
         }
         return null;
     }
@@ -42,10 +42,12 @@ import com.microsoft.identity.common.internal.broker.BrokerActivity;
 import com.microsoft.identity.common.internal.broker.BrokerAuthServiceStrategy;
 import com.microsoft.identity.common.internal.broker.BrokerBaseStrategy;
 import com.microsoft.identity.common.internal.broker.BrokerContentProviderStrategy;
+import com.microsoft.identity.common.internal.broker.BrokerProtocolVersionCache;
 import com.microsoft.identity.common.internal.broker.BrokerResult;
 import com.microsoft.identity.common.internal.broker.BrokerResultFuture;
 import com.microsoft.identity.common.internal.broker.BrokerValidator;
 import com.microsoft.identity.common.internal.broker.MicrosoftAuthClient;
+import com.microsoft.identity.common.internal.broker.MicrosoftAuthServiceConnectionManager;
 import com.microsoft.identity.common.internal.cache.ICacheRecord;
 import com.microsoft.identity.common.internal.cache.MsalOAuth2TokenCache;
 import com.microsoft.identity.common.internal.commands.parameters.CommandParameters;
@@ -74,6 +76,7 @@ import java.util.concurrent.ExecutionException;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.annotation.WorkerThread;
 
 import lombok.EqualsAndHashCode;
@@ -183,6 +186,8 @@ public class BrokerMsalController extends BaseController {
     /**
      * A generic method that would initialize and iterate through available strategies.
      * It will return a result immediately if any of the strategy succeeds, or throw an exception if all of the strategies fails.
+     * Once a strategy succeeds, it and its negotiated protocol version are cached in
+     * {@link BrokerProtocolVersionCache} and tried first, without hello(), by later operations.
      */
     private <T extends CommandParameters, U> U invokeBrokerOperation(@NonNull final T parameters,
                                                                      @NonNull final BrokerOperationInfo<T, U> strategyTask)
@@ -196,10 +201,57 @@ public class BrokerMsalController extends BaseController {
             );
         }
 
-        final List<BrokerBaseStrategy> strategies = getStrategies();
+        final BrokerProtocolVersionCache versionCache = BrokerProtocolVersionCache.getInstance();
+        final String versionCacheKey = getProtocolVersionCacheKey(parameters);
+        final BrokerProtocolVersionCache.Entry cachedEntry = versionCacheKey == null
+                ? null
+                : versionCache.get(versionCacheKey);
 
         U result = null;
         Exception lastCaughtException = null;
+
+        if (cachedEntry != null) {
+            // Skip hello(): the version was already negotiated with this broker over this strategy
+            try {
+                Logger.infoFormat(
+                        TAG + strategyTask.getMethodName(),
+                        "Executing with cached broker strategy: %s",
+                        cachedEntry.getStrategy().getClass().getSimpleName()
+                );
+
+                result = strategyTask.perform(
+                        cachedEntry.getStrategy(),
+                        parameters,
+                        cachedEntry.getNegotiatedBrokerProtocolVersion()
+                );
+            } catch (final BaseException exception) {
+                if (!(exception instanceof BrokerCommunicationException)
+                        && !ErrorStrings.UNSUPPORTED_BROKER_VERSION_ERROR_CODE.equals(exception.getErrorCode())) {
+                    // MSAL is aware of these exceptions. throw.
+                    if (strategyTask.getTelemetryApiId() != null) {
+                        Telemetry.emit(
+                                new ApiEndEvent()
+                                        .putException(exception)
+                                        .putApiId(strategyTask.getTelemetryApiId())
+                        );
+                    }
+                    throw exception;
+                }
+                lastCaughtException = exception;
+            } catch (final Exception exception) {
+                lastCaughtException = exception;
+            }
+
+            if (result == null) {
+                // The broker may have changed under us; renegotiate
+                versionCache.invalidate(versionCacheKey);
+            }
+        }
+
+        final List<BrokerBaseStrategy> strategies = result == null
+                ? getStrategies()
+                : new ArrayList<BrokerBaseStrategy>();
+
         for (int ii = 0; ii < strategies.size(); ii++) {
             final BrokerBaseStrategy strategy = strategies.get(ii);
             try {
@@ -212,6 +264,14 @@ public class BrokerMsalController extends BaseController {
                 final String negotiatedBrokerProtocolVersion = strategy.hello(parameters);
                 result = strategyTask.perform(strategy, parameters, negotiatedBrokerProtocolVersion);
                 if (result != null) {
+                    if (versionCacheKey != null) {
+                        versionCache.put(
+                                mApplicationContext,
+                                versionCacheKey,
+                                strategy,
+                                negotiatedBrokerProtocolVersion
+                        );
+                    }
                     break;
                 }
             } catch (final BrokerCommunicationException communicationException) {
@@ -265,8 +325,50 @@ public class BrokerMsalController extends BaseController {
     }
 
 
+    /**
+     * Binds to the broker's MicrosoftAuthService ahead of the first broker operation, so that it
+     * does not pay for the bindService round trip. Meant to be called once the app starts, off
+     * the main thread. Does nothing if the broker is reached through its content provider, or
+     * doesn't expose the service.
+     */
+    public void prewarmBrokerConnection() {
+        final String methodName = ":prewarmBrokerConnection";
+
+        if (isBrokerContentProviderAvailable() || !isMicrosoftAuthServiceSupported()) {
+            Logger.verbose(
+                    TAG + methodName,
+                    "MicrosoftAuthService is not the first broker strategy, not pre-warming."
+            );
+            return;
+        }
+
+        MicrosoftAuthServiceConnectionManager.getInstance().prewarm(mApplicationContext);
+    }
+
+    /**
+     * Gets the key under which the protocol version negotiated with the active broker is cached,
+     * or null if there is no verified active broker.
+     */
+    @Nullable
+    @VisibleForTesting
+    String getProtocolVersionCacheKey(@NonNull final CommandParameters parameters) {
+        final BrokerProtocolVersionCache.ActiveBroker activeBroker =
+                BrokerProtocolVersionCache.getInstance().getActiveBroker(mApplicationContext);
+
+        if (activeBroker == null) {
+            return null;
+        }
+
+        return BrokerProtocolVersionCache.getKey(
+                activeBroker.getPackageName(),
+                activeBroker.getSignatureHash(),
+                parameters.getRequiredBrokerProtocolVersion()
+        );
+    }
+
     // The order matters.
-    private List<BrokerBaseStrategy> getStrategies() {
+    @VisibleForTesting
+    List<BrokerBaseStrategy> getStrategies() {
         final List<BrokerBaseStrategy> strategies = new ArrayList<>();
         final StringBuilder sb = new StringBuilder(100);
         sb.append("Broker Strategies added : ");
@@ -36,6 +36,7 @@ import androidx.annotation.Nullable;
 import androidx.localbroadcastmanager.content.LocalBroadcastManager;
 
 import com.microsoft.identity.common.exception.BaseException;
+import com.microsoft.identity.common.exception.ClientException;
 import com.microsoft.identity.common.exception.IntuneAppProtectionPolicyRequiredException;
 import com.microsoft.identity.common.exception.UserCancelException;
 import com.microsoft.identity.common.internal.commands.BaseCommand;
@@ -46,6 +47,7 @@ import com.microsoft.identity.common.internal.commands.parameters.SilentTokenCom
 import com.microsoft.identity.common.internal.eststelemetry.EstsTelemetry;
 import com.microsoft.identity.common.internal.logging.DiagnosticContext;
 import com.microsoft.identity.common.internal.logging.Logger;
+import com.microsoft.identity.common.internal.net.cache.MetadataCache;
 import com.microsoft.identity.common.internal.result.AcquireTokenResult;
 import com.microsoft.identity.common.internal.result.LocalAuthenticationResult;
 import com.microsoft.identity.common.internal.result.ResultFuture;
@@ -55,8 +57,9 @@ import com.microsoft.identity.common.internal.util.BiConsumer;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.microsoft.identity.common.adal.internal.AuthenticationConstants.AuthorizationIntentAction.CANCEL_INTERACTIVE_REQUEST;
 import static com.microsoft.identity.common.adal.internal.AuthenticationConstants.AuthorizationIntentAction.RETURN_INTERACTIVE_REQUEST_RESULT;
@@ -67,13 +70,26 @@ public class CommandDispatcher {
 
     private static final String TAG = CommandDispatcher.class.getSimpleName();
 
-    private static final int SILENT_REQUEST_THREAD_POOL_SIZE = 5;
-    private static final ExecutorService sInteractiveExecutor = Executors.newSingleThreadExecutor();
-    private static final ExecutorService sSilentExecutor = Executors.newFixedThreadPool(SILENT_REQUEST_THREAD_POOL_SIZE);
     private static final Object sLock = new Object();
+    private static volatile CommandExecutorProvider sExecutorProvider = DefaultCommandExecutorProvider.builder().build();
+    private static final AtomicInteger sSilentQueueDepth = new AtomicInteger();
+    private static final AtomicInteger sInteractiveQueueDepth = new AtomicInteger();
     private static InteractiveTokenCommand sCommand = null;
     private static final CommandResultCache sCommandResultCache = new CommandResultCache();
-    private static final ConcurrentMap<BaseCommand, ResultFuture<CommandResult>> sExecutingCommandMap = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Object, ResultFuture<CommandResult>> sExecutingCommandMap = new ConcurrentHashMap<>();
+    private static final AtomicLong sDeduplicationHits = new AtomicLong();
+    private static final AtomicLong sDeduplicationMisses = new AtomicLong();
+
+    /**
+     * Replaces the {@link CommandExecutorProvider} used for subsequently submitted commands.
+     * Commands already submitted continue to run on the executors of the previous provider, which
+     * is not shut down.
+     *
+     * @param executorProvider The CommandExecutorProvider to use.
+     */
+    public static void setExecutorProvider(@NonNull final CommandExecutorProvider executorProvider) {
+        sExecutorProvider = executorProvider;
+    }
 
     /**
      * submitSilent - Run a command using the silent thread pool
@@ -81,6 +97,23 @@ public class CommandDispatcher {
      * @param command
      */
     public static void submitSilent(@NonNull final BaseCommand command) {
+        submitSilent(command, CommandPriority.FOREGROUND);
+    }
+
+    /**
+     * submitSilent - Run a command using the silent thread pool, ahead of any queued commands of
+     * a lower priority.
+     * <p>
+     * A silent token request equivalent to one already executing or recently completed (see
+     * {@link SilentRequestKey}) is not executed again; its callback receives the result of the
+     * other request. Requests are coalesced regardless of their correlation id, so that result,
+     * and the telemetry of the network calls behind it, carry the other request's correlation id.
+     *
+     * @param command
+     * @param priority
+     */
+    public static void submitSilent(@NonNull final BaseCommand command,
+                                    @NonNull final CommandPriority priority) {
         final String methodName = ":submitSilent";
         Logger.verbose(
                 TAG + methodName,
@@ -88,26 +121,29 @@ public class CommandDispatcher {
         );
 
         final Handler handler = new Handler(Looper.getMainLooper());
-        ResultFuture<CommandResult> future = sExecutingCommandMap.get(command);
+        final Object requestKey = getRequestKey(command);
+        ResultFuture<CommandResult> future = sExecutingCommandMap.get(requestKey);
 
         if (null == future) {
             future = new ResultFuture<>();
-            final ResultFuture<CommandResult> putValue = sExecutingCommandMap.putIfAbsent(command, future);
+            final ResultFuture<CommandResult> putValue = sExecutingCommandMap.putIfAbsent(requestKey, future);
 
             if (null == putValue) {
                 // our value was inserted.
                 future.whenComplete(getCommandResultConsumer(command, handler));
             } else {
                 // Our value was not inserted, grab the one that was and hang a new listener off it
+                sDeduplicationHits.incrementAndGet();
                 putValue.whenComplete(getCommandResultConsumer(command, handler));
                 return;
             }
         } else {
+            sDeduplicationHits.incrementAndGet();
             future.whenComplete(getCommandResultConsumer(command, handler));
             return;
         }
 
-        sSilentExecutor.execute(new Runnable() {
+        final Runnable work = new Runnable() {
             @Override
             public void run() {
                 final String correlationId = initializeDiagnosticContext(command.getParameters().getCorrelationId());
@@ -115,6 +151,8 @@ public class CommandDispatcher {
                 // set correlation id on parameters as it may not already be set
                 command.getParameters().setCorrelationId(correlationId);
 
+                initializeMetadataCache(command);
+
                 EstsTelemetry.getInstance().initTelemetryForCommand(command);
 
                 EstsTelemetry.getInstance().emitApiId(command.getPublicApiId());
@@ -127,14 +165,16 @@ public class CommandDispatcher {
                     EstsTelemetry.getInstance().emitForceRefresh(((SilentTokenCommandParameters) command.getParameters()).isForceRefresh());
                 }
 
-                //Check cache to see if the same command completed in the last 30 seconds
-                commandResult = sCommandResultCache.get(command);
+                //Check cache to see if the same command completed recently
+                commandResult = sCommandResultCache.get(requestKey);
 
                 //If nothing in cache, execute the command and cache the result
                 if (commandResult == null) {
+                    sDeduplicationMisses.incrementAndGet();
                     commandResult = executeCommand(command);
-                    cacheCommandResult(command, commandResult);
+                    cacheCommandResult(requestKey, command, commandResult);
                 } else {
+                    sDeduplicationHits.incrementAndGet();
                     Logger.info(
                             TAG + methodName,
                             "Silent command result returned from cache."
@@ -148,9 +188,73 @@ public class CommandDispatcher {
                 EstsTelemetry.getInstance().flush(command, commandResult);
 
                 //Return the result via the callback
-                sExecutingCommandMap.remove(command).setResult(commandResult);
+                sExecutingCommandMap.remove(requestKey).setResult(commandResult);
             }
-        });
+        };
+
+        final CommandExecutorProvider executorProvider = sExecutorProvider;
+        final InstrumentedCommandRunnable runnable = new InstrumentedCommandRunnable(
+                command,
+                priority,
+                sSilentQueueDepth,
+                executorProvider.getMetricsCallback(),
+                work
+        );
+
+        runnable.onQueued();
+
+        try {
+            executorProvider.getSilentExecutor().execute(runnable);
+        } catch (final RejectedExecutionException e) {
+            runnable.onRejected();
+            Logger.warn(
+                    TAG + methodName,
+                    "Silent command was rejected by the executor."
+            );
+
+            sExecutingCommandMap.remove(requestKey).setResult(
+                    new CommandResult(
+                            CommandResult.ResultStatus.ERROR,
+                            new ClientException(
+                                    ClientException.COMMAND_REJECTED,
+                                    "The silent command queue is full.",
+                                    e
+                            )
+                    )
+            );
+        }
+    }
+
+    /**
+     * Gets the key on which the supplied command is coalesced with equivalent commands, both
+     * while in flight and once recently completed.
+     *
+     * @param command
+     * @return The command's {@link SilentRequestKey}, or the command itself for other commands.
+     */
+    private static Object getRequestKey(@NonNull final BaseCommand command) {
+        final SilentRequestKey silentRequestKey = SilentRequestKey.of(command);
+
+        return null == silentRequestKey ? command : silentRequestKey;
+    }
+
+    /**
+     * Gets the number of silent commands which were coalesced with an in-flight equivalent or
+     * answered from a recently completed one.
+     *
+     * @return The number of deduplicated silent commands.
+     */
+    public static long getDeduplicationHitCount() {
+        return sDeduplicationHits.get();
+    }
+
+    /**
+     * Gets the number of silent commands which had to be executed.
+     *
+     * @return The number of executed silent commands.
+     */
+    public static long getDeduplicationMissCount() {
+        return sDeduplicationMisses.get();
     }
 
     private static BiConsumer<CommandResult, Throwable> getCommandResultConsumer(
@@ -255,12 +359,13 @@ public class CommandDispatcher {
      * Cache the result of the command (if eligible to do so) in order to protect the service from clients
      * making the requests in a tight loop
      *
+     * @param requestKey
      * @param command
      * @param commandResult
      */
-    private static void cacheCommandResult(BaseCommand command, CommandResult commandResult) {
+    private static void cacheCommandResult(Object requestKey, BaseCommand command, CommandResult commandResult) {
         if (command.isEligibleForCaching() && eligibleToCache(commandResult)) {
-            sCommandResultCache.put(command, commandResult);
+            sCommandResultCache.put(requestKey, commandResult);
         }
     }
 
@@ -316,6 +421,18 @@ public class CommandDispatcher {
         }
     }
 
+    /**
+     * Keeps the authority metadata on disk from the first command on, so later process starts
+     * can skip the metadata requests.
+     */
+    private static void initializeMetadataCache(@NonNull final BaseCommand command) {
+        final Context context = command.getParameters().getAndroidApplicationContext();
+
+        if (null != context) {
+            MetadataCache.initialize(context);
+        }
+    }
+
     public static void beginInteractive(final InteractiveTokenCommand command) {
         final String methodName = ":beginInteractive";
         Logger.info(
@@ -333,7 +450,7 @@ public class CommandDispatcher {
                 );
             }
 
-            sInteractiveExecutor.execute(new Runnable() {
+            final Runnable work = new Runnable() {
                 @Override
                 public void run() {
                     final String correlationId = initializeDiagnosticContext(
@@ -343,6 +460,8 @@ public class CommandDispatcher {
                     // set correlation id on parameters as it may not already be set
                     command.getParameters().setCorrelationId(correlationId);
 
+                    initializeMetadataCache(command);
+
                     EstsTelemetry.getInstance().initTelemetryForCommand(command);
 
                     EstsTelemetry.getInstance().emitApiId(command.getPublicApiId());
@@ -379,17 +498,28 @@ public class CommandDispatcher {
                     Telemetry.getInstance().flush(correlationId);
                     returnCommandResult(command, commandResult, handler);
                 }
-            });
+            };
+
+            final CommandExecutorProvider executorProvider = sExecutorProvider;
+            final InstrumentedCommandRunnable runnable = new InstrumentedCommandRunnable(
+                    command,
+                    CommandPriority.FOREGROUND,
+                    sInteractiveQueueDepth,
+                    executorProvider.getMetricsCallback(),
+                    work
+            );
+
+            runnable.onQueued();
+            executorProvider.getInteractiveExecutor().execute(runnable);
         }
     }
 
     private static void logInteractiveRequestParameters(final String methodName,
                                                         final InteractiveTokenCommandParameters params) {
-        Logger.info(
+        Logger.infoFormat(
                 TAG + methodName,
-                "Requested "
-                        + params.getScopes().size()
-                        + " scopes"
+                "Requested %s scopes",
+                params.getScopes().size()
         );
 
         Logger.infoPII(
@@ -397,26 +527,30 @@ public class CommandDispatcher {
                 "----\nRequested scopes:"
         );
         for (final String scope : params.getScopes()) {
-            Logger.infoPII(
+            Logger.infoPIIFormat(
                     TAG + methodName,
-                    "\t" + scope
+                    "\t%s",
+                    scope
             );
         }
         Logger.infoPII(
                 TAG + methodName,
                 "----"
         );
-        Logger.infoPII(
+        Logger.infoPIIFormat(
                 TAG + methodName,
-                "ClientId: [" + params.getClientId() + "]"
+                "ClientId: [%s]",
+                params.getClientId()
         );
-        Logger.infoPII(
+        Logger.infoPIIFormat(
                 TAG + methodName,
-                "RedirectUri: [" + params.getRedirectUri() + "]"
+                "RedirectUri: [%s]",
+                params.getRedirectUri()
         );
-        Logger.infoPII(
+        Logger.infoPIIFormat(
                 TAG + methodName,
-                "Login hint: [" + params.getLoginHint() + "]"
+                "Login hint: [%s]",
+                params.getLoginHint()
         );
 
         if (null != params.getExtraQueryStringParameters()) {
@@ -425,9 +559,11 @@ public class CommandDispatcher {
                     "Extra query params:"
             );
             for (final Pair<String, String> qp : params.getExtraQueryStringParameters()) {
-                Logger.infoPII(
+                Logger.infoPIIFormat(
                         TAG + methodName,
-                        "\t\"" + qp.first + "\":\"" + qp.second + "\""
+                        "\t\"%s\":\"%s\"",
+                        qp.first,
+                        qp.second
                 );
             }
         }
@@ -438,31 +574,35 @@ public class CommandDispatcher {
                     "Extra scopes to consent:"
             );
             for (final String extraScope : params.getExtraScopesToConsent()) {
-                Logger.infoPII(
+                Logger.infoPIIFormat(
                         TAG + methodName,
-                        "\t" + extraScope
+                        "\t%s",
+                        extraScope
                 );
             }
         }
 
-        Logger.info(
+        Logger.infoFormat(
                 TAG + methodName,
-                "Using authorization agent: " + params.getAuthorizationAgent().toString()
+                "Using authorization agent: %s",
+                params.getAuthorizationAgent()
         );
 
         if (null != params.getAccount()) {
-            Logger.infoPII(
+            Logger.infoPIIFormat(
                     TAG + methodName,
-                    "Using account: " + params.getAccount().getHomeAccountId()
+                    "Using account: %s",
+                    params.getAccount().getHomeAccountId()
             );
         }
     }
 
     private static void logSilentRequestParams(final String methodName,
                                                final SilentTokenCommandParameters parameters) {
-        Logger.infoPII(
+        Logger.infoPIIFormat(
                 TAG + methodName,
-                "ClientId: [" + parameters.getClientId() + "]"
+                "ClientId: [%s]",
+                parameters.getClientId()
         );
         Logger.infoPII(
                 TAG + methodName,
@@ -470,9 +610,10 @@ public class CommandDispatcher {
         );
 
         for (final String scope : parameters.getScopes()) {
-            Logger.infoPII(
+            Logger.infoPIIFormat(
                     TAG + methodName,
-                    "\t" + scope
+                    "\t%s",
+                    scope
             );
         }
         Logger.infoPII(
@@ -481,15 +622,17 @@ public class CommandDispatcher {
         );
 
         if (null != parameters.getAccount()) {
-            Logger.infoPII(
+            Logger.infoPIIFormat(
                     TAG + methodName,
-                    "Using account: " + parameters.getAccount().getHomeAccountId()
+                    "Using account: %s",
+                    parameters.getAccount().getHomeAccountId()
             );
         }
 
-        Logger.info(
+        Logger.infoFormat(
                 TAG + methodName,
-                "Force refresh? [" + parameters.isForceRefresh() + "]"
+                "Force refresh? [%s]",
+                parameters.isForceRefresh()
         );
     }
 
@@ -529,6 +672,24 @@ public class CommandDispatcher {
         return sCommandResultCache.getSize();
     }
 
+    /**
+     * Gets the fraction of silent command lookups served from the result cache.
+     *
+     * @return The hit rate, between 0 and 1.
+     */
+    public static double getCachedResultHitRate() {
+        return sCommandResultCache.getHitRate();
+    }
+
+    /**
+     * Gets the number of results removed from the result cache to keep it within its bounds.
+     *
+     * @return The eviction count.
+     */
+    public static long getCachedResultEvictionCount() {
+        return sCommandResultCache.getEvictionCount();
+    }
+
     private static void setCorrelationIdOnResult(@NonNull final CommandResult commandResult,
                                                  @NonNull final String correlationId) {
         // set correlation id on Local Authentication Result
@@ -0,0 +1,66 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.internal.controllers;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.common.internal.commands.BaseCommand;
+
+/**
+ * Receives queueing and execution metrics for commands run by the {@link CommandDispatcher}.
+ * <p>
+ * Callbacks are invoked on the submitting or executing thread; implementations should be cheap
+ * and must not block.
+ */
+public interface CommandExecutionMetricsCallback {
+
+    /**
+     * Invoked when a command has been queued for execution.
+     *
+     * @param commandClass The class of the queued command.
+     * @param queueDepth   The number of commands waiting on the same executor, including this one.
+     */
+    void onCommandQueued(@NonNull Class<? extends BaseCommand> commandClass, int queueDepth);
+
+    /**
+     * Invoked when a command could not be accepted by its executor.
+     *
+     * @param commandClass The class of the rejected command.
+     * @param queueDepth   The number of commands waiting on the same executor.
+     */
+    void onCommandRejected(@NonNull Class<? extends BaseCommand> commandClass, int queueDepth);
+
+    /**
+     * Invoked when a command has finished executing.
+     *
+     * @param commandClass The class of the executed command.
+     * @param queueDepth   The number of commands still waiting on the same executor when this
+     *                     one started.
+     * @param waitTimeMs   The time this command spent queued, in milliseconds.
+     * @param runTimeMs    The time this command spent executing, in milliseconds.
+     */
+    void onCommandExecuted(@NonNull Class<? extends BaseCommand> commandClass,
+                           int queueDepth,
+                           long waitTimeMs,
+                           long runTimeMs);
+}
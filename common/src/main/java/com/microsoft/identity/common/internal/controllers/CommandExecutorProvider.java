@@ -0,0 +1,66 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.internal.controllers;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Supplies the executors on which the {@link CommandDispatcher} runs commands.
+ * <p>
+ * Silent commands are passed to {@link ExecutorService#execute(Runnable)} as {@link Comparable}
+ * runnables ordered by {@link CommandPriority}; executors backed by a priority queue will honor
+ * that order. Executors which cannot accept a command should throw a
+ * {@link java.util.concurrent.RejectedExecutionException}, which is reported to the caller as an
+ * error. Rejection policies which silently discard commands must not be used, as their callers
+ * would never be notified.
+ */
+public interface CommandExecutorProvider {
+
+    /**
+     * Gets the executor used for silent commands.
+     *
+     * @return The silent command ExecutorService.
+     */
+    @NonNull
+    ExecutorService getSilentExecutor();
+
+    /**
+     * Gets the executor used for interactive commands. Interactive commands must not run
+     * concurrently with one another.
+     *
+     * @return The interactive command ExecutorService.
+     */
+    @NonNull
+    ExecutorService getInteractiveExecutor();
+
+    /**
+     * Gets the callback to which queueing and execution metrics are reported.
+     *
+     * @return The metrics callback or null, if metrics are not collected.
+     */
+    @Nullable
+    CommandExecutionMetricsCallback getMetricsCallback();
+}
@@ -22,61 +22,302 @@
 //  THE SOFTWARE.
 package com.microsoft.identity.common.internal.controllers;
 
-import android.util.LruCache;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
-import com.microsoft.identity.common.internal.commands.BaseCommand;
+import com.microsoft.identity.common.internal.dto.AccessTokenRecord;
+import com.microsoft.identity.common.internal.result.ILocalAuthenticationResult;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lombok.Builder;
 
 /**
  * Name: CommandResultCache
  * Responsibilities: Caching results of commands on behalf of the command dispatcher
+ * Keys: the command itself, or its {@link SilentRequestKey} for silent token requests
+ * <p>
+ * Each item lives for the configured maximum time-to-live, or until the access token it carries
+ * is within the expiry skew of expiring, whichever comes first. The cache is bounded both by
+ * item count and by the estimated size of its items; once either bound is exceeded the least
+ * recently used items are evicted. Reads and writes do not share a lock.
  */
 public class CommandResultCache {
 
-    private final static int DEFAULT_ITEM_COUNT = 250;
+    /**
+     * The default maximum number of cached items.
+     */
+    public static final int DEFAULT_ITEM_COUNT = 250;
+
+    /**
+     * The default maximum estimated size of all cached items, in bytes.
+     */
+    public static final long DEFAULT_MAX_ESTIMATED_BYTES = 1024 * 1024;
+
+    /**
+     * The default upper bound on the time an item stays in the cache.
+     */
+    public static final long DEFAULT_MAX_TIME_TO_LIVE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * The default margin subtracted from an access token's expiry when computing its item's
+     * time-to-live.
+     */
+    public static final long DEFAULT_EXPIRY_SKEW_MILLIS = TimeUnit.MINUTES.toMillis(5);
 
-    //Cache items allowed is still TBD... for now using default value of 250
-    private LruCache<BaseCommand, CommandResultCacheItem> mCache;
+    // Rough allowance for the item, the map entry, the key and the result wrappers
+    private static final long ITEM_OVERHEAD_BYTES = 512;
+
+    private final int mMaxItemCount;
+    private final long mMaxEstimatedBytes;
+    private final long mMaxTimeToLiveMillis;
+    private final long mExpirySkewMillis;
+
+    private final ConcurrentHashMap<Object, CommandResultCacheItem> mCache = new ConcurrentHashMap<>();
+    private final ReentrantLock mEvictionLock = new ReentrantLock();
+    private final AtomicLong mAccessSequence = new AtomicLong();
+    private final AtomicLong mEstimatedBytes = new AtomicLong();
+    private final AtomicLong mHitCount = new AtomicLong();
+    private final AtomicLong mMissCount = new AtomicLong();
+    private final AtomicLong mExpirationCount = new AtomicLong();
+    private final AtomicLong mEvictionCount = new AtomicLong();
 
     public CommandResultCache() {
-        mCache = new LruCache<>(DEFAULT_ITEM_COUNT);
+        this(DEFAULT_ITEM_COUNT);
     }
 
     public CommandResultCache(int maxItemCount) {
-        mCache = new LruCache<>(maxItemCount);
-    }
-
-    public CommandResult get(BaseCommand key) {
-        synchronized (mCache) {
-            CommandResultCacheItem item = mCache.get(key);
-            if (item != null) {
-                if (item.isExpired()) {
-                    mCache.remove(key);
-                    return null;
-                } else {
-                    return item.getValue();
-                }
-            } else {
-                return null;
+        this(maxItemCount, null, null, null);
+    }
+
+    /**
+     * Constructor of CommandResultCache; unset values take their defaults.
+     *
+     * @param maxItemCount        The maximum number of cached items.
+     * @param maxEstimatedBytes   The maximum estimated size of all cached items, in bytes.
+     * @param maxTimeToLiveMillis The upper bound on the time an item stays in the cache.
+     * @param expirySkewMillis    The margin subtracted from an access token's expiry when
+     *                            computing its item's time-to-live.
+     */
+    @Builder
+    private CommandResultCache(@Nullable final Integer maxItemCount,
+                               @Nullable final Long maxEstimatedBytes,
+                               @Nullable final Long maxTimeToLiveMillis,
+                               @Nullable final Long expirySkewMillis) {
+        mMaxItemCount = null == maxItemCount ? DEFAULT_ITEM_COUNT : maxItemCount;
+        mMaxEstimatedBytes = null == maxEstimatedBytes ? DEFAULT_MAX_ESTIMATED_BYTES : maxEstimatedBytes;
+        mMaxTimeToLiveMillis = null == maxTimeToLiveMillis ? DEFAULT_MAX_TIME_TO_LIVE_MILLIS : maxTimeToLiveMillis;
+        mExpirySkewMillis = null == expirySkewMillis ? DEFAULT_EXPIRY_SKEW_MILLIS : expirySkewMillis;
+
+        if (mMaxItemCount <= 0 || mMaxEstimatedBytes <= 0 || mMaxTimeToLiveMillis <= 0) {
+            throw new IllegalArgumentException("Item count, estimated bytes and time-to-live must be positive.");
+        }
+
+        if (mExpirySkewMillis < 0) {
+            throw new IllegalArgumentException("Expiry skew must not be negative.");
+        }
+    }
+
+    public CommandResult get(Object key) {
+        final CommandResultCacheItem item = mCache.get(key);
+
+        if (item == null) {
+            mMissCount.incrementAndGet();
+            return null;
+        }
+
+        if (item.isExpired(System.currentTimeMillis())) {
+            if (remove(key, item)) {
+                mExpirationCount.incrementAndGet();
             }
+            mMissCount.incrementAndGet();
+            return null;
         }
+
+        item.setLastAccess(mAccessSequence.incrementAndGet());
+        mHitCount.incrementAndGet();
+        return item.getValue();
     }
 
-    public void put(BaseCommand key, CommandResult value) {
+    public void put(Object key, CommandResult value) {
+        final long now = System.currentTimeMillis();
+        final long timeToLive = getTimeToLive(value, now);
+
+        if (timeToLive <= 0) {
+            // The token is already too close to expiry to be worth serving again
+            return;
+        }
+
+        final CommandResultCacheItem cacheItem = new CommandResultCacheItem(
+                value,
+                now + timeToLive,
+                estimateSize(value),
+                mAccessSequence.incrementAndGet()
+        );
 
-        CommandResultCacheItem cacheItem = new CommandResultCacheItem(value);
         //NOTE: If an existing item using this key already in the cache it will be replaced
-        mCache.put(key, cacheItem);
-        //Object old = mCache.put(key, cacheItem);
-        //We may want to log old if we see problems here, since the the old value is the value being replace with the new item.
+        final CommandResultCacheItem previous = mCache.put(key, cacheItem);
+        mEstimatedBytes.addAndGet(
+                cacheItem.getEstimatedSize() - (previous == null ? 0 : previous.getEstimatedSize())
+        );
+
+        evictIfNeeded();
     }
 
     public int getSize() {
-        return this.mCache.size();
+        return mCache.size();
     }
 
     public void clear() {
-        synchronized (mCache) {
-            mCache = new LruCache<>(DEFAULT_ITEM_COUNT);
+        for (final Map.Entry<Object, CommandResultCacheItem> entry : mCache.entrySet()) {
+            remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Gets the estimated size of all cached items, in bytes.
+     *
+     * @return The estimated size.
+     */
+    public long getEstimatedBytes() {
+        return mEstimatedBytes.get();
+    }
+
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    /**
+     * Gets the fraction of lookups served from the cache, or 0 if there have been none.
+     *
+     * @return The hit rate, between 0 and 1.
+     */
+    public double getHitRate() {
+        final long hits = mHitCount.get();
+        final long lookups = hits + mMissCount.get();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Gets the number of items removed because their time-to-live elapsed.
+     *
+     * @return The expiration count.
+     */
+    public long getExpirationCount() {
+        return mExpirationCount.get();
+    }
+
+    /**
+     * Gets the number of items removed to keep the cache within its count and size bounds.
+     *
+     * @return The eviction count.
+     */
+    public long getEvictionCount() {
+        return mEvictionCount.get();
+    }
+
+    /**
+     * Computes the time-to-live of a result: the configured maximum, shortened to the access
+     * token's expiry less the skew margin when the result carries one.
+     */
+    long getTimeToLive(@NonNull final CommandResult value, final long nowMillis) {
+        long timeToLive = mMaxTimeToLiveMillis;
+
+        if (value.getResult() instanceof ILocalAuthenticationResult) {
+            final AccessTokenRecord accessTokenRecord =
+                    ((ILocalAuthenticationResult) value.getResult()).getAccessTokenRecord();
+
+            if (accessTokenRecord != null && accessTokenRecord.getExpiresOn() != null) {
+                try {
+                    final long expiresOnMillis = TimeUnit.SECONDS.toMillis(
+                            Long.parseLong(accessTokenRecord.getExpiresOn())
+                    );
+                    timeToLive = Math.min(timeToLive, expiresOnMillis - mExpirySkewMillis - nowMillis);
+                } catch (final NumberFormatException e) {
+                    // Malformed expiry; fall back to the configured maximum
+                }
+            }
+        }
+
+        return timeToLive;
+    }
+
+    private static long estimateSize(@NonNull final CommandResult value) {
+        long size = ITEM_OVERHEAD_BYTES;
+
+        if (value.getResult() instanceof ILocalAuthenticationResult) {
+            final ILocalAuthenticationResult result = (ILocalAuthenticationResult) value.getResult();
+            size += estimateSize(result.getAccessToken());
+            size += estimateSize(result.getIdToken());
+            size += estimateSize(result.getRefreshToken());
+        }
+
+        return size;
+    }
+
+    private static long estimateSize(@Nullable final String value) {
+        return value == null ? 0 : 2L * value.length();
+    }
+
+    private boolean remove(@NonNull final Object key, @NonNull final CommandResultCacheItem item) {
+        if (mCache.remove(key, item)) {
+            mEstimatedBytes.addAndGet(-item.getEstimatedSize());
+            return true;
+        }
+
+        return false;
+    }
+
+    private boolean isOverCapacity() {
+        return mCache.size() > mMaxItemCount || mEstimatedBytes.get() > mMaxEstimatedBytes;
+    }
+
+    /**
+     * Removes expired items, then the least recently used ones, until the cache is within its
+     * bounds. Only one thread evicts at a time; the others return straight away.
+     */
+    private void evictIfNeeded() {
+        if (!isOverCapacity() || !mEvictionLock.tryLock()) {
+            return;
+        }
+
+        try {
+            final long now = System.currentTimeMillis();
+
+            for (final Map.Entry<Object, CommandResultCacheItem> entry : mCache.entrySet()) {
+                if (entry.getValue().isExpired(now) && remove(entry.getKey(), entry.getValue())) {
+                    mExpirationCount.incrementAndGet();
+                }
+            }
+
+            while (isOverCapacity()) {
+                Map.Entry<Object, CommandResultCacheItem> leastRecentlyUsed = null;
+
+                for (final Map.Entry<Object, CommandResultCacheItem> entry : mCache.entrySet()) {
+                    if (leastRecentlyUsed == null
+                            || entry.getValue().getLastAccess() < leastRecentlyUsed.getValue().getLastAccess()) {
+                        leastRecentlyUsed = entry;
+                    }
+                }
+
+                if (leastRecentlyUsed == null) {
+                    break;
+                }
+
+                if (remove(leastRecentlyUsed.getKey(), leastRecentlyUsed.getValue())) {
+                    mEvictionCount.incrementAndGet();
+                }
+            }
+        } finally {
+            mEvictionLock.unlock();
         }
     }
 
@@ -22,37 +22,66 @@
 //  THE SOFTWARE.
 package com.microsoft.identity.common.internal.controllers;
 
-import java.util.Calendar;
-import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 public class CommandResultCacheItem {
 
     private final static int VALIDITY_DURATION = 30;
 
-    private CommandResult mValue;
-    private Date mExpiresOn;
+    private final CommandResult mValue;
+    private final long mExpiresOnMillis;
+    private final long mEstimatedSize;
+    private volatile long mLastAccess;
 
     public CommandResultCacheItem(CommandResult value){
-        mValue = value;
-        mExpiresOn = getExpiresOn();
+        this(
+                value,
+                System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(VALIDITY_DURATION),
+                0,
+                0
+        );
     }
 
-    private Date getExpiresOn(){
-        final Calendar calendar = Calendar.getInstance();
-        calendar.add(Calendar.SECOND, VALIDITY_DURATION);
-        return calendar.getTime();
+    /**
+     * Constructs a new CommandResultCacheItem.
+     *
+     * @param value           The cached result.
+     * @param expiresOnMillis The wall-clock time (in milliseconds) after which the item is expired.
+     * @param estimatedSize   The estimated size of the item in bytes.
+     * @param lastAccess      The access sequence number at which the item was created.
+     */
+    public CommandResultCacheItem(final CommandResult value,
+                                  final long expiresOnMillis,
+                                  final long estimatedSize,
+                                  final long lastAccess) {
+        mValue = value;
+        mExpiresOnMillis = expiresOnMillis;
+        mEstimatedSize = estimatedSize;
+        mLastAccess = lastAccess;
     }
 
     public boolean isExpired(){
-        final Calendar calendar = Calendar.getInstance();
-        final Date now = calendar.getTime();
+        return isExpired(System.currentTimeMillis());
+    }
 
-        return now.after(mExpiresOn);
+    boolean isExpired(final long nowMillis) {
+        return nowMillis > mExpiresOnMillis;
     }
 
     public CommandResult getValue(){
         return mValue;
     }
 
+    long getEstimatedSize() {
+        return mEstimatedSize;
+    }
+
+    long getLastAccess() {
+        return mLastAccess;
+    }
+
+    void setLastAccess(final long lastAccess) {
+        mLastAccess = lastAccess;
+    }
 
 }
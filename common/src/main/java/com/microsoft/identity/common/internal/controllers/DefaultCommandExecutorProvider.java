@@ -0,0 +1,177 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.internal.controllers;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.Builder;
+
+/**
+ * The default {@link CommandExecutorProvider}: a fixed-size pool of named threads for silent
+ * commands, fed by a bounded priority queue, and a single named thread for interactive commands.
+ * <p>
+ * By default, silent commands which do not fit in the queue are rejected with a
+ * {@link java.util.concurrent.RejectedExecutionException}.
+ */
+public class DefaultCommandExecutorProvider implements CommandExecutorProvider {
+
+    /**
+     * The default number of threads used to run silent commands.
+     */
+    public static final int DEFAULT_SILENT_THREAD_POOL_SIZE = 5;
+
+    /**
+     * The default number of silent commands which may wait for a thread.
+     */
+    public static final int DEFAULT_SILENT_QUEUE_CAPACITY = 100;
+
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+    private static final String SILENT_THREAD_NAME_PREFIX = "msal-silent-";
+    private static final String INTERACTIVE_THREAD_NAME_PREFIX = "msal-interactive-";
+
+    private final ExecutorService mSilentExecutor;
+    private final ExecutorService mInteractiveExecutor;
+    private final CommandExecutionMetricsCallback mMetricsCallback;
+
+    /**
+     * Constructor of DefaultCommandExecutorProvider; unset values take their defaults.
+     *
+     * @param silentThreadPoolSize     The number of threads used to run silent commands.
+     * @param silentQueueCapacity      The number of silent commands which may wait for a thread.
+     * @param rejectedExecutionHandler The policy applied to silent commands which do not fit in
+     *                                 the queue.
+     * @param metricsCallback          The callback to which metrics are reported, if any.
+     */
+    @Builder
+    private DefaultCommandExecutorProvider(@Nullable final Integer silentThreadPoolSize,
+                                           @Nullable final Integer silentQueueCapacity,
+                                           @Nullable final RejectedExecutionHandler rejectedExecutionHandler,
+                                           @Nullable final CommandExecutionMetricsCallback metricsCallback) {
+        final int threadPoolSize = null == silentThreadPoolSize
+                ? DEFAULT_SILENT_THREAD_POOL_SIZE
+                : silentThreadPoolSize;
+        final int queueCapacity = null == silentQueueCapacity
+                ? DEFAULT_SILENT_QUEUE_CAPACITY
+                : silentQueueCapacity;
+
+        if (threadPoolSize <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Thread pool size and queue capacity must be positive.");
+        }
+
+        final ThreadPoolExecutor silentExecutor = new ThreadPoolExecutor(
+                threadPoolSize,
+                threadPoolSize,
+                IDLE_THREAD_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new BoundedPriorityBlockingQueue(queueCapacity),
+                new NamedThreadFactory(SILENT_THREAD_NAME_PREFIX),
+                null == rejectedExecutionHandler
+                        ? new ThreadPoolExecutor.AbortPolicy()
+                        : rejectedExecutionHandler
+        );
+        silentExecutor.allowCoreThreadTimeOut(true);
+        mSilentExecutor = silentExecutor;
+
+        mInteractiveExecutor = new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new NamedThreadFactory(INTERACTIVE_THREAD_NAME_PREFIX)
+        );
+
+        mMetricsCallback = metricsCallback;
+    }
+
+    @Override
+    @NonNull
+    public ExecutorService getSilentExecutor() {
+        return mSilentExecutor;
+    }
+
+    @Override
+    @NonNull
+    public ExecutorService getInteractiveExecutor() {
+        return mInteractiveExecutor;
+    }
+
+    @Override
+    @Nullable
+    public CommandExecutionMetricsCallback getMetricsCallback() {
+        return mMetricsCallback;
+    }
+
+    /**
+     * A {@link PriorityBlockingQueue} which refuses new elements once it holds its capacity, so
+     * that the owning executor applies its rejection policy.
+     */
+    private static class BoundedPriorityBlockingQueue extends PriorityBlockingQueue<Runnable> {
+
+        private final int mCapacity;
+
+        BoundedPriorityBlockingQueue(final int capacity) {
+            super(capacity);
+            mCapacity = capacity;
+        }
+
+        @Override
+        public synchronized boolean offer(final Runnable runnable) {
+            // Elements are only ever removed concurrently, so size() cannot grow past the check
+            return size() < mCapacity && super.offer(runnable);
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return Math.max(0, mCapacity - size());
+        }
+    }
+
+    /**
+     * Names the threads it creates with the supplied prefix and an incrementing index.
+     */
+    private static class NamedThreadFactory implements ThreadFactory {
+
+        private final String mPrefix;
+        private final AtomicInteger mIndex = new AtomicInteger();
+
+        NamedThreadFactory(@NonNull final String prefix) {
+            mPrefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(@NonNull final Runnable runnable) {
+            return new Thread(runnable, mPrefix + mIndex.incrementAndGet());
+        }
+    }
+}
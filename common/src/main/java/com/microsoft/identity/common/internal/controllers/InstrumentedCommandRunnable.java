@@ -0,0 +1,130 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.internal.controllers;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.internal.commands.BaseCommand;
+import com.microsoft.identity.common.internal.logging.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wraps the work of running a {@link BaseCommand} so that it can be ordered by
+ * {@link CommandPriority} (first-in, first-out within a priority) and so that its queueing and
+ * execution times are reported to a {@link CommandExecutionMetricsCallback}.
+ */
+class InstrumentedCommandRunnable implements Runnable, Comparable<InstrumentedCommandRunnable> {
+
+    private static final String TAG = InstrumentedCommandRunnable.class.getSimpleName();
+
+    private static final AtomicLong sSequence = new AtomicLong();
+
+    private final Class<? extends BaseCommand> mCommandClass;
+    private final CommandPriority mPriority;
+    private final Runnable mDelegate;
+    private final AtomicInteger mQueueDepth;
+    private final CommandExecutionMetricsCallback mMetricsCallback;
+    private final long mSequence = sSequence.getAndIncrement();
+    private long mQueuedAtNanos;
+
+    InstrumentedCommandRunnable(@NonNull final BaseCommand command,
+                                @NonNull final CommandPriority priority,
+                                @NonNull final AtomicInteger queueDepth,
+                                @Nullable final CommandExecutionMetricsCallback metricsCallback,
+                                @NonNull final Runnable delegate) {
+        mCommandClass = command.getClass();
+        mPriority = priority;
+        mQueueDepth = queueDepth;
+        mMetricsCallback = metricsCallback;
+        mDelegate = delegate;
+    }
+
+    /**
+     * Records that this runnable is about to be handed to its executor.
+     */
+    void onQueued() {
+        mQueuedAtNanos = System.nanoTime();
+        final int queueDepth = mQueueDepth.incrementAndGet();
+
+        if (null != mMetricsCallback) {
+            try {
+                mMetricsCallback.onCommandQueued(mCommandClass, queueDepth);
+            } catch (final RuntimeException e) {
+                Logger.warn(TAG, "Metrics callback threw: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Records that the executor refused this runnable.
+     */
+    void onRejected() {
+        final int queueDepth = mQueueDepth.decrementAndGet();
+
+        if (null != mMetricsCallback) {
+            try {
+                mMetricsCallback.onCommandRejected(mCommandClass, queueDepth);
+            } catch (final RuntimeException e) {
+                Logger.warn(TAG, "Metrics callback threw: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        final int queueDepth = mQueueDepth.decrementAndGet();
+        final long startedAtNanos = System.nanoTime();
+
+        try {
+            mDelegate.run();
+        } finally {
+            if (null != mMetricsCallback) {
+                try {
+                    mMetricsCallback.onCommandExecuted(
+                            mCommandClass,
+                            queueDepth,
+                            TimeUnit.NANOSECONDS.toMillis(startedAtNanos - mQueuedAtNanos),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAtNanos)
+                    );
+                } catch (final RuntimeException e) {
+                    Logger.warn(TAG, "Metrics callback threw: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public int compareTo(@NonNull final InstrumentedCommandRunnable other) {
+        final int byPriority = mPriority.compareTo(other.mPriority);
+
+        if (byPriority != 0) {
+            return byPriority;
+        }
+
+        return mSequence < other.mSequence ? -1 : (mSequence == other.mSequence ? 0 : 1);
+    }
+}
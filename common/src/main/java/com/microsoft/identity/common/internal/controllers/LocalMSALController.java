@@ -375,6 +375,31 @@ public class LocalMSALController extends BaseController {
                             true
                     )
             );
+
+            if (fullCacheRecord.getAccessToken().shouldRefresh()) {
+                // Renew in the background so that the next caller need not wait when this lapses
+                AccessTokenRefreshAheadScheduler.getInstance().scheduleRefresh(
+                        fullCacheRecord.getAccessToken(),
+                        new AccessTokenRefreshAheadScheduler.RefreshOperation() {
+                            @Override
+                            public boolean refresh() throws Exception {
+                                final AcquireTokenResult refreshResult = new AcquireTokenResult();
+                                renewAccessToken(
+                                        parametersWithScopes,
+                                        refreshResult,
+                                        tokenCache,
+                                        strategy,
+                                        fullCacheRecord
+                                );
+
+                                // renewAccessToken returns normally when the token endpoint
+                                // responds with an error
+                                return refreshResult.getTokenResult() != null
+                                        && refreshResult.getTokenResult().getSuccess();
+                            }
+                        }
+                );
+            }
         }
 
         Telemetry.emit(
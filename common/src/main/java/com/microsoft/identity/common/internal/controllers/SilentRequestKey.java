@@ -0,0 +1,309 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.internal.controllers;
+
+import android.accounts.Account;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.adal.internal.util.StringExtensions;
+import com.microsoft.identity.common.internal.authscheme.AbstractAuthenticationScheme;
+import com.microsoft.identity.common.internal.authscheme.IPoPAuthenticationSchemeParams;
+import com.microsoft.identity.common.internal.commands.BaseCommand;
+import com.microsoft.identity.common.internal.commands.parameters.BrokerSilentTokenCommandParameters;
+import com.microsoft.identity.common.internal.commands.parameters.SilentTokenCommandParameters;
+import com.microsoft.identity.common.internal.dto.IAccountRecord;
+import com.microsoft.identity.common.internal.request.SdkType;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The canonical fingerprint of a silent token request, used by the {@link CommandDispatcher} to
+ * coalesce equivalent requests regardless of which call site issued them.
+ * <p>
+ * Only those fields which determine the resulting token are considered: the command type, the
+ * controllers it runs on (local or broker), client id, redirect uri, home account id, authority,
+ * scopes (as a case-insensitive set), claims, auth scheme, whether a refresh was forced, the sdk
+ * type and the required broker protocol version. Requests made through the broker are
+ * additionally keyed on their calling app, the user they carry (home and local account id, login
+ * hint and AccountManager account, as the broker adapters don't set the account record) and the
+ * broker and negotiated protocol versions.
+ * <p>
+ * The correlation id is ignored, as it already was by the commands' own equality: a coalesced
+ * caller receives the result of the request it joined, correlation id included.
+ */
+public final class SilentRequestKey {
+
+    private final Class<?> mCommandClass;
+    private final List<Class<?>> mControllerClasses;
+    private final String mClientId;
+    private final String mRedirectUri;
+    private final String mHomeAccountId;
+    private final String mAuthority;
+    private final Set<String> mScopes;
+    private final String mClaims;
+    private final String mAuthScheme;
+    private final boolean mForceRefresh;
+    private final SdkType mSdkType;
+    private final String mRequiredBrokerProtocolVersion;
+    private final String mCallerPackageName;
+    private final int mCallerUid;
+    private final String mBrokerHomeAccountId;
+    private final String mLocalAccountId;
+    private final String mLoginHint;
+    private final String mAccountManagerAccount;
+    private final String mBrokerVersion;
+    private final String mNegotiatedBrokerProtocolVersion;
+    private final int mHashCode;
+
+    private SilentRequestKey(@NonNull final BaseCommand command,
+                             @NonNull final SilentTokenCommandParameters parameters) {
+        mCommandClass = command.getClass();
+        mControllerClasses = getControllerClasses(command.getControllers());
+        mClientId = parameters.getClientId();
+        mRedirectUri = parameters.getRedirectUri();
+        mHomeAccountId = normalize(getHomeAccountId(parameters.getAccount()));
+        mAuthority = null == parameters.getAuthority()
+                ? null
+                : normalizeUrl(parameters.getAuthority().getAuthorityURL());
+        mScopes = normalizeScopes(parameters.getScopes());
+        mClaims = StringExtensions.isNullOrBlank(parameters.getClaimsRequestJson())
+                ? null
+                : parameters.getClaimsRequestJson().trim();
+        mAuthScheme = describe(parameters.getAuthenticationScheme());
+        mForceRefresh = parameters.isForceRefresh();
+        mSdkType = parameters.getSdkType();
+        mRequiredBrokerProtocolVersion = parameters.getRequiredBrokerProtocolVersion();
+
+        if (parameters instanceof BrokerSilentTokenCommandParameters) {
+            final BrokerSilentTokenCommandParameters brokerParameters =
+                    (BrokerSilentTokenCommandParameters) parameters;
+            mCallerPackageName = brokerParameters.getCallerPackageName();
+            mCallerUid = brokerParameters.getCallerUid();
+            mBrokerHomeAccountId = normalize(brokerParameters.getHomeAccountId());
+            mLocalAccountId = brokerParameters.getLocalAccountId();
+            mLoginHint = brokerParameters.getLoginHint();
+            mAccountManagerAccount = describe(brokerParameters.getAccountManagerAccount());
+            mBrokerVersion = brokerParameters.getBrokerVersion();
+            mNegotiatedBrokerProtocolVersion = brokerParameters.getNegotiatedBrokerProtocolVersion();
+        } else {
+            mCallerPackageName = null;
+            mCallerUid = 0;
+            mBrokerHomeAccountId = null;
+            mLocalAccountId = null;
+            mLoginHint = null;
+            mAccountManagerAccount = null;
+            mBrokerVersion = null;
+            mNegotiatedBrokerProtocolVersion = null;
+        }
+
+        mHashCode = computeHashCode();
+    }
+
+    /**
+     * Gets the SilentRequestKey of the supplied command.
+     *
+     * @param command The command to inspect.
+     * @return The SilentRequestKey or null, if the command is not a silent token request.
+     */
+    @Nullable
+    public static SilentRequestKey of(@NonNull final BaseCommand command) {
+        if (command.getParameters() instanceof SilentTokenCommandParameters) {
+            return new SilentRequestKey(command, (SilentTokenCommandParameters) command.getParameters());
+        }
+
+        return null;
+    }
+
+    @NonNull
+    private static List<Class<?>> getControllerClasses(@Nullable final List<BaseController> controllers) {
+        if (null == controllers) {
+            return Collections.emptyList();
+        }
+
+        final List<Class<?>> controllerClasses = new ArrayList<>(controllers.size());
+
+        for (final BaseController controller : controllers) {
+            controllerClasses.add(null == controller ? null : controller.getClass());
+        }
+
+        return Collections.unmodifiableList(controllerClasses);
+    }
+
+    @Nullable
+    private static String getHomeAccountId(@Nullable final IAccountRecord account) {
+        return null == account ? null : account.getHomeAccountId();
+    }
+
+    @Nullable
+    private static String normalize(@Nullable final String value) {
+        return StringExtensions.isNullOrBlank(value) ? null : value.trim().toLowerCase(Locale.US);
+    }
+
+    @Nullable
+    private static String normalizeUrl(@Nullable final URL url) {
+        // URL.equals() may resolve hosts, so URLs are compared by their String form
+        if (null == url) {
+            return null;
+        }
+
+        final String normalized = normalize(url.toString());
+
+        return null != normalized && normalized.endsWith("/")
+                ? normalized.substring(0, normalized.length() - 1)
+                : normalized;
+    }
+
+    @NonNull
+    private static Set<String> normalizeScopes(@Nullable final Set<String> scopes) {
+        if (null == scopes) {
+            return Collections.emptySet();
+        }
+
+        final Set<String> normalized = new TreeSet<>();
+
+        for (final String scope : scopes) {
+            final String normalizedScope = normalize(scope);
+
+            if (null != normalizedScope) {
+                normalized.add(normalizedScope);
+            }
+        }
+
+        return Collections.unmodifiableSet(normalized);
+    }
+
+    @Nullable
+    private static String describe(@Nullable final AbstractAuthenticationScheme authScheme) {
+        if (null == authScheme) {
+            return null;
+        }
+
+        final StringBuilder description = new StringBuilder(authScheme.getName());
+
+        // PoP tokens are bound to the request they are issued for
+        if (authScheme instanceof IPoPAuthenticationSchemeParams) {
+            final IPoPAuthenticationSchemeParams popParams = (IPoPAuthenticationSchemeParams) authScheme;
+            description.append('|').append(popParams.getHttpMethod())
+                    .append('|').append(popParams.getUrl())
+                    .append('|').append(popParams.getNonce());
+        }
+
+        return description.toString();
+    }
+
+    @Nullable
+    private static String describe(@Nullable final Account account) {
+        return null == account ? null : account.type + '|' + account.name;
+    }
+
+    private static boolean equal(@Nullable final Object a, @Nullable final Object b) {
+        return null == a ? null == b : a.equals(b);
+    }
+
+    private static int hash(@Nullable final Object o) {
+        return null == o ? 0 : o.hashCode();
+    }
+
+    private int computeHashCode() {
+        int result = mCommandClass.hashCode();
+        result = 31 * result + mControllerClasses.hashCode();
+        result = 31 * result + hash(mClientId);
+        result = 31 * result + hash(mRedirectUri);
+        result = 31 * result + hash(mHomeAccountId);
+        result = 31 * result + hash(mAuthority);
+        result = 31 * result + mScopes.hashCode();
+        result = 31 * result + hash(mClaims);
+        result = 31 * result + hash(mAuthScheme);
+        result = 31 * result + (mForceRefresh ? 1 : 0);
+        result = 31 * result + hash(mSdkType);
+        result = 31 * result + hash(mRequiredBrokerProtocolVersion);
+        result = 31 * result + hash(mCallerPackageName);
+        result = 31 * result + mCallerUid;
+        result = 31 * result + hash(mBrokerHomeAccountId);
+        result = 31 * result + hash(mLocalAccountId);
+        result = 31 * result + hash(mLoginHint);
+        result = 31 * result + hash(mAccountManagerAccount);
+        result = 31 * result + hash(mBrokerVersion);
+        result = 31 * result + hash(mNegotiatedBrokerProtocolVersion);
+        return result;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (!(o instanceof SilentRequestKey)) {
+            return false;
+        }
+
+        final SilentRequestKey other = (SilentRequestKey) o;
+
+        return mHashCode == other.mHashCode
+                && mCommandClass == other.mCommandClass
+                && mForceRefresh == other.mForceRefresh
+                && mCallerUid == other.mCallerUid
+                && mSdkType == other.mSdkType
+                && mControllerClasses.equals(other.mControllerClasses)
+                && equal(mClientId, other.mClientId)
+                && equal(mRedirectUri, other.mRedirectUri)
+                && equal(mHomeAccountId, other.mHomeAccountId)
+                && equal(mAuthority, other.mAuthority)
+                && mScopes.equals(other.mScopes)
+                && equal(mClaims, other.mClaims)
+                && equal(mAuthScheme, other.mAuthScheme)
+                && equal(mRequiredBrokerProtocolVersion, other.mRequiredBrokerProtocolVersion)
+                && equal(mCallerPackageName, other.mCallerPackageName)
+                && equal(mBrokerHomeAccountId, other.mBrokerHomeAccountId)
+                && equal(mLocalAccountId, other.mLocalAccountId)
+                && equal(mLoginHint, other.mLoginHint)
+                && equal(mAccountManagerAccount, other.mAccountManagerAccount)
+                && equal(mBrokerVersion, other.mBrokerVersion)
+                && equal(mNegotiatedBrokerProtocolVersion, other.mNegotiatedBrokerProtocolVersion);
+    }
+
+    @Override
+    public int hashCode() {
+        return mHashCode;
+    }
+
+    //CHECKSTYLE:OFF
+    @Override
+    public String toString() {
+        return "SilentRequestKey{"
+                + "mCommandClass=" + mCommandClass.getSimpleName()
+                + ", mScopes=" + mScopes.size()
+                + ", mForceRefresh=" + mForceRefresh
+                + '}';
+    }
+    //CHECKSTYLE:ON
+}
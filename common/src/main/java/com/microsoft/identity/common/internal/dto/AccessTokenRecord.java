@@ -36,6 +36,7 @@ import static com.microsoft.identity.common.internal.dto.AccessTokenRecord.Seria
 import static com.microsoft.identity.common.internal.dto.AccessTokenRecord.SerializedNames.EXTENDED_EXPIRES_ON;
 import static com.microsoft.identity.common.internal.dto.AccessTokenRecord.SerializedNames.KID;
 import static com.microsoft.identity.common.internal.dto.AccessTokenRecord.SerializedNames.REALM;
+import static com.microsoft.identity.common.internal.dto.AccessTokenRecord.SerializedNames.REFRESH_ON;
 import static com.microsoft.identity.common.internal.dto.AccessTokenRecord.SerializedNames.TARGET;
 import static com.microsoft.identity.common.internal.dto.AccessTokenRecord.SerializedNames.TOKEN_TYPE;
 import static com.microsoft.identity.common.internal.dto.Credential.SerializedNames.EXPIRES_ON;
@@ -64,6 +65,11 @@ public class AccessTokenRecord extends Credential {
          */
         public static final String EXTENDED_EXPIRES_ON = "extended_expires_on";
 
+        /**
+         * String of refresh on.
+         */
+        public static final String REFRESH_ON = "refresh_on";
+
         /**
          * String of realm.
          */
@@ -108,6 +114,13 @@ public class AccessTokenRecord extends Credential {
     @SerializedName(EXTENDED_EXPIRES_ON)
     private String mExtendedExpiresOn;
 
+    /**
+     * Time after which the token should be proactively refreshed, calculated from the refresh_in
+     * returned from the service. Measured in seconds from epoch (1970). Can be null.
+     */
+    @SerializedName(REFRESH_ON)
+    private String mRefreshOn;
+
     /**
      * Full tenant or organizational identifier that account belongs to. Can be null.
      */
@@ -244,6 +257,24 @@ public class AccessTokenRecord extends Credential {
         mExtendedExpiresOn = extendedExpiresOn;
     }
 
+    /**
+     * Gets the refresh_on.
+     *
+     * @return The refresh_on to get.
+     */
+    public String getRefreshOn() {
+        return mRefreshOn;
+    }
+
+    /**
+     * Sets the refresh_on.
+     *
+     * @param refreshOn The refresh_on to set.
+     */
+    public void setRefreshOn(final String refreshOn) {
+        mRefreshOn = refreshOn;
+    }
+
     /**
      * Gets the expires_on.
      *
@@ -278,4 +309,31 @@ public class AccessTokenRecord extends Credential {
     public boolean isExpired() {
         return isExpired(getExpiresOn());
     }
+
+    /**
+     * Determines whether the token has reached the point at which it should be refreshed ahead of
+     * its expiry: its refresh_on if the service supplied one, otherwise half-way between its
+     * cached_at and expires_on.
+     *
+     * @return True if the token should be refreshed, false otherwise.
+     */
+    public boolean shouldRefresh() {
+        final String refreshOn = getRefreshOn() != null ? getRefreshOn() : getHalfLife();
+        return refreshOn != null && isExpired(refreshOn);
+    }
+
+    @Nullable
+    private String getHalfLife() {
+        if (getCachedAt() == null || getExpiresOn() == null) {
+            return null;
+        }
+
+        try {
+            final long cachedAt = Long.parseLong(getCachedAt());
+            final long expiresOn = Long.parseLong(getExpiresOn());
+            return String.valueOf(cachedAt + (expiresOn - cachedAt) / 2);
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+    }
 }
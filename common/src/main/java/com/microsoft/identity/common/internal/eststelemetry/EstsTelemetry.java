@@ -80,7 +80,12 @@ public class EstsTelemetry {
         return sEstsTelemetryInstance;
     }
 
-    private void setupLastRequestTelemetryCache(@NonNull final Context context) {
+    private synchronized void setupLastRequestTelemetryCache(@NonNull final Context context) {
+        if (this.mLastRequestTelemetryCache != null) {
+            // The cache holds the last request telemetry in memory, keep using the same one
+            return;
+        }
+
         this.mLastRequestTelemetryCache = createLastRequestTelemetryCache(context);
 
         if (this.mLastRequestTelemetryCache != null) {
@@ -391,9 +396,11 @@ public class EstsTelemetry {
             return lastRequestTelemetry.getCompleteHeaderString();
         }
 
-        // create a copy of the object retrieved from cache
-        final LastRequestTelemetry lastRequestTelemetryCopy = new LastRequestTelemetry(lastRequestTelemetryFromCache.getSchemaVersion());
-        lastRequestTelemetryCopy.copySharedValues(lastRequestTelemetryFromCache);
+        final LastRequestTelemetryHeaderBuilder headerBuilder = new LastRequestTelemetryHeaderBuilder(
+                lastRequestTelemetryFromCache.getSchemaVersion(),
+                lastRequestTelemetryFromCache.getSilentSuccessfulCount(),
+                SchemaConstants.HEADER_DATA_LIMIT
+        );
 
         // failed request data from the object retrieved from cache
         final List<FailedRequest> originalFailedRequests = lastRequestTelemetryFromCache.getFailedRequests();
@@ -404,35 +411,26 @@ public class EstsTelemetry {
 
         boolean isAllDataSentInHeader = true;
 
-        for (int i = 0; i < originalFailedRequests.size(); i++) {
+        for (final FailedRequest failedRequest : originalFailedRequests) {
             // there is a limit of 8KB for the payload sent in request headers
             // we will be maxing out at 4KB to avoid HTTP 413 errors
             // check if we have enough space in the String to store another failed request/error element
-            // if yes, then add it to the failed request array (for the copy)
-            if (lastRequestTelemetryCopy.getCompleteHeaderString().length() < SchemaConstants.HEADER_DATA_LIMIT) {
-                final FailedRequest failedRequest = originalFailedRequests.get(i);
-                lastRequestTelemetryCopy.appendFailedRequest(failedRequest);
-
-                // we have attempted to send these failed requests/errors to the server
-                if (failedRequestSentSet != null) {
-                    failedRequestSentSet.add(failedRequest);
-                }
-            } else {
+            // if yes, then add it to the header
+            if (!headerBuilder.hasRemainingBudget()) {
                 isAllDataSentInHeader = false;
                 // if there is no room for more data, then break out of this loop
                 break;
             }
-        }
 
-        final String isAllDataSentString = TelemetryUtils.getSchemaCompliantStringFromBoolean(isAllDataSentInHeader);
+            headerBuilder.append(failedRequest);
 
-        lastRequestTelemetryCopy.putInPlatformTelemetry(
-                SchemaConstants.Key.ALL_TELEMETRY_DATA_SENT,
-                isAllDataSentString
-        );
+            // we have attempted to send these failed requests/errors to the server
+            if (failedRequestSentSet != null) {
+                failedRequestSentSet.add(failedRequest);
+            }
+        }
 
-        // return the header string formed for the copy element
-        return lastRequestTelemetryCopy.getCompleteHeaderString();
+        return headerBuilder.build(isAllDataSentInHeader);
     }
 
     /**
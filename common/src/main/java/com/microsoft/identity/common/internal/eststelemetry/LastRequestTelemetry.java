@@ -49,6 +49,20 @@ public class LastRequestTelemetry extends RequestTelemetry {
         failedRequests = new ArrayList<>();
     }
 
+    /**
+     * Creates an independent copy of the supplied telemetry, see
+     * {@link SharedPreferencesLastRequestTelemetryCache}.
+     *
+     * @param lastRequestTelemetry the telemetry to copy.
+     */
+    LastRequestTelemetry(@NonNull final LastRequestTelemetry lastRequestTelemetry) {
+        super(lastRequestTelemetry);
+        silentSuccessfulCount = lastRequestTelemetry.silentSuccessfulCount;
+        failedRequests = null == lastRequestTelemetry.failedRequests
+                ? new ArrayList<FailedRequest>()
+                : new ArrayList<>(lastRequestTelemetry.failedRequests);
+    }
+
     /**
      * Get a list of Failed Request objects. The list returned here is unmodifiable. To add new
      * elements to this list use the {@link LastRequestTelemetry#appendFailedRequest} method.
@@ -75,6 +89,10 @@ public class LastRequestTelemetry extends RequestTelemetry {
         return sb.toString();
     }
 
+    int getSilentSuccessfulCount() {
+        return silentSuccessfulCount;
+    }
+
     void incrementSilentSuccessCount() {
         silentSuccessfulCount++;
     }
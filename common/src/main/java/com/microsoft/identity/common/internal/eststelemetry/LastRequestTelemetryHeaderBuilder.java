@@ -0,0 +1,133 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.eststelemetry;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.internal.util.StringUtil;
+
+/**
+ * Builds the last request telemetry header one failed request at a time.
+ * <p>
+ * The header has the form {@code schema|silent_count|api_id,correlation_id,...|error,...|platform}.
+ * The builder keeps the two failed request segments in separate buffers and tracks the length the
+ * complete header would have, so checking the remaining budget before each append is constant time
+ * rather than re-serializing the whole header. All header values are ASCII, so the length in
+ * characters is the length in bytes.
+ */
+class LastRequestTelemetryHeaderBuilder {
+
+    private final String mSchemaVersion;
+    private final String mSilentSuccessfulCount;
+    private final int mHeaderDataLimit;
+
+    private final StringBuilder mApiIdCorrelationIdSegment = new StringBuilder();
+    private final StringBuilder mErrorSegment = new StringBuilder();
+
+    private int mFailedRequestCount;
+
+    /**
+     * @param schemaVersion         The schema version of the last request telemetry.
+     * @param silentSuccessfulCount The number of requests served from cache since the last one
+     *                              logged by the server.
+     * @param headerDataLimit       The header length after which no more failed requests are added.
+     */
+    LastRequestTelemetryHeaderBuilder(@Nullable final String schemaVersion,
+                                      final int silentSuccessfulCount,
+                                      final int headerDataLimit) {
+        mSchemaVersion = schemaVersion;
+        mSilentSuccessfulCount = String.valueOf(silentSuccessfulCount);
+        mHeaderDataLimit = headerDataLimit;
+    }
+
+    /**
+     * Whether another failed request fits. Like the header limit has always been applied, the
+     * check is made against the header built so far, without the platform fields.
+     *
+     * @return true if the header is still below the limit.
+     */
+    boolean hasRemainingBudget() {
+        return getLengthWithoutPlatformFields() < mHeaderDataLimit;
+    }
+
+    /**
+     * Appends a failed request to the header.
+     *
+     * @param failedRequest The failed request.
+     */
+    void append(@NonNull final FailedRequest failedRequest) {
+        if (mFailedRequestCount > 0) {
+            mApiIdCorrelationIdSegment.append(',');
+            mErrorSegment.append(',');
+        }
+
+        mApiIdCorrelationIdSegment.append(failedRequest.toApiIdCorrelationString());
+        mErrorSegment.append(failedRequest.toErrorCodeString());
+        mFailedRequestCount++;
+    }
+
+    /**
+     * @return The number of failed requests appended so far.
+     */
+    int getFailedRequestCount() {
+        return mFailedRequestCount;
+    }
+
+    /**
+     * Builds the complete header.
+     *
+     * @param isAllTelemetryDataSent Whether every failed request made it into the header.
+     * @return The header string, or null if there is no schema version.
+     */
+    @Nullable
+    String build(final boolean isAllTelemetryDataSent) {
+        if (StringUtil.isEmpty(mSchemaVersion)) {
+            return null;
+        }
+
+        final String platformFields = TelemetryUtils.getSchemaCompliantStringFromBoolean(isAllTelemetryDataSent);
+
+        return new StringBuilder(getLengthWithoutPlatformFields() + platformFields.length())
+                .append(mSchemaVersion)
+                .append(SchemaConstants.SEPARATOR_PIPE)
+                .append(mSilentSuccessfulCount)
+                .append(SchemaConstants.SEPARATOR_PIPE)
+                .append(mApiIdCorrelationIdSegment)
+                .append(SchemaConstants.SEPARATOR_PIPE)
+                .append(mErrorSegment)
+                .append(SchemaConstants.SEPARATOR_PIPE)
+                .append(platformFields)
+                .toString();
+    }
+
+    private int getLengthWithoutPlatformFields() {
+        final int schemaVersionLength = null == mSchemaVersion ? 0 : mSchemaVersion.length();
+
+        return schemaVersionLength
+                + mSilentSuccessfulCount.length()
+                + mApiIdCorrelationIdSegment.length()
+                + mErrorSegment.length()
+                + 4 * SchemaConstants.SEPARATOR_PIPE.length();
+    }
+}
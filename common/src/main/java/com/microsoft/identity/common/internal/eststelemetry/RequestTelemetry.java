@@ -48,6 +48,13 @@ public abstract class RequestTelemetry implements IRequestTelemetry {
         mPlatformTelemetry = new ConcurrentHashMap<>();
     }
 
+    RequestTelemetry(@NonNull final RequestTelemetry requestTelemetry) {
+        mSchemaVersion = requestTelemetry.mSchemaVersion;
+        mPlatformTelemetry = null == requestTelemetry.mPlatformTelemetry
+                ? new ConcurrentHashMap<String, String>()
+                : new ConcurrentHashMap<>(requestTelemetry.mPlatformTelemetry);
+    }
+
     private boolean isPlatformTelemetryField(final String key) {
         if (this instanceof CurrentRequestTelemetry) {
             return SchemaConstants.isCurrentPlatformField(key);
@@ -26,12 +26,24 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
 import com.microsoft.identity.common.internal.cache.ISharedPreferencesFileManager;
 import com.microsoft.identity.common.internal.logging.Logger;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the last request telemetry in memory and writes it to SharedPreferences in the background.
+ * <p>
+ * The telemetry is read from SharedPreferences once; afterwards reads are served from the
+ * in-memory copy. Saves replace the in-memory copy and schedule a write on a background thread.
+ * Saves which arrive while a write is pending are coalesced, only the latest telemetry is written.
+ */
 public class SharedPreferencesLastRequestTelemetryCache implements IRequestTelemetryCache {
 
     private final static String LAST_TELEMETRY_OBJECT_CACHE_KEY = "last_telemetry_object";
@@ -40,11 +52,35 @@ public class SharedPreferencesLastRequestTelemetryCache implements IRequestTelem
 
     private final static String TAG = SharedPreferencesLastRequestTelemetryCache.class.getSimpleName();
 
+    private final static String PERSIST_THREAD_NAME = "MsalLastRequestTelemetryWriter";
+
+    private final static long IDLE_THREAD_KEEP_ALIVE_SECONDS = 30;
+
     private final Gson mGson;
 
     // SharedPreferences used to store request telemetry data
     private final ISharedPreferencesFileManager mSharedPreferencesFileManager;
 
+    private final ExecutorService mPersistExecutor;
+
+    // The telemetry waiting to be written, null when no write is pending
+    private final AtomicReference<LastRequestTelemetry> mPendingTelemetry = new AtomicReference<>();
+
+    // The in-memory copy of the cached telemetry; only valid once mIsLoaded is set
+    private LastRequestTelemetry mCachedTelemetry;
+    private boolean mIsLoaded;
+
+    private final Runnable mPersistTask = new Runnable() {
+        @Override
+        public void run() {
+            final LastRequestTelemetry lastRequestTelemetry = mPendingTelemetry.getAndSet(null);
+
+            if (lastRequestTelemetry != null) {
+                persist(lastRequestTelemetry);
+            }
+        }
+    };
+
     /**
      * Constructor of SharedPreferencesLastRequestTelemetryCache.
      *
@@ -52,8 +88,21 @@ public class SharedPreferencesLastRequestTelemetryCache implements IRequestTelem
      */
     SharedPreferencesLastRequestTelemetryCache(
             @NonNull final ISharedPreferencesFileManager sharedPreferencesFileManager) {
+        this(sharedPreferencesFileManager, createDefaultExecutor());
+    }
+
+    /**
+     * Constructor of SharedPreferencesLastRequestTelemetryCache.
+     *
+     * @param sharedPreferencesFileManager ISharedPreferencesFileManager
+     * @param persistExecutor              The executor writing the telemetry to SharedPreferences.
+     */
+    SharedPreferencesLastRequestTelemetryCache(
+            @NonNull final ISharedPreferencesFileManager sharedPreferencesFileManager,
+            @NonNull final ExecutorService persistExecutor) {
         Logger.verbose(TAG, "Init: " + TAG);
         mSharedPreferencesFileManager = sharedPreferencesFileManager;
+        mPersistExecutor = persistExecutor;
         mGson = new Gson();
     }
 
@@ -61,10 +110,49 @@ public class SharedPreferencesLastRequestTelemetryCache implements IRequestTelem
         return mSharedPreferencesFileManager;
     }
 
+    /**
+     * Get the telemetry from the cache. The returned object is a copy, changes to it are only
+     * cached by saving it.
+     *
+     * @return a {@link LastRequestTelemetry}, or null if there is none.
+     */
     @Override
     @Nullable
     public synchronized RequestTelemetry getRequestTelemetryFromCache() {
-        final String methodName = ":getRequestTelemetryFromCache";
+        if (!mIsLoaded) {
+            mCachedTelemetry = loadRequestTelemetry();
+            mIsLoaded = true;
+        }
+
+        return null == mCachedTelemetry ? null : new LastRequestTelemetry(mCachedTelemetry);
+    }
+
+    @Override
+    public synchronized void saveRequestTelemetryToCache(@NonNull final RequestTelemetry requestTelemetry) {
+        final String methodName = ":saveRequestTelemetryToCache";
+
+        if (!(requestTelemetry instanceof LastRequestTelemetry)) {
+            Logger.warn(TAG + methodName, "Only Last Request Telemetry can be saved to this cache.");
+            return;
+        }
+
+        Logger.verbose(TAG + methodName, "Saving Last Request Telemetry to cache...");
+
+        // Keep a private copy, the caller may go on changing the object it saved
+        final LastRequestTelemetry lastRequestTelemetry =
+                new LastRequestTelemetry((LastRequestTelemetry) requestTelemetry);
+
+        mCachedTelemetry = lastRequestTelemetry;
+        mIsLoaded = true;
+
+        if (null == mPendingTelemetry.getAndSet(lastRequestTelemetry)) {
+            mPersistExecutor.execute(mPersistTask);
+        }
+    }
+
+    @Nullable
+    private LastRequestTelemetry loadRequestTelemetry() {
+        final String methodName = ":loadRequestTelemetry";
 
         try {
             final String cacheValue = mSharedPreferencesFileManager.getString(LAST_TELEMETRY_OBJECT_CACHE_KEY);
@@ -94,43 +182,42 @@ public class SharedPreferencesLastRequestTelemetryCache implements IRequestTelem
         }
     }
 
-    @Override
-    public synchronized void saveRequestTelemetryToCache(@NonNull final RequestTelemetry requestTelemetry) {
-        Logger.verbose(TAG, "Saving Last Request Telemetry to cache...");
-
-        saveRequestTelemetryObjectToCache(requestTelemetry);
-        saveTelemetryHeaderStringToCache(requestTelemetry);
-        saveTelemetrySchemaVersionToCache(requestTelemetry);
-    }
-
-    private void saveRequestTelemetryObjectToCache(@NonNull final RequestTelemetry requestTelemetry) {
-        final String cacheKey = LAST_TELEMETRY_OBJECT_CACHE_KEY;
-        final String cacheValue = generateCacheValue(requestTelemetry);
-        saveToTelemetryCache(cacheKey, cacheValue);
-    }
-
-    private void saveTelemetryHeaderStringToCache(@NonNull final RequestTelemetry requestTelemetry) {
-        final String cacheKey = LAST_TELEMETRY_HEADER_STRING_CACHE_KEY;
-        final String cacheValue = requestTelemetry.getCompleteHeaderString();
-        saveToTelemetryCache(cacheKey, cacheValue);
-    }
+    private void persist(@NonNull final LastRequestTelemetry lastRequestTelemetry) {
+        final String methodName = ":persist";
 
-    private void saveTelemetrySchemaVersionToCache(@NonNull final RequestTelemetry requestTelemetry) {
-        final String cacheKey = LAST_TELEMETRY_SCHEMA_VERSION_CACHE_KEY;
-        final String cacheValue = requestTelemetry.getSchemaVersion();
-        saveToTelemetryCache(cacheKey, cacheValue);
+        try {
+            saveToTelemetryCache(LAST_TELEMETRY_OBJECT_CACHE_KEY, mGson.toJson(lastRequestTelemetry));
+            saveToTelemetryCache(LAST_TELEMETRY_HEADER_STRING_CACHE_KEY, lastRequestTelemetry.getCompleteHeaderString());
+            saveToTelemetryCache(LAST_TELEMETRY_SCHEMA_VERSION_CACHE_KEY, lastRequestTelemetry.getSchemaVersion());
+        } catch (final RuntimeException e) {
+            // The in-memory copy is still current, the next save tries again
+            Logger.error(TAG + methodName,
+                    "Unable to write Last Request Telemetry to SharedPreferences", e);
+        }
     }
 
     private void saveToTelemetryCache(@NonNull final String cacheKey, @NonNull final String cacheValue) {
         mSharedPreferencesFileManager.putString(cacheKey, cacheValue);
     }
 
-    private String generateCacheValue(final RequestTelemetry requestTelemetry) {
-        JsonElement outboundElement = mGson.toJsonTree(requestTelemetry);
-        JsonObject outboundObject = outboundElement.getAsJsonObject();
-
-        final String json = mGson.toJson(outboundObject);
-
-        return json;
+    private static ExecutorService createDefaultExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1,
+                1,
+                IDLE_THREAD_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(@NonNull final Runnable runnable) {
+                        final Thread thread = new Thread(runnable, PERSIST_THREAD_NAME);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 }
@@ -0,0 +1,63 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.logging;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Formats log timestamps, which have a resolution of one second, formatting each second only
+ * once. Not thread safe: it is owned by the log writer thread.
+ */
+final class CachedTimestampFormatter {
+
+    private static final long MILLIS_PER_SECOND = 1000;
+
+    private final SimpleDateFormat mDateFormat;
+    private final Date mDate = new Date();
+    private long mCachedSecond = Long.MIN_VALUE;
+    private String mCachedTimestamp;
+
+    CachedTimestampFormatter(final String pattern) {
+        mDateFormat = new SimpleDateFormat(pattern, Locale.getDefault());
+        mDateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+
+    /**
+     * @param timeMillis Milliseconds since January 1st, 1970 (UTC).
+     * @return The formatted timestamp.
+     */
+    String format(final long timeMillis) {
+        final long second = timeMillis / MILLIS_PER_SECOND;
+
+        if (second != mCachedSecond) {
+            mDate.setTime(second * MILLIS_PER_SECOND);
+            mCachedTimestamp = mDateFormat.format(mDate);
+            mCachedSecond = second;
+        }
+
+        return mCachedTimestamp;
+    }
+}
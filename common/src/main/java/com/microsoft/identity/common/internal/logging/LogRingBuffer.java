@@ -0,0 +1,155 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.logging;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free multi-producer queue backing the async log pipeline.
+ * <p>
+ * Each slot carries a sequence number which tells producers and the consumer whose turn it is
+ * to use the slot, so that neither side ever blocks: {@link #offer(Object)} fails immediately
+ * when the buffer is full instead of waiting for the consumer.
+ *
+ * @param <T> The element type.
+ */
+final class LogRingBuffer<T> {
+
+    private final int mMask;
+    private final AtomicReferenceArray<T> mElements;
+    private final AtomicLongArray mSequences;
+    private final AtomicLong mTail = new AtomicLong();
+    private final AtomicLong mHead = new AtomicLong();
+
+    /**
+     * @param capacity The capacity, rounded up to the next power of two.
+     */
+    LogRingBuffer(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+
+        mMask = size - 1;
+        mElements = new AtomicReferenceArray<>(size);
+        mSequences = new AtomicLongArray(size);
+
+        for (int i = 0; i < size; i++) {
+            mSequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return The number of elements this buffer can hold.
+     */
+    int capacity() {
+        return mMask + 1;
+    }
+
+    /**
+     * Adds an element, unless the buffer is full.
+     *
+     * @param element The element to add.
+     * @return True if it was added, false if the buffer is full.
+     */
+    boolean offer(@NonNull final T element) {
+        while (true) {
+            final long tail = mTail.get();
+            final int index = (int) tail & mMask;
+            final long sequence = mSequences.get(index);
+
+            if (sequence == tail) {
+                if (mTail.compareAndSet(tail, tail + 1)) {
+                    mElements.lazySet(index, element);
+                    mSequences.set(index, tail + 1);
+                    return true;
+                }
+            } else if (sequence < tail) {
+                // The consumer has not yet freed this slot from the previous lap
+                return false;
+            }
+            // Otherwise another producer claimed this slot first; retry.
+        }
+    }
+
+    /**
+     * Removes the oldest element. Only the single consumer may call this.
+     *
+     * @return The element, or null if the buffer is empty.
+     */
+    @Nullable
+    T poll() {
+        final long head = mHead.get();
+        final int index = (int) head & mMask;
+
+        if (mSequences.get(index) != head + 1) {
+            // Empty, or the producer which claimed this slot has not published it yet
+            return null;
+        }
+
+        final T element = mElements.get(index);
+        mElements.lazySet(index, null);
+        mHead.lazySet(head + 1);
+        mSequences.set(index, head + mMask + 1);
+
+        return element;
+    }
+
+    /**
+     * Moves up to maxElements elements into the supplied list. Only the single consumer may call
+     * this.
+     *
+     * @param target      The list to add to.
+     * @param maxElements The maximum number of elements to move.
+     * @return The number of elements moved.
+     */
+    int drainTo(@NonNull final List<T> target, final int maxElements) {
+        int drained = 0;
+        T element;
+
+        while (drained < maxElements && (element = poll()) != null) {
+            target.add(element);
+            drained++;
+        }
+
+        return drained;
+    }
+
+    /**
+     * @return True if there is nothing published for the consumer to take.
+     */
+    boolean isEmpty() {
+        final long head = mHead.get();
+        return mSequences.get((int) head & mMask) != head + 1;
+    }
+}
@@ -29,28 +29,71 @@ import androidx.annotation.Nullable;
 
 import com.microsoft.identity.common.adal.internal.util.StringExtensions;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
-import java.util.TimeZone;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 public final class Logger {
 
+    private static final String TAG = Logger.class.getSimpleName();
     private static final String CUSTOM_LOG_ERROR = "Custom log failed to log message:%s";
-    private static ExecutorService sLogExecutor = Executors.newSingleThreadExecutor();
     private static final Logger INSTANCE = new Logger();
     private static final String DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
 
+    // Messages logged faster than the writer can hand them off are dropped beyond this many.
+    private static final int LOG_BUFFER_CAPACITY = 4096;
+    private static final int MAX_LOG_BATCH_SIZE = 64;
+
+    private static final LogRingBuffer<LogEntry> sLogBuffer = new LogRingBuffer<>(LOG_BUFFER_CAPACITY);
+    private static final AtomicLong sDroppedLogCount = new AtomicLong();
+    private static final AtomicBoolean sLogWriterParked = new AtomicBoolean();
+    private static final Thread sLogWriter = new Thread(new LogWriter(), "MsalLogWriter");
+
     // Turn on the VERBOSE level logging by default.
-    private LogLevel mLogLevel = LogLevel.VERBOSE;
-    private ILoggerCallback mExternalLogger;
+    private volatile LogLevel mLogLevel = LogLevel.VERBOSE;
+    private volatile ILoggerCallback mExternalLogger;
 
     // Disable to log PII by default.
-    private static boolean sAllowPii = false;
+    private static volatile boolean sAllowPii = false;
     // Disable to Logcat logging by default.
-    private static boolean sAllowLogcat = false;
+    private static volatile boolean sAllowLogcat = false;
+
+    static {
+        sLogWriter.setDaemon(true);
+        sLogWriter.start();
+    }
+
+    /**
+     * A log call accepted on the caller thread, waiting to be formatted and handed off.
+     */
+    private static final class LogEntry {
+        final String mTag;
+        final LogLevel mLogLevel;
+        final String mCorrelationId;
+        final String mMessage;
+        final Throwable mThrowable;
+        final boolean mContainsPII;
+        final long mTimeMillis;
+
+        LogEntry(final String tag,
+                 final LogLevel logLevel,
+                 @Nullable final String correlationId,
+                 @Nullable final String message,
+                 @Nullable final Throwable throwable,
+                 final boolean containsPII,
+                 final long timeMillis) {
+            mTag = tag;
+            mLogLevel = logLevel;
+            mCorrelationId = correlationId;
+            mMessage = message;
+            mThrowable = throwable;
+            mContainsPII = containsPII;
+            mTimeMillis = timeMillis;
+        }
+    }
 
     /**
      * Enum class for LogLevel that the sdk recognizes.
@@ -131,6 +174,7 @@ public final class Logger {
     /**
      * Set the custom logger. Configures external logging to configure a callback that
      * the sdk will use to pass each log message. Overriding the logger callback is not allowed.
+     * If the callback is an {@link ILoggerBatchCallback}, messages are passed in batches.
      *
      * @param externalLogger The reference to the {@link ILoggerCallback} that can
      *                       output the logs to the designated places.
@@ -139,6 +183,16 @@ public final class Logger {
         mExternalLogger = externalLogger;
     }
 
+    /**
+     * Gets the number of log messages dropped because they were logged faster than they could be
+     * handed off.
+     *
+     * @return The number of dropped log messages.
+     */
+    public static long getDroppedLogCount() {
+        return sDroppedLogCount.get();
+    }
+
     /**
      * Send a {@link LogLevel#ERROR} log message without PII.
      *
@@ -150,10 +204,9 @@ public final class Logger {
     public static void error(final String tag,
                              @Nullable final String errorMessage,
                              @Nullable final Throwable exception) {
-        getInstance().log(
+        getInstance().logWithRequestContext(
                 tag,
                 LogLevel.ERROR,
-                DiagnosticContext.getRequestContext().toJsonString(),
                 errorMessage,
                 exception,
                 false
@@ -193,10 +246,9 @@ public final class Logger {
     public static void errorPII(final String tag,
                                 @Nullable final String errorMessage,
                                 @Nullable final Throwable exception) {
-        getInstance().log(
+        getInstance().logWithRequestContext(
                 tag,
                 LogLevel.ERROR,
-                DiagnosticContext.getRequestContext().toJsonString(),
                 errorMessage,
                 exception,
                 true
@@ -234,10 +286,9 @@ public final class Logger {
      * @param message The message to log.
      */
     public static void warn(final String tag, @Nullable final String message) {
-        getInstance().log(
+        getInstance().logWithRequestContext(
                 tag,
                 LogLevel.WARN,
-                DiagnosticContext.getRequestContext().toJsonString(),
                 message,
                 null,
                 false
@@ -273,10 +324,9 @@ public final class Logger {
      * @param message The message to log.
      */
     public static void warnPII(final String tag, @Nullable final String message) {
-        getInstance().log(
+        getInstance().logWithRequestContext(
                 tag,
                 LogLevel.WARN,
-                DiagnosticContext.getRequestContext().toJsonString(),
                 message,
                 null,
                 true
@@ -312,10 +362,9 @@ public final class Logger {
      * @param message The message to log.
      */
     public static void info(final String tag, @Nullable final String message) {
-        getInstance().log(
+        getInstance().logWithRequestContext(
                 tag,
                 LogLevel.INFO,
-                DiagnosticContext.getRequestContext().toJsonString(),
                 message,
                 null,
                 false
@@ -344,10 +393,9 @@ public final class Logger {
      * @param message The message to log.
      */
     public static void infoPII(final String tag, @Nullable final String message) {
-        getInstance().log(
+        getInstance().logWithRequestContext(
                 tag,
                 LogLevel.INFO,
-                DiagnosticContext.getRequestContext().toJsonString(),
                 message,
                 null,
                 true
@@ -376,10 +424,9 @@ public final class Logger {
      * @param message The message to log.
      */
     public static void verbose(final String tag, @Nullable final String message) {
-        getInstance().log(
+        getInstance().logWithRequestContext(
                 tag,
                 LogLevel.VERBOSE,
-                DiagnosticContext.getRequestContext().toJsonString(),
                 message,
                 null,
                 false
@@ -415,10 +462,9 @@ public final class Logger {
      * @param message The message to log.
      */
     public static void verbosePII(final String tag, @Nullable final String message) {
-        getInstance().log(
+        getInstance().logWithRequestContext(
                 tag,
                 LogLevel.VERBOSE,
-                DiagnosticContext.getRequestContext().toJsonString(),
                 message,
                 null,
                 true
@@ -446,79 +492,440 @@ public final class Logger {
         );
     }
 
+    /**
+     * Send a {@link LogLevel#VERBOSE} log message without PII, formatted only if it will be logged.
+     *
+     * @param tag    Used to identify the source of a log message. It usually identifies the class
+     *               or activity where the log call occurs.
+     * @param format The message, as a {@link String#format(String, Object...)} format string.
+     * @param arg    The format argument.
+     */
+    public static void verboseFormat(final String tag,
+                                     final String format,
+                                     @Nullable final Object arg) {
+        if (isLoggable(LogLevel.VERBOSE, false)) {
+            logFormat(tag, LogLevel.VERBOSE, false, format, arg);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#VERBOSE} log message without PII, formatted only if it will be logged.
+     *
+     * @param tag    Used to identify the source of a log message. It usually identifies the class
+     *               or activity where the log call occurs.
+     * @param format The message, as a {@link String#format(String, Object...)} format string.
+     * @param arg1   The first format argument.
+     * @param arg2   The second format argument.
+     */
+    public static void verboseFormat(final String tag,
+                                     final String format,
+                                     @Nullable final Object arg1,
+                                     @Nullable final Object arg2) {
+        if (isLoggable(LogLevel.VERBOSE, false)) {
+            logFormat(tag, LogLevel.VERBOSE, false, format, arg1, arg2);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#VERBOSE} log message without PII, formatted only if it will be logged.
+     *
+     * @param tag    Used to identify the source of a log message. It usually identifies the class
+     *               or activity where the log call occurs.
+     * @param format The message, as a {@link String#format(String, Object...)} format string.
+     * @param args   The format arguments.
+     */
+    public static void verboseFormat(final String tag,
+                                     final String format,
+                                     final Object... args) {
+        if (isLoggable(LogLevel.VERBOSE, false)) {
+            logFormat(tag, LogLevel.VERBOSE, false, format, args);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#VERBOSE} log message with PII, formatted only if it will be logged.
+     *
+     * @param tag    Used to identify the source of a log message. It usually identifies the class
+     *               or activity where the log call occurs.
+     * @param format The message, as a {@link String#format(String, Object...)} format string.
+     * @param arg    The format argument.
+     */
+    public static void verbosePIIFormat(final String tag,
+                                        final String format,
+                                        @Nullable final Object arg) {
+        if (isLoggable(LogLevel.VERBOSE, true)) {
+            logFormat(tag, LogLevel.VERBOSE, true, format, arg);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#VERBOSE} log message with PII, formatted only if it will be logged.
+     *
+     * @param tag    Used to identify the source of a log message. It usually identifies the class
+     *               or activity where the log call occurs.
+     * @param format The message, as a {@link String#format(String, Object...)} format string.
+     * @param arg1   The first format argument.
+     * @param arg2   The second format argument.
+     */
+    public static void verbosePIIFormat(final String tag,
+                                        final String format,
+                                        @Nullable final Object arg1,
+                                        @Nullable final Object arg2) {
+        if (isLoggable(LogLevel.VERBOSE, true)) {
+            logFormat(tag, LogLevel.VERBOSE, true, format, arg1, arg2);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#VERBOSE} log message with PII, formatted only if it will be logged.
+     *
+     * @param tag    Used to identify the source of a log message. It usually identifies the class
+     *               or activity where the log call occurs.
+     * @param format The message, as a {@link String#format(String, Object...)} format string.
+     * @param args   The format arguments.
+     */
+    public static void verbosePIIFormat(final String tag,
+                                        final String format,
+                                        final Object... args) {
+        if (isLoggable(LogLevel.VERBOSE, true)) {
+            logFormat(tag, LogLevel.VERBOSE, true, format, args);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#INFO} log message without PII, formatted only if it will be logged.
+     *
+     * @param tag    Used to identify the source of a log message. It usually identifies the class
+     *               or activity where the log call occurs.
+     * @param format The message, as a {@link String#format(String, Object...)} format string.
+     * @param arg    The format argument.
+     */
+    public static void infoFormat(final String tag,
+                                  final String format,
+                                  @Nullable final Object arg) {
+        if (isLoggable(LogLevel.INFO, false)) {
+            logFormat(tag, LogLevel.INFO, false, format, arg);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#INFO} log message without PII, formatted only if it will be logged.
+     *
+     * @param tag    Used to identify the source of a log message. It usually identifies the class
+     *               or activity where the log call occurs.
+     * @param format The message, as a {@link String#format(String, Object...)} format string.
+     * @param arg1   The first format argument.
+     * @param arg2   The second format argument.
+     */
+    public static void infoFormat(final String tag,
+                                  final String format,
+                                  @Nullable final Object arg1,
+                                  @Nullable final Object arg2) {
+        if (isLoggable(LogLevel.INFO, false)) {
+            logFormat(tag, LogLevel.INFO, false, format, arg1, arg2);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#INFO} log message without PII, formatted only if it will be logged.
+     *
+     * @param tag    Used to identify the source of a log message. It usually identifies the class
+     *               or activity where the log call occurs.
+     * @param format The message, as a {@link String#format(String, Object...)} format string.
+     * @param args   The format arguments.
+     */
+    public static void infoFormat(final String tag,
+                                  final String format,
+                                  final Object... args) {
+        if (isLoggable(LogLevel.INFO, false)) {
+            logFormat(tag, LogLevel.INFO, false, format, args);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#INFO} log message with PII, formatted only if it will be logged.
+     *
+     * @param tag    Used to identify the source of a log message. It usually identifies the class
+     *               or activity where the log call occurs.
+     * @param format The message, as a {@link String#format(String, Object...)} format string.
+     * @param arg    The format argument.
+     */
+    public static void infoPIIFormat(final String tag,
+                                     final String format,
+                                     @Nullable final Object arg) {
+        if (isLoggable(LogLevel.INFO, true)) {
+            logFormat(tag, LogLevel.INFO, true, format, arg);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#INFO} log message with PII, formatted only if it will be logged.
+     *
+     * @param tag    Used to identify the source of a log message. It usually identifies the class
+     *               or activity where the log call occurs.
+     * @param format The message, as a {@link String#format(String, Object...)} format string.
+     * @param arg1   The first format argument.
+     * @param arg2   The second format argument.
+     */
+    public static void infoPIIFormat(final String tag,
+                                     final String format,
+                                     @Nullable final Object arg1,
+                                     @Nullable final Object arg2) {
+        if (isLoggable(LogLevel.INFO, true)) {
+            logFormat(tag, LogLevel.INFO, true, format, arg1, arg2);
+        }
+    }
+
+    /**
+     * Send a {@link LogLevel#INFO} log message with PII, formatted only if it will be logged.
+     *
+     * @param tag    Used to identify the source of a log message. It usually identifies the class
+     *               or activity where the log call occurs.
+     * @param format The message, as a {@link String#format(String, Object...)} format string.
+     * @param args   The format arguments.
+     */
+    public static void infoPIIFormat(final String tag,
+                                     final String format,
+                                     final Object... args) {
+        if (isLoggable(LogLevel.INFO, true)) {
+            logFormat(tag, LogLevel.INFO, true, format, args);
+        }
+    }
+
+    /**
+     * Checks whether a message of the supplied level would be logged, so that callers can skip
+     * building messages, or whole diagnostic loops, which would only be filtered out.
+     *
+     * @param logLevel    The {@link LogLevel} of the message.
+     * @param containsPII True if the message would contain PII, false otherwise.
+     * @return True if the message would be logged, false otherwise.
+     */
+    public static boolean isLoggable(final LogLevel logLevel, final boolean containsPII) {
+        return getInstance().isLoggableInternal(logLevel, containsPII);
+    }
+
+    private static void logFormat(final String tag,
+                                  final LogLevel logLevel,
+                                  final boolean containsPII,
+                                  final String format,
+                                  final Object... args) {
+        enqueue(
+                tag,
+                logLevel,
+                DiagnosticContext.getRequestContext().toJsonString(),
+                String.format(Locale.US, format, args),
+                null,
+                containsPII
+        );
+    }
+
+    /**
+     * Logs with the correlation id of the current request context, which is only looked up if
+     * the message will be logged.
+     */
+    private void logWithRequestContext(final String tag,
+                                       final LogLevel logLevel,
+                                       @Nullable final String message,
+                                       @Nullable final Throwable throwable,
+                                       final boolean containsPII) {
+        if (isLoggableInternal(logLevel, containsPII)) {
+            enqueue(
+                    tag,
+                    logLevel,
+                    DiagnosticContext.getRequestContext().toJsonString(),
+                    message,
+                    throwable,
+                    containsPII
+            );
+        }
+    }
+
     private void log(final String tag,
                      final LogLevel logLevel,
                      @Nullable final String correlationID,
                      @Nullable final String message,
                      @Nullable final Throwable throwable,
                      final boolean containsPII) {
-        sLogExecutor.execute(new Runnable() {
-            @Override
-            public void run() {
-                if (logLevel.compareTo(mLogLevel) > 0) {
-                    return;
+        if (isLoggableInternal(logLevel, containsPII)) {
+            enqueue(tag, logLevel, correlationID, message, throwable, containsPII);
+        }
+    }
+
+    /**
+     * Filters on the caller thread, so that messages which will not be logged are never queued.
+     */
+    private boolean isLoggableInternal(final LogLevel logLevel, final boolean containsPII) {
+        if (logLevel.compareTo(mLogLevel) > 0) {
+            return false;
+        }
+
+        // Developer turns off PII logging, if the log message contains any PII,
+        // we should not send it.
+        return sAllowPii || !containsPII;
+    }
+
+    private static void enqueue(final String tag,
+                                final LogLevel logLevel,
+                                @Nullable final String correlationID,
+                                @Nullable final String message,
+                                @Nullable final Throwable throwable,
+                                final boolean containsPII) {
+        final LogEntry entry = new LogEntry(
+                tag,
+                logLevel,
+                correlationID,
+                message,
+                throwable,
+                containsPII,
+                System.currentTimeMillis()
+        );
+
+        if (!sLogBuffer.offer(entry)) {
+            sDroppedLogCount.incrementAndGet();
+            return;
+        }
+
+        if (sLogWriterParked.get()) {
+            LockSupport.unpark(sLogWriter);
+        }
+    }
+
+    /**
+     * Drains the log buffer in batches, formatting each message and handing it to logcat and the
+     * external logger. Parks while there is nothing to write.
+     */
+    private static final class LogWriter implements Runnable {
+
+        private final CachedTimestampFormatter mTimestampFormatter =
+                new CachedTimestampFormatter(DATE_FORMAT);
+        private final List<LogEntry> mEntries = new ArrayList<>(MAX_LOG_BATCH_SIZE);
+        private final List<LogMessage> mMessages = new ArrayList<>(MAX_LOG_BATCH_SIZE + 1);
+        private long mReportedDropCount;
+
+        @Override
+        public void run() {
+            while (true) {
+                if (sLogBuffer.drainTo(mEntries, MAX_LOG_BATCH_SIZE) == 0) {
+                    sLogWriterParked.set(true);
+
+                    // Re-check after advertising that we are parked, so an entry enqueued in
+                    // between is not left waiting for the next one.
+                    if (sLogBuffer.isEmpty()) {
+                        LockSupport.park(this);
+                    }
+
+                    sLogWriterParked.set(false);
+                    continue;
                 }
 
-                // Developer turns off PII logging, if the log meLoggerSettingssage contains any PII,
-                // we should not send it.
-                if (!sAllowPii && containsPII) {
-                    return;
+                try {
+                    write();
+                } catch (final RuntimeException e) {
+                    // Never let a bad message stop the writer.
+                    Log.e(TAG, "Failed to write log messages.", e);
+                } finally {
+                    mEntries.clear();
+                    mMessages.clear();
                 }
+            }
+        }
+
+        private void write() {
+            final long dropCount = sDroppedLogCount.get();
+
+            if (dropCount > mReportedDropCount) {
+                mMessages.add(
+                        new LogMessage(
+                                TAG,
+                                LogLevel.WARN,
+                                formatMessage(
+                                        System.currentTimeMillis(),
+                                        null,
+                                        "Log buffer full, dropped "
+                                                + (dropCount - mReportedDropCount) + " messages.",
+                                        null
+                                ),
+                                false
+                        )
+                );
+                mReportedDropCount = dropCount;
+            }
 
-                //Format the log message.
-                final String logMessage = formatMessage(correlationID, message, throwable);
+            for (final LogEntry entry : mEntries) {
+                mMessages.add(
+                        new LogMessage(
+                                entry.mTag,
+                                entry.mLogLevel,
+                                formatMessage(
+                                        entry.mTimeMillis,
+                                        entry.mCorrelationId,
+                                        entry.mMessage,
+                                        entry.mThrowable
+                                ),
+                                entry.mContainsPII
+                        )
+                );
+            }
 
-                // Send logs into Logcat.
-                if (sAllowLogcat) {
-                    sendLogcatLogs(tag, logLevel, logMessage);
+            // Send logs into Logcat.
+            if (sAllowLogcat) {
+                for (final LogMessage message : mMessages) {
+                    sendLogcatLogs(message.getTag(), message.getLogLevel(), message.getMessage());
                 }
+            }
 
-                // Send logs into external logger callback.
-                final ILoggerCallback externalLogger = mExternalLogger;
+            // Send logs into external logger callback.
+            final ILoggerCallback externalLogger = INSTANCE.mExternalLogger;
 
-                if (null != externalLogger) {
+            if (externalLogger instanceof ILoggerBatchCallback) {
+                try {
+                    ((ILoggerBatchCallback) externalLogger).log(new ArrayList<>(mMessages));
+                } catch (final Exception e) {
+                    Log.w(TAG, String.format(CUSTOM_LOG_ERROR, mMessages.size() + " messages"));
+                }
+            } else if (null != externalLogger) {
+                for (final LogMessage message : mMessages) {
                     try {
-                        mExternalLogger.log(tag, logLevel, logMessage, containsPII);
+                        externalLogger.log(
+                                message.getTag(),
+                                message.getLogLevel(),
+                                message.getMessage(),
+                                message.containsPII()
+                        );
                     } catch (final Exception e) {
                         // log message as warning to report callback error issue
-                        if (!containsPII || sAllowPii) {
-                            Log.w(tag, String.format(CUSTOM_LOG_ERROR, logMessage));
+                        if (!message.containsPII() || sAllowPii) {
+                            Log.w(message.getTag(), String.format(CUSTOM_LOG_ERROR, message.getMessage()));
                         }
                     }
                 }
             }
-        });
-    }
-
-    /**
-     * Wrap the log message.
-     * If correlation id exists:
-     * <library_version> <platform> <platform_version> [<timestamp> - <correlation_id>] <log_message>
-     * If correlation id doesn't exist:
-     * <library_version> <platform> <platform_version> [<timestamp>] <log_message>
-     */
-    private String formatMessage(@Nullable final String correlationID,
-                                 @Nullable final String message,
-                                 @Nullable final Throwable throwable) {
-        final String logMessage = StringExtensions.isNullOrBlank(message) ? "N/A" : message;
-        return " [" + getUTCDateTimeAsString()
-                + (StringExtensions.isNullOrBlank(correlationID) ? "] " : " - " + correlationID + "] ")
-                + logMessage
-                + " Android " + Build.VERSION.SDK_INT
-                + (throwable == null ? "" : '\n' + Log.getStackTraceString(throwable));
-    }
-
-    private static String getUTCDateTimeAsString() {
-        final SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT, Locale.getDefault());
-        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        }
 
-        return dateFormat.format(new Date());
+        /**
+         * Wrap the log message.
+         * If correlation id exists:
+         * <library_version> <platform> <platform_version> [<timestamp> - <correlation_id>] <log_message>
+         * If correlation id doesn't exist:
+         * <library_version> <platform> <platform_version> [<timestamp>] <log_message>
+         */
+        private String formatMessage(final long timeMillis,
+                                     @Nullable final String correlationID,
+                                     @Nullable final String message,
+                                     @Nullable final Throwable throwable) {
+            final String logMessage = StringExtensions.isNullOrBlank(message) ? "N/A" : message;
+            return " [" + mTimestampFormatter.format(timeMillis)
+                    + (StringExtensions.isNullOrBlank(correlationID) ? "] " : " - " + correlationID + "] ")
+                    + logMessage
+                    + " Android " + Build.VERSION.SDK_INT
+                    + (throwable == null ? "" : '\n' + Log.getStackTraceString(throwable));
+        }
     }
 
     /**
      * Send logs to logcat as the default logging if developer doesn't turn off the logcat logging.
      */
-    private void sendLogcatLogs(final String tag, final LogLevel logLevel, final String message) {
+    private static void sendLogcatLogs(final String tag, final LogLevel logLevel, final String message) {
         // Append additional message to the message part for logcat logging
         switch (logLevel) {
             case ERROR:
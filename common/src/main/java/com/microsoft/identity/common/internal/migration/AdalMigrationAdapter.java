@@ -38,6 +38,7 @@ import com.google.gson.JsonSyntaxException;
 import com.microsoft.identity.common.exception.ServiceException;
 import com.microsoft.identity.common.internal.cache.ADALTokenCacheItem;
 import com.microsoft.identity.common.internal.logging.Logger;
+import com.microsoft.identity.common.internal.net.cache.MetadataCache;
 import com.microsoft.identity.common.internal.providers.microsoft.MicrosoftAccount;
 import com.microsoft.identity.common.internal.providers.microsoft.MicrosoftRefreshToken;
 import com.microsoft.identity.common.internal.providers.microsoft.azureactivedirectory.AzureActiveDirectory;
@@ -105,6 +106,9 @@ public class AdalMigrationAdapter implements IMigrationAdapter<MicrosoftAccount,
         mSharedPrefs = context.getSharedPreferences(MIGRATION_STATUS_SHARED_PREFERENCES, Context.MODE_PRIVATE);
         mRedirectsMap = redirects;
         mForceMigration = force;
+
+        // Migration runs cloud discovery before any command could point the cache at its directory
+        MetadataCache.initialize(context);
     }
 
     @Override
@@ -0,0 +1,110 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.net;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks consecutive server failures of one host. Once the threshold is reached the circuit opens
+ * and requests are refused for the open duration; then a single probe request is let through,
+ * which closes the circuit on success and opens it again on failure.
+ */
+@ThreadSafe
+class CircuitBreaker {
+
+    private enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int mFailureThreshold;
+    private final long mOpenDurationNanos;
+
+    private State mState = State.CLOSED;
+    private int mConsecutiveFailures;
+    private long mOpenedAtNanos;
+    private boolean mProbeInFlight;
+
+    CircuitBreaker(final int failureThreshold, final long openDurationMillis) {
+        mFailureThreshold = failureThreshold;
+        mOpenDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+    }
+
+    /**
+     * @return 0 if a request may be sent, otherwise how long in milliseconds until one may.
+     */
+    synchronized long tryAcquire() {
+        switch (mState) {
+            case OPEN:
+                final long openForNanos = mOpenedAtNanos + mOpenDurationNanos - System.nanoTime();
+                if (openForNanos > 0) {
+                    return Math.max(1, TimeUnit.NANOSECONDS.toMillis(openForNanos));
+                }
+                mState = State.HALF_OPEN;
+                mProbeInFlight = true;
+                return 0;
+            case HALF_OPEN:
+                if (mProbeInFlight) {
+                    return Math.max(1, TimeUnit.NANOSECONDS.toMillis(mOpenDurationNanos));
+                }
+                mProbeInFlight = true;
+                return 0;
+            default:
+                return 0;
+        }
+    }
+
+    synchronized void onSuccess() {
+        mState = State.CLOSED;
+        mConsecutiveFailures = 0;
+        mProbeInFlight = false;
+    }
+
+    /**
+     * @return true if this failure opened the circuit.
+     */
+    synchronized boolean onFailure() {
+        mConsecutiveFailures++;
+        mProbeInFlight = false;
+
+        if (mState == State.HALF_OPEN
+                || (mState == State.CLOSED && mConsecutiveFailures >= mFailureThreshold)) {
+            mState = State.OPEN;
+            mOpenedAtNanos = System.nanoTime();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Records a request which ended in a way that says nothing about the host, such as the device
+     * being offline, so a probe request may be sent again.
+     */
+    synchronized void onInconclusive() {
+        mProbeInFlight = false;
+    }
+}
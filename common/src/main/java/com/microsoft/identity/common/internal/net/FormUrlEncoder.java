@@ -0,0 +1,356 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.net;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Form url encodes request objects such as
+ * {@link com.microsoft.identity.common.internal.providers.oauth2.TokenRequest} straight into a
+ * byte array.
+ * <p>
+ * The output is byte for byte the same as
+ * {@link ObjectMapper#serializeObjectToFormUrlEncoded(Object)}: fields are named the way Gson
+ * names them, transient and static fields and null values are skipped and the pairs are sorted
+ * by key. Instead of going through a JSON string and a map, the serializable fields of each class
+ * are resolved once and cached, and the body is written into a single array of the exact size.
+ * Classes with a field type the encoder doesn't handle fall back to {@link ObjectMapper}.
+ */
+public final class FormUrlEncoder {
+
+    private static final byte[] HEX_DIGITS = {
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'
+    };
+
+    /**
+     * Gson writes these as JSON strings, numbers or booleans, all of which read back as their
+     * {@link Object#toString()} value.
+     */
+    private static final Class<?>[] SUPPORTED_TYPES = {
+            String.class, UUID.class,
+            Boolean.class, boolean.class,
+            Integer.class, int.class,
+            Long.class, long.class
+    };
+
+    private static final ConcurrentMap<Class<?>, ClassBinding> sClassBindings =
+            new ConcurrentHashMap<>();
+
+    private FormUrlEncoder() {
+        // Utility class.
+    }
+
+    /**
+     * Form url encodes the serializable fields of the supplied object as UTF-8.
+     *
+     * @param object The object to encode.
+     * @return The encoded body.
+     * @throws UnsupportedEncodingException If the object had to fall back to {@link ObjectMapper}
+     *                                      and UTF-8 isn't supported.
+     */
+    public static byte[] encode(@NonNull final Object object) throws UnsupportedEncodingException {
+        final FieldBinding[] fields = getFieldBindings(object.getClass());
+
+        if (fields == null) {
+            return ObjectMapper.serializeObjectToFormUrlEncoded(object)
+                    .getBytes(ObjectMapper.ENCODING_SCHEME);
+        }
+
+        final String[] values = new String[fields.length];
+        int length = 0;
+        boolean first = true;
+
+        for (int i = 0; i < fields.length; i++) {
+            final String value = fields[i].read(object);
+
+            if (value != null) {
+                length += (first ? 0 : 1) + fields[i].mEncodedName.length + 1 + encodedLength(value);
+                values[i] = value;
+                first = false;
+            }
+        }
+
+        final byte[] bytes = new byte[length];
+        int position = 0;
+        first = true;
+
+        for (int i = 0; i < fields.length; i++) {
+            if (values[i] == null) {
+                continue;
+            }
+
+            if (!first) {
+                bytes[position++] = '&';
+            }
+
+            final byte[] name = fields[i].mEncodedName;
+            System.arraycopy(name, 0, bytes, position, name.length);
+            position += name.length;
+            bytes[position++] = '=';
+            position = writeEncoded(values[i], bytes, position);
+            first = false;
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Returns the cached serializable fields of the class, sorted by their encoded name, or null
+     * if the class has to be encoded by {@link ObjectMapper}.
+     */
+    @Nullable
+    private static FieldBinding[] getFieldBindings(@NonNull final Class<?> clazz) {
+        ClassBinding binding = sClassBindings.get(clazz);
+
+        if (binding == null) {
+            binding = new ClassBinding(bindFields(clazz));
+            final ClassBinding existing = sClassBindings.putIfAbsent(clazz, binding);
+
+            if (existing != null) {
+                binding = existing;
+            }
+        }
+
+        return binding.mFields;
+    }
+
+    @Nullable
+    private static FieldBinding[] bindFields(@NonNull final Class<?> clazz) {
+        final List<FieldBinding> bindings = new ArrayList<>();
+
+        for (Class<?> current = clazz; current != null && current != Object.class;
+             current = current.getSuperclass()) {
+            for (final Field field : current.getDeclaredFields()) {
+                // Same default exclusions as Gson
+                if ((field.getModifiers() & (Modifier.TRANSIENT | Modifier.STATIC)) != 0
+                        || field.isSynthetic()) {
+                    continue;
+                }
+
+                if (!isSupportedType(field.getType())) {
+                    return null;
+                }
+
+                try {
+                    field.setAccessible(true);
+                } catch (final SecurityException e) {
+                    return null;
+                }
+
+                final SerializedName serializedName = field.getAnnotation(SerializedName.class);
+                final String name = serializedName != null
+                        ? serializedName.value()
+                        : field.getName();
+                bindings.add(new FieldBinding(field, name, encodeName(name)));
+            }
+        }
+
+        Collections.sort(bindings, new Comparator<FieldBinding>() {
+            @Override
+            public int compare(final FieldBinding lhs, final FieldBinding rhs) {
+                return lhs.mName.compareTo(rhs.mName);
+            }
+        });
+
+        for (int i = 1; i < bindings.size(); i++) {
+            if (bindings.get(i).mName.equals(bindings.get(i - 1).mName)) {
+                // Gson rejects duplicate names, let it report the error
+                return null;
+            }
+        }
+
+        return bindings.toArray(new FieldBinding[bindings.size()]);
+    }
+
+    private static boolean isSupportedType(@NonNull final Class<?> type) {
+        for (final Class<?> supportedType : SUPPORTED_TYPES) {
+            if (supportedType == type) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isUnreserved(final char c) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9')
+                || c == '-' || c == '_' || c == '.' || c == '*';
+    }
+
+    /**
+     * Number of bytes the UTF-8 encoding of the code point at the index takes, with malformed
+     * surrogates replaced by a single '?' like {@link String#getBytes(String)} does.
+     */
+    private static int utf8Length(@NonNull final String value, final int index) {
+        final char c = value.charAt(index);
+
+        if (c < 0x80) {
+            return 1;
+        } else if (c < 0x800) {
+            return 2;
+        } else if (Character.isHighSurrogate(c)
+                && index + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(index + 1))) {
+            return 4;
+        } else if (Character.isSurrogate(c)) {
+            return 1;
+        }
+
+        return 3;
+    }
+
+    /**
+     * Length of the value once encoded the way {@link java.net.URLEncoder} does with UTF-8.
+     */
+    private static int encodedLength(@NonNull final String value) {
+        int length = 0;
+
+        for (int i = 0; i < value.length(); ) {
+            final char c = value.charAt(i);
+
+            if (c == ' ' || isUnreserved(c)) {
+                length++;
+                i++;
+            } else {
+                final int utf8Length = utf8Length(value, i);
+                length += 3 * utf8Length;
+                i += utf8Length == 4 ? 2 : 1;
+            }
+        }
+
+        return length;
+    }
+
+    private static int writeEncoded(@NonNull final String value,
+                                    @NonNull final byte[] bytes,
+                                    int position) {
+        for (int i = 0; i < value.length(); ) {
+            final char c = value.charAt(i);
+
+            if (isUnreserved(c)) {
+                bytes[position++] = (byte) c;
+                i++;
+                continue;
+            }
+
+            if (c == ' ') {
+                bytes[position++] = '+';
+                i++;
+                continue;
+            }
+
+            switch (utf8Length(value, i)) {
+                case 1:
+                    position = writeEscaped(Character.isSurrogate(c) ? '?' : c, bytes, position);
+                    i++;
+                    break;
+                case 2:
+                    position = writeEscaped(0xC0 | (c >> 6), bytes, position);
+                    position = writeEscaped(0x80 | (c & 0x3F), bytes, position);
+                    i++;
+                    break;
+                case 3:
+                    position = writeEscaped(0xE0 | (c >> 12), bytes, position);
+                    position = writeEscaped(0x80 | ((c >> 6) & 0x3F), bytes, position);
+                    position = writeEscaped(0x80 | (c & 0x3F), bytes, position);
+                    i++;
+                    break;
+                default:
+                    final int codePoint = Character.toCodePoint(c, value.charAt(i + 1));
+                    position = writeEscaped(0xF0 | (codePoint >> 18), bytes, position);
+                    position = writeEscaped(0x80 | ((codePoint >> 12) & 0x3F), bytes, position);
+                    position = writeEscaped(0x80 | ((codePoint >> 6) & 0x3F), bytes, position);
+                    position = writeEscaped(0x80 | (codePoint & 0x3F), bytes, position);
+                    i += 2;
+                    break;
+            }
+        }
+
+        return position;
+    }
+
+    private static int writeEscaped(final int b, @NonNull final byte[] bytes, int position) {
+        bytes[position++] = '%';
+        bytes[position++] = HEX_DIGITS[(b >> 4) & 0xF];
+        bytes[position++] = HEX_DIGITS[b & 0xF];
+        return position;
+    }
+
+    private static byte[] encodeName(@NonNull final String name) {
+        final byte[] bytes = new byte[encodedLength(name)];
+        writeEncoded(name, bytes, 0);
+        return bytes;
+    }
+
+    private static final class ClassBinding {
+
+        @Nullable
+        private final FieldBinding[] mFields;
+
+        ClassBinding(@Nullable final FieldBinding[] fields) {
+            mFields = fields;
+        }
+    }
+
+    private static final class FieldBinding {
+
+        private final Field mField;
+        private final String mName;
+        private final byte[] mEncodedName;
+
+        FieldBinding(@NonNull final Field field,
+                     @NonNull final String name,
+                     @NonNull final byte[] encodedName) {
+            mField = field;
+            mName = name;
+            mEncodedName = encodedName;
+        }
+
+        @Nullable
+        String read(@NonNull final Object object) {
+            try {
+                final Object value = mField.get(object);
+                return value == null ? null : value.toString();
+            } catch (final IllegalAccessException e) {
+                // The field was made accessible when it was bound
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
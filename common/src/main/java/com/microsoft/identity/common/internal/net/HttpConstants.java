@@ -27,7 +27,7 @@ public final class HttpConstants {
     /**
      * HTTP header fields.
      */
-    static final class HeaderField {
+    public static final class HeaderField {
 
         /**
          * @see <a href="https://tools.ietf.org/html/rfc1945#appendix-D.2.1">RFC-1945</a>
@@ -37,7 +37,7 @@ public final class HttpConstants {
         /**
          * @see <a href="https://www.w3.org/Protocols/rfc2616/rfc2616-sec14.html">RFC-2616</a>
          */
-        static final String CONTENT_TYPE = "Content-Type";
+        public static final String CONTENT_TYPE = "Content-Type";
     }
 
     /**
@@ -60,36 +60,37 @@ public final class HttpRequest {
     public static int CONNECT_TIMEOUT = 30000;
 
     /**
-     * The waiting time before doing retry to prevent hitting the server immediately failure.
+     * The least waiting time before doing retry to prevent hitting the server immediately failure.
+     * Retries are jittered between this and three times this.
      */
-    private static final int RETRY_TIME_WAITING_PERIOD_MSEC = 1000;
+    private static final long RETRY_BASE_DELAY_MSEC = 500;
     private static final int STREAM_BUFFER_SIZE = 1024;
+    private static final JitteredBackoffRetry DEFAULT_RETRY_POLICY = JitteredBackoffRetry.builder()
+            .maxRetries(1)
+            .baseDelayMillis(RETRY_BASE_DELAY_MSEC)
+            .isRetryable(new Function<HttpResponse, Boolean>() {
+                public Boolean apply(HttpResponse response) {
+                    return response != null && HttpRequest.isRetryableError(response.getStatusCode());
+                }
+            })
+            .isRetryableException(new Function<Exception, Boolean>() {
+                public Boolean apply(Exception e) {
+                    return e instanceof SocketTimeoutException;
+                }
+            })
+            .build();
     private static final HttpClient DEFAULT_HTTP_CLIENT = UrlConnectionHttpClient.builder()
             .connectTimeoutMsSupplier(new Supplier<Integer>() { public Integer get() { return CONNECT_TIMEOUT; }})
             .readTimeoutMsSupplier(new Supplier<Integer>() { public Integer get() { return READ_TIMEOUT; }})
             .streamBufferSize(STREAM_BUFFER_SIZE)
-            .retryPolicy(new StatusCodeAndExceptionRetry.StatusCodeAndExceptionRetryBuilder()
-                          .number(1)
-                    .extensionFactor(2)
-                    .isAcceptable(new Function<HttpResponse, Boolean>() {
-                        public Boolean apply(HttpResponse response) {
-                            return response != null && response.getStatusCode() < 400;
-                        }
-                    })
-                    .initialDelay(RETRY_TIME_WAITING_PERIOD_MSEC)
-                    .isRetryable(new Function<HttpResponse, Boolean>() {
-                        public Boolean apply(HttpResponse response) {
-                            return response != null && HttpRequest.isRetryableError(response.getStatusCode());
-                        }
-                    })
-                    .isRetryableException(new Function<Exception, Boolean>() {
-                        public Boolean apply(Exception e) {
-                            return e instanceof SocketTimeoutException;
-                        }
-                    })
-                    .build())
+            .retryPolicy(DEFAULT_RETRY_POLICY)
             .build();
 
+    /**
+     * The client the static send methods go through.
+     */
+    private static volatile HttpClient sHttpClient = DEFAULT_HTTP_CLIENT;
+
     public static final String REQUEST_METHOD_GET = "GET";
     public static final String REQUEST_METHOD_POST = "POST";
     public static final String REQUEST_METHOD_HEAD = "HEAD";
@@ -112,6 +113,27 @@ public final class HttpRequest {
         HTTP_METHODS.add(REQUEST_METHOD_PATCH);
     }
 
+    /**
+     * Replaces the client the static send methods, and so the token and discovery requests, go
+     * through; for instance with a {@link PooledHttpClient}. The mutable {@link #READ_TIMEOUT} and
+     * {@link #CONNECT_TIMEOUT} only apply to the default client.
+     *
+     * @param httpClient The client to use, or null to restore the default one.
+     */
+    public static void setHttpClient(@Nullable final HttpClient httpClient) {
+        sHttpClient = httpClient == null ? DEFAULT_HTTP_CLIENT : httpClient;
+    }
+
+    /**
+     * @return The retry policy of the default client: a single jittered retry of a timeout or a
+     * 500/503/504 response, with a circuit breaker per host. Meant for the clients given to
+     * {@link #setHttpClient(HttpClient)}, which then share its circuit breakers, and for reading
+     * its {@link JitteredBackoffRetry#getStatistics() counters}.
+     */
+    public static JitteredBackoffRetry getDefaultRetryPolicy() {
+        return DEFAULT_RETRY_POLICY;
+    }
+
     // class variables
     private final URL mRequestUrl;
     private final byte[] mRequestContent;
@@ -384,13 +406,46 @@ public final class HttpRequest {
                 headerMap.put(HttpConstants.HeaderField.CONTENT_TYPE, requestContentType);
             }
         }
-        HttpResponse response = DEFAULT_HTTP_CLIENT.method(httpMethod, requestUrl, headerMap, requestContent);
+        DEFAULT_RETRY_POLICY.clearLastOutcome();
+        HttpResponse response = sHttpClient.method(httpMethod, requestUrl, headerMap, requestContent);
         if (response != null && isRetryableError(response.getStatusCode())) {
-            throw new UnknownServiceException("Retry failed again with 500/503/504");
+            throw new UnknownServiceException(
+                    getRetryFailureMessage(DEFAULT_RETRY_POLICY.getLastOutcome(), response.getStatusCode())
+            );
         }
         return response;
     }
 
+    /**
+     * Describes why a request which failed with 500/503/504 was not retried further.
+     *
+     * @param outcome    The outcome of the last attempt of the default retry policy on this
+     *                   thread, or null if the client used another policy.
+     * @param statusCode The status code the request failed with.
+     * @return The message of the exception reporting the failure.
+     */
+    static String getRetryFailureMessage(@Nullable final JitteredBackoffRetry.Outcome outcome,
+                                         final int statusCode) {
+        if (outcome == null) {
+            return "Request failed with " + statusCode;
+        }
+
+        switch (outcome) {
+            case RETRIES_EXHAUSTED:
+                return "Retry failed again with " + statusCode;
+            case BUDGET_EXHAUSTED:
+                return "Request failed with " + statusCode + ", not retried as the retry budget is spent";
+            case CIRCUIT_OPEN:
+                return "Request failed with " + statusCode + ", not retried as the circuit to the host is open";
+            case RETRY_AFTER_TOO_LONG:
+                return "Request failed with " + statusCode + ", not retried as Retry-After is over the maximum delay";
+            case INTERRUPTED:
+                return "Request failed with " + statusCode + ", retry interrupted";
+            default:
+                return "Request failed with " + statusCode;
+        }
+    }
+
     /**
      * Check if the given status code is the retryable status code(500/503/504).
      *
@@ -0,0 +1,144 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.net;
+
+import androidx.annotation.NonNull;
+
+import net.jcip.annotations.Immutable;
+
+import lombok.Builder;
+
+/**
+ * Time spent in each phase of a single HTTP exchange, in milliseconds. A phase which did not
+ * happen, such as the DNS lookup of an IP literal, is reported as {@link #NOT_MEASURED}.
+ * <p>
+ * The connect phase covers both the TCP connect and the TLS handshake, {@link java.net.HttpURLConnection}
+ * gives no way to tell them apart. It is close to zero when a pooled connection was reused.
+ */
+@Immutable
+public final class HttpTimings {
+
+    /**
+     * Value of a phase which was not measured.
+     */
+    public static final long NOT_MEASURED = -1;
+
+    private final long mPoolWaitMillis;
+    private final long mDnsMillis;
+    private final long mConnectMillis;
+    private final long mRequestMillis;
+    private final long mTimeToFirstByteMillis;
+    private final long mBodyMillis;
+    private final long mTotalMillis;
+    private final long mResponseBytes;
+
+    @Builder
+    private HttpTimings(final long poolWaitMillis,
+                        final long dnsMillis,
+                        final long connectMillis,
+                        final long requestMillis,
+                        final long timeToFirstByteMillis,
+                        final long bodyMillis,
+                        final long totalMillis,
+                        final long responseBytes) {
+        mPoolWaitMillis = poolWaitMillis;
+        mDnsMillis = dnsMillis;
+        mConnectMillis = connectMillis;
+        mRequestMillis = requestMillis;
+        mTimeToFirstByteMillis = timeToFirstByteMillis;
+        mBodyMillis = bodyMillis;
+        mTotalMillis = totalMillis;
+        mResponseBytes = responseBytes;
+    }
+
+    /**
+     * @return Time spent waiting for one of the connections allowed to the host.
+     */
+    public long getPoolWaitMillis() {
+        return mPoolWaitMillis;
+    }
+
+    /**
+     * @return Time spent resolving the host name.
+     */
+    public long getDnsMillis() {
+        return mDnsMillis;
+    }
+
+    /**
+     * @return Time spent on the TCP connect and the TLS handshake.
+     */
+    public long getConnectMillis() {
+        return mConnectMillis;
+    }
+
+    /**
+     * @return Time spent writing the request body.
+     */
+    public long getRequestMillis() {
+        return mRequestMillis;
+    }
+
+    /**
+     * @return Time from the end of the request until the response status line was read.
+     */
+    public long getTimeToFirstByteMillis() {
+        return mTimeToFirstByteMillis;
+    }
+
+    /**
+     * @return Time spent reading the response body.
+     */
+    public long getBodyMillis() {
+        return mBodyMillis;
+    }
+
+    /**
+     * @return Time spent on the whole exchange, including the pool wait.
+     */
+    public long getTotalMillis() {
+        return mTotalMillis;
+    }
+
+    /**
+     * @return Size of the response body, in bytes.
+     */
+    public long getResponseBytes() {
+        return mResponseBytes;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "HttpTimings{"
+                + "poolWait=" + mPoolWaitMillis
+                + ", dns=" + mDnsMillis
+                + ", connect=" + mConnectMillis
+                + ", request=" + mRequestMillis
+                + ", ttfb=" + mTimeToFirstByteMillis
+                + ", body=" + mBodyMillis
+                + ", total=" + mTotalMillis
+                + ", responseBytes=" + mResponseBytes
+                + '}';
+    }
+}
@@ -0,0 +1,456 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.net;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.arch.core.util.Function;
+
+import com.microsoft.identity.common.internal.logging.Logger;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Builder;
+
+/**
+ * A retry policy which spreads retries out and stops retrying a struggling service.
+ * <ul>
+ * <li>Delays follow decorrelated jitter: each one is drawn between the base delay and three times
+ * the previous one, capped at the maximum delay, so callers failing together do not retry together.</li>
+ * <li>A Retry-After header, in seconds or as an HTTP date, is honoured as the least delay. A
+ * response asking for more than the maximum delay is returned as is.</li>
+ * <li>Every retry takes a token from a {@link RetryBudget}, the process wide one by default.</li>
+ * <li>Each host has a {@link CircuitBreaker}: after consecutive failures its requests fail fast with
+ * a {@link CircuitOpenException} until a probe request succeeds.</li>
+ * </ul>
+ * The counters are available from {@link #getStatistics()}, and why the last attempt on a thread
+ * stopped from {@link #getLastOutcome()}.
+ */
+@ThreadSafe
+public class JitteredBackoffRetry implements RetryPolicy<HttpResponse> {
+
+    private static final String TAG = JitteredBackoffRetry.class.getSimpleName();
+
+    /**
+     * Default number of retries after the first attempt.
+     */
+    public static final int DEFAULT_MAX_RETRIES = 2;
+
+    /**
+     * Default least delay before a retry, in milliseconds.
+     */
+    public static final long DEFAULT_BASE_DELAY_MILLIS = 500;
+
+    /**
+     * Default greatest delay before a retry, in milliseconds.
+     */
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 10000;
+
+    /**
+     * Default number of consecutive failures which opens the circuit to a host.
+     */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+
+    /**
+     * Default time the circuit to a host stays open, in milliseconds.
+     */
+    public static final long DEFAULT_OPEN_DURATION_MILLIS = 30000;
+
+    private static final String RETRY_AFTER = "Retry-After";
+    private static final String HTTP_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
+    private static final long NO_RETRY_AFTER = -1;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Why an attempt stopped.
+     */
+    public enum Outcome {
+        /**
+         * The last call succeeded or failed in a way which is not retried.
+         */
+        NOT_RETRYABLE,
+
+        /**
+         * Every retry allowed was sent and the last one failed too.
+         */
+        RETRIES_EXHAUSTED,
+
+        /**
+         * A retry was given up because the retry budget was spent.
+         */
+        BUDGET_EXHAUSTED,
+
+        /**
+         * The circuit to the host was open, either before the first call or before a retry.
+         */
+        CIRCUIT_OPEN,
+
+        /**
+         * The response asked for a Retry-After over the maximum delay.
+         */
+        RETRY_AFTER_TOO_LONG,
+
+        /**
+         * The thread was interrupted while waiting to retry.
+         */
+        INTERRUPTED
+    }
+
+    private final Function<HttpResponse, Boolean> mIsRetryable;
+    private final Function<Exception, Boolean> mIsRetryableException;
+    private final int mMaxRetries;
+    private final long mBaseDelayMillis;
+    private final long mMaxDelayMillis;
+    private final RetryBudget mRetryBudget;
+    private final int mFailureThreshold;
+    private final long mOpenDurationMillis;
+    private final Random mRandom;
+    private final ConcurrentMap<String, CircuitBreaker> mCircuitBreakers = new ConcurrentHashMap<>();
+
+    private final AtomicLong mAttemptCount = new AtomicLong();
+    private final AtomicLong mRetryCount = new AtomicLong();
+    private final AtomicLong mBudgetExhaustedCount = new AtomicLong();
+    private final AtomicLong mShortCircuitCount = new AtomicLong();
+    private final AtomicLong mCircuitOpenedCount = new AtomicLong();
+    private final ThreadLocal<Outcome> mLastOutcome = new ThreadLocal<>();
+
+    /**
+     * @param isRetryable          Whether a response should be retried, defaults to 429, 500, 502, 503 and 504.
+     * @param isRetryableException Whether an exception should be retried, defaults to timeouts.
+     * @param maxRetries           Number of retries after the first attempt.
+     * @param baseDelayMillis      Least delay before a retry.
+     * @param maxDelayMillis       Greatest delay before a retry.
+     * @param retryBudget          Budget the retries are taken from, defaults to {@link RetryBudget#getDefault()}.
+     * @param failureThreshold     Number of consecutive failures which opens the circuit to a host.
+     * @param openDurationMillis   Time the circuit to a host stays open.
+     * @param random               Source of the jitter.
+     */
+    @Builder
+    private JitteredBackoffRetry(@Nullable final Function<HttpResponse, Boolean> isRetryable,
+                                 @Nullable final Function<Exception, Boolean> isRetryableException,
+                                 @Nullable final Integer maxRetries,
+                                 @Nullable final Long baseDelayMillis,
+                                 @Nullable final Long maxDelayMillis,
+                                 @Nullable final RetryBudget retryBudget,
+                                 @Nullable final Integer failureThreshold,
+                                 @Nullable final Long openDurationMillis,
+                                 @Nullable final Random random) {
+        mIsRetryable = isRetryable == null
+                ? new Function<HttpResponse, Boolean>() {
+                    @Override
+                    public Boolean apply(HttpResponse response) {
+                        return response != null && isTransientStatusCode(response.getStatusCode());
+                    }
+                }
+                : isRetryable;
+        mIsRetryableException = isRetryableException == null
+                ? new Function<Exception, Boolean>() {
+                    @Override
+                    public Boolean apply(Exception e) {
+                        return e instanceof SocketTimeoutException;
+                    }
+                }
+                : isRetryableException;
+        mMaxRetries = maxRetries == null ? DEFAULT_MAX_RETRIES : maxRetries;
+        mBaseDelayMillis = baseDelayMillis == null ? DEFAULT_BASE_DELAY_MILLIS : baseDelayMillis;
+        mMaxDelayMillis = maxDelayMillis == null ? DEFAULT_MAX_DELAY_MILLIS : maxDelayMillis;
+        mRetryBudget = retryBudget == null ? RetryBudget.getDefault() : retryBudget;
+        mFailureThreshold = failureThreshold == null ? DEFAULT_FAILURE_THRESHOLD : failureThreshold;
+        mOpenDurationMillis = openDurationMillis == null ? DEFAULT_OPEN_DURATION_MILLIS : openDurationMillis;
+        mRandom = random == null ? new Random() : random;
+
+        if (mMaxRetries < 0 || mBaseDelayMillis <= 0 || mMaxDelayMillis < mBaseDelayMillis || mFailureThreshold <= 0) {
+            throw new IllegalArgumentException("Invalid retry configuration");
+        }
+    }
+
+    /**
+     * Attempts a call with no known host, so without a circuit breaker.
+     */
+    @Override
+    public HttpResponse attempt(final Callable<HttpResponse> supplier) throws IOException {
+        return attempt(null, null, supplier);
+    }
+
+    @Override
+    public HttpResponse attempt(@NonNull final URL requestUrl,
+                                final Callable<HttpResponse> supplier) throws IOException {
+        final String host = requestUrl.getHost().toLowerCase(Locale.US);
+        return attempt(getCircuitBreaker(host), host, supplier);
+    }
+
+    /**
+     * @return A snapshot of the retry and short-circuit counters.
+     */
+    public RetryStatistics getStatistics() {
+        return new RetryStatistics(
+                mAttemptCount.get(),
+                mRetryCount.get(),
+                mBudgetExhaustedCount.get(),
+                mShortCircuitCount.get(),
+                mCircuitOpenedCount.get()
+        );
+    }
+
+    /**
+     * Attempts are made on the calling thread, so this tells the caller of an attempt which
+     * returned or threw why no further retry was sent.
+     *
+     * @return The outcome of the last attempt made through this policy on the calling thread, or
+     * null if there was none.
+     */
+    @Nullable
+    public Outcome getLastOutcome() {
+        return mLastOutcome.get();
+    }
+
+    /**
+     * Forgets the outcome of the last attempt on the calling thread, so one read after a call tells
+     * whether that call went through this policy.
+     */
+    void clearLastOutcome() {
+        mLastOutcome.remove();
+    }
+
+    private HttpResponse attempt(@Nullable final CircuitBreaker circuitBreaker,
+                                 @Nullable final String host,
+                                 final Callable<HttpResponse> supplier) throws IOException {
+        final String methodName = ":attempt";
+        HttpResponse response = null;
+        Exception failure = null;
+        long previousDelayMillis = mBaseDelayMillis;
+
+        for (int retry = 0; ; retry++) {
+            if (circuitBreaker != null) {
+                final long openForMillis = circuitBreaker.tryAcquire();
+                if (openForMillis > 0) {
+                    mShortCircuitCount.incrementAndGet();
+                    mLastOutcome.set(Outcome.CIRCUIT_OPEN);
+                    if (retry == 0) {
+                        throw new CircuitOpenException(host, openForMillis);
+                    }
+                    // The circuit opened while waiting, keep the outcome of the last attempt
+                    return complete(response, failure);
+                }
+            }
+
+            mAttemptCount.incrementAndGet();
+            response = null;
+            failure = null;
+
+            try {
+                response = supplier.call();
+            } catch (final Exception e) {
+                failure = e;
+            }
+
+            final boolean retryable = failure == null
+                    ? mIsRetryable.apply(response)
+                    : mIsRetryableException.apply(failure);
+
+            if (circuitBreaker != null) {
+                if (retryable) {
+                    recordFailure(circuitBreaker, host);
+                } else if (failure == null) {
+                    circuitBreaker.onSuccess();
+                } else {
+                    // Such as being offline, which says nothing about the host
+                    circuitBreaker.onInconclusive();
+                }
+            }
+
+            if (!retryable || retry >= mMaxRetries) {
+                mLastOutcome.set(retryable ? Outcome.RETRIES_EXHAUSTED : Outcome.NOT_RETRYABLE);
+                return complete(response, failure);
+            }
+
+            long delayMillis = nextDelayMillis(previousDelayMillis);
+            previousDelayMillis = delayMillis;
+
+            if (response != null) {
+                final long retryAfterMillis = getRetryAfterMillis(response);
+                if (retryAfterMillis > mMaxDelayMillis) {
+                    Logger.verboseFormat(
+                            TAG + methodName,
+                            "Not retrying, Retry-After of %s ms is over the maximum delay.",
+                            retryAfterMillis
+                    );
+                    mLastOutcome.set(Outcome.RETRY_AFTER_TOO_LONG);
+                    return response;
+                }
+                delayMillis = Math.max(delayMillis, retryAfterMillis);
+            }
+
+            if (!mRetryBudget.tryAcquire()) {
+                mBudgetExhaustedCount.incrementAndGet();
+                mLastOutcome.set(Outcome.BUDGET_EXHAUSTED);
+                Logger.verbose(TAG + methodName, "Not retrying, the retry budget is spent.");
+                return complete(response, failure);
+            }
+
+            mRetryCount.incrementAndGet();
+            Logger.verboseFormat(
+                    TAG + methodName,
+                    "Retry %s of %s in %s ms.",
+                    retry + 1,
+                    mMaxRetries,
+                    delayMillis
+            );
+
+            if (!waited(delayMillis)) {
+                mLastOutcome.set(Outcome.INTERRUPTED);
+                return complete(response, failure);
+            }
+        }
+    }
+
+    private void recordFailure(@NonNull final CircuitBreaker circuitBreaker,
+                               @Nullable final String host) {
+        final String methodName = ":recordFailure";
+
+        if (circuitBreaker.onFailure()) {
+            mCircuitOpenedCount.incrementAndGet();
+            Logger.warn(
+                    TAG + methodName,
+                    "Opening the circuit to " + host + " for " + mOpenDurationMillis + " ms."
+            );
+        }
+    }
+
+    private CircuitBreaker getCircuitBreaker(@NonNull final String host) {
+        CircuitBreaker circuitBreaker = mCircuitBreakers.get(host);
+        if (circuitBreaker == null) {
+            final CircuitBreaker newCircuitBreaker = new CircuitBreaker(mFailureThreshold, mOpenDurationMillis);
+            circuitBreaker = mCircuitBreakers.putIfAbsent(host, newCircuitBreaker);
+            if (circuitBreaker == null) {
+                circuitBreaker = newCircuitBreaker;
+            }
+        }
+
+        return circuitBreaker;
+    }
+
+    /**
+     * Decorrelated jitter: a delay drawn between the base delay and three times the previous one.
+     */
+    private long nextDelayMillis(final long previousDelayMillis) {
+        final long upperBound = Math.min(mMaxDelayMillis, previousDelayMillis * 3);
+        if (upperBound <= mBaseDelayMillis) {
+            return mBaseDelayMillis;
+        }
+
+        return mBaseDelayMillis + (long) (mRandom.nextDouble() * (upperBound - mBaseDelayMillis));
+    }
+
+    private static HttpResponse complete(@Nullable final HttpResponse response,
+                                         @Nullable final Exception failure) throws IOException {
+        if (failure == null) {
+            return response;
+        }
+
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+
+        throw new RetryFailedException(failure);
+    }
+
+    /**
+     * @return The delay asked for by the Retry-After header of the response, or
+     * {@link #NO_RETRY_AFTER} if there is none.
+     */
+    static long getRetryAfterMillis(@NonNull final HttpResponse response) {
+        final Map<String, List<String>> headers = response.getHeaders();
+        if (headers == null) {
+            return NO_RETRY_AFTER;
+        }
+
+        for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (RETRY_AFTER.equalsIgnoreCase(header.getKey())
+                    && header.getValue() != null
+                    && !header.getValue().isEmpty()) {
+                return parseRetryAfterMillis(header.getValue().get(0));
+            }
+        }
+
+        return NO_RETRY_AFTER;
+    }
+
+    private static long parseRetryAfterMillis(@Nullable final String value) {
+        if (value == null) {
+            return NO_RETRY_AFTER;
+        }
+
+        final String trimmed = value.trim();
+        try {
+            return Math.max(0, Long.parseLong(trimmed) * 1000);
+        } catch (final NumberFormatException e) {
+            // Not delta-seconds, try an HTTP date
+        }
+
+        final SimpleDateFormat httpDateFormat = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US);
+        httpDateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            return Math.max(0, httpDateFormat.parse(trimmed).getTime() - System.currentTimeMillis());
+        } catch (final ParseException e) {
+            return NO_RETRY_AFTER;
+        }
+    }
+
+    private static boolean isTransientStatusCode(final int statusCode) {
+        return statusCode == HTTP_TOO_MANY_REQUESTS
+                || statusCode == HttpURLConnection.HTTP_INTERNAL_ERROR
+                || statusCode == HttpURLConnection.HTTP_BAD_GATEWAY
+                || statusCode == HttpURLConnection.HTTP_UNAVAILABLE
+                || statusCode == HttpURLConnection.HTTP_GATEWAY_TIMEOUT;
+    }
+
+    /**
+     * @return true if we successfully waited, false if interrupted.
+     */
+    private static boolean waited(final long delayMillis) {
+        try {
+            Thread.sleep(delayMillis);
+            return true;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
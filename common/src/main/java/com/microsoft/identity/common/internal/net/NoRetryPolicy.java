@@ -26,6 +26,7 @@ import net.jcip.annotations.Immutable;
 import net.jcip.annotations.ThreadSafe;
 
 import java.io.IOException;
+import java.net.URL;
 import java.util.concurrent.Callable;
 
 import lombok.SneakyThrows;
@@ -41,4 +42,9 @@ public class NoRetryPolicy implements RetryPolicy<HttpResponse> {
     public HttpResponse attempt(Callable<HttpResponse> supplier) throws IOException {
         return supplier.call();
     }
+
+    @Override
+    public HttpResponse attempt(URL requestUrl, Callable<HttpResponse> supplier) throws IOException {
+        return attempt(supplier);
+    }
 }
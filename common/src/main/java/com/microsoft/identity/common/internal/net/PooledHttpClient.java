@@ -0,0 +1,463 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.net;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.internal.logging.Logger;
+import com.microsoft.identity.common.internal.util.StringUtil;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.nio.charset.Charset;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Builder;
+
+import static com.microsoft.identity.common.adal.internal.AuthenticationConstants.AAD.CLIENT_REQUEST_ID;
+import static com.microsoft.identity.common.internal.net.HttpUrlConnectionFactory.createHttpURLConnection;
+
+/**
+ * An {@link HttpClient} which keeps the connections to each host alive and reusable, and reports
+ * how long each phase of an exchange took.
+ * <p>
+ * {@link HttpURLConnection} already keeps idle connections in a process wide pool, but only hands
+ * a connection back to it once the response body was read to the end and closed, and the pool
+ * holds a handful of idle connections per host. This client drains and closes every body, only
+ * disconnects a connection when an exchange failed halfway, and caps the number of concurrent
+ * exchanges per host (scheme, host and port) at the size of that pool, so a burst of requests to
+ * the same authority reuses warm connections instead of opening and discarding new ones.
+ * <p>
+ * Install it for the token requests with {@link HttpRequest#setHttpClient(HttpClient)}.
+ */
+@ThreadSafe
+public class PooledHttpClient implements HttpClient {
+
+    private static final String TAG = PooledHttpClient.class.getSimpleName();
+
+    /**
+     * Default number of concurrent exchanges per host, the number of idle connections per host
+     * the platform pool keeps by default.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 5;
+
+    /**
+     * Default connect and read timeout, in milliseconds.
+     */
+    public static final int DEFAULT_TIMEOUT_MILLIS = 30000;
+
+    /**
+     * Default size of the buffer used to read response bodies, in bytes.
+     */
+    public static final int DEFAULT_STREAM_BUFFER_SIZE = 8192;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String CHARSET_PARAMETER = "charset=";
+
+    /**
+     * Receives the timings of every completed exchange.
+     */
+    public interface MetricsListener {
+
+        /**
+         * Called on the requesting thread once the response body was read.
+         *
+         * @param requestUrl The URL which was requested.
+         * @param statusCode The status code of the response.
+         * @param timings    The time spent in each phase of the exchange.
+         */
+        void onRequestCompleted(@NonNull URL requestUrl, int statusCode, @NonNull HttpTimings timings);
+    }
+
+    private final RetryPolicy<HttpResponse> mRetryPolicy;
+    private final int mConnectTimeoutMillis;
+    private final int mReadTimeoutMillis;
+    private final int mMaxConnectionsPerHost;
+    private final int mStreamBufferSize;
+    private final MetricsListener mMetricsListener;
+    private final ConcurrentMap<String, Semaphore> mHostPermits = new ConcurrentHashMap<>();
+
+    /**
+     * @param retryPolicy           Applied to every request, defaults to no retries.
+     * @param connectTimeoutMillis  Connect timeout, also the longest wait for a connection to a busy host.
+     * @param readTimeoutMillis     Read timeout.
+     * @param maxConnectionsPerHost Maximum number of concurrent exchanges with the same host.
+     * @param streamBufferSize      Size of the buffer used to read response bodies.
+     * @param metricsListener       Optional listener for the timings of every exchange; the host is only
+     *                              resolved ahead of the connection, to time the lookup, when one is set.
+     */
+    @Builder
+    private PooledHttpClient(@Nullable final RetryPolicy<HttpResponse> retryPolicy,
+                             @Nullable final Integer connectTimeoutMillis,
+                             @Nullable final Integer readTimeoutMillis,
+                             @Nullable final Integer maxConnectionsPerHost,
+                             @Nullable final Integer streamBufferSize,
+                             @Nullable final MetricsListener metricsListener) {
+        mRetryPolicy = retryPolicy == null ? new NoRetryPolicy() : retryPolicy;
+        mConnectTimeoutMillis = connectTimeoutMillis == null ? DEFAULT_TIMEOUT_MILLIS : connectTimeoutMillis;
+        mReadTimeoutMillis = readTimeoutMillis == null ? DEFAULT_TIMEOUT_MILLIS : readTimeoutMillis;
+        mMaxConnectionsPerHost = maxConnectionsPerHost == null
+                ? DEFAULT_MAX_CONNECTIONS_PER_HOST
+                : maxConnectionsPerHost;
+        mStreamBufferSize = streamBufferSize == null ? DEFAULT_STREAM_BUFFER_SIZE : streamBufferSize;
+        mMetricsListener = metricsListener;
+
+        if (mMaxConnectionsPerHost <= 0) {
+            throw new IllegalArgumentException("maxConnectionsPerHost must be positive");
+        }
+    }
+
+    @Override
+    public HttpResponse method(@NonNull final String httpMethod,
+                               @NonNull final URL requestUrl,
+                               @NonNull final Map<String, String> requestHeaders,
+                               @Nullable final byte[] requestContent) throws IOException {
+        return method(HttpMethod.validateAndNormalizeMethod(httpMethod), requestUrl, requestHeaders, requestContent);
+    }
+
+    @Override
+    public HttpResponse method(@NonNull final HttpMethod httpMethod,
+                               @NonNull final URL requestUrl,
+                               @NonNull final Map<String, String> requestHeaders,
+                               @Nullable final byte[] requestContent) throws IOException {
+        UrlConnectionHttpClient.recordHttpTelemetryEventStart(
+                httpMethod.name(),
+                requestUrl,
+                requestHeaders.get(CLIENT_REQUEST_ID)
+        );
+        final HttpRequest request = UrlConnectionHttpClient.constructHttpRequest(
+                httpMethod,
+                requestUrl,
+                requestHeaders,
+                requestContent
+        );
+
+        return mRetryPolicy.attempt(requestUrl, new Callable<HttpResponse>() {
+            @Override
+            public HttpResponse call() throws IOException {
+                HttpResponse response = null;
+                try {
+                    response = executeHttpSend(request);
+                    return response;
+                } finally {
+                    UrlConnectionHttpClient.recordHttpTelemetryEventEnd(response);
+                }
+            }
+        });
+    }
+
+    @Override
+    public HttpResponse put(@NonNull final URL requestUrl,
+                            @NonNull final Map<String, String> requestHeaders,
+                            @Nullable final byte[] requestContent) throws IOException {
+        return method(HttpMethod.PUT, requestUrl, requestHeaders, requestContent);
+    }
+
+    @Override
+    public HttpResponse patch(@NonNull final URL requestUrl,
+                              @NonNull final Map<String, String> requestHeaders,
+                              @Nullable final byte[] requestContent) throws IOException {
+        return method(HttpMethod.PATCH, requestUrl, requestHeaders, requestContent);
+    }
+
+    @Override
+    public HttpResponse options(@NonNull final URL requestUrl,
+                                @NonNull final Map<String, String> requestHeaders) throws IOException {
+        return method(HttpMethod.OPTIONS, requestUrl, requestHeaders, null);
+    }
+
+    @Override
+    public HttpResponse post(@NonNull final URL requestUrl,
+                             @NonNull final Map<String, String> requestHeaders,
+                             @Nullable final byte[] requestContent) throws IOException {
+        return method(HttpMethod.POST, requestUrl, requestHeaders, requestContent);
+    }
+
+    @Override
+    public HttpResponse delete(@NonNull final URL requestUrl,
+                               @NonNull final Map<String, String> requestHeaders,
+                               @Nullable final byte[] requestContent) throws IOException {
+        return method(HttpMethod.DELETE, requestUrl, requestHeaders, requestContent);
+    }
+
+    @Override
+    public HttpResponse get(@NonNull final URL requestUrl,
+                            @NonNull final Map<String, String> requestHeaders) throws IOException {
+        return method(HttpMethod.GET, requestUrl, requestHeaders, null);
+    }
+
+    @Override
+    public HttpResponse head(@NonNull final URL requestUrl,
+                             @NonNull final Map<String, String> requestHeaders) throws IOException {
+        return method(HttpMethod.HEAD, requestUrl, requestHeaders, null);
+    }
+
+    @Override
+    public HttpResponse trace(@NonNull final URL requestUrl,
+                              @NonNull final Map<String, String> requestHeaders) throws IOException {
+        return method(HttpMethod.TRACE, requestUrl, requestHeaders, null);
+    }
+
+    private HttpResponse executeHttpSend(@NonNull final HttpRequest request) throws IOException {
+        final String methodName = ":executeHttpSend";
+        final URL requestUrl = request.getRequestUrl();
+        final Semaphore permits = getHostPermits(requestUrl);
+
+        final long start = System.nanoTime();
+        acquire(permits, requestUrl);
+
+        try {
+            final long acquired = System.nanoTime();
+            // The lookup only serves the timings, skip it when nobody receives them
+            final boolean resolved = mMetricsListener != null && resolve(requestUrl.getHost());
+            final long lookedUp = System.nanoTime();
+
+            final HttpURLConnection connection = setupConnection(request);
+            boolean reusable = false;
+
+            try {
+                connection.connect();
+                final long connected = System.nanoTime();
+
+                writeRequestBody(connection, request.getRequestContent());
+                final long written = System.nanoTime();
+
+                InputStream responseStream;
+                try {
+                    responseStream = connection.getInputStream();
+                } catch (final SocketTimeoutException socketTimeoutException) {
+                    // Left to the retry policy
+                    throw socketTimeoutException;
+                } catch (final IOException ioException) {
+                    // 4xx and 5xx responses surface as exceptions, their body is on the error stream
+                    responseStream = connection.getErrorStream();
+                }
+
+                final int statusCode = connection.getResponseCode();
+                final long firstByte = System.nanoTime();
+
+                final byte[] body = responseStream == null
+                        ? new byte[0]
+                        : readFully(responseStream, connection.getContentLength());
+                final long end = System.nanoTime();
+                reusable = true;
+
+                final HttpTimings timings = HttpTimings.builder()
+                        .poolWaitMillis(toMillis(acquired - start))
+                        .dnsMillis(resolved ? toMillis(lookedUp - acquired) : HttpTimings.NOT_MEASURED)
+                        .connectMillis(toMillis(connected - lookedUp))
+                        .requestMillis(toMillis(written - connected))
+                        .timeToFirstByteMillis(toMillis(firstByte - written))
+                        .bodyMillis(toMillis(end - firstByte))
+                        .totalMillis(toMillis(end - start))
+                        .responseBytes(body.length)
+                        .build();
+
+                Logger.verboseFormat(
+                        TAG + methodName,
+                        "Request to %s completed with status %s, %s",
+                        requestUrl.getHost(),
+                        statusCode,
+                        timings
+                );
+
+                if (mMetricsListener != null) {
+                    mMetricsListener.onRequestCompleted(requestUrl, statusCode, timings);
+                }
+
+                return new HttpResponse(
+                        new Date(connection.getDate()),
+                        statusCode,
+                        new String(body, getCharset(connection.getContentType())),
+                        connection.getHeaderFields()
+                );
+            } finally {
+                if (!reusable) {
+                    // The connection may be left halfway through an exchange, keep it out of the pool
+                    connection.disconnect();
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private HttpURLConnection setupConnection(@NonNull final HttpRequest request) throws IOException {
+        final HttpURLConnection connection = createHttpURLConnection(request.getRequestUrl());
+
+        for (final Map.Entry<String, String> entry : request.getmRequestHeaders().entrySet()) {
+            connection.setRequestProperty(entry.getKey(), entry.getValue());
+        }
+
+        connection.setRequestMethod(request.getRequestMethod());
+        connection.setConnectTimeout(mConnectTimeoutMillis);
+        connection.setReadTimeout(mReadTimeoutMillis);
+        connection.setInstanceFollowRedirects(true);
+        connection.setUseCaches(false);
+        connection.setDoInput(true);
+
+        final byte[] requestContent = request.getRequestContent();
+        if (requestContent != null) {
+            // Both must be set before connecting
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(requestContent.length);
+        }
+
+        return connection;
+    }
+
+    private static void writeRequestBody(@NonNull final HttpURLConnection connection,
+                                         @Nullable final byte[] requestContent) throws IOException {
+        if (requestContent == null) {
+            return;
+        }
+
+        final OutputStream out = connection.getOutputStream();
+        try {
+            out.write(requestContent);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads the body to its end and closes the stream, which hands the connection back to the pool.
+     */
+    private byte[] readFully(@NonNull final InputStream inputStream,
+                             final int contentLength) throws IOException {
+        try {
+            final ByteArrayOutputStream body = new ByteArrayOutputStream(
+                    contentLength > 0 ? contentLength : mStreamBufferSize
+            );
+            final byte[] buffer = new byte[mStreamBufferSize];
+            int bytesRead;
+
+            while ((bytesRead = inputStream.read(buffer)) > -1) {
+                body.write(buffer, 0, bytesRead);
+            }
+
+            return body.toByteArray();
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private Semaphore getHostPermits(@NonNull final URL requestUrl) {
+        final int port = requestUrl.getPort() == -1 ? requestUrl.getDefaultPort() : requestUrl.getPort();
+        final String key = (requestUrl.getProtocol() + "://" + requestUrl.getHost() + ":" + port)
+                .toLowerCase(Locale.US);
+
+        Semaphore permits = mHostPermits.get(key);
+        if (permits == null) {
+            final Semaphore newPermits = new Semaphore(mMaxConnectionsPerHost, true);
+            permits = mHostPermits.putIfAbsent(key, newPermits);
+            if (permits == null) {
+                permits = newPermits;
+            }
+        }
+
+        return permits;
+    }
+
+    private void acquire(@NonNull final Semaphore permits,
+                         @NonNull final URL requestUrl) throws IOException {
+        try {
+            if (!permits.tryAcquire(mConnectTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SocketTimeoutException(
+                        "Timed out waiting for a connection to " + requestUrl.getHost()
+                );
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(
+                    "Interrupted while waiting for a connection to " + requestUrl.getHost()
+            );
+        }
+    }
+
+    /**
+     * Resolves the host ahead of the connection so the lookup can be timed on its own, the
+     * connection then finds the addresses in the resolver cache.
+     *
+     * @return false if the host could not be resolved here, for any reason; that is left to the
+     * connection to report (it may well go through a proxy).
+     */
+    private static boolean resolve(@NonNull final String host) {
+        if (StringUtil.isEmpty(host)) {
+            return false;
+        }
+
+        try {
+            InetAddress.getAllByName(host);
+            return true;
+        } catch (final UnknownHostException | RuntimeException e) {
+            // Including a SecurityException, the lookup must never fail the request
+            return false;
+        }
+    }
+
+    private static Charset getCharset(@Nullable final String contentType) {
+        if (contentType != null) {
+            final int index = contentType.toLowerCase(Locale.US).indexOf(CHARSET_PARAMETER);
+            if (index >= 0) {
+                String charset = contentType.substring(index + CHARSET_PARAMETER.length());
+                final int end = charset.indexOf(';');
+                if (end >= 0) {
+                    charset = charset.substring(0, end);
+                }
+                charset = charset.trim().replace("\"", "");
+
+                try {
+                    return Charset.forName(charset);
+                } catch (final IllegalArgumentException e) {
+                    // Unsupported or malformed, fall back to UTF-8
+                }
+            }
+        }
+
+        return UTF_8;
+    }
+
+    private static long toMillis(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
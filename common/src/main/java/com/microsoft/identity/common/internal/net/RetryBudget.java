@@ -0,0 +1,105 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.net;
+
+import net.jcip.annotations.ThreadSafe;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket bounding how many retries may be made, across every request sharing it. Each
+ * retry takes a token and tokens come back at a fixed rate up to the capacity, so a short burst of
+ * failures is retried while a sustained outage is only retried at the refill rate.
+ */
+@ThreadSafe
+public final class RetryBudget {
+
+    /**
+     * Default number of retries which may be made back to back.
+     */
+    public static final int DEFAULT_CAPACITY = 10;
+
+    /**
+     * Default number of retries regained per second.
+     */
+    public static final double DEFAULT_REFILL_PER_SECOND = 1;
+
+    private static final RetryBudget sDefaultBudget = new RetryBudget(DEFAULT_CAPACITY, DEFAULT_REFILL_PER_SECOND);
+
+    private final double mCapacity;
+    private final double mRefillPerNano;
+    private double mTokens;
+    private long mLastRefillNanos;
+
+    /**
+     * @param capacity        Number of retries which may be made back to back.
+     * @param refillPerSecond Number of retries regained per second.
+     */
+    public RetryBudget(final int capacity, final double refillPerSecond) {
+        if (capacity <= 0 || refillPerSecond < 0) {
+            throw new IllegalArgumentException("capacity must be positive and refillPerSecond not negative");
+        }
+
+        mCapacity = capacity;
+        mRefillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        mTokens = capacity;
+        mLastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * @return The budget shared by every retry policy which was not given its own.
+     */
+    public static RetryBudget getDefault() {
+        return sDefaultBudget;
+    }
+
+    /**
+     * Takes a token if one is left.
+     *
+     * @return true if a retry may be made.
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+
+        if (mTokens < 1) {
+            return false;
+        }
+
+        mTokens--;
+        return true;
+    }
+
+    /**
+     * @return The number of retries which could be made right now.
+     */
+    public synchronized int getAvailableTokens() {
+        refill();
+        return (int) mTokens;
+    }
+
+    private void refill() {
+        final long now = System.nanoTime();
+        mTokens = Math.min(mCapacity, mTokens + (now - mLastRefillNanos) * mRefillPerNano);
+        mLastRefillNanos = now;
+    }
+}
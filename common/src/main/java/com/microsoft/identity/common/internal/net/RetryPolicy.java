@@ -22,7 +22,10 @@
 // THE SOFTWARE.
 package com.microsoft.identity.common.internal.net;
 
+import androidx.annotation.NonNull;
+
 import java.io.IOException;
+import java.net.URL;
 import java.util.concurrent.Callable;
 
 /**
@@ -32,7 +35,7 @@ import java.util.concurrent.Callable;
  * again in order to achieve a different result.
  * @param <T> the type of the object on return.
  */
-interface RetryPolicy<T> {
+public interface RetryPolicy<T> {
     /**
      * Evaluate the object returned from a callable and return the result.
      * @param supplier an object to call for a result.
@@ -40,4 +43,14 @@ interface RetryPolicy<T> {
      * @throws IOException if an IO error occurs.
      */
     T attempt (Callable<T> supplier) throws IOException;
+
+    /**
+     * Evaluate the object returned from a callable for a request to the given URL, so the policy
+     * may keep track of each endpoint.
+     * @param requestUrl the URL the callable sends a request to.
+     * @param supplier an object to call for a result.
+     * @return the result of calling the supplier.
+     * @throws IOException if an IO error occurs.
+     */
+    T attempt (@NonNull URL requestUrl, Callable<T> supplier) throws IOException;
 }
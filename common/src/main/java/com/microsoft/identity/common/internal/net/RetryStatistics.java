@@ -0,0 +1,93 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.net;
+
+/**
+ * A snapshot of the counters of a {@link JitteredBackoffRetry}.
+ */
+public final class RetryStatistics {
+
+    private final long mAttemptCount;
+    private final long mRetryCount;
+    private final long mBudgetExhaustedCount;
+    private final long mShortCircuitCount;
+    private final long mCircuitOpenedCount;
+
+    RetryStatistics(final long attemptCount,
+                    final long retryCount,
+                    final long budgetExhaustedCount,
+                    final long shortCircuitCount,
+                    final long circuitOpenedCount) {
+        mAttemptCount = attemptCount;
+        mRetryCount = retryCount;
+        mBudgetExhaustedCount = budgetExhaustedCount;
+        mShortCircuitCount = shortCircuitCount;
+        mCircuitOpenedCount = circuitOpenedCount;
+    }
+
+    /**
+     * @return The number of requests sent, retries included.
+     */
+    public long getAttemptCount() {
+        return mAttemptCount;
+    }
+
+    /**
+     * @return The number of retries sent.
+     */
+    public long getRetryCount() {
+        return mRetryCount;
+    }
+
+    /**
+     * @return The number of retries given up because the retry budget was spent.
+     */
+    public long getBudgetExhaustedCount() {
+        return mBudgetExhaustedCount;
+    }
+
+    /**
+     * @return The number of requests refused because the circuit to their host was open.
+     */
+    public long getShortCircuitCount() {
+        return mShortCircuitCount;
+    }
+
+    /**
+     * @return The number of times a circuit was opened.
+     */
+    public long getCircuitOpenedCount() {
+        return mCircuitOpenedCount;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryStatistics{"
+                + "attempts=" + mAttemptCount
+                + ", retries=" + mRetryCount
+                + ", budgetExhausted=" + mBudgetExhaustedCount
+                + ", shortCircuits=" + mShortCircuitCount
+                + ", circuitsOpened=" + mCircuitOpenedCount
+                + '}';
+    }
+}
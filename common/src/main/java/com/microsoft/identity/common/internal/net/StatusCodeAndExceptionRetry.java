@@ -6,6 +6,7 @@ import net.jcip.annotations.Immutable;
 import net.jcip.annotations.ThreadSafe;
 
 import java.io.IOException;
+import java.net.URL;
 import java.util.concurrent.Callable;
 
 import lombok.AllArgsConstructor;
@@ -75,6 +76,11 @@ public class StatusCodeAndExceptionRetry implements RetryPolicy<HttpResponse> {
         throw new IllegalStateException("This code should not be reachable");
     }
 
+    @Override
+    public HttpResponse attempt(URL requestUrl, Callable<HttpResponse> supplier) throws IOException {
+        return attempt(supplier);
+    }
+
     /**
      * Just a sleep function that allows for a return to break the loop.
      * @param cumulativeDelay How long, in milliseconds, to pause.
@@ -127,9 +127,9 @@ public class UrlConnectionHttpClient implements HttpClient {
     /**
      * Record the beginning of an http request.
      */
-    private static void recordHttpTelemetryEventStart(@NonNull final String requestMethod,
-                                                      @NonNull final URL requestUrl,
-                                                      @Nullable final String requestId) {
+    static void recordHttpTelemetryEventStart(@NonNull final String requestMethod,
+                                              @NonNull final URL requestUrl,
+                                              @Nullable final String requestId) {
         Telemetry.emit(
                 new HttpStartEvent()
                         .putMethod(requestMethod)
@@ -142,7 +142,7 @@ public class UrlConnectionHttpClient implements HttpClient {
      * Record the end of an http event.
      * @param response
      */
-    private static void recordHttpTelemetryEventEnd(@Nullable final HttpResponse response) {
+    static void recordHttpTelemetryEventEnd(@Nullable final HttpResponse response) {
         final HttpEndEvent httpEndEvent = new HttpEndEvent();
 
         if (null != response) {
@@ -188,7 +188,7 @@ public class UrlConnectionHttpClient implements HttpClient {
                                @Nullable final byte[] requestContent) throws IOException {
         recordHttpTelemetryEventStart(httpMethod.name(), requestUrl, requestHeaders.get(CLIENT_REQUEST_ID));
         final HttpRequest request = constructHttpRequest(httpMethod, requestUrl, requestHeaders, requestContent);
-        return retryPolicy.attempt(new Callable<HttpResponse>() {
+        return retryPolicy.attempt(requestUrl, new Callable<HttpResponse>() {
             public HttpResponse call() throws IOException {
                 return executeHttpSend(request, new Consumer<HttpResponse>() {
                     @Override
@@ -200,10 +200,10 @@ public class UrlConnectionHttpClient implements HttpClient {
         });
     }
 
-    private static HttpRequest constructHttpRequest(@NonNull HttpMethod httpMethod,
-                                                    @NonNull URL requestUrl,
-                                                    @NonNull Map<String, String> requestHeaders,
-                                                    @Nullable byte[] requestContent) {
+    static HttpRequest constructHttpRequest(@NonNull HttpMethod httpMethod,
+                                            @NonNull URL requestUrl,
+                                            @NonNull Map<String, String> requestHeaders,
+                                            @Nullable byte[] requestContent) {
 
         // Apply special backcompat behaviors for PATCH, if reqd
         if (HttpMethod.PATCH == httpMethod) {
@@ -0,0 +1,520 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.net.cache;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.microsoft.identity.common.internal.logging.Logger;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import lombok.Builder;
+
+/**
+ * A cache for service metadata, such as OpenID provider configurations and instance discovery
+ * responses, kept in memory and, once {@link #initialize(File)} was called, on disk so it outlives
+ * the process. Entries loaded before {@link #initialize(File)} are written to disk when it is called.
+ * <ul>
+ * <li>An entry younger than its time to live is returned as is.</li>
+ * <li>An entry past its time to live but within the maximum staleness is returned as is, and
+ * reloaded in the background (stale-while-revalidate).</li>
+ * <li>Otherwise the caller loads it. Concurrent callers for the same key share a single load,
+ * callers for other keys are not held up.</li>
+ * </ul>
+ *
+ * @param <T> The type of the metadata, serialized to disk with Gson.
+ */
+public class MetadataCache<T> {
+
+    private static final String TAG = MetadataCache.class.getSimpleName();
+
+    public static final String DEFAULT_METADATA_CACHE_NAME = "com.microsoft.identity.metadata-cache";
+
+    public static final long DEFAULT_TIME_TO_LIVE_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+    public static final long DEFAULT_MAX_STALENESS_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String KEY = "key";
+    private static final String FETCHED_AT = "fetched_at";
+    private static final String VALUE = "value";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private static final AtomicReference<File> sCacheDirectory = new AtomicReference<>();
+
+    private static final ExecutorService sRefreshExecutor = createRefreshExecutor();
+
+    // Caches without a directory of their own, written to disk once the shared one is known
+    // Guarded by itself
+    private static final Set<MetadataCache<?>> sSharedDirectoryCaches =
+            Collections.newSetFromMap(new WeakHashMap<MetadataCache<?>, Boolean>());
+
+    /**
+     * Loads the metadata for a key.
+     *
+     * @param <T> The type of the metadata.
+     */
+    public interface Loader<T> {
+
+        /**
+         * @return The metadata, never null.
+         * @throws IOException if it could not be loaded, nothing is cached then.
+         */
+        @NonNull
+        T load() throws IOException;
+    }
+
+    private final String mName;
+    private final Type mType;
+    private final Gson mGson;
+    private final long mTimeToLiveMillis;
+    private final long mMaxStalenessMillis;
+    private final File mCacheDirectory;
+    private final ConcurrentMap<String, Entry<T>> mEntries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, FutureTask<Entry<T>>> mInFlightLoads = new ConcurrentHashMap<>();
+
+    /**
+     * @param name               Name of the cache, also the name of its directory on disk.
+     * @param type               Type of the metadata.
+     * @param gson               Gson used to write the metadata to disk and read it back.
+     * @param timeToLiveMillis   Age up to which an entry is used without reloading it.
+     * @param maxStalenessMillis Time past the time to live for which an entry is still used while it is reloaded.
+     * @param cacheDirectory     Directory to keep the entries in, defaults to the one given to {@link #initialize(File)}.
+     */
+    @Builder
+    private MetadataCache(@NonNull final String name,
+                          @NonNull final Type type,
+                          @Nullable final Gson gson,
+                          @Nullable final Long timeToLiveMillis,
+                          @Nullable final Long maxStalenessMillis,
+                          @Nullable final File cacheDirectory) {
+        mName = name;
+        mType = type;
+        mGson = gson == null ? new Gson() : gson;
+        mTimeToLiveMillis = timeToLiveMillis == null ? DEFAULT_TIME_TO_LIVE_MILLIS : timeToLiveMillis;
+        mMaxStalenessMillis = maxStalenessMillis == null ? DEFAULT_MAX_STALENESS_MILLIS : maxStalenessMillis;
+        mCacheDirectory = cacheDirectory;
+
+        if (cacheDirectory == null) {
+            synchronized (sSharedDirectoryCaches) {
+                sSharedDirectoryCaches.add(this);
+            }
+        }
+    }
+
+    /**
+     * Keeps the metadata of every cache on disk, under the given directory. Only the first call
+     * has an effect.
+     *
+     * @param cacheDirectory The directory, usually {@link Context#getCacheDir()}.
+     * @return true if this call set the directory.
+     */
+    public static boolean initialize(@NonNull final File cacheDirectory) {
+        if (!sCacheDirectory.compareAndSet(null, new File(cacheDirectory, DEFAULT_METADATA_CACHE_NAME))) {
+            return false;
+        }
+
+        // Metadata may have been loaded before the directory was known, for instance by instance
+        // discovery ahead of the first command; it would otherwise never reach the disk.
+        for (final MetadataCache<?> cache : getSharedDirectoryCaches()) {
+            cache.writeEntries();
+        }
+
+        return true;
+    }
+
+    /**
+     * Keeps the metadata of every cache on disk, under the cache directory of the application.
+     * Only the first call has an effect.
+     *
+     * @param context The context of the application.
+     * @return true if this call set the directory.
+     */
+    public static boolean initialize(@NonNull final Context context) {
+        if (sCacheDirectory.get() != null) {
+            return false;
+        }
+
+        return initialize(context.getCacheDir());
+    }
+
+    /**
+     * Gets the metadata for a key, loading it if there is no usable entry.
+     *
+     * @param key    The key, usually the URL the metadata is loaded from.
+     * @param loader Loads the metadata when needed.
+     * @return The metadata.
+     * @throws IOException if there was no usable entry and loading failed.
+     */
+    @NonNull
+    public T get(@NonNull final String key, @NonNull final Loader<T> loader) throws IOException {
+        final String methodName = ":get";
+        Entry<T> entry = mEntries.get(key);
+
+        if (entry == null) {
+            final Entry<T> persistedEntry = read(key);
+            if (persistedEntry != null) {
+                final Entry<T> existingEntry = mEntries.putIfAbsent(key, persistedEntry);
+                entry = existingEntry == null ? persistedEntry : existingEntry;
+            }
+        }
+
+        if (entry != null) {
+            // Wall clock time, the entry may come from an earlier process
+            final long ageMillis = System.currentTimeMillis() - entry.mFetchedAtMillis;
+
+            if (ageMillis >= 0 && ageMillis < mTimeToLiveMillis) {
+                return entry.mValue;
+            }
+
+            if (ageMillis >= 0 && ageMillis < mTimeToLiveMillis + mMaxStalenessMillis) {
+                Logger.verbose(TAG + methodName, "Using stale " + mName + " metadata while reloading it.");
+                reloadInBackground(key, loader);
+                return entry.mValue;
+            }
+        }
+
+        return await(startLoad(key, loader, true));
+    }
+
+    /**
+     * Drops every entry, in memory and on disk.
+     */
+    public void clear() {
+        mEntries.clear();
+
+        final File directory = getDirectory();
+        if (directory != null) {
+            final File[] files = directory.listFiles();
+            if (files != null) {
+                for (final File file : files) {
+                    if (!file.delete()) {
+                        Logger.warn(TAG + ":clear", "Unable to delete a cached metadata file.");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets the shared directory and the entries held in memory by the caches using it, as a
+     * new process would; entries on disk are kept.
+     */
+    @VisibleForTesting
+    static void resetForTesting() {
+        sCacheDirectory.set(null);
+
+        for (final MetadataCache<?> cache : getSharedDirectoryCaches()) {
+            cache.mEntries.clear();
+        }
+    }
+
+    @NonNull
+    private static List<MetadataCache<?>> getSharedDirectoryCaches() {
+        synchronized (sSharedDirectoryCaches) {
+            return new ArrayList<MetadataCache<?>>(sSharedDirectoryCaches);
+        }
+    }
+
+    private void writeEntries() {
+        for (final Map.Entry<String, Entry<T>> entry : mEntries.entrySet()) {
+            write(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void reloadInBackground(@NonNull final String key, @NonNull final Loader<T> loader) {
+        final String methodName = ":reloadInBackground";
+        final FutureTask<Entry<T>> load = startLoad(key, loader, false);
+
+        if (load == null) {
+            // Already being reloaded
+            return;
+        }
+
+        try {
+            sRefreshExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    runLoad(key, load);
+                    try {
+                        load.get();
+                    } catch (final ExecutionException e) {
+                        Logger.warn(
+                                TAG + methodName,
+                                "Reloading " + mName + " metadata failed, keeping the stale copy: " + e.getCause()
+                        );
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        } catch (final RejectedExecutionException e) {
+            mInFlightLoads.remove(key, load);
+        }
+    }
+
+    /**
+     * Starts a load for the key, or joins the one in flight.
+     *
+     * @param runInline Whether to run a new load on the calling thread; if not it is returned for
+     *                  the caller to run, and null is returned when a load was already in flight.
+     */
+    @Nullable
+    private FutureTask<Entry<T>> startLoad(@NonNull final String key,
+                                           @NonNull final Loader<T> loader,
+                                           final boolean runInline) {
+        final FutureTask<Entry<T>> inFlightLoad = mInFlightLoads.get(key);
+        if (inFlightLoad != null) {
+            return runInline ? inFlightLoad : null;
+        }
+
+        final FutureTask<Entry<T>> newLoad = new FutureTask<>(new Callable<Entry<T>>() {
+            @Override
+            public Entry<T> call() throws IOException {
+                final Entry<T> entry = new Entry<>(loader.load(), System.currentTimeMillis());
+                mEntries.put(key, entry);
+                write(key, entry);
+                return entry;
+            }
+        });
+
+        final FutureTask<Entry<T>> existingLoad = mInFlightLoads.putIfAbsent(key, newLoad);
+        if (existingLoad != null) {
+            return runInline ? existingLoad : null;
+        }
+
+        if (runInline) {
+            runLoad(key, newLoad);
+        }
+
+        return newLoad;
+    }
+
+    private void runLoad(@NonNull final String key, @NonNull final FutureTask<Entry<T>> load) {
+        try {
+            load.run();
+        } finally {
+            mInFlightLoads.remove(key, load);
+        }
+    }
+
+    private T await(@NonNull final FutureTask<Entry<T>> load) throws IOException {
+        try {
+            return load.get().mValue;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading " + mName + " metadata");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    @Nullable
+    private File getDirectory() {
+        final File parent = mCacheDirectory != null ? mCacheDirectory : sCacheDirectory.get();
+        return parent == null ? null : new File(parent, mName);
+    }
+
+    @Nullable
+    private File getFile(@NonNull final String key) {
+        final File directory = getDirectory();
+        return directory == null ? null : new File(directory, hash(key));
+    }
+
+    @Nullable
+    private Entry<T> read(@NonNull final String key) {
+        final String methodName = ":read";
+        final File file = getFile(key);
+
+        if (file == null || !file.exists()) {
+            return null;
+        }
+
+        Reader reader = null;
+        try {
+            reader = new InputStreamReader(new FileInputStream(file), UTF_8);
+            final JsonObject json = new JsonParser().parse(reader).getAsJsonObject();
+            final JsonElement storedKey = json.get(KEY);
+            final JsonElement fetchedAt = json.get(FETCHED_AT);
+
+            if (storedKey == null || fetchedAt == null || !key.equals(storedKey.getAsString())) {
+                return null;
+            }
+
+            final T value = mGson.fromJson(json.get(VALUE), mType);
+            return value == null ? null : new Entry<>(value, fetchedAt.getAsLong());
+        } catch (final IOException | RuntimeException e) {
+            // Malformed JSON surfaces as JsonParseException, wrong types as other runtime exceptions
+            Logger.warn(TAG + methodName, "Ignoring unreadable " + mName + " metadata: " + e);
+            return null;
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    private void write(@NonNull final String key, @NonNull final Entry<T> entry) {
+        final String methodName = ":write";
+        final File file = getFile(key);
+
+        if (file == null) {
+            return;
+        }
+
+        final File directory = file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            Logger.warn(TAG + methodName, "Unable to create the " + mName + " metadata directory.");
+            return;
+        }
+
+        final JsonObject json = new JsonObject();
+        json.addProperty(KEY, key);
+        json.addProperty(FETCHED_AT, entry.mFetchedAtMillis);
+        final JsonElement value = mGson.toJsonTree(entry.mValue, mType);
+        json.add(VALUE, value);
+
+        // Write then rename, so a reader never sees half a file
+        final File tempFile = new File(directory, file.getName() + TEMP_FILE_SUFFIX + Thread.currentThread().getId());
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(tempFile), UTF_8);
+            mGson.toJson(json, writer);
+            writer.close();
+            writer = null;
+
+            if (!tempFile.renameTo(file)) {
+                Logger.warn(TAG + methodName, "Unable to store " + mName + " metadata.");
+            }
+        } catch (final IOException e) {
+            Logger.warn(TAG + methodName, "Unable to store " + mName + " metadata: " + e);
+        } finally {
+            closeQuietly(writer);
+            if (tempFile.exists() && !tempFile.delete()) {
+                Logger.warn(TAG + methodName, "Unable to delete a temporary metadata file.");
+            }
+        }
+    }
+
+    private static String hash(@NonNull final String key) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(UTF_8));
+            final StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (final byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (final NoSuchAlgorithmException e) {
+            // Every platform has SHA-256, the stored key guards against collisions anyway
+            return Integer.toHexString(key.hashCode());
+        }
+    }
+
+    private static void closeQuietly(@Nullable final Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+
+        try {
+            closeable.close();
+        } catch (final IOException e) {
+            // Nothing left to do
+        }
+    }
+
+    private static ExecutorService createRefreshExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1,
+                1,
+                30,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(@NonNull final Runnable runnable) {
+                        final Thread thread = new Thread(runnable, "MsalMetadataRefresh");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static final class Entry<T> {
+
+        private final T mValue;
+        private final long mFetchedAtMillis;
+
+        Entry(@NonNull final T value, final long fetchedAtMillis) {
+            mValue = value;
+            mFetchedAtMillis = fetchedAtMillis;
+        }
+    }
+}
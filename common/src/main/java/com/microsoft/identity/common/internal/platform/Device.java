@@ -41,14 +41,47 @@ public final class Device {
 
     private static IDevicePopManager sDevicePoPManager;
 
+    /**
+     * The platform id parameters only depend on {@link Build}, which doesn't change for the
+     * lifetime of the process, so they are computed once.
+     */
+    private static volatile Map<String, String> sPlatformIdParameters;
+
     /**
      * Private constructor to prevent a help class from being initiated.
      */
     private Device() {
     }
 
-    @SuppressWarnings("deprecation")
+    /**
+     * Gets the platform id parameters sent with each request to sts.
+     *
+     * @return A new, mutable map of the platform id parameters.
+     */
     public static Map<String, String> getPlatformIdParameters() {
+        return new HashMap<>(getCachedPlatformIdParameters());
+    }
+
+    /**
+     * Gets the platform id parameters without copying them, for the request paths which only
+     * read them or copy them into a map of their own.
+     *
+     * @return An immutable map of the platform id parameters, shared by all callers.
+     */
+    public static Map<String, String> getCachedPlatformIdParameters() {
+        Map<String, String> platformParameters = sPlatformIdParameters;
+
+        if (platformParameters == null) {
+            // Racing threads compute the same immutable map, so publishing either is fine
+            platformParameters = buildPlatformIdParameters();
+            sPlatformIdParameters = platformParameters;
+        }
+
+        return platformParameters;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Map<String, String> buildPlatformIdParameters() {
         final Map<String, String> platformParameters = new HashMap<>();
 
         platformParameters.put(PlatformIdParameters.PRODUCT, PlatformIdParameters.PRODUCT_NAME);
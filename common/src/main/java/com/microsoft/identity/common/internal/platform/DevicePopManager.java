@@ -71,8 +71,11 @@ import java.security.cert.CertificateException;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.RSAKeyGenParameterSpec;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -123,6 +126,39 @@ class DevicePopManager implements IDevicePopManager {
      */
     private static final ExecutorService sThreadExecutor = Executors.newCachedThreadPool();
 
+    /**
+     * The signing state derived from the current KeyStore entry, or null if it has not been
+     * loaded since the keys were last generated or cleared.
+     */
+    private volatile CachedSigner mCachedSigner;
+
+    /**
+     * Everything needed to sign an SHR which would otherwise be re-derived from the KeyStore on
+     * each call: the signer over the PrivateKey, the key thumbprint, the JWS header carrying it
+     * and the cnf claim.
+     */
+    private static final class CachedSigner {
+
+        private final RSASSASigner mSigner;
+
+        private final String mThumbprint;
+
+        private final JWSHeader mJwsHeader;
+
+        private final net.minidev.json.JSONObject mDevicePopJwk;
+
+        CachedSigner(@NonNull final RSASSASigner signer,
+                     @NonNull final String thumbprint,
+                     @NonNull final net.minidev.json.JSONObject devicePopJwk) {
+            mSigner = signer;
+            mThumbprint = thumbprint;
+            mJwsHeader = new JWSHeader.Builder(JWSAlgorithm.RS256)
+                    .keyID(thumbprint)
+                    .build();
+            mDevicePopJwk = devicePopJwk;
+        }
+    }
+
     /**
      * Properties used by the self-signed certificate.
      */
@@ -239,10 +275,7 @@ class DevicePopManager implements IDevicePopManager {
         final String errCode;
 
         try {
-            final KeyStore.Entry keyEntry = mKeyStore.getEntry(KEYSTORE_ENTRY_ALIAS, null);
-            final KeyPair rsaKeyPair = getKeyPairForEntry(keyEntry);
-            final RSAKey rsaKey = getRsaKeyForKeyPair(rsaKeyPair);
-            return getThumbprintForRsaKey(rsaKey);
+            return getCachedSigner().mThumbprint;
         } catch (final KeyStoreException e) {
             exception = e;
             errCode = KEYSTORE_NOT_INITIALIZED;
@@ -288,6 +321,7 @@ class DevicePopManager implements IDevicePopManager {
 
         try {
             final KeyPair keyPair = generateNewRsaKeyPair(context, RSA_KEY_SIZE);
+            invalidateCachedSigner();
             final RSAKey rsaKey = getRsaKeyForKeyPair(keyPair);
             return getThumbprintForRsaKey(rsaKey);
         } catch (final UnsupportedOperationException e) {
@@ -335,6 +369,8 @@ class DevicePopManager implements IDevicePopManager {
                     "Error while clearing KeyStore",
                     e
             );
+        } finally {
+            invalidateCachedSigner();
         }
 
         return deleted;
@@ -398,10 +434,8 @@ class DevicePopManager implements IDevicePopManager {
                 final String errCode;
 
                 try {
-                    final KeyStore.Entry keyEntry = mKeyStore.getEntry(KEYSTORE_ENTRY_ALIAS, null);
-                    final KeyPair rsaKeyPair = getKeyPairForEntry(keyEntry);
-                    final RSAKey rsaKey = getRsaKeyForKeyPair(rsaKeyPair);
-                    final String base64UrlEncodedJwkJsonStr = getReqCnfForRsaKey(rsaKey);
+                    final String base64UrlEncodedJwkJsonStr =
+                            getReqCnfForThumbprint(getCachedSigner().mThumbprint);
 
                     callback.onTaskCompleted(base64UrlEncodedJwkJsonStr);
 
@@ -447,66 +481,37 @@ class DevicePopManager implements IDevicePopManager {
                                         @NonNull final URL requestUrl,
                                         @NonNull final String accessToken,
                                         @Nullable final String nonce) throws ClientException {
+        return mintSignedAccessTokens(
+                accessToken,
+                Collections.singletonList(
+                        SignedHttpRequestParameters.builder()
+                                .httpMethod(httpMethod)
+                                .timestamp(timestamp)
+                                .requestUrl(requestUrl)
+                                .nonce(nonce)
+                                .build()
+                )
+        ).get(0);
+    }
+
+    @Override
+    public List<String> mintSignedAccessTokens(@NonNull final String accessToken,
+                                               @NonNull final List<SignedHttpRequestParameters> requests)
+            throws ClientException {
         final Exception exception;
         final String errCode;
 
         try {
-            final JWTClaimsSet.Builder claimsBuilder = new JWTClaimsSet.Builder();
-            claimsBuilder.claim(
-                    SignedHttpRequestJwtClaims.ACCESS_TOKEN,
-                    accessToken
-            );
-            claimsBuilder.claim(
-                    SignedHttpRequestJwtClaims.TIMESTAMP,
-                    timestamp
-            );
-            claimsBuilder.claim(
-                    SignedHttpRequestJwtClaims.HTTP_HOST,
-                    // Use Authority to include port number, if supplied
-                    requestUrl.getAuthority()
-            );
-            claimsBuilder.claim(
-                    SignedHttpRequestJwtClaims.CNF,
-                    getDevicePopJwkMinifiedJson()
-            );
-
-            if (!TextUtils.isEmpty(requestUrl.getPath())) {
-                claimsBuilder.claim(
-                        SignedHttpRequestJwtClaims.HTTP_PATH,
-                        requestUrl.getPath()
-                );
-            }
-
-            if (!TextUtils.isEmpty(httpMethod)) {
-                claimsBuilder.claim(
-                        SignedHttpRequestJwtClaims.HTTP_METHOD,
-                        httpMethod
-                );
-            }
+            final CachedSigner cachedSigner = getCachedSigner();
+            final List<String> signedAccessTokens = new ArrayList<>(requests.size());
 
-            if (!TextUtils.isEmpty(nonce)) {
-                claimsBuilder.claim(
-                        SignedHttpRequestJwtClaims.NONCE,
-                        nonce
+            for (final SignedHttpRequestParameters request : requests) {
+                signedAccessTokens.add(
+                        mintSignedAccessToken(cachedSigner, accessToken, request)
                 );
             }
 
-            final JWTClaimsSet claimsSet = claimsBuilder.build();
-
-            final KeyStore.Entry entry = mKeyStore.getEntry(KEYSTORE_ENTRY_ALIAS, null);
-            final PrivateKey privateKey = ((KeyStore.PrivateKeyEntry) entry).getPrivateKey();
-            final RSASSASigner signer = new RSASSASigner(privateKey);
-
-            final SignedJWT signedJWT = new SignedJWT(
-                    new JWSHeader.Builder(JWSAlgorithm.RS256)
-                            .keyID(getAsymmetricKeyThumbprint())
-                            .build(),
-                    claimsSet
-            );
-
-            signedJWT.sign(signer);
-
-            return signedJWT.serialize();
+            return signedAccessTokens;
         } catch (final NoSuchAlgorithmException e) {
             exception = e;
             errCode = NO_SUCH_ALGORITHM;
@@ -538,6 +543,115 @@ class DevicePopManager implements IDevicePopManager {
 
     //region Internal Functions
 
+    /**
+     * Builds and signs a single SHR with the supplied signer.
+     *
+     * @param cachedSigner The signing state of the current key.
+     * @param accessToken  The access_token from which to derive the signed JWT.
+     * @param request      The outbound request to sign.
+     * @return The signed PoP access token.
+     * @throws JOSEException If signing fails.
+     */
+    private static String mintSignedAccessToken(@NonNull final CachedSigner cachedSigner,
+                                                @NonNull final String accessToken,
+                                                @NonNull final SignedHttpRequestParameters request)
+            throws JOSEException {
+        final URL requestUrl = request.getRequestUrl();
+        final JWTClaimsSet.Builder claimsBuilder = new JWTClaimsSet.Builder();
+        claimsBuilder.claim(
+                SignedHttpRequestJwtClaims.ACCESS_TOKEN,
+                accessToken
+        );
+        claimsBuilder.claim(
+                SignedHttpRequestJwtClaims.TIMESTAMP,
+                request.getTimestamp()
+        );
+        claimsBuilder.claim(
+                SignedHttpRequestJwtClaims.HTTP_HOST,
+                // Use Authority to include port number, if supplied
+                requestUrl.getAuthority()
+        );
+        claimsBuilder.claim(
+                SignedHttpRequestJwtClaims.CNF,
+                cachedSigner.mDevicePopJwk
+        );
+
+        if (!TextUtils.isEmpty(requestUrl.getPath())) {
+            claimsBuilder.claim(
+                    SignedHttpRequestJwtClaims.HTTP_PATH,
+                    requestUrl.getPath()
+            );
+        }
+
+        if (!TextUtils.isEmpty(request.getHttpMethod())) {
+            claimsBuilder.claim(
+                    SignedHttpRequestJwtClaims.HTTP_METHOD,
+                    request.getHttpMethod()
+            );
+        }
+
+        if (!TextUtils.isEmpty(request.getNonce())) {
+            claimsBuilder.claim(
+                    SignedHttpRequestJwtClaims.NONCE,
+                    request.getNonce()
+            );
+        }
+
+        final SignedJWT signedJWT = new SignedJWT(
+                cachedSigner.mJwsHeader,
+                claimsBuilder.build()
+        );
+
+        signedJWT.sign(cachedSigner.mSigner);
+
+        return signedJWT.serialize();
+    }
+
+    /**
+     * Gets the signing state for the current KeyStore entry, loading it on first use after the
+     * keys were generated or cleared.
+     *
+     * @return The signing state.
+     * @throws UnrecoverableEntryException If the queried key cannot be found.
+     * @throws NoSuchAlgorithmException    If the KeyStore is unable to use the designated alg.
+     * @throws KeyStoreException           If the KeyStore experiences an error during read.
+     * @throws JOSEException               If the thumbprint cannot be computed.
+     */
+    private CachedSigner getCachedSigner() throws UnrecoverableEntryException,
+            NoSuchAlgorithmException, KeyStoreException, JOSEException {
+        CachedSigner cachedSigner = mCachedSigner;
+
+        if (null == cachedSigner) {
+            // Loading holds the lock so that invalidateCachedSigner() cannot interleave with it
+            // and leave a signer for a key which has since been replaced.
+            synchronized (this) {
+                cachedSigner = mCachedSigner;
+
+                if (null == cachedSigner) {
+                    final KeyStore.Entry keyEntry = mKeyStore.getEntry(KEYSTORE_ENTRY_ALIAS, null);
+                    final KeyPair rsaKeyPair = getKeyPairForEntry(keyEntry);
+                    final RSAKey rsaKey = getRsaKeyForKeyPair(rsaKeyPair);
+
+                    cachedSigner = new CachedSigner(
+                            new RSASSASigner(rsaKeyPair.getPrivate()),
+                            getThumbprintForRsaKey(rsaKey),
+                            getDevicePopJwkMinifiedJson(rsaKey)
+                    );
+                    mCachedSigner = cachedSigner;
+                }
+            }
+        }
+
+        return cachedSigner;
+    }
+
+    /**
+     * Drops the signing state so that it is reloaded from the KeyStore on next use.
+     */
+    private synchronized void invalidateCachedSigner() {
+        mCachedSigner = null;
+    }
+
     /**
      * Generates a new RSA KeyPair of the specified lenth.
      *
@@ -783,14 +897,13 @@ class DevicePopManager implements IDevicePopManager {
     }
 
     /**
-     * Gets the base64url encoded public jwk for the supplied RSAKey.
+     * Gets the base64url encoded public jwk for the supplied key thumbprint.
      *
-     * @param rsaKey The input key material.
+     * @param thumbprintStr The thumbprint of the key material.
      * @return The base64url encoded jwk.
      */
-    private static String getReqCnfForRsaKey(@NonNull final RSAKey rsaKey)
-            throws JOSEException, JSONException {
-        final String thumbprintStr = getThumbprintForRsaKey(rsaKey);
+    private static String getReqCnfForThumbprint(@NonNull final String thumbprintStr)
+            throws JSONException {
         final String thumbprintMinifiedJson =
                 new JSONObject()
                         .put("kid", thumbprintStr)
@@ -829,16 +942,10 @@ class DevicePopManager implements IDevicePopManager {
     /**
      * Returns the cnf claim used in SHRs (Signed HTTP Requests); format is JSON.
      *
+     * @param rsaKey The input key material.
      * @return The cnf claim value.
-     * @throws UnrecoverableEntryException If the queried key cannot be found.
-     * @throws NoSuchAlgorithmException    If the KeyStore is unable to use the designated alg.
-     * @throws KeyStoreException           If the KeyStore experiences an error during read.
      */
-    private net.minidev.json.JSONObject getDevicePopJwkMinifiedJson()
-            throws UnrecoverableEntryException, NoSuchAlgorithmException, KeyStoreException {
-        final KeyStore.Entry keyEntry = mKeyStore.getEntry(KEYSTORE_ENTRY_ALIAS, null);
-        final KeyPair rsaKeyPair = getKeyPairForEntry(keyEntry);
-        final RSAKey rsaKey = getRsaKeyForKeyPair(rsaKeyPair);
+    private static net.minidev.json.JSONObject getDevicePopJwkMinifiedJson(@NonNull final RSAKey rsaKey) {
         final RSAKey publicRsaKey = rsaKey.toPublicJWK();
         final net.minidev.json.JSONObject jwkContents = publicRsaKey.toJSONObject();
         final net.minidev.json.JSONObject wrappedJwk = new net.minidev.json.JSONObject();
@@ -28,6 +28,7 @@ import com.microsoft.identity.common.exception.ClientException;
 import com.microsoft.identity.common.internal.controllers.TaskCompletedCallbackWithError;
 
 import java.net.URL;
+import java.util.List;
 
 /**
  * Internal convenience class interface for PoP related functions.
@@ -106,4 +107,16 @@ public interface IDevicePopManager {
                                  String accessToken,
                                  String nonce
     ) throws ClientException;
+
+    /**
+     * Api to create several signed PoP access tokens for the same access_token at once. The key
+     * material is resolved once for the whole batch.
+     *
+     * @param accessToken The access_token from which to derive the signed JWTs.
+     * @param requests    The outbound requests to sign.
+     * @return The signed PoP access tokens, in the order of the supplied requests.
+     */
+    List<String> mintSignedAccessTokens(String accessToken,
+                                        List<SignedHttpRequestParameters> requests
+    ) throws ClientException;
 }
@@ -0,0 +1,63 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.platform;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.net.URL;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * The per-request inputs of a SignedHttpRequest (SHR), used to mint several SHRs for one
+ * access_token in a single call.
+ */
+@Getter
+@Builder
+public class SignedHttpRequestParameters {
+
+    /**
+     * (Optional) The HTTP method that will be used with this outbound request.
+     */
+    @Nullable
+    private final String httpMethod;
+
+    /**
+     * Seconds since January 1st, 1970 (UTC).
+     */
+    private final long timestamp;
+
+    /**
+     * The recipient URL of the outbound request.
+     */
+    @NonNull
+    private final URL requestUrl;
+
+    /**
+     * (Optional) Arbitrary value used for replay protection by middleware.
+     */
+    @Nullable
+    private final String nonce;
+}
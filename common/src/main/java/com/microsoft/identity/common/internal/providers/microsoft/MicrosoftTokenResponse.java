@@ -34,6 +34,8 @@ public class MicrosoftTokenResponse extends TokenResponse {
 
     private static final String EXT_EXPIRES_IN = "ext_expires_in";
 
+    private static final String REFRESH_IN = "refresh_in";
+
     private static final String FAMILY_ID = "foci";
 
     /**
@@ -57,6 +59,14 @@ public class MicrosoftTokenResponse extends TokenResponse {
     @SerializedName(EXT_EXPIRES_IN)
     private Long mExtendedExpiresIn;
 
+    /**
+     * The number of seconds after which the service recommends refreshing the access_token,
+     * ahead of its expiry.
+     */
+    @Expose()
+    @SerializedName(REFRESH_IN)
+    private Long mRefreshIn;
+
     /**
      * Information to uniquely identify the family that the client application belongs to.
      */
@@ -193,6 +203,24 @@ public class MicrosoftTokenResponse extends TokenResponse {
         mExtendedExpiresIn = extExpiresIn;
     }
 
+    /**
+     * Gets the refresh_in.
+     *
+     * @return The refresh_in to get.
+     */
+    public Long getRefreshIn() {
+        return mRefreshIn;
+    }
+
+    /**
+     * Sets the refresh_in.
+     *
+     * @param refreshIn The refresh_in to set.
+     */
+    public void setRefreshIn(final Long refreshIn) {
+        mRefreshIn = refreshIn;
+    }
+
     /**
      * Gets the response client_info.
      *
@@ -291,6 +319,7 @@ public class MicrosoftTokenResponse extends TokenResponse {
                 ", mClientInfo='" + mClientInfo + '\'' +
                 ", mClientId='" + mClientId + '\'' +
                 ", mExtendedExpiresIn=" + mExtendedExpiresIn +
+                ", mRefreshIn=" + mRefreshIn +
                 ", mFamilyId='" + mFamilyId + '\'' +
                 "} " + super.toString();
     }
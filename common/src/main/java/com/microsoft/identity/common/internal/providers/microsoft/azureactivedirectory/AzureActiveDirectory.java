@@ -35,6 +35,7 @@ import com.microsoft.identity.common.internal.net.HttpRequest;
 import com.microsoft.identity.common.internal.net.HttpResponse;
 import com.microsoft.identity.common.internal.net.ObjectMapper;
 import com.microsoft.identity.common.internal.net.cache.HttpCache;
+import com.microsoft.identity.common.internal.net.cache.MetadataCache;
 import com.microsoft.identity.common.internal.providers.IdentityProvider;
 import com.microsoft.identity.common.internal.providers.oauth2.OAuth2StrategyParameters;
 
@@ -71,6 +72,11 @@ public class AzureActiveDirectory
     private static ConcurrentMap<String, AzureActiveDirectoryCloud> sAadClouds = new ConcurrentHashMap<>();
     private static boolean sIsInitialized = false;
     private static Environment sEnvironment = Environment.Production;
+    private static final MetadataCache<AzureActiveDirectoryInstanceResponse> sInstanceDiscoveryCache =
+            MetadataCache.<AzureActiveDirectoryInstanceResponse>builder()
+                    .name("instance-discovery")
+                    .type(AzureActiveDirectoryInstanceResponse.class)
+                    .build();
 
     @Override
     public AzureActiveDirectoryOAuth2Strategy createOAuth2Strategy(@NonNull final AzureActiveDirectoryOAuth2Configuration config) {
@@ -169,7 +175,13 @@ public class AzureActiveDirectory
         }
     }
 
-    public static synchronized void performCloudDiscovery() throws IOException {
+    /**
+     * Loads the instance discovery metadata of the current environment. The last known metadata
+     * is reused across process starts while it is fresh, or while a stale copy is reloaded in the
+     * background (the reloaded copy applies from the next start); concurrent callers share a
+     * single request.
+     */
+    public static void performCloudDiscovery() throws IOException {
         Uri instanceDiscoveryRequestUri = Uri.parse(getDefaultCloudUrl() + AAD_INSTANCE_DISCOVERY_ENDPOINT);
 
         instanceDiscoveryRequestUri = instanceDiscoveryRequestUri
@@ -178,27 +190,27 @@ public class AzureActiveDirectory
                 .appendQueryParameter(AUTHORIZATION_ENDPOINT, AUTHORIZATION_ENDPOINT_VALUE)
                 .build();
 
-        Map<String, String> headers = new HashMap<>();
-
-        HttpResponse response = HttpRequest.sendGet(
-                new URL(instanceDiscoveryRequestUri.toString()),
-                headers
-        );
-
-        if (response.getStatusCode() >= HttpURLConnection.HTTP_BAD_REQUEST) {
+        final URL instanceDiscoveryRequestUrl = new URL(instanceDiscoveryRequestUri.toString());
+
+        final AzureActiveDirectoryInstanceResponse instanceResponse;
+        try {
+            // Not holding the class lock while on the network
+            instanceResponse = sInstanceDiscoveryCache.get(
+                    instanceDiscoveryRequestUrl.toString(),
+                    new MetadataCache.Loader<AzureActiveDirectoryInstanceResponse>() {
+                        @NonNull
+                        @Override
+                        public AzureActiveDirectoryInstanceResponse load() throws IOException {
+                            return requestInstanceDiscovery(instanceDiscoveryRequestUrl);
+                        }
+                    }
+            );
+        } catch (final DiscoveryFailedException e) {
             Log.d("Discovery", "Error getting cloud information");
-        } else {
-            // Our request was successful. Flush the HTTP cache to disk. Should only happen once
-            // per app launch. Instance Discovery Metadata will be cached in-memory
-            // until the app is killed.
-            HttpCache.flush();
-
-            AzureActiveDirectoryInstanceResponse instanceResponse =
-                    ObjectMapper.deserializeJsonStringToObject(
-                            response.getBody(),
-                            AzureActiveDirectoryInstanceResponse.class
-                    );
+            return;
+        }
 
+        synchronized (AzureActiveDirectory.class) {
             for (final AzureActiveDirectoryCloud cloud : instanceResponse.getClouds()) {
                 cloud.setIsValidated(true); // Mark the deserialized Clouds as validated
                 for (final String alias : cloud.getHostAliases()) {
@@ -210,6 +222,36 @@ public class AzureActiveDirectory
         }
     }
 
+    private static AzureActiveDirectoryInstanceResponse requestInstanceDiscovery(@NonNull final URL requestUrl)
+            throws IOException {
+        Map<String, String> headers = new HashMap<>();
+
+        HttpResponse response = HttpRequest.sendGet(
+                requestUrl,
+                headers
+        );
+
+        if (response.getStatusCode() >= HttpURLConnection.HTTP_BAD_REQUEST) {
+            throw new DiscoveryFailedException();
+        }
+
+        // Our request was successful. Flush the HTTP cache to disk. Should only happen once
+        // per app launch, the metadata itself is kept by sInstanceDiscoveryCache.
+        HttpCache.flush();
+
+        final AzureActiveDirectoryInstanceResponse instanceResponse =
+                ObjectMapper.deserializeJsonStringToObject(
+                        response.getBody(),
+                        AzureActiveDirectoryInstanceResponse.class
+                );
+
+        if (instanceResponse == null || instanceResponse.getClouds() == null) {
+            throw new DiscoveryFailedException();
+        }
+
+        return instanceResponse;
+    }
+
     public static synchronized Set<String> getHosts() {
         if (null != sAadClouds) {
             return sAadClouds.keySet();
@@ -239,4 +281,9 @@ public class AzureActiveDirectory
         return new Gson().fromJson(jsonCloudArray, listType);
     }
 
+    /**
+     * An error response from instance discovery, which is logged rather than thrown.
+     */
+    private static final class DiscoveryFailedException extends IOException {
+    }
 }
@@ -38,6 +38,7 @@ import com.microsoft.identity.common.internal.cache.ICacheRecord;
 import com.microsoft.identity.common.internal.dto.IAccountRecord;
 import com.microsoft.identity.common.internal.logging.DiagnosticContext;
 import com.microsoft.identity.common.internal.logging.Logger;
+import com.microsoft.identity.common.internal.net.FormUrlEncoder;
 import com.microsoft.identity.common.internal.net.HttpRequest;
 import com.microsoft.identity.common.internal.net.HttpResponse;
 import com.microsoft.identity.common.internal.net.ObjectMapper;
@@ -71,7 +72,6 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 import java.util.UUID;
 
 import static com.microsoft.identity.common.adal.internal.AuthenticationConstants.Broker.CHALLENGE_REQUEST_HEADER;
@@ -268,7 +268,7 @@ public class MicrosoftStsOAuth2Strategy
             builder.setSlice(mConfig.getSlice());
         }
 
-        final Map<String, String> platformParameters = Device.getPlatformIdParameters();
+        final Map<String, String> platformParameters = Device.getCachedPlatformIdParameters();
         builder.setLibraryName(platformParameters.get(
                 Device.PlatformIdParameters.PRODUCT)
         );
@@ -462,10 +462,9 @@ public class MicrosoftStsOAuth2Strategy
             @NonNull final MicrosoftStsTokenRequest request)
             throws IOException, ClientException {
         final String methodName = "#performPkeyAuthRequest";
-        final String requestBody = ObjectMapper.serializeObjectToFormUrlEncoded(request);
-        final Map<String, String> headers = new TreeMap<>();
+        final byte[] requestBody = FormUrlEncoder.encode(request);
+        final Map<String, String> headers = newTokenRequestHeaders();
         headers.put("client-request-id", DiagnosticContext.getRequestContext().get(DiagnosticContext.CORRELATION_ID));
-        headers.putAll(Device.getPlatformIdParameters());
 
         headers.put(AuthenticationConstants.AAD.APP_PACKAGE_NAME, request.getClientAppName());
         headers.put(AuthenticationConstants.AAD.APP_VERSION, request.getClientAppVersion());
@@ -486,8 +485,8 @@ public class MicrosoftStsOAuth2Strategy
             final HttpResponse pkeyAuthResponse = HttpRequest.sendPost(
                     authority,
                     headers,
-                    requestBody.getBytes(ObjectMapper.ENCODING_SCHEME),
-                    TOKEN_REQUEST_CONTENT_TYPE
+                    requestBody,
+                    null
             );
 
             return pkeyAuthResponse;
@@ -39,6 +39,8 @@ import com.microsoft.identity.common.internal.dto.IAccountRecord;
 import com.microsoft.identity.common.internal.eststelemetry.EstsTelemetry;
 import com.microsoft.identity.common.internal.logging.DiagnosticContext;
 import com.microsoft.identity.common.internal.logging.Logger;
+import com.microsoft.identity.common.internal.net.FormUrlEncoder;
+import com.microsoft.identity.common.internal.net.HttpConstants;
 import com.microsoft.identity.common.internal.net.HttpRequest;
 import com.microsoft.identity.common.internal.net.HttpResponse;
 import com.microsoft.identity.common.internal.net.ObjectMapper;
@@ -56,6 +58,7 @@ import com.microsoft.identity.common.internal.util.IClockSkewManager;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -92,6 +95,17 @@ public abstract class OAuth2Strategy
     protected static final String TOKEN_REQUEST_CONTENT_TYPE = "application/x-www-form-urlencoded";
     protected static final String DEVICE_CODE_CONTENT_TYPE = TOKEN_REQUEST_CONTENT_TYPE;
 
+    /**
+     * Headers a token request adds on top of the template: client request id, broker version,
+     * the two telemetry headers, app name and app version.
+     */
+    private static final int TOKEN_REQUEST_EXTRA_HEADER_COUNT = 6;
+
+    /**
+     * The headers every token request sends, which don't change for the lifetime of the process.
+     */
+    private static volatile Map<String, String> sTokenRequestHeaderTemplate;
+
     protected final GenericOAuth2Configuration mConfig;
     protected final GenericOAuth2StrategyParameters mStrategyParameters;
     protected final IClockSkewManager mClockSkewManager;
@@ -175,8 +189,8 @@ public abstract class OAuth2Strategy
                 "Performing token request..."
         );
 
-        final String requestBody = ObjectMapper.serializeObjectToFormUrlEncoded(request);
-        final Map<String, String> headers = new TreeMap<>();
+        final byte[] requestBody = FormUrlEncoder.encode(request);
+        final Map<String, String> headers = newTokenRequestHeaders();
         headers.put(CLIENT_REQUEST_ID, DiagnosticContext.getRequestContext().get(DiagnosticContext.CORRELATION_ID));
 
         if (request instanceof MicrosoftTokenRequest &&
@@ -186,7 +200,6 @@ public abstract class OAuth2Strategy
                     ((MicrosoftTokenRequest) request).getBrokerVersion()
             );
         }
-        headers.putAll(Device.getPlatformIdParameters());
         headers.putAll(EstsTelemetry.getInstance().getTelemetryHeaders());
 
         if (request instanceof MicrosoftTokenRequest) {
@@ -200,11 +213,12 @@ public abstract class OAuth2Strategy
             );
         }
 
+        // The content type is already part of the header template
         final HttpResponse response = HttpRequest.sendPost(
                 new URL(mTokenEndpoint),
                 headers,
-                requestBody.getBytes(ObjectMapper.ENCODING_SCHEME),
-                TOKEN_REQUEST_CONTENT_TYPE
+                requestBody,
+                null
         );
 
         // Record the clock skew between *this device* and EVO...
@@ -215,6 +229,29 @@ public abstract class OAuth2Strategy
         return response;
     }
 
+    /**
+     * Creates the mutable header map of a token request, prefilled with the platform id
+     * parameters and the form url encoded content type.
+     *
+     * @return A new header map.
+     */
+    protected static Map<String, String> newTokenRequestHeaders() {
+        Map<String, String> template = sTokenRequestHeaderTemplate;
+
+        if (template == null) {
+            final Map<String, String> headers = new HashMap<>(Device.getCachedPlatformIdParameters());
+            headers.put(HttpConstants.HeaderField.CONTENT_TYPE, TOKEN_REQUEST_CONTENT_TYPE);
+            template = Collections.unmodifiableMap(headers);
+            sTokenRequestHeaderTemplate = template;
+        }
+
+        final Map<String, String> headers = new HashMap<>(
+                (template.size() + TOKEN_REQUEST_EXTRA_HEADER_COUNT) * 4 / 3 + 1
+        );
+        headers.putAll(template);
+        return headers;
+    }
+
     private void recordClockSkew(final long referenceTimeMillis) {
         if (null != mClockSkewManager) {
             mClockSkewManager.onTimestampReceived(referenceTimeMillis);
@@ -33,12 +33,12 @@ import com.microsoft.identity.common.internal.controllers.TaskCompletedCallbackW
 import com.microsoft.identity.common.internal.logging.Logger;
 import com.microsoft.identity.common.internal.net.HttpRequest;
 import com.microsoft.identity.common.internal.net.HttpResponse;
+import com.microsoft.identity.common.internal.net.cache.MetadataCache;
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -52,7 +52,11 @@ public class OpenIdProviderConfigurationClient {
     private static final String TAG = OpenIdProviderConfigurationClient.class.getSimpleName();
     private static final String sWellKnownConfig = "/.well-known/openid-configuration";
     private static final ExecutorService sBackgroundExecutor = Executors.newCachedThreadPool();
-    private static final Map<URL, OpenIdProviderConfiguration> sConfigCache = new HashMap<>();
+    private static final MetadataCache<OpenIdProviderConfiguration> sConfigCache =
+            MetadataCache.<OpenIdProviderConfiguration>builder()
+                    .name("openid-configuration")
+                    .type(OpenIdProviderConfiguration.class)
+                    .build();
 
     public interface OpenIdProviderConfigurationCallback
             extends TaskCompletedCallbackWithError<OpenIdProviderConfiguration, Exception> {
@@ -105,61 +109,33 @@ public class OpenIdProviderConfigurationClient {
     }
 
     /**
-     * Get OpenID provider configuration.
+     * Get OpenID provider configuration. A cached copy is used while it is fresh, or while a
+     * stale copy is reloaded in the background; concurrent loads of the same issuer share a
+     * single request.
      *
      * @return OpenIdProviderConfiguration
      */
-    public synchronized OpenIdProviderConfiguration loadOpenIdProviderConfiguration()
+    public OpenIdProviderConfiguration loadOpenIdProviderConfiguration()
             throws ServiceException {
-        final String methodName = ":loadOpenIdProviderConfiguration";
-
         try {
             final URL configUrl = new URL(mIssuer + sWellKnownConfig);
 
-            // Check first for a cached copy...
-            final OpenIdProviderConfiguration cacheResult = sConfigCache.get(configUrl);
-
-            // If we found a result, return it...
-            if (null != cacheResult) {
-                Logger.info(
-                        TAG + methodName,
-                        "Using cached metadata result."
-                );
-                return cacheResult;
-            }
-
-            Logger.verbose(
-                    TAG + methodName,
-                    "Config URL is valid."
+            return sConfigCache.get(
+                    configUrl.toString(),
+                    new MetadataCache.Loader<OpenIdProviderConfiguration>() {
+                        @NonNull
+                        @Override
+                        public OpenIdProviderConfiguration load() throws IOException {
+                            return requestOpenIdProviderConfiguration(configUrl);
+                        }
+                    }
             );
-
-            Logger.verbosePII(
-                    TAG + methodName,
-                    "Using request URL: " + configUrl
-            );
-
-            final HttpResponse providerConfigResponse = HttpRequest.sendGet(configUrl, new HashMap<String, String>());
-
-            final int statusCode = providerConfigResponse.getStatusCode();
-
-            if (HttpURLConnection.HTTP_OK != statusCode
-                    || TextUtils.isEmpty(providerConfigResponse.getBody())) {
-                throw new ServiceException(
-                        OPENID_PROVIDER_CONFIGURATION_FAILED_TO_LOAD,
-                        "OpenId Provider Configuration metadata failed to load with status: "
-                                + statusCode,
-                        null
-                );
-            }
-
-            final OpenIdProviderConfiguration parsedConfig = parseMetadata(
-                    providerConfigResponse.getBody()
+        } catch (final MetadataStatusException e) {
+            throw new ServiceException(
+                    OPENID_PROVIDER_CONFIGURATION_FAILED_TO_LOAD,
+                    e.getMessage(),
+                    null
             );
-
-            // Cache our config in memory for later
-            cacheConfiguration(configUrl, parsedConfig);
-
-            return parsedConfig;
         } catch (IOException e) {
             throw new ServiceException(
                     OPENID_PROVIDER_CONFIGURATION_FAILED_TO_LOAD,
@@ -169,13 +145,45 @@ public class OpenIdProviderConfigurationClient {
         }
     }
 
-    private void cacheConfiguration(@NonNull final URL configUrl,
-                                    @NonNull final OpenIdProviderConfiguration parsedConfig) {
-        sConfigCache.put(configUrl, parsedConfig);
+    private OpenIdProviderConfiguration requestOpenIdProviderConfiguration(@NonNull final URL configUrl)
+            throws IOException {
+        final String methodName = ":requestOpenIdProviderConfiguration";
+
+        Logger.verbose(
+                TAG + methodName,
+                "Config URL is valid."
+        );
+
+        Logger.verbosePII(
+                TAG + methodName,
+                "Using request URL: " + configUrl
+        );
+
+        final HttpResponse providerConfigResponse = HttpRequest.sendGet(configUrl, new HashMap<String, String>());
+
+        final int statusCode = providerConfigResponse.getStatusCode();
+
+        if (HttpURLConnection.HTTP_OK != statusCode
+                || TextUtils.isEmpty(providerConfigResponse.getBody())) {
+            throw new MetadataStatusException(
+                    "OpenId Provider Configuration metadata failed to load with status: "
+                            + statusCode
+            );
+        }
+
+        return parseMetadata(providerConfigResponse.getBody());
     }
 
     private OpenIdProviderConfiguration parseMetadata(@NonNull final String body) {
         return mGson.fromJson(body, OpenIdProviderConfiguration.class);
     }
 
+    /**
+     * A response without usable metadata, kept apart from the IO errors to report it as before.
+     */
+    private static final class MetadataStatusException extends IOException {
+        MetadataStatusException(final String message) {
+            super(message);
+        }
+    }
 }
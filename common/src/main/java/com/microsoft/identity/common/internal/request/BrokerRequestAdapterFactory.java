@@ -36,7 +36,8 @@ public class BrokerRequestAdapterFactory {
         final String methodName = ":getBrokerRequestAdapter";
         if (requestBundle != null &&
                 (requestBundle.containsKey(AuthenticationConstants.Broker.BROKER_REQUEST_V2) ||
-                requestBundle.containsKey(AuthenticationConstants.Broker.BROKER_REQUEST_V2_COMPRESSED))) {
+                requestBundle.containsKey(AuthenticationConstants.Broker.BROKER_REQUEST_V2_COMPRESSED) ||
+                requestBundle.containsKey(AuthenticationConstants.Broker.BROKER_REQUEST_V2_BINARY))) {
             Logger.info(TAG + methodName, "Request from MSAL, returning MsalBrokerRequestAdapter");
             return new MsalBrokerRequestAdapter();
         } else {
@@ -43,6 +43,7 @@ import com.microsoft.identity.common.internal.authorities.Environment;
 import com.microsoft.identity.common.internal.authscheme.AbstractAuthenticationScheme;
 import com.microsoft.identity.common.internal.authscheme.BearerAuthenticationSchemeInternal;
 import com.microsoft.identity.common.internal.authscheme.PopAuthenticationSchemeInternal;
+import com.microsoft.identity.common.internal.broker.BrokerPayloadBinaryCodec;
 import com.microsoft.identity.common.internal.broker.BrokerRequest;
 import com.microsoft.identity.common.internal.broker.BrokerValidator;
 import com.microsoft.identity.common.internal.commands.parameters.BrokerInteractiveTokenCommandParameters;
@@ -62,6 +63,7 @@ import com.microsoft.identity.common.internal.ui.browser.BrowserDescriptor;
 import com.microsoft.identity.common.internal.ui.browser.BrowserSelector;
 import com.microsoft.identity.common.internal.util.BrokerProtocolVersionUtil;
 import com.microsoft.identity.common.internal.util.ClockSkewManager;
+import com.microsoft.identity.common.internal.util.GzipUtil;
 import com.microsoft.identity.common.internal.util.IClockSkewManager;
 import com.microsoft.identity.common.internal.util.QueryParamsAdapter;
 import com.microsoft.identity.common.internal.util.StringUtil;
@@ -82,8 +84,8 @@ import static com.microsoft.identity.common.adal.internal.AuthenticationConstant
 import static com.microsoft.identity.common.adal.internal.AuthenticationConstants.Broker.DEFAULT_BROWSER_PACKAGE_NAME;
 import static com.microsoft.identity.common.adal.internal.AuthenticationConstants.Broker.ENVIRONMENT;
 import static com.microsoft.identity.common.adal.internal.AuthenticationConstants.Broker.NEGOTIATED_BP_VERSION_KEY;
-import static com.microsoft.identity.common.internal.util.GzipUtil.compressString;
-import static com.microsoft.identity.common.internal.util.GzipUtil.decompressBytesToString;
+import static com.microsoft.identity.common.internal.util.GzipUtil.fromCompressedJson;
+import static com.microsoft.identity.common.internal.util.GzipUtil.toJsonPayload;
 
 public class MsalBrokerRequestAdapter implements IBrokerRequestAdapter {
 
@@ -91,12 +93,19 @@ public class MsalBrokerRequestAdapter implements IBrokerRequestAdapter {
 
     public static Gson sRequestAdapterGsonInstance;
 
+    private static final BrokerPayloadBinaryCodec<BrokerRequest> sBrokerRequestBinaryCodec;
+
     static {
         sRequestAdapterGsonInstance = new GsonBuilder()
                 .registerTypeAdapter(
                         AbstractAuthenticationScheme.class,
                         new AuthenticationSchemeTypeAdapter()
                 ).create();
+        sBrokerRequestBinaryCodec = new BrokerPayloadBinaryCodec<>(
+                BrokerRequest.class,
+                sRequestAdapterGsonInstance,
+                sRequestAdapterGsonInstance
+        );
     }
 
     @Override
@@ -224,7 +233,7 @@ public class MsalBrokerRequestAdapter implements IBrokerRequestAdapter {
         }
         final String negotiatedBrokerProtocolVersion = intent.getStringExtra(NEGOTIATED_BP_VERSION_KEY);
 
-        Logger.info(TAG, "Authorization agent passed in by MSAL: " + brokerRequest.getAuthorizationAgent());
+        Logger.infoFormat(TAG, "Authorization agent passed in by MSAL: %s", brokerRequest.getAuthorizationAgent());
 
         final BrokerInteractiveTokenCommandParameters.BrokerInteractiveTokenCommandParametersBuilder
                 commandParametersBuilder = BrokerInteractiveTokenCommandParameters.builder()
@@ -353,14 +362,33 @@ public class MsalBrokerRequestAdapter implements IBrokerRequestAdapter {
     @Nullable
     public BrokerRequest brokerRequestFromBundle(@NonNull final Bundle requestBundle) {
         BrokerRequest brokerRequest = null;
+        final byte[] binaryRequest = requestBundle.getByteArray(
+                AuthenticationConstants.Broker.BROKER_REQUEST_V2_BINARY
+        );
 
-        if (requestBundle.containsKey(AuthenticationConstants.Broker.BROKER_REQUEST_V2_COMPRESSED)) {
+        if (binaryRequest != null) {
             try {
-                final String deCompressedString = decompressBytesToString(
-                        requestBundle.getByteArray(AuthenticationConstants.Broker.BROKER_REQUEST_V2_COMPRESSED)
-                );
-                brokerRequest = sRequestAdapterGsonInstance.fromJson(
-                        deCompressedString, BrokerRequest.class
+                brokerRequest = sBrokerRequestBinaryCodec.decode(binaryRequest);
+            } catch (final IOException e) {
+                // Fall back to the other encodings, if the sender included them
+                Logger.error(TAG, "Decoding of binary Broker Request failed.", e);
+            }
+        }
+
+        if (brokerRequest != null) {
+            return brokerRequest;
+        }
+
+        final byte[] compressedRequest = requestBundle.getByteArray(
+                AuthenticationConstants.Broker.BROKER_REQUEST_V2_COMPRESSED
+        );
+
+        if (compressedRequest != null) {
+            try {
+                brokerRequest = fromCompressedJson(
+                        compressedRequest,
+                        sRequestAdapterGsonInstance,
+                        BrokerRequest.class
                 );
             } catch (final IOException e) {
                 // We would ideally never run into this case as compression would always work as expected.
@@ -504,17 +532,31 @@ public class MsalBrokerRequestAdapter implements IBrokerRequestAdapter {
                                                      @Nullable String negotiatedBrokerProtocolVersion) {
         final Bundle requestBundle = new Bundle();
 
-        if (BrokerProtocolVersionUtil.canCompressBrokerPayloads(negotiatedBrokerProtocolVersion)) {
+        if (BrokerProtocolVersionUtil.canUseBinaryBrokerPayloads(negotiatedBrokerProtocolVersion)
+                && putBinaryBrokerRequest(requestBundle, brokerRequest)) {
+            Logger.verbose(TAG, "Sending broker request as binary payload.");
+        } else if (BrokerProtocolVersionUtil.canCompressBrokerPayloads(negotiatedBrokerProtocolVersion)) {
             try {
-                final String jsonString = sRequestAdapterGsonInstance.toJson(brokerRequest, BrokerRequest.class);
-                byte[] compressedBytes = compressString(jsonString);
-                Logger.info(TAG, "Broker Result, raw payload size:"
-                        + jsonString.getBytes().length + " ,compressed bytes size: " + compressedBytes.length
-                );
-                requestBundle.putByteArray(
-                        AuthenticationConstants.Broker.BROKER_REQUEST_V2_COMPRESSED,
-                        compressedBytes
+                final GzipUtil.JsonPayload payload = toJsonPayload(
+                        sRequestAdapterGsonInstance, brokerRequest, BrokerRequest.class
                 );
+                if (payload.isCompressed()) {
+                    Logger.infoFormat(
+                            TAG,
+                            "Broker Request, compressed bytes size: %s",
+                            payload.getCompressed().length
+                    );
+                    requestBundle.putByteArray(
+                            AuthenticationConstants.Broker.BROKER_REQUEST_V2_COMPRESSED,
+                            payload.getCompressed()
+                    );
+                } else {
+                    // Below the compression break-even size, send as is.
+                    requestBundle.putString(
+                            AuthenticationConstants.Broker.BROKER_REQUEST_V2,
+                            payload.getJson()
+                    );
+                }
             } catch (IOException e) {
                 Logger.error(TAG, "Compression to bytes failed, sending broker request as json String", e);
                 requestBundle.putString(
@@ -523,8 +565,10 @@ public class MsalBrokerRequestAdapter implements IBrokerRequestAdapter {
                 );
             }
         } else {
-            Logger.info(TAG, "Broker protocol version: " + negotiatedBrokerProtocolVersion +
-                    " lower than compression changes, sending as string"
+            Logger.infoFormat(
+                    TAG,
+                    "Broker protocol version: %s lower than compression changes, sending as string",
+                    negotiatedBrokerProtocolVersion
             );
             requestBundle.putString(
                     AuthenticationConstants.Broker.BROKER_REQUEST_V2,
@@ -538,6 +582,25 @@ public class MsalBrokerRequestAdapter implements IBrokerRequestAdapter {
         return requestBundle;
     }
 
+    /**
+     * Puts the broker request into the bundle as a binary payload.
+     *
+     * @return false if encoding failed and the caller should fall back to JSON.
+     */
+    private static boolean putBinaryBrokerRequest(@NonNull final Bundle requestBundle,
+                                                  @NonNull final BrokerRequest brokerRequest) {
+        try {
+            requestBundle.putByteArray(
+                    AuthenticationConstants.Broker.BROKER_REQUEST_V2_BINARY,
+                    sBrokerRequestBinaryCodec.encode(brokerRequest)
+            );
+            return true;
+        } catch (final IOException e) {
+            Logger.error(TAG, "Binary encoding failed, falling back to json", e);
+            return false;
+        }
+    }
+
     /**
      * Method to construct a request bundle for broker getAccounts request.
      *
@@ -644,7 +707,7 @@ public class MsalBrokerRequestAdapter implements IBrokerRequestAdapter {
     private boolean isCallingPackageIntune(@NonNull final String packageName) {
         final String methodName = ":isCallingPackageIntune";
         final String intunePackageName = "com.microsoft.intune";
-        Logger.info(TAG + methodName, "Calling package name : " + packageName);
+        Logger.infoFormat(TAG + methodName, "Calling package name : %s", packageName);
         return intunePackageName.equalsIgnoreCase(packageName);
     }
 }
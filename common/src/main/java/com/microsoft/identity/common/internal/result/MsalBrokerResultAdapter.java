@@ -28,6 +28,9 @@ import android.text.TextUtils;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
 import com.microsoft.identity.common.adal.internal.AuthenticationConstants;
 import com.microsoft.identity.common.adal.internal.util.HashMapExtensions;
 import com.microsoft.identity.common.adal.internal.util.JsonExtensions;
@@ -39,6 +42,7 @@ import com.microsoft.identity.common.exception.IntuneAppProtectionPolicyRequired
 import com.microsoft.identity.common.exception.ServiceException;
 import com.microsoft.identity.common.exception.UiRequiredException;
 import com.microsoft.identity.common.exception.UserCancelException;
+import com.microsoft.identity.common.internal.broker.BrokerPayloadBinaryCodec;
 import com.microsoft.identity.common.internal.broker.BrokerResult;
 import com.microsoft.identity.common.internal.cache.ICacheRecord;
 import com.microsoft.identity.common.internal.dto.AccessTokenRecord;
@@ -48,23 +52,40 @@ import com.microsoft.identity.common.internal.request.SdkType;
 import com.microsoft.identity.common.internal.util.BrokerProtocolVersionUtil;
 import com.microsoft.identity.common.internal.util.GzipUtil;
 import com.microsoft.identity.common.internal.util.HeaderSerializationUtil;
+import com.microsoft.identity.common.internal.util.ICacheRecordGsonAdapter;
 import com.microsoft.identity.common.internal.util.StringUtil;
 
 import org.json.JSONException;
 
 import java.io.IOException;
+import java.lang.reflect.Type;
 import java.util.List;
 
 import static com.microsoft.identity.common.adal.internal.AuthenticationConstants.Broker.BROKER_ACCOUNTS;
 import static com.microsoft.identity.common.adal.internal.AuthenticationConstants.Broker.BROKER_ACCOUNTS_COMPRESSED;
 import static com.microsoft.identity.common.adal.internal.AuthenticationConstants.Broker.BROKER_DEVICE_MODE;
 import static com.microsoft.identity.common.internal.request.MsalBrokerRequestAdapter.sRequestAdapterGsonInstance;
-import static com.microsoft.identity.common.internal.util.GzipUtil.compressString;
 
 public class MsalBrokerResultAdapter implements IBrokerResultAdapter {
 
     private static final String TAG = MsalBrokerResultAdapter.class.getName();
 
+    private static final Gson sResultReaderGson = new GsonBuilder()
+            .registerTypeAdapter(ICacheRecord.class, new ICacheRecordGsonAdapter())
+            .create();
+
+    private static final Gson sAccountsWriterGson = new Gson();
+
+    private static final Type LIST_OF_CACHE_RECORDS = new TypeToken<List<ICacheRecord>>() {
+    }.getType();
+
+    private static final BrokerPayloadBinaryCodec<BrokerResult> sBrokerResultBinaryCodec =
+            new BrokerPayloadBinaryCodec<>(
+                    BrokerResult.class,
+                    sRequestAdapterGsonInstance,
+                    sResultReaderGson
+            );
+
     @Override
     public Bundle bundleFromAuthenticationResult(@NonNull final ILocalAuthenticationResult authenticationResult,
                                                  @Nullable final String negotiatedBrokerProtocolVersion) {
@@ -195,34 +216,53 @@ public class MsalBrokerResultAdapter implements IBrokerResultAdapter {
     public Bundle bundleFromBrokerResult(@NonNull final BrokerResult brokerResult,
                                          @NonNull final String negotiatedBrokerProtocolVersion){
         final Bundle resultBundle = new Bundle();
-        final String brokerResultString = sRequestAdapterGsonInstance.toJson(
-                brokerResult,
-                BrokerResult.class
-        );
-        if (BrokerProtocolVersionUtil.canCompressBrokerPayloads(negotiatedBrokerProtocolVersion)) {
+
+        if (BrokerProtocolVersionUtil.canUseBinaryBrokerPayloads(negotiatedBrokerProtocolVersion)) {
             try {
-                byte[] compressedBytes = compressString(brokerResultString);
-                Logger.info(TAG, "Broker Result, raw payload size:"
-                        + brokerResultString.getBytes().length + " ,compressed bytes " + compressedBytes.length
-                );
                 resultBundle.putByteArray(
-                        AuthenticationConstants.Broker.BROKER_RESULT_V2_COMPRESSED,
-                        compressedBytes
+                        AuthenticationConstants.Broker.BROKER_RESULT_V2_BINARY,
+                        sBrokerResultBinaryCodec.encode(brokerResult)
                 );
+                return resultBundle;
+            } catch (final IOException e) {
+                Logger.error(TAG, "Failed to encode Broker Result as binary, falling back to json ", e);
+            }
+        }
+
+        if (BrokerProtocolVersionUtil.canCompressBrokerPayloads(negotiatedBrokerProtocolVersion)) {
+            try {
+                final GzipUtil.JsonPayload payload = GzipUtil.toJsonPayload(
+                        sRequestAdapterGsonInstance, brokerResult, BrokerResult.class
+                );
+                if (payload.isCompressed()) {
+                    Logger.infoFormat(TAG, "Broker Result, compressed bytes %s", payload.getCompressed().length);
+                    resultBundle.putByteArray(
+                            AuthenticationConstants.Broker.BROKER_RESULT_V2_COMPRESSED,
+                            payload.getCompressed()
+                    );
+                } else {
+                    // Below the compression break-even size, send as is.
+                    resultBundle.putString(
+                            AuthenticationConstants.Broker.BROKER_RESULT_V2,
+                            payload.getJson()
+                    );
+                }
             } catch (IOException e) {
                 Logger.error(TAG, "Failed to compress Broker Result, sending as jsonString ", e);
                 resultBundle.putString(
                         AuthenticationConstants.Broker.BROKER_RESULT_V2,
-                        brokerResultString
+                        sRequestAdapterGsonInstance.toJson(brokerResult, BrokerResult.class)
                 );
             }
         } else {
-            Logger.info(TAG, "Broker protocol version: " + negotiatedBrokerProtocolVersion +
-                    " lower than compression changes, sending as string"
+            Logger.infoFormat(
+                    TAG,
+                    "Broker protocol version: %s lower than compression changes, sending as string",
+                    negotiatedBrokerProtocolVersion
             );
             resultBundle.putString(
                     AuthenticationConstants.Broker.BROKER_RESULT_V2,
-                    brokerResultString
+                    sRequestAdapterGsonInstance.toJson(brokerResult, BrokerResult.class)
             );
         }
         return resultBundle;
@@ -231,19 +271,38 @@ public class MsalBrokerResultAdapter implements IBrokerResultAdapter {
     @Nullable
     public BrokerResult brokerResultFromBundle(final Bundle resultBundle){
         BrokerResult brokerResult = null;
-        if(resultBundle.containsKey(AuthenticationConstants.Broker.BROKER_RESULT_V2_COMPRESSED)){
-            byte[] compressedBytes = resultBundle.getByteArray(
-                    AuthenticationConstants.Broker.BROKER_RESULT_V2_COMPRESSED
-            );
+        final byte[] binaryBytes = resultBundle.getByteArray(
+                AuthenticationConstants.Broker.BROKER_RESULT_V2_BINARY
+        );
+
+        if (binaryBytes != null) {
+            try {
+                brokerResult = sBrokerResultBinaryCodec.decode(binaryBytes);
+            } catch (IOException e) {
+                // Fall back to the other encodings, if the sender included them
+                Logger.error(TAG, "Failed to decode binary broker result :", e);
+            }
+        }
+
+        if (brokerResult != null) {
+            return brokerResult;
+        }
+
+        final byte[] compressedBytes = resultBundle.getByteArray(
+                AuthenticationConstants.Broker.BROKER_RESULT_V2_COMPRESSED
+        );
+
+        if (compressedBytes != null) {
             try {
-                final String brokerResultString = GzipUtil.decompressBytesToString(compressedBytes);
-                brokerResult = JsonExtensions.getBrokerResultFromJsonString(brokerResultString);
+                brokerResult = GzipUtil.fromCompressedJson(
+                        compressedBytes, sResultReaderGson, BrokerResult.class
+                );
             } catch (IOException e) {
                 // We should never hit this ideally unless the string/bytes are malformed for some unknown reason.
                 // The caller should handle the null broker result
                Logger.error(TAG,"Failed to decompress broker result :", e);
             }
-        }else {
+        } else if (resultBundle.containsKey(AuthenticationConstants.Broker.BROKER_RESULT_V2)) {
             brokerResult = JsonExtensions.getBrokerResultFromJsonString(
                     resultBundle.getString(AuthenticationConstants.Broker.BROKER_RESULT_V2)
             );
@@ -461,10 +520,11 @@ public class MsalBrokerResultAdapter implements IBrokerResultAdapter {
 
         if (!StringUtil.isEmpty(bundle.getString(AuthenticationConstants.Broker.NEGOTIATED_BP_VERSION_KEY))) {
             final String negotiatedBrokerProtocolVersion = bundle.getString(AuthenticationConstants.Broker.NEGOTIATED_BP_VERSION_KEY);
-            Logger.info(TAG + methodName,
-                    "Able to establish the connect, " +
-                            "the broker protocol version in common is ["
-                            + negotiatedBrokerProtocolVersion + "]");
+            Logger.infoFormat(
+                    TAG + methodName,
+                    "Able to establish the connect, the broker protocol version in common is [%s]",
+                    negotiatedBrokerProtocolVersion
+            );
             return negotiatedBrokerProtocolVersion;
         }
 
@@ -507,23 +567,35 @@ public class MsalBrokerResultAdapter implements IBrokerResultAdapter {
         final Bundle resultBundle = new Bundle();
 
         if (cacheRecords != null) {
-            final String jsonString = JsonExtensions.getJsonStringFromICacheRecordList(cacheRecords);
             if(BrokerProtocolVersionUtil.canCompressBrokerPayloads(negotiatedProtocolVersion)) {
                 try {
-                    byte[] bytes = GzipUtil.compressString(jsonString);
-                    Logger.info(TAG, "Get accounts, raw payload size :"
-                            + jsonString.getBytes().length + " compressed size " + bytes.length
+                    final GzipUtil.JsonPayload payload = GzipUtil.toJsonPayload(
+                            sAccountsWriterGson, cacheRecords, LIST_OF_CACHE_RECORDS
                     );
-                    resultBundle.putByteArray(BROKER_ACCOUNTS_COMPRESSED, bytes);
+                    if (payload.isCompressed()) {
+                        Logger.infoFormat(TAG, "Get accounts, compressed size %s", payload.getCompressed().length);
+                        resultBundle.putByteArray(BROKER_ACCOUNTS_COMPRESSED, payload.getCompressed());
+                    } else {
+                        // Below the compression break-even size, send as is.
+                        resultBundle.putString(BROKER_ACCOUNTS, payload.getJson());
+                    }
                 } catch (IOException e) {
                     Logger.error(TAG, " Failed to compress account list to bytes, sending as jsonString", e);
-                    resultBundle.putString(BROKER_ACCOUNTS, jsonString);
+                    resultBundle.putString(
+                            BROKER_ACCOUNTS,
+                            JsonExtensions.getJsonStringFromICacheRecordList(cacheRecords)
+                    );
                 }
             }else {
-                Logger.info(TAG, "Broker protocol version: " + negotiatedProtocolVersion +
-                        " lower than compression changes, sending as string"
+                Logger.infoFormat(
+                        TAG,
+                        "Broker protocol version: %s lower than compression changes, sending as string",
+                        negotiatedProtocolVersion
+                );
+                resultBundle.putString(
+                        BROKER_ACCOUNTS,
+                        JsonExtensions.getJsonStringFromICacheRecordList(cacheRecords)
                 );
-                resultBundle.putString(BROKER_ACCOUNTS, jsonString);
             }
 
         }
@@ -533,20 +605,20 @@ public class MsalBrokerResultAdapter implements IBrokerResultAdapter {
 
     public List<ICacheRecord> getAccountsFromResultBundle(@NonNull final Bundle bundle) throws BaseException {
 
-        String accountJson;
         if(bundle.containsKey(BROKER_ACCOUNTS_COMPRESSED)){
             try {
-                accountJson = GzipUtil.decompressBytesToString(
-                        bundle.getByteArray(BROKER_ACCOUNTS_COMPRESSED)
+                return GzipUtil.fromCompressedJson(
+                        bundle.getByteArray(BROKER_ACCOUNTS_COMPRESSED),
+                        sResultReaderGson,
+                        LIST_OF_CACHE_RECORDS
                 );
             } catch (IOException e) {
                 Logger.error(TAG, " Failed to decompress account list to bytes", e);
                 throw  new BaseException(ErrorStrings.UNKNOWN_ERROR, " Failed to decompress account list to bytes");
             }
-        }else {
-            accountJson =  bundle.getString(BROKER_ACCOUNTS);
         }
 
+        final String accountJson = bundle.getString(BROKER_ACCOUNTS);
         if (accountJson == null) {
             throw new MsalBrokerResultAdapter().getBaseExceptionFromBundle(bundle);
         }
@@ -560,9 +632,7 @@ public class MsalBrokerResultAdapter implements IBrokerResultAdapter {
             return;
         }
 
-        final BrokerResult brokerResult = JsonExtensions.getBrokerResultFromJsonString(
-                bundle.getString(AuthenticationConstants.Broker.BROKER_RESULT_V2)
-        );
+        final BrokerResult brokerResult = brokerResultFromBundle(bundle);
 
         if (brokerResult != null && brokerResult.isSuccess()) {
             return;
@@ -27,6 +27,7 @@ import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
 import com.microsoft.identity.common.BuildConfig;
@@ -41,6 +42,7 @@ import com.microsoft.identity.common.internal.telemetry.observers.ITelemetryObse
 import com.microsoft.identity.common.internal.telemetry.rules.TelemetryPiiOiiRules;
 import com.microsoft.identity.common.internal.util.StringUtil;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -57,7 +59,8 @@ public class Telemetry {
     private final static String TAG = Telemetry.class.getSimpleName();
     private static volatile Telemetry sTelemetryInstance = null;
     private static Queue<ITelemetryObserver> mObservers;
-    private Queue<Map<String, String>> mTelemetryRawDataMap;
+    private TelemetryBuffer mTelemetryBuffer;
+    private TelemetryDispatcher mTelemetryDispatcher;
     private TelemetryConfiguration mDefaultConfiguration;
     private TelemetryContext mTelemetryContext;
     private boolean mIsDebugging;
@@ -80,7 +83,18 @@ public class Telemetry {
             mDefaultConfiguration = builder.mDefaultConfiguration;
             mTelemetryContext = builder.mTelemetryContext;
             mIsDebugging = builder.mIsDebugging;
-            mTelemetryRawDataMap = new ConcurrentLinkedQueue<>();
+            mTelemetryBuffer = TelemetryBuffer.builder().build();
+            mTelemetryDispatcher = TelemetryDispatcher.builder()
+                    .listener(new TelemetryDispatcher.BatchListener() {
+                        @Override
+                        public void onBatch(@NonNull final List<List<Map<String, String>>> batch) {
+                            deliver(batch);
+                        }
+                    })
+                    .queueCapacity(mDefaultConfiguration.getDispatchQueueCapacity())
+                    .batchSize(mDefaultConfiguration.getDispatchBatchSize())
+                    .lingerMillis(mDefaultConfiguration.getDispatchLingerMillis())
+                    .build();
         }
     }
 
@@ -105,8 +119,8 @@ public class Telemetry {
         return sTelemetryInstance;
     }
 
-    private Queue<Map<String, String>> getRequestMap() {
-        return mTelemetryRawDataMap;
+    private TelemetryBuffer getTelemetryBuffer() {
+        return mTelemetryBuffer;
     }
 
     /**
@@ -199,9 +213,19 @@ public class Telemetry {
      * @return the event reference for future properties modification.
      */
     public static void emit(final BaseEvent event) {
-        if (getInstance().mIsTelemetryEnabled) {
+        final Telemetry telemetry = getInstance();
+
+        if (telemetry.mIsTelemetryEnabled) {
+            final String correlationId = event.getProperties().get(Key.CORRELATION_ID);
+
+            if (StringUtil.isEmpty(correlationId)) {
+                // Events are flushed per correlation id, without one the event could never be flushed
+                Logger.warn(TAG, "Dropping telemetry event without a correlation id.");
+                return;
+            }
+
             //only enqueue the telemetry properties when the telemetry is enabled.
-            getInstance().getRequestMap().add(event.getProperties());
+            telemetry.getTelemetryBuffer().add(correlationId, event.getProperties());
         }
     }
 
@@ -239,24 +263,58 @@ public class Telemetry {
             return;
         }
 
-        List<Map<String, String>> finalRawMap = new CopyOnWriteArrayList<>();
+        final List<Map<String, String>> events = mTelemetryBuffer.drain(correlationId);
+        final List<Map<String, String>> payload = new ArrayList<>(events.size() + 1);
+        payload.addAll(events);
+
+        //Add the telemetry context to the telemetry data
+        payload.add(mTelemetryContext.getProperties());
+
+        // The observers are called on the dispatch thread, not on the thread completing the request
+        mTelemetryDispatcher.dispatch(payload);
+    }
+
+    /**
+     * Return the counters of the asynchronous dispatch to the observers.
+     *
+     * @return the dispatch statistics, or null if telemetry is disabled.
+     */
+    @Nullable
+    public TelemetryDispatchStatistics getDispatchStatistics() {
+        if (!mIsTelemetryEnabled) {
+            return null;
+        }
 
-        for (Iterator<Map<String, String>> iterator = mTelemetryRawDataMap.iterator(); iterator.hasNext(); ) {
-            Map<String, String> event = iterator.next();
-            if (correlationId.equalsIgnoreCase(event.get(Key.CORRELATION_ID))) {
+        return mTelemetryDispatcher.getStatistics();
+    }
+
+    /**
+     * Hands a batch of request payloads to the observers. Runs on the dispatch thread.
+     *
+     * @param batch the raw telemetry of one or more requests.
+     */
+    private void deliver(@NonNull final List<List<Map<String, String>>> batch) {
+        if (null == mObservers) {
+            return;
+        }
+
+        final List<List<Map<String, String>>> finalBatch = new ArrayList<>(batch.size());
+
+        for (final List<Map<String, String>> payload : batch) {
+            final List<Map<String, String>> finalRawMap = new ArrayList<>(payload.size());
+
+            for (final Map<String, String> event : payload) {
                 finalRawMap.add(applyPiiOiiRule(event));
-                iterator.remove();
             }
-        }
 
-        //Add the telemetry context to the telemetry data
-        finalRawMap.add(applyPiiOiiRule(mTelemetryContext.getProperties()));
+            finalBatch.add(finalRawMap);
+        }
 
         for (ITelemetryObserver observer : mObservers) {
             if (observer instanceof ITelemetryAggregatedObserver) {
-                new TelemetryAggregationAdapter((ITelemetryAggregatedObserver) observer).process(finalRawMap);
+                new TelemetryAggregationAdapter((ITelemetryAggregatedObserver) observer).processBatch(finalBatch);
             } else if (observer instanceof ITelemetryDefaultObserver) {
-                new TelemetryDefaultAdapter((ITelemetryDefaultObserver) observer).process(finalRawMap);
+                new TelemetryDefaultAdapter((ITelemetryDefaultObserver) observer).processBatch(finalBatch);
             } else {
                 Logger.warn(TAG, "Unknown observer type: " + observer.getClass());
             }
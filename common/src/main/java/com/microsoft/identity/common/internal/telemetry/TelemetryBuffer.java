@@ -0,0 +1,249 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.telemetry;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.internal.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Builder;
+
+/**
+ * Buffers emitted telemetry events per request until the request flushes them.
+ * <p>
+ * Events are sharded by correlation id, so a flush only touches the events of its own request.
+ * Each request's bucket holds a bounded number of events; further events are dropped. Buckets of
+ * requests which never flush are reaped once they have been idle for the configured age, which is
+ * checked from the emitting threads at most once per reap interval.
+ */
+class TelemetryBuffer {
+
+    private static final String TAG = TelemetryBuffer.class.getSimpleName();
+
+    /**
+     * The default maximum number of buffered events per request.
+     */
+    static final int DEFAULT_MAX_EVENTS_PER_REQUEST = 256;
+
+    /**
+     * The default idle time after which the events of a request are considered orphaned.
+     */
+    static final long DEFAULT_MAX_BUCKET_AGE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    /**
+     * The default minimum time between two reaps.
+     */
+    static final long DEFAULT_REAP_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final int mMaxEventsPerRequest;
+    private final long mMaxBucketAgeMillis;
+    private final long mReapIntervalMillis;
+
+    private final ConcurrentHashMap<String, Bucket> mBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong mLastReapMillis = new AtomicLong();
+    private final AtomicLong mDroppedEventCount = new AtomicLong();
+    private final AtomicLong mReapedEventCount = new AtomicLong();
+
+    /**
+     * The events of a single request. Once drained or reaped, a bucket is closed and emitters
+     * which still hold it move on to a fresh one.
+     */
+    private static final class Bucket {
+        private final List<Map<String, String>> mEvents = new ArrayList<>();
+        private long mLastUpdatedMillis;
+        private boolean mClosed;
+
+        Bucket(final long nowMillis) {
+            mLastUpdatedMillis = nowMillis;
+        }
+    }
+
+    /**
+     * Constructor of TelemetryBuffer; unset values take their defaults.
+     *
+     * @param maxEventsPerRequest The maximum number of buffered events per request.
+     * @param maxBucketAgeMillis  The idle time after which a request's events are reaped.
+     * @param reapIntervalMillis  The minimum time between two reaps.
+     */
+    @Builder
+    private TelemetryBuffer(@Nullable final Integer maxEventsPerRequest,
+                            @Nullable final Long maxBucketAgeMillis,
+                            @Nullable final Long reapIntervalMillis) {
+        mMaxEventsPerRequest = null == maxEventsPerRequest ? DEFAULT_MAX_EVENTS_PER_REQUEST : maxEventsPerRequest;
+        mMaxBucketAgeMillis = null == maxBucketAgeMillis ? DEFAULT_MAX_BUCKET_AGE_MILLIS : maxBucketAgeMillis;
+        mReapIntervalMillis = null == reapIntervalMillis ? DEFAULT_REAP_INTERVAL_MILLIS : reapIntervalMillis;
+
+        if (mMaxEventsPerRequest <= 0 || mMaxBucketAgeMillis <= 0 || mReapIntervalMillis < 0) {
+            throw new IllegalArgumentException("Event count and bucket age must be positive.");
+        }
+    }
+
+    /**
+     * Buffers an event under its correlation id.
+     *
+     * @param correlationId The correlation id of the request which emitted the event.
+     * @param event         The event properties.
+     */
+    void add(@NonNull final String correlationId, @NonNull final Map<String, String> event) {
+        add(correlationId, event, System.currentTimeMillis());
+    }
+
+    void add(@NonNull final String correlationId,
+             @NonNull final Map<String, String> event,
+             final long nowMillis) {
+        final String key = toKey(correlationId);
+
+        while (true) {
+            Bucket bucket = mBuckets.get(key);
+
+            if (null == bucket) {
+                final Bucket newBucket = new Bucket(nowMillis);
+                bucket = mBuckets.putIfAbsent(key, newBucket);
+
+                if (null == bucket) {
+                    bucket = newBucket;
+                }
+            }
+
+            synchronized (bucket) {
+                if (bucket.mClosed) {
+                    // Drained or reaped under us; the next lookup finds or creates a new bucket
+                    continue;
+                }
+
+                if (bucket.mEvents.size() >= mMaxEventsPerRequest) {
+                    mDroppedEventCount.incrementAndGet();
+                } else {
+                    bucket.mEvents.add(event);
+                }
+
+                bucket.mLastUpdatedMillis = nowMillis;
+            }
+
+            break;
+        }
+
+        reapIfDue(nowMillis);
+    }
+
+    /**
+     * Removes and returns the events buffered under the supplied correlation id.
+     *
+     * @param correlationId The correlation id of the request.
+     * @return The events, in the order they were emitted; empty if there are none.
+     */
+    @NonNull
+    List<Map<String, String>> drain(@NonNull final String correlationId) {
+        final Bucket bucket = mBuckets.remove(toKey(correlationId));
+
+        if (null == bucket) {
+            return Collections.emptyList();
+        }
+
+        synchronized (bucket) {
+            bucket.mClosed = true;
+            return bucket.mEvents;
+        }
+    }
+
+    /**
+     * @return The number of events dropped because their request's bucket was full.
+     */
+    long getDroppedEventCount() {
+        return mDroppedEventCount.get();
+    }
+
+    /**
+     * @return The number of events discarded because their request never flushed them.
+     */
+    long getReapedEventCount() {
+        return mReapedEventCount.get();
+    }
+
+    /**
+     * @return The number of requests with buffered events.
+     */
+    int getBucketCount() {
+        return mBuckets.size();
+    }
+
+    private void reapIfDue(final long nowMillis) {
+        final long lastReap = mLastReapMillis.get();
+
+        if (nowMillis - lastReap < mReapIntervalMillis
+                || !mLastReapMillis.compareAndSet(lastReap, nowMillis)) {
+            return;
+        }
+
+        reap(nowMillis);
+    }
+
+    /**
+     * Discards the buckets of requests which have not emitted for longer than the maximum age.
+     *
+     * @param nowMillis The current time.
+     */
+    void reap(final long nowMillis) {
+        int reapedBuckets = 0;
+
+        for (final Map.Entry<String, Bucket> entry : mBuckets.entrySet()) {
+            final Bucket bucket = entry.getValue();
+
+            synchronized (bucket) {
+                if (nowMillis - bucket.mLastUpdatedMillis < mMaxBucketAgeMillis) {
+                    continue;
+                }
+
+                bucket.mClosed = true;
+                mReapedEventCount.addAndGet(bucket.mEvents.size());
+            }
+
+            // Only remove this very bucket, a new one may already have replaced it
+            mBuckets.remove(entry.getKey(), bucket);
+            reapedBuckets++;
+        }
+
+        if (reapedBuckets > 0) {
+            Logger.infoFormat(
+                    TAG,
+                    "Discarded telemetry of %s requests which were never flushed.",
+                    reapedBuckets
+            );
+        }
+    }
+
+    private static String toKey(@NonNull final String correlationId) {
+        // Flushes used to match correlation ids case-insensitively
+        return correlationId.toLowerCase(Locale.US);
+    }
+}
@@ -30,6 +30,21 @@ public class TelemetryConfiguration implements Serializable {
 
     private static final long serialVersionUID = 4048693049821792485L;
 
+    /**
+     * The default maximum number of request payloads waiting for dispatch.
+     */
+    public static final int DEFAULT_DISPATCH_QUEUE_CAPACITY = 256;
+
+    /**
+     * The default maximum number of request payloads per observer batch.
+     */
+    public static final int DEFAULT_DISPATCH_BATCH_SIZE = 16;
+
+    /**
+     * The default time a batch waits for further request payloads before it is dispatched.
+     */
+    public static final long DEFAULT_DISPATCH_LINGER_MILLIS = 200;
+
     /**
      * Field names used for serialization by Gson.
      */
@@ -37,6 +52,9 @@ public class TelemetryConfiguration implements Serializable {
         public static final String PII_ENABLED = "pii_enabled";
         public static final String NOTIFY_ON_FAILTURE_ONLY = "notify_on_failure_only";
         public static final String DEBUG_ENABLED = "debug_enabled";
+        public static final String DISPATCH_QUEUE_CAPACITY = "dispatch_queue_capacity";
+        public static final String DISPATCH_BATCH_SIZE = "dispatch_batch_size";
+        public static final String DISPATCH_LINGER_MILLIS = "dispatch_linger_millis";
     }
 
     @SerializedName(SerializedNames.PII_ENABLED)
@@ -48,6 +66,15 @@ public class TelemetryConfiguration implements Serializable {
     @SerializedName(SerializedNames.DEBUG_ENABLED)
     private boolean mDebugEnabled = false;
 
+    @SerializedName(SerializedNames.DISPATCH_QUEUE_CAPACITY)
+    private int mDispatchQueueCapacity = DEFAULT_DISPATCH_QUEUE_CAPACITY;
+
+    @SerializedName(SerializedNames.DISPATCH_BATCH_SIZE)
+    private int mDispatchBatchSize = DEFAULT_DISPATCH_BATCH_SIZE;
+
+    @SerializedName(SerializedNames.DISPATCH_LINGER_MILLIS)
+    private long mDispatchLingerMillis = DEFAULT_DISPATCH_LINGER_MILLIS;
+
     public TelemetryConfiguration() {
     }
 
@@ -109,4 +136,60 @@ public class TelemetryConfiguration implements Serializable {
     public void setDebugEnabled(final boolean debugEnabled) {
         mDebugEnabled = debugEnabled;
     }
+
+    /**
+     * @return the maximum number of request payloads waiting for dispatch to the observers.
+     */
+    public int getDispatchQueueCapacity() {
+        return mDispatchQueueCapacity;
+    }
+
+    /**
+     * Telemetry is handed to the observers on a background thread. If the observers fall behind by
+     * more than this number of requests, the telemetry of further requests is dropped.
+     * <p>
+     * By default {@link #DEFAULT_DISPATCH_QUEUE_CAPACITY} requests are queued.
+     *
+     * @param dispatchQueueCapacity the maximum number of queued request payloads, must be positive.
+     */
+    public void setDispatchQueueCapacity(final int dispatchQueueCapacity) {
+        mDispatchQueueCapacity = dispatchQueueCapacity;
+    }
+
+    /**
+     * @return the maximum number of request payloads handed to a batch observer at once.
+     */
+    public int getDispatchBatchSize() {
+        return mDispatchBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of request payloads per batch. Observers which do not accept batches
+     * still receive one call per request.
+     * <p>
+     * By default batches hold up to {@link #DEFAULT_DISPATCH_BATCH_SIZE} requests.
+     *
+     * @param dispatchBatchSize the maximum batch size, must be positive.
+     */
+    public void setDispatchBatchSize(final int dispatchBatchSize) {
+        mDispatchBatchSize = dispatchBatchSize;
+    }
+
+    /**
+     * @return the time in milliseconds a batch waits for further request payloads.
+     */
+    public long getDispatchLingerMillis() {
+        return mDispatchLingerMillis;
+    }
+
+    /**
+     * Sets how long a batch waits for further request payloads before it is handed to the observers.
+     * <p>
+     * By default batches wait {@link #DEFAULT_DISPATCH_LINGER_MILLIS} milliseconds.
+     *
+     * @param dispatchLingerMillis the linger time in milliseconds, 0 to dispatch immediately.
+     */
+    public void setDispatchLingerMillis(final long dispatchLingerMillis) {
+        mDispatchLingerMillis = dispatchLingerMillis;
+    }
 }
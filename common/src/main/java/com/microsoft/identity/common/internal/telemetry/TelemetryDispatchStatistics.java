@@ -0,0 +1,104 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.telemetry;
+
+/**
+ * A snapshot of the asynchronous telemetry dispatch counters, see {@link Telemetry#getDispatchStatistics()}.
+ */
+public final class TelemetryDispatchStatistics {
+
+    private final long mEnqueuedCount;
+    private final long mDeliveredCount;
+    private final long mBatchCount;
+    private final long mDroppedCount;
+    private final int mQueueDepth;
+    private final int mMaxQueueDepth;
+
+    TelemetryDispatchStatistics(final long enqueuedCount,
+                                final long deliveredCount,
+                                final long batchCount,
+                                final long droppedCount,
+                                final int queueDepth,
+                                final int maxQueueDepth) {
+        mEnqueuedCount = enqueuedCount;
+        mDeliveredCount = deliveredCount;
+        mBatchCount = batchCount;
+        mDroppedCount = droppedCount;
+        mQueueDepth = queueDepth;
+        mMaxQueueDepth = maxQueueDepth;
+    }
+
+    /**
+     * @return The number of request payloads accepted by the dispatch queue.
+     */
+    public long getEnqueuedCount() {
+        return mEnqueuedCount;
+    }
+
+    /**
+     * @return The number of request payloads handed to the observers.
+     */
+    public long getDeliveredCount() {
+        return mDeliveredCount;
+    }
+
+    /**
+     * @return The number of batches handed to the observers.
+     */
+    public long getBatchCount() {
+        return mBatchCount;
+    }
+
+    /**
+     * @return The number of request payloads dropped because the dispatch queue was full.
+     */
+    public long getDroppedCount() {
+        return mDroppedCount;
+    }
+
+    /**
+     * @return The number of request payloads currently waiting for dispatch.
+     */
+    public int getQueueDepth() {
+        return mQueueDepth;
+    }
+
+    /**
+     * @return The highest number of request payloads which were waiting for dispatch at once.
+     */
+    public int getMaxQueueDepth() {
+        return mMaxQueueDepth;
+    }
+
+    @Override
+    public String toString() {
+        return "TelemetryDispatchStatistics{"
+                + "enqueued=" + mEnqueuedCount
+                + ", delivered=" + mDeliveredCount
+                + ", batches=" + mBatchCount
+                + ", dropped=" + mDroppedCount
+                + ", queueDepth=" + mQueueDepth
+                + ", maxQueueDepth=" + mMaxQueueDepth
+                + '}';
+    }
+}
@@ -0,0 +1,299 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.telemetry;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.microsoft.identity.common.internal.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Builder;
+
+/**
+ * Hands the telemetry payloads of flushed requests to the observers off the requesting thread.
+ * <p>
+ * Payloads are queued in a bounded queue; when the queue is full the payload is dropped instead
+ * of blocking the request. A single worker collects up to the batch size of payloads, waiting at
+ * most the linger time for a batch to fill, and hands each batch to the {@link BatchListener}.
+ * The worker thread is released once the queue stays empty.
+ */
+class TelemetryDispatcher {
+
+    private static final String TAG = TelemetryDispatcher.class.getSimpleName();
+
+    private static final String THREAD_NAME = "MsalTelemetryDispatcher";
+
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 30;
+
+    /**
+     * Receives the batches of per-request payloads on the dispatch thread.
+     */
+    interface BatchListener {
+
+        /**
+         * @param batch The payloads of one or more requests, in the order they were flushed.
+         */
+        void onBatch(@NonNull List<List<Map<String, String>>> batch);
+    }
+
+    private final BlockingQueue<List<Map<String, String>>> mQueue;
+    private final int mBatchSize;
+    private final long mLingerMillis;
+    private final ExecutorService mExecutor;
+    private final BatchListener mListener;
+
+    private final AtomicBoolean mDrainScheduled = new AtomicBoolean(false);
+    private final AtomicLong mEnqueuedCount = new AtomicLong();
+    private final AtomicLong mDeliveredCount = new AtomicLong();
+    private final AtomicLong mBatchCount = new AtomicLong();
+    private final AtomicLong mDroppedCount = new AtomicLong();
+    private final AtomicInteger mMaxQueueDepth = new AtomicInteger();
+
+    /**
+     * The number of dropped payloads already reported to the log; only touched by the worker.
+     */
+    private long mReportedDropCount;
+
+    private final Runnable mDrainTask = new Runnable() {
+        @Override
+        public void run() {
+            drain();
+        }
+    };
+
+    /**
+     * Constructor of TelemetryDispatcher.
+     *
+     * @param listener      The listener receiving the batches.
+     * @param queueCapacity The maximum number of queued payloads, defaults to
+     *                      {@link TelemetryConfiguration#DEFAULT_DISPATCH_QUEUE_CAPACITY}.
+     * @param batchSize     The maximum number of payloads per batch, defaults to
+     *                      {@link TelemetryConfiguration#DEFAULT_DISPATCH_BATCH_SIZE}.
+     * @param lingerMillis  How long a batch waits to fill up, defaults to
+     *                      {@link TelemetryConfiguration#DEFAULT_DISPATCH_LINGER_MILLIS}.
+     * @param executor      The executor running the worker, defaults to a dedicated daemon thread.
+     */
+    @Builder
+    private TelemetryDispatcher(@NonNull final BatchListener listener,
+                                @Nullable final Integer queueCapacity,
+                                @Nullable final Integer batchSize,
+                                @Nullable final Long lingerMillis,
+                                @Nullable final ExecutorService executor) {
+        if (null == listener) {
+            throw new IllegalArgumentException("The batch listener cannot be null.");
+        }
+
+        final int capacity = null == queueCapacity
+                ? TelemetryConfiguration.DEFAULT_DISPATCH_QUEUE_CAPACITY
+                : queueCapacity;
+
+        mListener = listener;
+        mBatchSize = null == batchSize ? TelemetryConfiguration.DEFAULT_DISPATCH_BATCH_SIZE : batchSize;
+        mLingerMillis = null == lingerMillis ? TelemetryConfiguration.DEFAULT_DISPATCH_LINGER_MILLIS : lingerMillis;
+
+        if (capacity <= 0 || mBatchSize <= 0 || mLingerMillis < 0) {
+            throw new IllegalArgumentException("Queue capacity and batch size must be positive.");
+        }
+
+        mQueue = new ArrayBlockingQueue<>(capacity);
+        mExecutor = null == executor ? createDefaultExecutor() : executor;
+    }
+
+    /**
+     * Queues the payload of a flushed request. Never blocks; if the queue is full the payload is
+     * dropped and counted.
+     *
+     * @param payload The events of the request.
+     * @return true if the payload was queued, false if it was dropped.
+     */
+    boolean dispatch(@NonNull final List<Map<String, String>> payload) {
+        if (!mQueue.offer(payload)) {
+            mDroppedCount.incrementAndGet();
+            return false;
+        }
+
+        mEnqueuedCount.incrementAndGet();
+        updateMaxQueueDepth(mQueue.size());
+
+        if (mDrainScheduled.compareAndSet(false, true)) {
+            mExecutor.execute(mDrainTask);
+        }
+
+        return true;
+    }
+
+    /**
+     * @return A snapshot of the dispatch counters.
+     */
+    @NonNull
+    TelemetryDispatchStatistics getStatistics() {
+        return new TelemetryDispatchStatistics(
+                mEnqueuedCount.get(),
+                mDeliveredCount.get(),
+                mBatchCount.get(),
+                mDroppedCount.get(),
+                mQueue.size(),
+                mMaxQueueDepth.get()
+        );
+    }
+
+    private void drain() {
+        final String methodName = ":drain";
+
+        while (true) {
+            final List<List<Map<String, String>>> batch = new ArrayList<>(mBatchSize);
+            boolean interrupted = false;
+
+            try {
+                collectBatch(batch);
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+
+            reportDrops();
+
+            if (!batch.isEmpty()) {
+                deliver(batch);
+            }
+
+            if (interrupted) {
+                // Being shut down; whoever schedules the next drain owns the remaining payloads
+                mDrainScheduled.set(false);
+                Thread.currentThread().interrupt();
+                Logger.warn(TAG + methodName, "Telemetry dispatch interrupted.");
+                return;
+            }
+
+            if (batch.isEmpty()) {
+                mDrainScheduled.set(false);
+
+                // A payload may have been queued after the last poll but before the flag was reset
+                if (mQueue.isEmpty() || !mDrainScheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void collectBatch(@NonNull final List<List<Map<String, String>>> batch)
+            throws InterruptedException {
+        final List<Map<String, String>> first = mQueue.poll();
+
+        if (null == first) {
+            return;
+        }
+
+        batch.add(first);
+        mQueue.drainTo(batch, mBatchSize - batch.size());
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(mLingerMillis);
+
+        while (batch.size() < mBatchSize) {
+            final long remainingNanos = deadline - System.nanoTime();
+
+            if (remainingNanos <= 0) {
+                break;
+            }
+
+            final List<Map<String, String>> next = mQueue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+
+            if (null == next) {
+                break;
+            }
+
+            batch.add(next);
+            mQueue.drainTo(batch, mBatchSize - batch.size());
+        }
+    }
+
+    private void deliver(@NonNull final List<List<Map<String, String>>> batch) {
+        final String methodName = ":deliver";
+
+        try {
+            mListener.onBatch(batch);
+        } catch (final RuntimeException e) {
+            // An observer must not take the dispatch thread down with it
+            Logger.error(TAG + methodName, "Telemetry observer failed.", e);
+        }
+
+        mDeliveredCount.addAndGet(batch.size());
+        mBatchCount.incrementAndGet();
+    }
+
+    private void reportDrops() {
+        final long dropped = mDroppedCount.get();
+
+        if (dropped > mReportedDropCount) {
+            Logger.warn(
+                    TAG,
+                    "Telemetry dispatch queue full, dropped "
+                            + (dropped - mReportedDropCount)
+                            + " request payloads."
+            );
+            mReportedDropCount = dropped;
+        }
+    }
+
+    private void updateMaxQueueDepth(final int depth) {
+        int max = mMaxQueueDepth.get();
+
+        while (depth > max && !mMaxQueueDepth.compareAndSet(max, depth)) {
+            max = mMaxQueueDepth.get();
+        }
+    }
+
+    private static ExecutorService createDefaultExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1,
+                1,
+                IDLE_THREAD_KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(@NonNull final Runnable runnable) {
+                        final Thread thread = new Thread(runnable, THREAD_NAME);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                }
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
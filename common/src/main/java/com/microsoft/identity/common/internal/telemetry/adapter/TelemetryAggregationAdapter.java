@@ -24,10 +24,12 @@ package com.microsoft.identity.common.internal.telemetry.adapter;
 
 import androidx.annotation.NonNull;
 
+import com.microsoft.identity.common.internal.telemetry.observers.ITelemetryAggregatedBatchObserver;
 import com.microsoft.identity.common.internal.telemetry.observers.ITelemetryAggregatedObserver;
 import com.microsoft.identity.common.internal.telemetry.rules.TelemetryAggregationRules;
 import com.microsoft.identity.common.internal.util.StringUtil;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,6 +50,33 @@ public final class TelemetryAggregationAdapter implements ITelemetryAdapter<List
     }
 
     public void process(@NonNull final List<Map<String, String>> rawData) {
+        mObserver.onReceived(aggregate(rawData));
+    }
+
+    /**
+     * Aggregates the raw data of each request. A {@link ITelemetryAggregatedBatchObserver} receives
+     * all requests in one call, other observers receive one call per request.
+     *
+     * @param rawDataBatch the raw data of one or more requests.
+     */
+    public void processBatch(@NonNull final List<List<Map<String, String>>> rawDataBatch) {
+        if (mObserver instanceof ITelemetryAggregatedBatchObserver) {
+            final List<Map<String, String>> aggregatedBatch = new ArrayList<>(rawDataBatch.size());
+
+            for (final List<Map<String, String>> rawData : rawDataBatch) {
+                aggregatedBatch.add(aggregate(rawData));
+            }
+
+            ((ITelemetryAggregatedBatchObserver) mObserver).onBatchReceived(aggregatedBatch);
+            return;
+        }
+
+        for (final List<Map<String, String>> rawData : rawDataBatch) {
+            process(rawData);
+        }
+    }
+
+    private Map<String, String> aggregate(@NonNull final List<Map<String, String>> rawData) {
         final Map<String, String> aggregatedData = new HashMap<>();
         final Map<String, String> responseTimeMap = new HashMap<>();
 
@@ -86,7 +115,7 @@ public final class TelemetryAggregationAdapter implements ITelemetryAdapter<List
 
         calculateEventResponseTime(responseTimeMap, aggregatedData);
 
-        mObserver.onReceived(aggregatedData);
+        return aggregatedData;
     }
 
     private Map<String, String> applyAggregationRule(@NonNull final Map<String, String> properties) {
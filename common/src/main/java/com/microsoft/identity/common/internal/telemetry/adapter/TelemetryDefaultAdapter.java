@@ -24,6 +24,7 @@ package com.microsoft.identity.common.internal.telemetry.adapter;
 
 import androidx.annotation.NonNull;
 
+import com.microsoft.identity.common.internal.telemetry.observers.ITelemetryDefaultBatchObserver;
 import com.microsoft.identity.common.internal.telemetry.observers.ITelemetryDefaultObserver;
 
 import java.util.List;
@@ -47,4 +48,25 @@ public final class TelemetryDefaultAdapter implements ITelemetryAdapter<List<Map
 
         mObserver.onReceived(rawData);
     }
+
+    /**
+     * Hands the raw data of several requests to the observer. A {@link ITelemetryDefaultBatchObserver}
+     * receives all requests in one call, other observers receive one call per request.
+     *
+     * @param rawDataBatch the raw data of one or more requests.
+     */
+    public void processBatch(@NonNull final List<List<Map<String, String>>> rawDataBatch) {
+        if (null == mObserver) {
+            return;
+        }
+
+        if (mObserver instanceof ITelemetryDefaultBatchObserver) {
+            ((ITelemetryDefaultBatchObserver) mObserver).onBatchReceived(rawDataBatch);
+            return;
+        }
+
+        for (final List<Map<String, String>> rawData : rawDataBatch) {
+            mObserver.onReceived(rawData);
+        }
+    }
 }
@@ -34,6 +34,8 @@ public class BrokerProtocolVersionUtil {
 
     public static final String BROKER_PROTOCOL_COMPRESSION_CHANGES_MINIMUM_VERSION = "5.0";
 
+    public static final String BROKER_PROTOCOL_BINARY_PAYLOAD_MINIMUM_VERSION = "6.0";
+
     public static boolean canCompressBrokerPayloads(@Nullable String negotiatedBrokerProtocol) {
         if (TextUtils.isEmpty(negotiatedBrokerProtocol)) {
             return false;
@@ -44,4 +46,18 @@ public class BrokerProtocolVersionUtil {
                 BROKER_PROTOCOL_COMPRESSION_CHANGES_MINIMUM_VERSION) >= 0;
 
     }
+
+    /**
+     * Determines whether broker requests and results may be sent in the binary payload format
+     * (see {@link com.microsoft.identity.common.internal.broker.BrokerPayloadBinaryCodec}).
+     */
+    public static boolean canUseBinaryBrokerPayloads(@Nullable String negotiatedBrokerProtocol) {
+        if (TextUtils.isEmpty(negotiatedBrokerProtocol)) {
+            return false;
+        }
+
+        return StringUtil.compareSemanticVersion(
+                negotiatedBrokerProtocol,
+                BROKER_PROTOCOL_BINARY_PAYLOAD_MINIMUM_VERSION) >= 0;
+    }
 }
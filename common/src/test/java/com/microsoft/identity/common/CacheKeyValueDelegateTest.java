@@ -301,6 +301,15 @@ public class CacheKeyValueDelegateTest {
         assertEquals(authScheme, record.getAccessTokenType());
     }
 
+    @Test
+    public void testAccessTokenTypePropertyRenameRetainedInAdditionalFields() {
+        final String jsonStr = "{\"access_token_type\": \"Bearer\", \"foo\": \"bar\"}";
+        final AccessTokenRecord record = mDelegate.fromCacheValue(jsonStr, AccessTokenRecord.class);
+        assertEquals(2, record.getAdditionalFields().size());
+        assertEquals("Bearer", record.getAdditionalFields().get("access_token_type").getAsString());
+        assertEquals("bar", record.getAdditionalFields().get("foo").getAsString());
+    }
+
     @Test
     public void testAccessTokenTypeProperty() {
         // Test to verify that "token_type" is correctly serialized into token_type property
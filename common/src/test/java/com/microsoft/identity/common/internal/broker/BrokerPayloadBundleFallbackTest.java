@@ -0,0 +1,81 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.broker;
+
+import android.os.Bundle;
+
+import com.google.gson.Gson;
+import com.microsoft.identity.common.adal.internal.AuthenticationConstants;
+import com.microsoft.identity.common.internal.request.MsalBrokerRequestAdapter;
+import com.microsoft.identity.common.internal.result.MsalBrokerResultAdapter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A bundle whose binary payload key is present but null, or undecodable, falls back to the JSON
+ * encodings.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class BrokerPayloadBundleFallbackTest {
+
+    @Test
+    public void nullBinaryResultFallsBackToJson() {
+        final Bundle bundle = new Bundle();
+        bundle.putByteArray(AuthenticationConstants.Broker.BROKER_RESULT_V2_BINARY, null);
+        bundle.putString(
+                AuthenticationConstants.Broker.BROKER_RESULT_V2,
+                new Gson().toJson(new BrokerResult.Builder().success(true).build(), BrokerResult.class)
+        );
+
+        assertTrue(new MsalBrokerResultAdapter().brokerResultFromBundle(bundle).isSuccess());
+    }
+
+    @Test
+    public void undecodableBinaryResultWithoutFallbackIsNull() {
+        final Bundle bundle = new Bundle();
+        bundle.putByteArray(AuthenticationConstants.Broker.BROKER_RESULT_V2_BINARY, new byte[]{1});
+
+        assertNull(new MsalBrokerResultAdapter().brokerResultFromBundle(bundle));
+    }
+
+    @Test
+    public void nullBinaryRequestFallsBackToJson() {
+        final Bundle bundle = new Bundle();
+        bundle.putByteArray(AuthenticationConstants.Broker.BROKER_REQUEST_V2_BINARY, null);
+        bundle.putString(
+                AuthenticationConstants.Broker.BROKER_REQUEST_V2,
+                new Gson().toJson(new BrokerRequest.Builder().clientId("client-id").build(), BrokerRequest.class)
+        );
+
+        assertEquals(
+                "client-id",
+                new MsalBrokerRequestAdapter().brokerRequestFromBundle(bundle).getClientId()
+        );
+    }
+}
@@ -0,0 +1,190 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.broker;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.Uri;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class BrokerProtocolVersionCacheTest {
+
+    private static final String BROKER_PACKAGE_NAME = "com.azure.authenticator";
+    private static final String SIGNATURE_HASH = "signature-hash";
+
+    @Test
+    public void keyIncludesTheRequiredProtocolVersion() {
+        Assert.assertNotEquals(
+                BrokerProtocolVersionCache.getKey(BROKER_PACKAGE_NAME, SIGNATURE_HASH, "3.0"),
+                BrokerProtocolVersionCache.getKey(BROKER_PACKAGE_NAME, SIGNATURE_HASH, "4.0")
+        );
+        Assert.assertNotEquals(
+                BrokerProtocolVersionCache.getKey(BROKER_PACKAGE_NAME, SIGNATURE_HASH, "3.0"),
+                BrokerProtocolVersionCache.getKey(BROKER_PACKAGE_NAME, "other-signature-hash", "3.0")
+        );
+    }
+
+    @Test
+    public void negotiationIsCachedUntilInvalidated() {
+        final BrokerProtocolVersionCache cache = new BrokerProtocolVersionCache();
+        final BrokerBaseStrategy strategy = Mockito.mock(BrokerBaseStrategy.class);
+        final String key = BrokerProtocolVersionCache.getKey(BROKER_PACKAGE_NAME, SIGNATURE_HASH, "3.0");
+
+        cache.put(ApplicationProvider.getApplicationContext(), key, strategy, "3.0");
+
+        final BrokerProtocolVersionCache.Entry entry = cache.get(key);
+        Assert.assertNotNull(entry);
+        Assert.assertSame(strategy, entry.getStrategy());
+        Assert.assertEquals("3.0", entry.getNegotiatedBrokerProtocolVersion());
+
+        cache.invalidate(key);
+        Assert.assertNull(cache.get(key));
+    }
+
+    @Test
+    public void packageAddedClearsTheCache() {
+        assertPackageChangeClearsTheCache(Intent.ACTION_PACKAGE_ADDED);
+    }
+
+    @Test
+    public void packageReplacedClearsTheCache() {
+        assertPackageChangeClearsTheCache(Intent.ACTION_PACKAGE_REPLACED);
+    }
+
+    @Test
+    public void packageRemovedClearsTheCache() {
+        assertPackageChangeClearsTheCache(Intent.ACTION_PACKAGE_REMOVED);
+    }
+
+    @Test
+    public void nothingIsCachedWithoutThePackageReceiver() {
+        final Context context = Mockito.mock(Context.class);
+        Mockito.when(context.getApplicationContext()).thenReturn(context);
+        Mockito.when(
+                context.registerReceiver(Mockito.any(BroadcastReceiver.class), Mockito.any(IntentFilter.class))
+        ).thenThrow(new SecurityException("Not allowed"));
+        final BrokerProtocolVersionCache cache = new BrokerProtocolVersionCache();
+        final String key = BrokerProtocolVersionCache.getKey(BROKER_PACKAGE_NAME, SIGNATURE_HASH, "3.0");
+
+        cache.put(context, key, Mockito.mock(BrokerBaseStrategy.class), "3.0");
+
+        Assert.assertNull(cache.get(key));
+    }
+
+    @Test
+    public void activeBrokerIsLookedUpOnce() {
+        final Context context = ApplicationProvider.getApplicationContext();
+        final CountingBrokerProtocolVersionCache cache = new CountingBrokerProtocolVersionCache();
+
+        final BrokerProtocolVersionCache.ActiveBroker activeBroker = cache.getActiveBroker(context);
+
+        Assert.assertNotNull(activeBroker);
+        Assert.assertEquals(BROKER_PACKAGE_NAME, activeBroker.getPackageName());
+        Assert.assertEquals(SIGNATURE_HASH, activeBroker.getSignatureHash());
+        Assert.assertSame(activeBroker, cache.getActiveBroker(context));
+        Assert.assertEquals(1, cache.mLookUpCount);
+    }
+
+    @Test
+    public void invalidatedNegotiationDropsTheActiveBroker() {
+        final Context context = ApplicationProvider.getApplicationContext();
+        final CountingBrokerProtocolVersionCache cache = new CountingBrokerProtocolVersionCache();
+        cache.getActiveBroker(context);
+
+        cache.invalidate(BrokerProtocolVersionCache.getKey(BROKER_PACKAGE_NAME, SIGNATURE_HASH, "3.0"));
+        cache.getActiveBroker(context);
+
+        Assert.assertEquals(2, cache.mLookUpCount);
+    }
+
+    @Test
+    public void missingActiveBrokerIsNotCached() {
+        final Context context = ApplicationProvider.getApplicationContext();
+        final CountingBrokerProtocolVersionCache cache = new CountingBrokerProtocolVersionCache();
+        cache.mActiveBroker = null;
+
+        Assert.assertNull(cache.getActiveBroker(context));
+        Assert.assertNull(cache.getActiveBroker(context));
+        Assert.assertEquals(2, cache.mLookUpCount);
+    }
+
+    @Test
+    public void activeBrokerIsNotCachedWithoutThePackageReceiver() {
+        final Context context = Mockito.mock(Context.class);
+        Mockito.when(context.getApplicationContext()).thenReturn(context);
+        Mockito.when(
+                context.registerReceiver(Mockito.any(BroadcastReceiver.class), Mockito.any(IntentFilter.class))
+        ).thenThrow(new SecurityException("Not allowed"));
+        final CountingBrokerProtocolVersionCache cache = new CountingBrokerProtocolVersionCache();
+
+        Assert.assertNotNull(cache.getActiveBroker(context));
+        Assert.assertNotNull(cache.getActiveBroker(context));
+        Assert.assertEquals(2, cache.mLookUpCount);
+    }
+
+    private static void assertPackageChangeClearsTheCache(final String action) {
+        final Context context = ApplicationProvider.getApplicationContext();
+        final CountingBrokerProtocolVersionCache cache = new CountingBrokerProtocolVersionCache();
+        final String key = BrokerProtocolVersionCache.getKey(BROKER_PACKAGE_NAME, SIGNATURE_HASH, "3.0");
+        cache.put(context, key, Mockito.mock(BrokerBaseStrategy.class), "3.0");
+        cache.getActiveBroker(context);
+        Assert.assertNotNull(cache.get(key));
+
+        context.sendBroadcast(new Intent(action, Uri.parse("package:" + BROKER_PACKAGE_NAME)));
+        shadowOf(Looper.getMainLooper()).idle();
+
+        Assert.assertNull(cache.get(key));
+        cache.getActiveBroker(context);
+        Assert.assertEquals(2, cache.mLookUpCount);
+    }
+
+    /**
+     * Stands in for the AccountManager and PackageManager lookup of the active broker.
+     */
+    private static class CountingBrokerProtocolVersionCache extends BrokerProtocolVersionCache {
+
+        private BrokerProtocolVersionCache.ActiveBroker mActiveBroker =
+                new BrokerProtocolVersionCache.ActiveBroker(BROKER_PACKAGE_NAME, SIGNATURE_HASH);
+        private int mLookUpCount;
+
+        @Override
+        BrokerProtocolVersionCache.ActiveBroker lookUpActiveBroker(@NonNull final Context context) {
+            mLookUpCount++;
+            return mActiveBroker;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.broker;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.microsoft.identity.client.IMicrosoftAuthService;
+import com.microsoft.identity.common.exception.BaseException;
+import com.microsoft.identity.common.exception.BrokerCommunicationException;
+import com.microsoft.identity.common.exception.ClientException;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(RobolectricTestRunner.class)
+public class MicrosoftAuthServiceConnectionManagerTest {
+
+    private static final long LONG_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final List<MicrosoftAuthClient> mClients = new ArrayList<>();
+    private final List<MicrosoftAuthServiceConnection.ConnectionListener> mListeners = new ArrayList<>();
+
+    private Context mContext;
+    private MicrosoftAuthServiceConnectionManager mManager;
+    private volatile boolean mServiceConnects = true;
+
+    @Before
+    public void setUp() {
+        mContext = Mockito.mock(Context.class);
+        Mockito.when(mContext.getApplicationContext()).thenReturn(mContext);
+        mManager = new MicrosoftAuthServiceConnectionManager(
+                new MicrosoftAuthServiceConnectionManager.ClientFactory() {
+                    @NonNull
+                    @Override
+                    public MicrosoftAuthClient create(@NonNull final Context context) {
+                        return newClient();
+                    }
+                }
+        );
+        mManager.setIdleTimeoutMillis(LONG_IDLE_TIMEOUT_MILLIS);
+    }
+
+    @Test
+    public void releasedBindingIsReused() throws BaseException {
+        final MicrosoftAuthServiceConnectionManager.Connection first = mManager.acquire(mContext);
+        Assert.assertNotNull(mManager.getService(first));
+        mManager.release(first);
+
+        final MicrosoftAuthServiceConnectionManager.Connection second = mManager.acquire(mContext);
+        mManager.release(second);
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, mManager.getBindCount());
+        Assert.assertEquals(1, mManager.getReuseCount());
+        Mockito.verify(mClients.get(0), Mockito.never()).disconnect();
+    }
+
+    @Test
+    public void prewarmedBindingIsReused() throws BaseException {
+        mManager.prewarm(mContext);
+        Assert.assertEquals(1, mManager.getBindCount());
+
+        final MicrosoftAuthServiceConnectionManager.Connection connection = mManager.acquire(mContext);
+        Assert.assertNotNull(mManager.getService(connection));
+        mManager.release(connection);
+
+        Assert.assertEquals(1, mClients.size());
+        Assert.assertEquals(1, mManager.getBindCount());
+        Assert.assertEquals(1, mManager.getReuseCount());
+        Mockito.verify(mClients.get(0), Mockito.never()).disconnect();
+    }
+
+    @Test
+    public void unusedPrewarmedBindingIsUnbound() {
+        mManager.setIdleTimeoutMillis(10);
+
+        mManager.prewarm(mContext);
+
+        Mockito.verify(mClients.get(0), Mockito.timeout(5000)).disconnect();
+    }
+
+    @Test
+    public void prewarmBindFailureIsNotThrown() throws BaseException {
+        final MicrosoftAuthClient unavailableClient = Mockito.mock(MicrosoftAuthClient.class);
+        Mockito.when(
+                unavailableClient.connect(Mockito.any(MicrosoftAuthServiceConnection.ConnectionListener.class))
+        ).thenThrow(new ClientException("Service is unavailable"));
+        final MicrosoftAuthServiceConnectionManager manager = new MicrosoftAuthServiceConnectionManager(
+                new MicrosoftAuthServiceConnectionManager.ClientFactory() {
+                    @NonNull
+                    @Override
+                    public MicrosoftAuthClient create(@NonNull final Context context) {
+                        return unavailableClient;
+                    }
+                }
+        );
+
+        manager.prewarm(mContext);
+
+        Assert.assertEquals(0, manager.getBindCount());
+        Assert.assertEquals(0, manager.getReuseCount());
+    }
+
+    @Test
+    public void idleBindingIsUnbound() throws BaseException {
+        mManager.setIdleTimeoutMillis(10);
+
+        mManager.release(mManager.acquire(mContext));
+
+        Mockito.verify(mClients.get(0), Mockito.timeout(5000)).disconnect();
+    }
+
+    @Test
+    public void bindingIsKeptWhileHeld() throws Exception {
+        mManager.setIdleTimeoutMillis(10);
+        final MicrosoftAuthServiceConnectionManager.Connection held = mManager.acquire(mContext);
+        mManager.release(mManager.acquire(mContext));
+
+        Thread.sleep(100);
+
+        Mockito.verify(mClients.get(0), Mockito.never()).disconnect();
+        mManager.release(held);
+        Mockito.verify(mClients.get(0), Mockito.timeout(5000)).disconnect();
+    }
+
+    @Test
+    public void invalidatedBindingIsUnboundOnReleaseAndRebound() throws BaseException {
+        final MicrosoftAuthServiceConnectionManager.Connection first = mManager.acquire(mContext);
+        mManager.invalidate(first);
+        Mockito.verify(mClients.get(0), Mockito.never()).disconnect();
+
+        mManager.release(first);
+        Mockito.verify(mClients.get(0)).disconnect();
+
+        final MicrosoftAuthServiceConnectionManager.Connection second = mManager.acquire(mContext);
+        mManager.release(second);
+
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(2, mManager.getBindCount());
+    }
+
+    @Test
+    public void disconnectedServiceIsRebound() throws BaseException {
+        mManager.release(mManager.acquire(mContext));
+
+        // The broker process went away
+        mListeners.get(0).onDisconnected();
+        Mockito.verify(mClients.get(0)).disconnect();
+
+        mManager.release(mManager.acquire(mContext));
+        Assert.assertEquals(2, mManager.getBindCount());
+    }
+
+    @Test
+    public void connectTimeoutUnbinds() throws BaseException {
+        mServiceConnects = false;
+        mManager.setConnectTimeoutMillis(10);
+
+        try {
+            mManager.acquire(mContext);
+            Assert.fail("Expected the connect timeout to be thrown");
+        } catch (final BrokerCommunicationException e) {
+            // Expected
+        }
+
+        Mockito.verify(mClients.get(0)).disconnect();
+
+        mServiceConnects = true;
+        mManager.release(mManager.acquire(mContext));
+        Assert.assertEquals(2, mManager.getBindCount());
+    }
+
+    @Test
+    public void bindFailureIsThrownAndNotKept() throws BaseException {
+        final MicrosoftAuthClient unavailableClient = Mockito.mock(MicrosoftAuthClient.class);
+        Mockito.when(
+                unavailableClient.connect(Mockito.any(MicrosoftAuthServiceConnection.ConnectionListener.class))
+        ).thenThrow(new ClientException("Service is unavailable"));
+        final MicrosoftAuthServiceConnectionManager manager = new MicrosoftAuthServiceConnectionManager(
+                new MicrosoftAuthServiceConnectionManager.ClientFactory() {
+                    @NonNull
+                    @Override
+                    public MicrosoftAuthClient create(@NonNull final Context context) {
+                        return unavailableClient;
+                    }
+                }
+        );
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                manager.acquire(mContext);
+                Assert.fail("Expected the bind failure to be thrown");
+            } catch (final ClientException e) {
+                Assert.assertEquals("Service is unavailable", e.getMessage());
+            }
+        }
+
+        Assert.assertEquals(0, manager.getReuseCount());
+    }
+
+    @Test
+    public void concurrentAcquireAndReleaseShareOneBinding() throws Exception {
+        final int threadCount = 8;
+        final int iterations = 200;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        final List<Future<Void>> results = new ArrayList<>();
+
+        for (int i = 0; i < threadCount; i++) {
+            results.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    start.await();
+                    for (int j = 0; j < iterations; j++) {
+                        final MicrosoftAuthServiceConnectionManager.Connection connection =
+                                mManager.acquire(mContext);
+                        try {
+                            Assert.assertNotNull(mManager.getService(connection));
+                        } finally {
+                            mManager.release(connection);
+                        }
+                    }
+                    return null;
+                }
+            }));
+        }
+
+        start.countDown();
+        for (final Future<Void> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Assert.assertEquals(1, mManager.getBindCount());
+        Assert.assertEquals(threadCount * iterations - 1, mManager.getReuseCount());
+        Mockito.verify(mClients.get(0), Mockito.never()).disconnect();
+    }
+
+    private synchronized MicrosoftAuthClient newClient() {
+        final MicrosoftAuthClient client = Mockito.mock(MicrosoftAuthClient.class);
+
+        try {
+            Mockito.when(
+                    client.connect(Mockito.any(MicrosoftAuthServiceConnection.ConnectionListener.class))
+            ).thenAnswer(new Answer<MicrosoftAuthServiceFuture>() {
+                @Override
+                public MicrosoftAuthServiceFuture answer(final InvocationOnMock invocation) {
+                    final MicrosoftAuthServiceConnection.ConnectionListener listener =
+                            (MicrosoftAuthServiceConnection.ConnectionListener) invocation.getArguments()[0];
+                    mListeners.add(listener);
+
+                    final MicrosoftAuthServiceFuture future = new MicrosoftAuthServiceFuture();
+                    if (mServiceConnects) {
+                        listener.onConnected();
+                        future.setMicrosoftAuthService(Mockito.mock(IMicrosoftAuthService.class));
+                    }
+                    return future;
+                }
+            });
+        } catch (final ClientException e) {
+            throw new AssertionError(e);
+        }
+
+        mClients.add(client);
+        return client;
+    }
+}
@@ -0,0 +1,145 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.internal.cache;
+
+import com.microsoft.identity.common.internal.dto.AccessTokenRecord;
+import com.microsoft.identity.common.internal.dto.AccountRecord;
+import com.microsoft.identity.common.internal.dto.CredentialType;
+import com.microsoft.identity.common.internal.dto.IdTokenRecord;
+import com.microsoft.identity.common.internal.dto.RefreshTokenRecord;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CacheKeyTest {
+
+    private static final String HOME_ACCOUNT_ID = "29f3807a-4fb0-42f2-a44a-236aa0cb3f97.0287f963-2d72-4363-9e3a-5705c5b0f031";
+    private static final String ENVIRONMENT = "login.microsoftonline.com";
+    private static final String CLIENT_ID = "0287f963-2d72-4363-9e3a-5705c5b0f031";
+    private static final String TARGET = "user.read user.write https://graph.windows.net";
+    private static final String REALM = "3c62ac97-29eb-4aed-a3c8-add0298508d";
+
+    private ICacheKeyValueDelegate mDelegate;
+
+    @Before
+    public void setUp() {
+        mDelegate = new CacheKeyValueDelegate();
+        CacheKey.clearMemoizedKeys();
+    }
+
+    @Test
+    public void parseAccessTokenKey() {
+        final AccessTokenRecord accessToken = new AccessTokenRecord();
+        accessToken.setHomeAccountId(HOME_ACCOUNT_ID);
+        accessToken.setEnvironment(ENVIRONMENT);
+        accessToken.setCredentialType(CredentialType.AccessToken.name());
+        accessToken.setClientId(CLIENT_ID);
+        accessToken.setRealm(REALM);
+        accessToken.setTarget(TARGET);
+
+        final CacheKey key = CacheKey.parse(mDelegate.generateCacheKey(accessToken));
+
+        assertTrue(key.isCredential());
+        assertFalse(key.isAccount());
+        assertEquals(CredentialType.AccessToken, key.getCredentialType());
+        assertEquals(HOME_ACCOUNT_ID + "-" + ENVIRONMENT, key.getHomeAccountIdAndEnvironment());
+        assertEquals(CLIENT_ID + "-" + REALM + "-" + TARGET, key.getClientIdRealmAndTarget());
+    }
+
+    @Test
+    public void parseFamilyRefreshTokenKey() {
+        final RefreshTokenRecord refreshToken = new RefreshTokenRecord();
+        refreshToken.setHomeAccountId(HOME_ACCOUNT_ID);
+        refreshToken.setEnvironment(ENVIRONMENT);
+        refreshToken.setCredentialType(CredentialType.RefreshToken.name());
+        refreshToken.setClientId(CLIENT_ID);
+        refreshToken.setFamilyId("1");
+        refreshToken.setTarget(TARGET);
+
+        final CacheKey key = CacheKey.parse(mDelegate.generateCacheKey(refreshToken));
+
+        assertEquals(CredentialType.RefreshToken, key.getCredentialType());
+        assertEquals(HOME_ACCOUNT_ID + "-" + ENVIRONMENT, key.getHomeAccountIdAndEnvironment());
+        assertEquals("1--" + TARGET, key.getClientIdRealmAndTarget());
+    }
+
+    @Test
+    public void parseIdTokenKey() {
+        final IdTokenRecord idToken = new IdTokenRecord();
+        idToken.setHomeAccountId(HOME_ACCOUNT_ID);
+        idToken.setEnvironment(ENVIRONMENT);
+        idToken.setCredentialType(CredentialType.V1IdToken.name());
+        idToken.setClientId(CLIENT_ID);
+        idToken.setRealm(REALM);
+
+        final CacheKey key = CacheKey.parse(mDelegate.generateCacheKey(idToken));
+
+        assertEquals(CredentialType.V1IdToken, key.getCredentialType());
+        assertEquals(CLIENT_ID + "-" + REALM + "-", key.getClientIdRealmAndTarget());
+    }
+
+    @Test
+    public void parseAccountKey() {
+        final AccountRecord account = new AccountRecord();
+        account.setHomeAccountId(HOME_ACCOUNT_ID);
+        account.setEnvironment(ENVIRONMENT);
+        account.setRealm(REALM);
+
+        final CacheKey key = CacheKey.parse(mDelegate.generateCacheKey(account));
+
+        assertTrue(key.isAccount());
+        assertFalse(key.isCredential());
+        assertNull(key.getCredentialType());
+        assertNull(key.getHomeAccountIdAndEnvironment());
+        assertNull(key.getClientIdRealmAndTarget());
+    }
+
+    @Test
+    public void unsupportedCredentialTypeIsNotACredential() {
+        assertTrue(CacheKey.parse("home-env-password-client-realm-target").isAccount());
+    }
+
+    @Test
+    public void typeMustBeAWholeSegment() {
+        assertTrue(CacheKey.parse("home-env-xaccesstoken-client-realm-target").isAccount());
+        assertTrue(CacheKey.parse("idtoken-env-realm").isAccount());
+        assertTrue(CacheKey.parse("home-env-idtoken").isAccount());
+    }
+
+    @Test
+    public void parsedKeysAreMemoized() {
+        final String cacheKey = "home-env-accesstoken-client-realm-target";
+        assertSame(CacheKey.parse(cacheKey), CacheKey.parse(cacheKey));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseBlankKey() {
+        CacheKey.parse(" ");
+    }
+}
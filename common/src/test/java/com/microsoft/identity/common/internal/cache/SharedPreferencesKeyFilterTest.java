@@ -0,0 +1,350 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.cache;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.microsoft.identity.common.adal.internal.cache.IStorageHelper;
+import com.microsoft.identity.common.internal.dto.AccessTokenRecord;
+import com.microsoft.identity.common.internal.dto.AccountRecord;
+import com.microsoft.identity.common.internal.dto.Credential;
+import com.microsoft.identity.common.internal.dto.CredentialType;
+import com.microsoft.identity.common.internal.dto.IdTokenRecord;
+import com.microsoft.identity.common.internal.dto.RefreshTokenRecord;
+import com.microsoft.identity.common.internal.util.Predicate;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks that filtering by cache key before decrypting gives the same results as deserializing
+ * and filtering every entry.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SharedPreferencesKeyFilterTest {
+
+    private static final String SHARED_PREFERENCES_NAME = "com.microsoft.identity.test.key-filter";
+
+    // Segments which themselves contain the key separator
+    private static final String HOME_ACCOUNT_ID =
+            "29f3807a-4fb0-42f2-a44a-236aab24b77c.0287f963-2d72-4363-9e3a-5705c5b0f031";
+    private static final String OTHER_HOME_ACCOUNT_ID =
+            "c3e1a6f0-9b1e-4f39-8a3c-2f8a1c7e9d10.0287f963-2d72-4363-9e3a-5705c5b0f031";
+    private static final String ENVIRONMENT = "login.microsoftonline.com";
+    private static final String OTHER_ENVIRONMENT = "login.windows.net";
+    private static final String REALM = "0287f963-2d72-4363-9e3a-5705c5b0f031";
+    private static final String OTHER_REALM = "f645ad92-e38d-4d1a-b510-d1b09a74a8ca";
+    private static final String CLIENT_ID = "4b0db8c2-9f26-4417-8bde-3f0e3656f8e0";
+    private static final String OTHER_CLIENT_ID = "other-client";
+    private static final String TARGET = "user.read openid profile";
+
+    private final CacheKeyValueDelegate mCacheValueDelegate = new CacheKeyValueDelegate();
+    private Context mContext;
+    private SharedPreferencesFileManager mFileManager;
+    private SharedPreferencesAccountCredentialCache mCache;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mFileManager = new SharedPreferencesFileManager(mContext, SHARED_PREFERENCES_NAME);
+        mCache = new SharedPreferencesAccountCredentialCache(mCacheValueDelegate, mFileManager);
+
+        mCache.saveAccount(account(HOME_ACCOUNT_ID, ENVIRONMENT, REALM));
+        mCache.saveAccount(account(HOME_ACCOUNT_ID, ENVIRONMENT, OTHER_REALM));
+        mCache.saveAccount(account(HOME_ACCOUNT_ID, OTHER_ENVIRONMENT, REALM));
+        mCache.saveAccount(account(OTHER_HOME_ACCOUNT_ID, ENVIRONMENT, REALM));
+
+        mCache.saveCredential(accessToken(HOME_ACCOUNT_ID, CLIENT_ID, REALM, null));
+        mCache.saveCredential(accessToken(HOME_ACCOUNT_ID, CLIENT_ID, OTHER_REALM, null));
+        mCache.saveCredential(accessToken(HOME_ACCOUNT_ID, OTHER_CLIENT_ID, REALM, null));
+        mCache.saveCredential(accessToken(HOME_ACCOUNT_ID, CLIENT_ID, REALM, "pop"));
+        mCache.saveCredential(accessToken(OTHER_HOME_ACCOUNT_ID, CLIENT_ID, REALM, null));
+        mCache.saveCredential(refreshToken(HOME_ACCOUNT_ID, CLIENT_ID, null));
+        mCache.saveCredential(refreshToken(HOME_ACCOUNT_ID, OTHER_CLIENT_ID, "1"));
+        mCache.saveCredential(idToken(HOME_ACCOUNT_ID, CLIENT_ID, REALM));
+        mCache.saveCredential(idToken(HOME_ACCOUNT_ID, CLIENT_ID, OTHER_REALM));
+
+        // Not an Account or Credential, must be skipped by every filter
+        mFileManager.putString("not-a-cache-key", "value");
+    }
+
+    @After
+    public void tearDown() {
+        mFileManager.clear();
+    }
+
+    @Test
+    public void fileManagerOnlyDecryptsAcceptedKeys() throws Exception {
+        final IStorageHelper storageHelper = Mockito.mock(IStorageHelper.class);
+        Mockito.when(storageHelper.encrypt(Mockito.anyString())).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(final InvocationOnMock invocation) {
+                return "encrypted:" + invocation.getArguments()[0];
+            }
+        });
+        Mockito.when(storageHelper.decrypt(Mockito.anyString())).thenAnswer(new Answer<String>() {
+            @Override
+            public String answer(final InvocationOnMock invocation) {
+                return ((String) invocation.getArguments()[0]).substring("encrypted:".length());
+            }
+        });
+        final SharedPreferencesFileManager fileManager = new SharedPreferencesFileManager(
+                mContext,
+                SHARED_PREFERENCES_NAME + ".encrypted",
+                storageHelper
+        );
+
+        try {
+            fileManager.putString("accepted", "a");
+            fileManager.putString("rejected-1", "b");
+            fileManager.putString("rejected-2", "c");
+
+            final Map<String, String> entries = fileManager.getAll(new Predicate<String>() {
+                @Override
+                public boolean test(final String key) {
+                    return "accepted".equals(key);
+                }
+            });
+
+            Assert.assertEquals(1, entries.size());
+            Assert.assertEquals("a", entries.get("accepted"));
+            Mockito.verify(storageHelper, Mockito.times(1)).decrypt(Mockito.anyString());
+            Assert.assertEquals(3, fileManager.getAll().size());
+        } finally {
+            fileManager.clear();
+        }
+    }
+
+    @Test
+    public void filteredAccountsMatchAFullScan() {
+        final String[] homeAccountIds = {null, HOME_ACCOUNT_ID, HOME_ACCOUNT_ID.toUpperCase(), "29f3807a"};
+        final String[] environments = {null, ENVIRONMENT, OTHER_ENVIRONMENT};
+        final String[] realms = {null, REALM, OTHER_REALM};
+
+        for (final String homeAccountId : homeAccountIds) {
+            for (final String environment : environments) {
+                for (final String realm : realms) {
+                    Assert.assertEquals(
+                            homeAccountId + " " + environment + " " + realm,
+                            accountKeys(mCache.getAccountsFilteredByInternal(
+                                    homeAccountId,
+                                    environment,
+                                    realm,
+                                    mCache.getAccounts()
+                            )),
+                            accountKeys(mCache.getAccountsFilteredBy(homeAccountId, environment, realm))
+                    );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void filteredCredentialsMatchAFullScan() {
+        for (final CredentialFilter filter : credentialFilters()) {
+            Assert.assertEquals(
+                    describe(filter),
+                    credentialKeys(mCache.getCredentialsFilteredByInternal(
+                            filter.getHomeAccountId(),
+                            filter.getEnvironment(),
+                            filter.getCredentialType(),
+                            filter.getClientId(),
+                            filter.getRealm(),
+                            filter.getTarget(),
+                            filter.getAuthScheme(),
+                            mCache.getCredentials()
+                    )),
+                    credentialKeys(mCache.getCredentialsFilteredBy(
+                            filter.getHomeAccountId(),
+                            filter.getEnvironment(),
+                            filter.getCredentialType(),
+                            filter.getClientId(),
+                            filter.getRealm(),
+                            filter.getTarget(),
+                            filter.getAuthScheme()
+                    ))
+            );
+        }
+
+        Assert.assertEquals(1, mCache.getCredentialsFilteredBy(
+                HOME_ACCOUNT_ID.toUpperCase(),
+                ENVIRONMENT,
+                CredentialType.AccessToken,
+                CLIENT_ID,
+                REALM,
+                "user.read",
+                null
+        ).size());
+    }
+
+    @Test
+    public void batchedFiltersMatchSingleLookups() {
+        final List<CredentialFilter> filters = credentialFilters();
+        final List<List<Credential>> batched = mCache.getCredentialsFilteredBy(filters);
+
+        Assert.assertEquals(filters.size(), batched.size());
+
+        for (int i = 0; i < filters.size(); i++) {
+            final CredentialFilter filter = filters.get(i);
+            Assert.assertEquals(
+                    describe(filter),
+                    credentialKeys(mCache.getCredentialsFilteredBy(
+                            filter.getHomeAccountId(),
+                            filter.getEnvironment(),
+                            filter.getCredentialType(),
+                            filter.getClientId(),
+                            filter.getRealm(),
+                            filter.getTarget(),
+                            filter.getAuthScheme()
+                    )),
+                    credentialKeys(batched.get(i))
+            );
+        }
+    }
+
+    private static List<CredentialFilter> credentialFilters() {
+        final List<CredentialFilter> filters = new ArrayList<>();
+        final List<CredentialType> types = new ArrayList<>(Arrays.asList(CredentialType.values()));
+        types.add(null);
+
+        for (final CredentialType type : types) {
+            for (final String homeAccountId : new String[]{null, HOME_ACCOUNT_ID, OTHER_HOME_ACCOUNT_ID.toUpperCase()}) {
+                for (final String clientId : new String[]{null, CLIENT_ID, OTHER_CLIENT_ID}) {
+                    for (final String realm : new String[]{null, REALM, OTHER_REALM}) {
+                        filters.add(new CredentialFilter(homeAccountId, ENVIRONMENT, type, clientId, realm, null, null));
+                    }
+                }
+            }
+
+            filters.add(new CredentialFilter(HOME_ACCOUNT_ID, null, type, CLIENT_ID, REALM, TARGET, null));
+            filters.add(new CredentialFilter(HOME_ACCOUNT_ID, OTHER_ENVIRONMENT, type, null, null, null, null));
+            filters.add(new CredentialFilter(HOME_ACCOUNT_ID, ENVIRONMENT, type, CLIENT_ID, REALM, "user.read", "pop"));
+        }
+
+        return filters;
+    }
+
+    // Records are compared by cache key, access tokens do not override equals()
+    private Set<String> accountKeys(final List<AccountRecord> accounts) {
+        final Set<String> keys = new HashSet<>();
+
+        for (final AccountRecord account : accounts) {
+            keys.add(mCacheValueDelegate.generateCacheKey(account));
+        }
+
+        return keys;
+    }
+
+    private Set<String> credentialKeys(final List<Credential> credentials) {
+        final Set<String> keys = new HashSet<>();
+
+        for (final Credential credential : credentials) {
+            keys.add(mCacheValueDelegate.generateCacheKey(credential));
+        }
+
+        return keys;
+    }
+
+    private static String describe(final CredentialFilter filter) {
+        return filter.getHomeAccountId() + " " + filter.getEnvironment() + " " + filter.getCredentialType()
+                + " " + filter.getClientId() + " " + filter.getRealm() + " " + filter.getTarget()
+                + " " + filter.getAuthScheme();
+    }
+
+    private static AccountRecord account(final String homeAccountId,
+                                         final String environment,
+                                         final String realm) {
+        final AccountRecord account = new AccountRecord();
+        account.setHomeAccountId(homeAccountId);
+        account.setEnvironment(environment);
+        account.setRealm(realm);
+        account.setLocalAccountId(homeAccountId.substring(0, 8));
+        account.setUsername("user@contoso.com");
+        account.setAuthorityType("MSSTS");
+        return account;
+    }
+
+    private static AccessTokenRecord accessToken(final String homeAccountId,
+                                                 final String clientId,
+                                                 final String realm,
+                                                 final String authScheme) {
+        final AccessTokenRecord accessToken = new AccessTokenRecord();
+        populate(accessToken, homeAccountId, clientId);
+        accessToken.setCredentialType(
+                authScheme == null
+                        ? CredentialType.AccessToken.name()
+                        : CredentialType.AccessToken_With_AuthScheme.name()
+        );
+        accessToken.setRealm(realm);
+        accessToken.setTarget(TARGET);
+        accessToken.setAccessTokenType(authScheme == null ? "Bearer" : authScheme);
+        return accessToken;
+    }
+
+    private static RefreshTokenRecord refreshToken(final String homeAccountId,
+                                                   final String clientId,
+                                                   final String familyId) {
+        final RefreshTokenRecord refreshToken = new RefreshTokenRecord();
+        populate(refreshToken, homeAccountId, clientId);
+        refreshToken.setCredentialType(CredentialType.RefreshToken.name());
+        refreshToken.setTarget(TARGET);
+        refreshToken.setFamilyId(familyId);
+        return refreshToken;
+    }
+
+    private static IdTokenRecord idToken(final String homeAccountId,
+                                         final String clientId,
+                                         final String realm) {
+        final IdTokenRecord idToken = new IdTokenRecord();
+        populate(idToken, homeAccountId, clientId);
+        idToken.setCredentialType(CredentialType.IdToken.name());
+        idToken.setRealm(realm);
+        return idToken;
+    }
+
+    private static void populate(final Credential credential,
+                                 final String homeAccountId,
+                                 final String clientId) {
+        credential.setHomeAccountId(homeAccountId);
+        credential.setEnvironment(ENVIRONMENT);
+        credential.setClientId(clientId);
+        credential.setSecret("secret-" + clientId);
+        credential.setCachedAt("1593557050");
+    }
+}
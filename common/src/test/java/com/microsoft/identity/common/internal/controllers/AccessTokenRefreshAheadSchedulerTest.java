@@ -0,0 +1,245 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.controllers;
+
+import com.microsoft.identity.common.internal.dto.AccessTokenRecord;
+import com.microsoft.identity.common.internal.logging.DiagnosticContext;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccessTokenRefreshAheadSchedulerTest {
+
+    private QueueingExecutor mExecutor;
+    private AccessTokenRefreshAheadScheduler mScheduler;
+
+    @Before
+    public void setUp() {
+        mExecutor = new QueueingExecutor();
+        mScheduler = new AccessTokenRefreshAheadScheduler(mExecutor);
+    }
+
+    @Test
+    public void tokenPastHalfLifeShouldRefresh() {
+        final long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+
+        assertTrue(accessToken(now - 3000, now + 1000, null).shouldRefresh());
+        assertFalse(accessToken(now - 1000, now + 3000, null).shouldRefresh());
+    }
+
+    @Test
+    public void refreshOnTakesPrecedenceOverHalfLife() {
+        final long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+
+        assertFalse(accessToken(now - 3000, now + 1000, now + 500).shouldRefresh());
+        assertTrue(accessToken(now - 1000, now + 3000, now - 1).shouldRefresh());
+    }
+
+    @Test
+    public void pendingRefreshIsDeduplicated() {
+        final AtomicInteger refreshCount = new AtomicInteger();
+        final AccessTokenRefreshAheadScheduler.RefreshOperation operation = countingOperation(refreshCount);
+        final long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+
+        assertTrue(mScheduler.scheduleRefresh(accessToken(now - 3000, now + 1000, null), operation));
+        assertFalse(mScheduler.scheduleRefresh(accessToken(now - 3000, now + 1000, null), operation));
+
+        mExecutor.runAll();
+
+        assertEquals(1, refreshCount.get());
+        assertEquals(2, mScheduler.getRefreshAheadHitCount());
+        assertEquals(1, mScheduler.getScheduledRefreshCount());
+        assertEquals(1, mScheduler.getCompletedRefreshCount());
+    }
+
+    @Test
+    public void tokenCanBeRefreshedAgainOnceRefreshCompletes() {
+        final AtomicInteger refreshCount = new AtomicInteger();
+        final AccessTokenRefreshAheadScheduler.RefreshOperation operation = countingOperation(refreshCount);
+        final long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+
+        mScheduler.scheduleRefresh(accessToken(now - 3000, now + 1000, null), operation);
+        mExecutor.runAll();
+        mScheduler.scheduleRefresh(accessToken(now - 3000, now + 1000, null), operation);
+        mExecutor.runAll();
+
+        assertEquals(2, refreshCount.get());
+    }
+
+    @Test
+    public void failedRefreshIsCounted() {
+        final long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+
+        mScheduler.scheduleRefresh(
+                accessToken(now - 3000, now + 1000, null),
+                new AccessTokenRefreshAheadScheduler.RefreshOperation() {
+                    @Override
+                    public boolean refresh() throws Exception {
+                        throw new Exception("network unavailable");
+                    }
+                }
+        );
+        mExecutor.runAll();
+
+        assertEquals(1, mScheduler.getFailedRefreshCount());
+        assertEquals(0, mScheduler.getCompletedRefreshCount());
+    }
+
+    @Test
+    public void errorResponseIsCountedAsFailure() {
+        final long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+
+        mScheduler.scheduleRefresh(
+                accessToken(now - 3000, now + 1000, null),
+                new AccessTokenRefreshAheadScheduler.RefreshOperation() {
+                    @Override
+                    public boolean refresh() {
+                        // e.g. invalid_grant from the token endpoint
+                        return false;
+                    }
+                }
+        );
+        mExecutor.runAll();
+
+        assertEquals(1, mScheduler.getFailedRefreshCount());
+        assertEquals(0, mScheduler.getCompletedRefreshCount());
+        assertEquals(0, mScheduler.getLatencySavedMillis());
+    }
+
+    @Test
+    public void refreshRunsUnderItsOwnCorrelationId() {
+        final long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        final String callerCorrelationId = CommandDispatcher.initializeDiagnosticContext(null);
+        final AtomicReference<String> refreshCorrelationId = new AtomicReference<>();
+
+        mScheduler.scheduleRefresh(
+                accessToken(now - 3000, now + 1000, null),
+                new AccessTokenRefreshAheadScheduler.RefreshOperation() {
+                    @Override
+                    public boolean refresh() {
+                        refreshCorrelationId.set(
+                                DiagnosticContext.getRequestContext().get(DiagnosticContext.CORRELATION_ID)
+                        );
+                        return true;
+                    }
+                }
+        );
+        mExecutor.runAll();
+
+        assertNotNull(refreshCorrelationId.get());
+        assertNotEquals(callerCorrelationId, refreshCorrelationId.get());
+
+        // The context is cleared so that the next refresh on the thread doesn't inherit it
+        assertEquals(
+                "UNSET",
+                DiagnosticContext.getRequestContext().get(DiagnosticContext.CORRELATION_ID)
+        );
+    }
+
+    private static AccessTokenRefreshAheadScheduler.RefreshOperation countingOperation(final AtomicInteger count) {
+        return new AccessTokenRefreshAheadScheduler.RefreshOperation() {
+            @Override
+            public boolean refresh() {
+                count.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    private static AccessTokenRecord accessToken(final long cachedAt,
+                                                 final long expiresOn,
+                                                 final Long refreshOn) {
+        final AccessTokenRecord accessToken = new AccessTokenRecord();
+        accessToken.setHomeAccountId("uid.utid");
+        accessToken.setEnvironment("login.microsoftonline.com");
+        accessToken.setClientId("4b0db8c2-9f26-4417-8bde-3f0e3656f8e0");
+        accessToken.setCredentialType("AccessToken");
+        accessToken.setRealm("utid");
+        accessToken.setTarget("user.read");
+        accessToken.setCachedAt(String.valueOf(cachedAt));
+        accessToken.setExpiresOn(String.valueOf(expiresOn));
+        accessToken.setRefreshOn(refreshOn == null ? null : String.valueOf(refreshOn));
+        return accessToken;
+    }
+
+    /**
+     * Holds submitted work until the test runs it.
+     */
+    private static class QueueingExecutor extends AbstractExecutorService {
+
+        private final List<Runnable> mQueue = new ArrayList<>();
+
+        void runAll() {
+            final List<Runnable> queued = new ArrayList<>(mQueue);
+            mQueue.clear();
+            for (final Runnable runnable : queued) {
+                runnable.run();
+            }
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            mQueue.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return new ArrayList<>(mQueue);
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.controllers;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.microsoft.identity.common.exception.BrokerCommunicationException;
+import com.microsoft.identity.common.exception.ClientException;
+import com.microsoft.identity.common.exception.ErrorStrings;
+import com.microsoft.identity.common.internal.broker.BrokerBaseStrategy;
+import com.microsoft.identity.common.internal.broker.BrokerProtocolVersionCache;
+import com.microsoft.identity.common.internal.cache.ICacheRecord;
+import com.microsoft.identity.common.internal.commands.parameters.CommandParameters;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Covers the cached strategy path of {@link BrokerMsalController}, through getAccounts().
+ */
+@RunWith(RobolectricTestRunner.class)
+public class BrokerMsalControllerProtocolVersionCacheTest {
+
+    private static final String VERSION_CACHE_KEY =
+            BrokerProtocolVersionCache.getKey("com.azure.authenticator", "signature-hash", "3.0");
+    private static final String NEGOTIATED_VERSION = "3.0";
+
+    private BrokerBaseStrategy mStrategy;
+    private BrokerMsalController mController;
+    private CommandParameters mParameters;
+    private List<ICacheRecord> mAccounts;
+
+    @Before
+    public void setUp() throws Exception {
+        BrokerProtocolVersionCache.getInstance().clear();
+
+        final Context context = ApplicationProvider.getApplicationContext();
+        mStrategy = Mockito.mock(BrokerBaseStrategy.class);
+        mController = new TestBrokerMsalController(context, mStrategy);
+        mParameters = CommandParameters.builder()
+                .androidApplicationContext(context)
+                .requiredBrokerProtocolVersion("3.0")
+                .build();
+        mAccounts = Collections.singletonList(Mockito.mock(ICacheRecord.class));
+
+        Mockito.when(mStrategy.hello(Mockito.any(CommandParameters.class))).thenReturn(NEGOTIATED_VERSION);
+    }
+
+    @After
+    public void tearDown() {
+        BrokerProtocolVersionCache.getInstance().clear();
+    }
+
+    @Test
+    public void cachedStrategySkipsHello() throws Exception {
+        Mockito.when(mStrategy.getBrokerAccounts(mParameters, NEGOTIATED_VERSION)).thenReturn(mAccounts);
+
+        Assert.assertSame(mAccounts, mController.getAccounts(mParameters));
+        Assert.assertNotNull(BrokerProtocolVersionCache.getInstance().get(VERSION_CACHE_KEY));
+
+        Assert.assertSame(mAccounts, mController.getAccounts(mParameters));
+
+        Mockito.verify(mStrategy, Mockito.times(1)).hello(mParameters);
+        Mockito.verify(mStrategy, Mockito.times(2)).getBrokerAccounts(mParameters, NEGOTIATED_VERSION);
+    }
+
+    @Test
+    public void communicationFailureOverCachedStrategyRenegotiates() throws Exception {
+        Mockito.when(mStrategy.getBrokerAccounts(mParameters, NEGOTIATED_VERSION))
+                .thenReturn(mAccounts)
+                .thenThrow(new BrokerCommunicationException("Binder died", null))
+                .thenReturn(mAccounts);
+
+        mController.getAccounts(mParameters);
+
+        Assert.assertSame(mAccounts, mController.getAccounts(mParameters));
+        Mockito.verify(mStrategy, Mockito.times(2)).hello(mParameters);
+        Mockito.verify(mStrategy, Mockito.times(3)).getBrokerAccounts(mParameters, NEGOTIATED_VERSION);
+        Assert.assertNotNull(BrokerProtocolVersionCache.getInstance().get(VERSION_CACHE_KEY));
+    }
+
+    @Test
+    public void unsupportedVersionOverCachedStrategyRenegotiates() throws Exception {
+        Mockito.when(mStrategy.getBrokerAccounts(mParameters, NEGOTIATED_VERSION))
+                .thenReturn(mAccounts)
+                .thenThrow(new ClientException(ErrorStrings.UNSUPPORTED_BROKER_VERSION_ERROR_CODE, "Broker was downgraded"))
+                .thenReturn(mAccounts);
+
+        mController.getAccounts(mParameters);
+
+        Assert.assertSame(mAccounts, mController.getAccounts(mParameters));
+        Mockito.verify(mStrategy, Mockito.times(2)).hello(mParameters);
+    }
+
+    @Test
+    public void failedRenegotiationLeavesNothingCached() throws Exception {
+        Mockito.when(mStrategy.getBrokerAccounts(mParameters, NEGOTIATED_VERSION))
+                .thenReturn(mAccounts)
+                .thenThrow(new BrokerCommunicationException("Binder died", null));
+
+        mController.getAccounts(mParameters);
+        Mockito.when(mStrategy.hello(mParameters))
+                .thenThrow(new BrokerCommunicationException("Unable to bind", null));
+
+        try {
+            mController.getAccounts(mParameters);
+            Assert.fail("Expected the operation to fail");
+        } catch (final ClientException e) {
+            Assert.assertEquals(ErrorStrings.BROKER_BIND_SERVICE_FAILED, e.getErrorCode());
+        }
+
+        Assert.assertNull(BrokerProtocolVersionCache.getInstance().get(VERSION_CACHE_KEY));
+    }
+
+    @Test
+    public void otherErrorOverCachedStrategyIsThrownAndKeepsTheEntry() throws Exception {
+        final ClientException failure = new ClientException(ClientException.JSON_PARSE_FAILURE, "Bad result bundle");
+        Mockito.when(mStrategy.getBrokerAccounts(mParameters, NEGOTIATED_VERSION))
+                .thenReturn(mAccounts)
+                .thenThrow(failure);
+
+        mController.getAccounts(mParameters);
+
+        try {
+            mController.getAccounts(mParameters);
+            Assert.fail("Expected the failure to be thrown");
+        } catch (final ClientException e) {
+            Assert.assertSame(failure, e);
+        }
+
+        Mockito.verify(mStrategy, Mockito.times(1)).hello(mParameters);
+        Assert.assertNotNull(BrokerProtocolVersionCache.getInstance().get(VERSION_CACHE_KEY));
+    }
+
+    private static class TestBrokerMsalController extends BrokerMsalController {
+
+        private final BrokerBaseStrategy mStrategy;
+
+        TestBrokerMsalController(@NonNull final Context applicationContext,
+                                 @NonNull final BrokerBaseStrategy strategy) {
+            super(applicationContext);
+            mStrategy = strategy;
+        }
+
+        @Override
+        String getProtocolVersionCacheKey(@NonNull final CommandParameters parameters) {
+            return VERSION_CACHE_KEY;
+        }
+
+        @Override
+        List<BrokerBaseStrategy> getStrategies() {
+            final List<BrokerBaseStrategy> strategies = new ArrayList<>();
+            strategies.add(mStrategy);
+            return strategies;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.controllers;
+
+import com.microsoft.identity.common.internal.dto.AccessTokenRecord;
+import com.microsoft.identity.common.internal.result.ILocalAuthenticationResult;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CommandResultCacheTest {
+
+    @Test
+    public void timeToLiveIsCappedByMaximum() {
+        final CommandResultCache cache = CommandResultCache.builder()
+                .maxTimeToLiveMillis(TimeUnit.SECONDS.toMillis(30))
+                .expirySkewMillis(TimeUnit.MINUTES.toMillis(5))
+                .build();
+        final long now = System.currentTimeMillis();
+
+        assertEquals(
+                TimeUnit.SECONDS.toMillis(30),
+                cache.getTimeToLive(tokenResult(now + TimeUnit.HOURS.toMillis(1)), now)
+        );
+    }
+
+    @Test
+    public void timeToLiveIsShortenedByTokenExpiry() {
+        final CommandResultCache cache = CommandResultCache.builder()
+                .maxTimeToLiveMillis(TimeUnit.MINUTES.toMillis(10))
+                .expirySkewMillis(TimeUnit.MINUTES.toMillis(5))
+                .build();
+        final long now = TimeUnit.SECONDS.toMillis(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+
+        assertEquals(
+                TimeUnit.MINUTES.toMillis(2),
+                cache.getTimeToLive(tokenResult(now + TimeUnit.MINUTES.toMillis(7)), now)
+        );
+    }
+
+    @Test
+    public void resultNearExpiryIsNotCached() {
+        final CommandResultCache cache = new CommandResultCache();
+
+        cache.put("key", tokenResult(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1)));
+
+        assertEquals(0, cache.getSize());
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void leastRecentlyUsedItemIsEvictedByCount() {
+        final CommandResultCache cache = new CommandResultCache(2);
+
+        cache.put("first", result());
+        cache.put("second", result());
+        assertNotNull(cache.get("first"));
+        cache.put("third", result());
+
+        assertEquals(2, cache.getSize());
+        assertNotNull(cache.get("first"));
+        assertNull(cache.get("second"));
+        assertNotNull(cache.get("third"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void itemsAreEvictedByEstimatedSize() {
+        final CommandResultCache cache = CommandResultCache.builder()
+                .maxEstimatedBytes(1024L)
+                .build();
+
+        cache.put("first", result());
+        cache.put("second", result());
+        cache.put("third", result());
+
+        assertEquals(2, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(1024, cache.getEstimatedBytes());
+    }
+
+    @Test
+    public void hitRateIsTracked() {
+        final CommandResultCache cache = new CommandResultCache();
+
+        cache.put("key", result());
+        cache.get("key");
+        cache.get("key");
+        cache.get("key");
+        cache.get("missing");
+
+        assertEquals(3, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.75, cache.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void clearResetsEstimatedSize() {
+        final CommandResultCache cache = new CommandResultCache();
+
+        cache.put("first", result());
+        cache.put("second", result());
+        cache.clear();
+
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getEstimatedBytes());
+    }
+
+    private static CommandResult result() {
+        return new CommandResult(CommandResult.ResultStatus.ERROR, new Exception());
+    }
+
+    private static CommandResult tokenResult(final long expiresOnMillis) {
+        final AccessTokenRecord accessTokenRecord = new AccessTokenRecord();
+        accessTokenRecord.setExpiresOn(String.valueOf(TimeUnit.MILLISECONDS.toSeconds(expiresOnMillis)));
+
+        final ILocalAuthenticationResult authenticationResult = mock(ILocalAuthenticationResult.class);
+        when(authenticationResult.getAccessTokenRecord()).thenReturn(accessTokenRecord);
+
+        return new CommandResult(CommandResult.ResultStatus.COMPLETED, authenticationResult);
+    }
+}
@@ -0,0 +1,131 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.internal.controllers;
+
+import com.microsoft.identity.common.internal.commands.BaseCommand;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+public class DefaultCommandExecutorProviderTest {
+
+    private final BaseCommand mCommand = mock(BaseCommand.class);
+    private final AtomicInteger mQueueDepth = new AtomicInteger();
+
+    @Test
+    public void foregroundCommandsRunBeforeQueuedBackgroundCommands() throws InterruptedException {
+        final ExecutorService executor = DefaultCommandExecutorProvider.builder()
+                .silentThreadPoolSize(1)
+                .build()
+                .getSilentExecutor();
+
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(3);
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+
+        executor.execute(runnable(CommandPriority.FOREGROUND, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blocker.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }));
+        executor.execute(runnable(CommandPriority.BACKGROUND, record(order, "background", done)));
+        executor.execute(runnable(CommandPriority.FOREGROUND, record(order, "foreground-1", done)));
+        executor.execute(runnable(CommandPriority.FOREGROUND, record(order, "foreground-2", done)));
+
+        blocker.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals("foreground-1", order.get(0));
+        assertEquals("foreground-2", order.get(1));
+        assertEquals("background", order.get(2));
+        executor.shutdown();
+    }
+
+    @Test
+    public void commandsBeyondQueueCapacityAreRejected() {
+        final ExecutorService executor = DefaultCommandExecutorProvider.builder()
+                .silentThreadPoolSize(1)
+                .silentQueueCapacity(1)
+                .build()
+                .getSilentExecutor();
+
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final Runnable blocking = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blocker.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        executor.execute(runnable(CommandPriority.FOREGROUND, blocking));
+        executor.execute(runnable(CommandPriority.FOREGROUND, blocking));
+
+        try {
+            executor.execute(runnable(CommandPriority.FOREGROUND, blocking));
+            fail("Expected the command to be rejected.");
+        } catch (final RejectedExecutionException e) {
+            // Expected
+        } finally {
+            blocker.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private InstrumentedCommandRunnable runnable(final CommandPriority priority, final Runnable delegate) {
+        final InstrumentedCommandRunnable runnable =
+                new InstrumentedCommandRunnable(mCommand, priority, mQueueDepth, null, delegate);
+        runnable.onQueued();
+        return runnable;
+    }
+
+    private static Runnable record(final List<String> order, final String name, final CountDownLatch done) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                order.add(name);
+                done.countDown();
+            }
+        };
+    }
+}
@@ -0,0 +1,254 @@
+// Copyright (c) Microsoft Corporation.
+// All rights reserved.
+//
+// This code is licensed under the MIT License.
+//
+// Permission is hereby granted, free of charge, to any person obtaining a copy
+// of this software and associated documentation files(the "Software"), to deal
+// in the Software without restriction, including without limitation the rights
+// to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+// copies of the Software, and to permit persons to whom the Software is
+// furnished to do so, subject to the following conditions :
+//
+// The above copyright notice and this permission notice shall be included in
+// all copies or substantial portions of the Software.
+//
+// THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+// IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+// FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+// AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+// LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+// OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+// THE SOFTWARE.
+package com.microsoft.identity.common.internal.controllers;
+
+import android.accounts.Account;
+
+import com.microsoft.identity.common.internal.commands.CommandCallback;
+import com.microsoft.identity.common.internal.commands.SilentTokenCommand;
+import com.microsoft.identity.common.internal.commands.parameters.BrokerSilentTokenCommandParameters;
+import com.microsoft.identity.common.internal.commands.parameters.SilentTokenCommandParameters;
+import com.microsoft.identity.common.internal.request.SdkType;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RobolectricTestRunner.class)
+public class SilentRequestKeyTest {
+
+    private static final String CLIENT_ID = "4b0db8c2-9f26-4417-8bde-3f0e3656f8e0";
+    private static final String ACCOUNT_TYPE = "com.microsoft.workaccount";
+
+    @Test
+    public void scopeOrderAndCaseAreIgnored() {
+        final SilentRequestKey first = SilentRequestKey.of(command(parameters("User.Read", "Mail.Read")));
+        final SilentRequestKey second = SilentRequestKey.of(command(parameters("mail.read ", "user.read")));
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    @Test
+    public void correlationIdIsIgnored() {
+        final SilentRequestKey first = SilentRequestKey.of(command(parameters("User.Read")));
+        final SilentRequestKey second = SilentRequestKey.of(command(parameters("User.Read")));
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    public void differentScopesProduceDifferentKeys() {
+        assertNotEquals(
+                SilentRequestKey.of(command(parameters("User.Read"))),
+                SilentRequestKey.of(command(parameters("Mail.Read")))
+        );
+    }
+
+    @Test
+    public void forceRefreshProducesDifferentKey() {
+        final SilentTokenCommandParameters forced = parameters("User.Read")
+                .toBuilder()
+                .forceRefresh(true)
+                .build();
+
+        assertNotEquals(
+                SilentRequestKey.of(command(parameters("User.Read"))),
+                SilentRequestKey.of(command(forced))
+        );
+    }
+
+    @Test
+    public void controllersProduceDifferentKeys() {
+        final SilentTokenCommandParameters parameters = parameters("User.Read");
+        final SilentRequestKey local = SilentRequestKey.of(command(
+                parameters,
+                Collections.<BaseController>singletonList(mock(LocalMSALController.class))
+        ));
+        final SilentRequestKey otherLocal = SilentRequestKey.of(command(
+                parameters,
+                Collections.<BaseController>singletonList(mock(LocalMSALController.class))
+        ));
+        final SilentRequestKey broker = SilentRequestKey.of(command(
+                parameters,
+                Collections.<BaseController>singletonList(mock(BrokerMsalController.class))
+        ));
+
+        assertEquals(local, otherLocal);
+        assertNotEquals(local, broker);
+    }
+
+    @Test
+    public void redirectUriProducesDifferentKey() {
+        final SilentTokenCommandParameters other = parameters("User.Read")
+                .toBuilder()
+                .redirectUri("msauth://com.contoso/other")
+                .build();
+
+        assertNotEquals(
+                SilentRequestKey.of(command(parameters("User.Read"))),
+                SilentRequestKey.of(command(other))
+        );
+    }
+
+    @Test
+    public void sdkTypeProducesDifferentKey() {
+        final SilentTokenCommandParameters adal = parameters("User.Read")
+                .toBuilder()
+                .sdkType(SdkType.ADAL)
+                .build();
+
+        assertNotEquals(
+                SilentRequestKey.of(command(parameters("User.Read"))),
+                SilentRequestKey.of(command(adal))
+        );
+    }
+
+    @Test
+    public void requiredBrokerProtocolVersionProducesDifferentKey() {
+        final SilentTokenCommandParameters newer = parameters("User.Read")
+                .toBuilder()
+                .requiredBrokerProtocolVersion("4.0")
+                .build();
+
+        assertNotEquals(
+                SilentRequestKey.of(command(parameters("User.Read"))),
+                SilentRequestKey.of(command(newer))
+        );
+    }
+
+    @Test
+    public void equivalentBrokerRequestsProduceEqualKeys() {
+        final SilentRequestKey first = SilentRequestKey.of(command(brokerParameters("uid1.utid", "user1@contoso.com")));
+        final SilentRequestKey second = SilentRequestKey.of(command(
+                brokerParameters("uid1.utid", "user1@contoso.com").toBuilder().homeAccountId("UID1.utid").build()
+        ));
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+
+    @Test
+    public void brokerRequestsForDifferentAccountsProduceDifferentKeys() {
+        assertNotEquals(
+                SilentRequestKey.of(command(brokerParameters("uid1.utid", "user1@contoso.com"))),
+                SilentRequestKey.of(command(brokerParameters("uid2.utid", "user2@contoso.com")))
+        );
+    }
+
+    @Test
+    public void brokerIdentityFieldsProduceDifferentKeys() {
+        final BrokerSilentTokenCommandParameters parameters = brokerParameters("uid1.utid", "user1@contoso.com");
+        final SilentRequestKey key = SilentRequestKey.of(command(parameters));
+
+        assertNotEquals(key, SilentRequestKey.of(command(
+                parameters.toBuilder().homeAccountId("uid2.utid").build()
+        )));
+        assertNotEquals(key, SilentRequestKey.of(command(
+                parameters.toBuilder().localAccountId("uid2").build()
+        )));
+        assertNotEquals(key, SilentRequestKey.of(command(
+                parameters.toBuilder().loginHint("user2@contoso.com").build()
+        )));
+        assertNotEquals(key, SilentRequestKey.of(command(
+                parameters.toBuilder().accountManagerAccount(new Account("user2@contoso.com", ACCOUNT_TYPE)).build()
+        )));
+    }
+
+    @Test
+    public void brokerVersionsProduceDifferentKeys() {
+        final BrokerSilentTokenCommandParameters parameters = brokerParameters("uid1.utid", "user1@contoso.com");
+        final SilentRequestKey key = SilentRequestKey.of(command(parameters));
+
+        assertNotEquals(key, SilentRequestKey.of(command(
+                parameters.toBuilder().brokerVersion("9.0.0").build()
+        )));
+        assertNotEquals(key, SilentRequestKey.of(command(
+                parameters.toBuilder().negotiatedBrokerProtocolVersion("5.0").build()
+        )));
+    }
+
+    @Test
+    public void brokerCallersProduceDifferentKeys() {
+        final BrokerSilentTokenCommandParameters parameters = brokerParameters("uid1.utid", "user1@contoso.com");
+
+        assertNotEquals(
+                SilentRequestKey.of(command(parameters)),
+                SilentRequestKey.of(command(parameters.toBuilder().callerUid(10002).build()))
+        );
+    }
+
+    private static BrokerSilentTokenCommandParameters brokerParameters(final String homeAccountId,
+                                                                       final String username) {
+        return BrokerSilentTokenCommandParameters.builder()
+                .clientId(CLIENT_ID)
+                .correlationId(UUID.randomUUID().toString())
+                .redirectUri("msauth://com.contoso/hash")
+                .requiredBrokerProtocolVersion("3.0")
+                .scopes(new HashSet<>(Arrays.asList("User.Read")))
+                .callerPackageName("com.contoso")
+                .callerUid(10001)
+                .brokerVersion("8.0.0")
+                .negotiatedBrokerProtocolVersion("4.0")
+                .homeAccountId(homeAccountId)
+                .localAccountId(homeAccountId.substring(0, homeAccountId.indexOf('.')))
+                .loginHint(username)
+                .accountManagerAccount(new Account(username, ACCOUNT_TYPE))
+                .build();
+    }
+
+    private static SilentTokenCommandParameters parameters(final String... scopes) {
+        return SilentTokenCommandParameters.builder()
+                .clientId(CLIENT_ID)
+                .correlationId(UUID.randomUUID().toString())
+                .redirectUri("msauth://com.contoso/hash")
+                .requiredBrokerProtocolVersion("3.0")
+                .scopes(new HashSet<>(Arrays.asList(scopes)))
+                .build();
+    }
+
+    private static SilentTokenCommand command(final SilentTokenCommandParameters parameters) {
+        return command(parameters, new ArrayList<BaseController>());
+    }
+
+    private static SilentTokenCommand command(final SilentTokenCommandParameters parameters,
+                                              final List<BaseController> controllers) {
+        return new SilentTokenCommand(
+                parameters,
+                controllers,
+                mock(CommandCallback.class),
+                "test"
+        );
+    }
+}
@@ -22,6 +22,10 @@
 // THE SOFTWARE.
 package com.microsoft.identity.common.internal.eststelemetry;
 
+import androidx.test.core.app.ApplicationProvider;
+
+import com.microsoft.identity.common.internal.cache.SharedPreferencesFileManager;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -29,6 +33,9 @@ import org.robolectric.RobolectricTestRunner;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static com.microsoft.identity.common.internal.eststelemetry.LastRequestTelemetry.FAILED_REQUEST_CAP;
 
@@ -55,5 +62,106 @@ public class EstsTelemetryUnitTest {
 
     }
 
+    @Test
+    public void HeaderBuilderMatchesLastRequestTelemetryHeader() {
+        final LastRequestTelemetry lastRequestTelemetry = new LastRequestTelemetry(
+                SchemaConstants.CURRENT_SCHEMA_VERSION
+        );
+        lastRequestTelemetry.incrementSilentSuccessCount();
+        lastRequestTelemetry.incrementSilentSuccessCount();
+
+        final LastRequestTelemetryHeaderBuilder emptyBuilder = new LastRequestTelemetryHeaderBuilder(
+                SchemaConstants.CURRENT_SCHEMA_VERSION,
+                lastRequestTelemetry.getSilentSuccessfulCount(),
+                SchemaConstants.HEADER_DATA_LIMIT
+        );
+        Assert.assertEquals("2|2|||1", emptyBuilder.build(true));
+
+        final LastRequestTelemetryHeaderBuilder headerBuilder = new LastRequestTelemetryHeaderBuilder(
+                SchemaConstants.CURRENT_SCHEMA_VERSION,
+                lastRequestTelemetry.getSilentSuccessfulCount(),
+                SchemaConstants.HEADER_DATA_LIMIT
+        );
+
+        for (int i = 0; i < 3; i++) {
+            final FailedRequest failedRequest = new FailedRequest(
+                    "10" + i,
+                    UUID.randomUUID().toString(),
+                    "error_" + i
+            );
+            lastRequestTelemetry.appendFailedRequest(failedRequest);
+            headerBuilder.append(failedRequest);
+        }
+        lastRequestTelemetry.putInPlatformTelemetry(
+                SchemaConstants.Key.ALL_TELEMETRY_DATA_SENT,
+                SchemaConstants.Value.FALSE
+        );
+
+        Assert.assertEquals(lastRequestTelemetry.getCompleteHeaderString(), headerBuilder.build(false));
+    }
 
+    @Test
+    public void HeaderBuilderStopsOnceTheLimitIsReached() {
+        final LastRequestTelemetry lastRequestTelemetry = new LastRequestTelemetry(
+                SchemaConstants.CURRENT_SCHEMA_VERSION
+        );
+        final LastRequestTelemetryHeaderBuilder headerBuilder = new LastRequestTelemetryHeaderBuilder(
+                SchemaConstants.CURRENT_SCHEMA_VERSION,
+                0,
+                SchemaConstants.HEADER_DATA_LIMIT
+        );
+
+        while (headerBuilder.hasRemainingBudget()) {
+            final FailedRequest failedRequest = new FailedRequest(
+                    "fake-api-id",
+                    UUID.randomUUID().toString(),
+                    "fake-error-code"
+            );
+            // The builder must agree with the length of the fully serialized header
+            Assert.assertTrue(
+                    lastRequestTelemetry.getCompleteHeaderString().length() < SchemaConstants.HEADER_DATA_LIMIT
+            );
+            lastRequestTelemetry.appendFailedRequest(failedRequest);
+            headerBuilder.append(failedRequest);
+        }
+
+        Assert.assertTrue(
+                lastRequestTelemetry.getCompleteHeaderString().length() >= SchemaConstants.HEADER_DATA_LIMIT
+        );
+        Assert.assertEquals(lastRequestTelemetry.getFailedRequests().size(), headerBuilder.getFailedRequestCount());
+    }
+
+    @Test
+    public void LastRequestTelemetryCacheServesCopiesAndPersistsInBackground() throws InterruptedException {
+        final SharedPreferencesFileManager fileManager = new SharedPreferencesFileManager(
+                ApplicationProvider.getApplicationContext(),
+                "last_request_telemetry_test"
+        );
+        final ExecutorService persistExecutor = Executors.newSingleThreadExecutor();
+        final SharedPreferencesLastRequestTelemetryCache cache =
+                new SharedPreferencesLastRequestTelemetryCache(fileManager, persistExecutor);
+
+        Assert.assertNull(cache.getRequestTelemetryFromCache());
+
+        final LastRequestTelemetry lastRequestTelemetry = new LastRequestTelemetry(
+                SchemaConstants.CURRENT_SCHEMA_VERSION
+        );
+        lastRequestTelemetry.appendFailedRequest("100", UUID.randomUUID().toString(), "error");
+        cache.saveRequestTelemetryToCache(lastRequestTelemetry);
+
+        // Changes after saving must not leak into the cache
+        lastRequestTelemetry.incrementSilentSuccessCount();
+        final LastRequestTelemetry cached = (LastRequestTelemetry) cache.getRequestTelemetryFromCache();
+        Assert.assertEquals(0, cached.getSilentSuccessfulCount());
+        Assert.assertEquals(1, cached.getFailedRequests().size());
+
+        persistExecutor.shutdown();
+        Assert.assertTrue(persistExecutor.awaitTermination(5, TimeUnit.SECONDS));
+
+        final LastRequestTelemetry persisted = (LastRequestTelemetry) new SharedPreferencesLastRequestTelemetryCache(
+                fileManager,
+                Executors.newSingleThreadExecutor()
+        ).getRequestTelemetryFromCache();
+        Assert.assertEquals(1, persisted.getFailedRequests().size());
+    }
 }
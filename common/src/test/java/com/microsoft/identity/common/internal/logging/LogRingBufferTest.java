@@ -0,0 +1,122 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.logging;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class LogRingBufferTest {
+
+    @Test
+    public void capacityIsRoundedUpToPowerOfTwo() {
+        assertEquals(1, new LogRingBuffer<String>(1).capacity());
+        assertEquals(8, new LogRingBuffer<String>(5).capacity());
+        assertEquals(4096, new LogRingBuffer<String>(4096).capacity());
+    }
+
+    @Test
+    public void offerFailsWhenFull() {
+        final LogRingBuffer<String> buffer = new LogRingBuffer<>(2);
+
+        assertTrue(buffer.offer("a"));
+        assertTrue(buffer.offer("b"));
+        assertFalse(buffer.offer("c"));
+
+        assertEquals("a", buffer.poll());
+        assertTrue(buffer.offer("c"));
+        assertEquals("b", buffer.poll());
+        assertEquals("c", buffer.poll());
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void drainToRespectsMaxElements() {
+        final LogRingBuffer<Integer> buffer = new LogRingBuffer<>(16);
+        for (int i = 0; i < 10; i++) {
+            buffer.offer(i);
+        }
+
+        final List<Integer> drained = new ArrayList<>();
+        assertEquals(4, buffer.drainTo(drained, 4));
+        assertEquals(6, buffer.drainTo(drained, 100));
+        assertEquals(0, buffer.drainTo(drained, 100));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), drained.get(i));
+        }
+    }
+
+    @Test
+    public void concurrentProducersLoseNothingThatWasAccepted() throws InterruptedException {
+        final LogRingBuffer<Integer> buffer = new LogRingBuffer<>(1024);
+        final int producerCount = 4;
+        final int perProducer = 10000;
+        final int[] accepted = new int[producerCount];
+        final Thread[] producers = new Thread[producerCount];
+
+        for (int p = 0; p < producerCount; p++) {
+            final int producer = p;
+            producers[p] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perProducer; i++) {
+                        if (buffer.offer(producer * perProducer + i)) {
+                            accepted[producer]++;
+                        }
+                    }
+                }
+            });
+            producers[p].start();
+        }
+
+        final Set<Integer> consumed = new HashSet<>();
+        boolean producing = true;
+        while (producing || !buffer.isEmpty()) {
+            producing = false;
+            for (final Thread producer : producers) {
+                producing |= producer.isAlive();
+            }
+
+            Integer element;
+            while ((element = buffer.poll()) != null) {
+                assertTrue(consumed.add(element));
+            }
+        }
+
+        int totalAccepted = 0;
+        for (final int count : accepted) {
+            totalAccepted += count;
+        }
+        assertEquals(totalAccepted, consumed.size());
+    }
+}
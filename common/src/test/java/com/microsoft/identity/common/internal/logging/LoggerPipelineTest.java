@@ -0,0 +1,336 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.logging;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Exercises the async log pipeline through the public {@link Logger} API.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class LoggerPipelineTest {
+
+    // Matches Logger.LOG_BUFFER_CAPACITY and Logger.MAX_LOG_BATCH_SIZE.
+    private static final int LOG_BUFFER_CAPACITY = 4096;
+    private static final int MAX_LOG_BATCH_SIZE = 64;
+
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final String DROP_WARNING_TAG = Logger.class.getSimpleName();
+    private static final Pattern MESSAGE_PATTERN = Pattern.compile(
+            "^ \\[(\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2})( - ([^\\]]+))?\\] (.*) Android \\d+$"
+    );
+
+    @After
+    public void tearDown() {
+        Logger.getInstance().setExternalLogger(null);
+        Logger.getInstance().setLogLevel(Logger.LogLevel.VERBOSE);
+        Logger.setAllowPii(false);
+    }
+
+    @Test
+    public void batchCallbackReceivesEveryMessageInOrder() throws Exception {
+        final String tag = "batchCallbackReceivesEveryMessageInOrder";
+        final RecordingBatchCallback callback = new RecordingBatchCallback();
+        Logger.getInstance().setExternalLogger(callback);
+
+        final int count = MAX_LOG_BATCH_SIZE * 5;
+        for (int i = 0; i < count; i++) {
+            Logger.info(tag, "message " + i);
+        }
+
+        final List<LogMessage> messages = callback.awaitMessages(tag, count);
+        for (int i = 0; i < count; i++) {
+            Assert.assertEquals(Logger.LogLevel.INFO, messages.get(i).getLogLevel());
+            Assert.assertFalse(messages.get(i).containsPII());
+            Assert.assertTrue(messages.get(i).getMessage().contains(" message " + i + " Android "));
+        }
+
+        for (final Integer batchSize : callback.getBatchSizes()) {
+            // A batch may also carry the dropped messages warning
+            Assert.assertTrue(batchSize <= MAX_LOG_BATCH_SIZE + 1);
+        }
+        Assert.assertFalse(callback.isSingleMessageLogCalled());
+    }
+
+    @Test
+    public void batchIsFlushedWithoutWaitingForItToFill() throws Exception {
+        final String tag = "batchIsFlushedWithoutWaitingForItToFill";
+        final RecordingBatchCallback callback = new RecordingBatchCallback();
+        Logger.getInstance().setExternalLogger(callback);
+
+        Logger.warn(tag, "only message");
+
+        final List<LogMessage> messages = callback.awaitMessages(tag, 1);
+        Assert.assertEquals(Logger.LogLevel.WARN, messages.get(0).getLogLevel());
+        Assert.assertTrue(messages.get(0).getMessage().contains(" only message "));
+    }
+
+    @Test
+    public void singleMessageCallbackReceivesEachMessage() throws Exception {
+        final String tag = "singleMessageCallbackReceivesEachMessage";
+        final LinkedBlockingQueue<String> messages = new LinkedBlockingQueue<>();
+        Logger.getInstance().setExternalLogger(new ILoggerCallback() {
+            @Override
+            public void log(final String logTag,
+                            final Logger.LogLevel logLevel,
+                            final String message,
+                            final boolean containsPII) {
+                if (tag.equals(logTag)) {
+                    messages.add(message);
+                }
+            }
+        });
+
+        Logger.error(tag, "first", null);
+        Logger.verbose(tag, "second");
+
+        Assert.assertTrue(messages.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS).contains(" first "));
+        Assert.assertTrue(messages.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS).contains(" second "));
+    }
+
+    @Test
+    public void messagesOverTheBufferCapacityAreDroppedAndReported() throws Exception {
+        final String tag = "messagesOverTheBufferCapacityAreDroppedAndReported";
+        final RecordingBatchCallback callback = new RecordingBatchCallback();
+        Logger.getInstance().setExternalLogger(callback);
+        callback.blockWriter(tag);
+
+        final long droppedBefore = Logger.getDroppedLogCount();
+        final int overflow = 100;
+        for (int i = 0; i < LOG_BUFFER_CAPACITY + overflow; i++) {
+            Logger.verbose(tag, "message " + i);
+        }
+        Assert.assertEquals(overflow, Logger.getDroppedLogCount() - droppedBefore);
+
+        callback.releaseWriter();
+
+        // The blocking message, then the ones which fit in the buffer
+        final List<LogMessage> messages = callback.awaitMessages(tag, LOG_BUFFER_CAPACITY + 1);
+        Assert.assertTrue(messages.get(LOG_BUFFER_CAPACITY).getMessage()
+                .contains(" message " + (LOG_BUFFER_CAPACITY - 1) + " Android "));
+
+        final List<LogMessage> warnings = callback.awaitMessages(DROP_WARNING_TAG, 1);
+        Assert.assertEquals(Logger.LogLevel.WARN, warnings.get(0).getLogLevel());
+        Assert.assertTrue(warnings.get(0).getMessage().contains("dropped " + overflow + " messages"));
+    }
+
+    @Test
+    public void filteredMessagesAreNeverQueued() throws Exception {
+        final String tag = "filteredMessagesAreNeverQueued";
+        final RecordingBatchCallback callback = new RecordingBatchCallback();
+        Logger.getInstance().setExternalLogger(callback);
+        callback.blockWriter(tag);
+
+        Logger.getInstance().setLogLevel(Logger.LogLevel.INFO);
+        Logger.setAllowPii(false);
+
+        // Far more than the buffer holds, so queueing any of them would drop messages
+        final long droppedBefore = Logger.getDroppedLogCount();
+        for (int i = 0; i < LOG_BUFFER_CAPACITY; i++) {
+            Logger.verbose(tag, "too verbose");
+            Logger.infoPII(tag, "contains PII");
+            Logger.verboseFormat(tag, "too verbose %s", i);
+        }
+        Assert.assertEquals(0, Logger.getDroppedLogCount() - droppedBefore);
+
+        Logger.info(tag, "allowed");
+        callback.releaseWriter();
+
+        final List<LogMessage> messages = callback.awaitMessages(tag, 2);
+        Assert.assertTrue(messages.get(1).getMessage().contains(" allowed "));
+        Assert.assertEquals(2, callback.getMessages(tag).size());
+    }
+
+    @Test
+    public void timestampIsFormattedInUtcForEachSecond() throws Exception {
+        final String tag = "timestampIsFormattedInUtcForEachSecond";
+        final RecordingBatchCallback callback = new RecordingBatchCallback();
+        Logger.getInstance().setExternalLogger(callback);
+
+        final long firstLoggedAt = System.currentTimeMillis();
+        Logger.info(tag, "correlation-id", "first");
+        final long firstLoggedBy = System.currentTimeMillis();
+
+        // Cross into the next second, which must not reuse the cached timestamp
+        Thread.sleep(1000 - System.currentTimeMillis() % 1000 + 10);
+
+        final long secondLoggedAt = System.currentTimeMillis();
+        Logger.info(tag, "second");
+        final long secondLoggedBy = System.currentTimeMillis();
+
+        final List<LogMessage> messages = callback.awaitMessages(tag, 2);
+
+        final Matcher first = MESSAGE_PATTERN.matcher(messages.get(0).getMessage());
+        Assert.assertTrue(messages.get(0).getMessage(), first.matches());
+        Assert.assertEquals("correlation-id", first.group(3));
+        Assert.assertEquals("first", first.group(4));
+        assertTimestampBetween(first.group(1), firstLoggedAt, firstLoggedBy);
+
+        final Matcher second = MESSAGE_PATTERN.matcher(messages.get(1).getMessage());
+        Assert.assertTrue(messages.get(1).getMessage(), second.matches());
+        Assert.assertEquals("second", second.group(4));
+        assertTimestampBetween(second.group(1), secondLoggedAt, secondLoggedBy);
+
+        Assert.assertNotEquals(first.group(1), second.group(1));
+    }
+
+    private static void assertTimestampBetween(final String timestamp,
+                                               final long fromMillis,
+                                               final long toMillis) throws Exception {
+        final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        final long timestampMillis = dateFormat.parse(timestamp).getTime();
+
+        Assert.assertTrue(timestamp, timestampMillis >= fromMillis - fromMillis % 1000);
+        Assert.assertTrue(timestamp, timestampMillis <= toMillis);
+    }
+
+    /**
+     * Records the batches it is handed, and can hold the log writer inside a batch so that tests
+     * can fill the log buffer.
+     */
+    private static class RecordingBatchCallback implements ILoggerBatchCallback {
+
+        private final LinkedBlockingQueue<LogMessage> mMessages = new LinkedBlockingQueue<>();
+        private final List<Integer> mBatchSizes = new ArrayList<>();
+        private final List<LogMessage> mReceived = new ArrayList<>();
+        private volatile boolean mSingleMessageLogCalled;
+        private volatile String mBlockingTag;
+        private final CountDownLatch mWriterBlocked = new CountDownLatch(1);
+        private final CountDownLatch mWriterReleased = new CountDownLatch(1);
+
+        @Override
+        public void log(final List<LogMessage> logMessages) {
+            synchronized (mBatchSizes) {
+                mBatchSizes.add(logMessages.size());
+            }
+            mMessages.addAll(logMessages);
+
+            if (mBlockingTag != null && mWriterBlocked.getCount() > 0) {
+                for (final LogMessage message : logMessages) {
+                    if (mBlockingTag.equals(message.getTag())) {
+                        mWriterBlocked.countDown();
+                        awaitRelease();
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void log(final String tag,
+                        final Logger.LogLevel logLevel,
+                        final String message,
+                        final boolean containsPII) {
+            mSingleMessageLogCalled = true;
+        }
+
+        /**
+         * Logs a message and waits for the writer to be held inside the batch carrying it, which
+         * leaves the log buffer empty.
+         */
+        void blockWriter(final String tag) throws InterruptedException {
+            mBlockingTag = tag;
+            Logger.error(tag, "blocking the log writer", null);
+            Assert.assertTrue(mWriterBlocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+
+        void releaseWriter() {
+            mWriterReleased.countDown();
+        }
+
+        boolean isSingleMessageLogCalled() {
+            return mSingleMessageLogCalled;
+        }
+
+        List<Integer> getBatchSizes() {
+            synchronized (mBatchSizes) {
+                return new ArrayList<>(mBatchSizes);
+            }
+        }
+
+        /**
+         * Waits for the supplied number of messages with the tag, counting those already waited
+         * for.
+         *
+         * @return The messages with the tag received so far, oldest first.
+         */
+        List<LogMessage> awaitMessages(final String tag, final int count) throws InterruptedException {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+
+            while (getMessages(tag).size() < count) {
+                final LogMessage message = mMessages.poll(
+                        deadline - System.nanoTime(),
+                        TimeUnit.NANOSECONDS
+                );
+                Assert.assertNotNull("Timed out waiting for " + count + " messages", message);
+                synchronized (mReceived) {
+                    mReceived.add(message);
+                }
+            }
+
+            return getMessages(tag);
+        }
+
+        /**
+         * @return The messages with the tag received by {@link #awaitMessages(String, int)}.
+         */
+        List<LogMessage> getMessages(final String tag) {
+            final List<LogMessage> messages = new ArrayList<>();
+            synchronized (mReceived) {
+                for (final LogMessage message : mReceived) {
+                    if (tag.equals(message.getTag())) {
+                        messages.add(message);
+                    }
+                }
+            }
+            return messages;
+        }
+
+        /**
+         * Bounded, so a failed test does not hold the writer for the tests after it.
+         */
+        private void awaitRelease() {
+            try {
+                mWriterReleased.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.logging;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LoggerTest {
+
+    @After
+    public void tearDown() {
+        Logger.getInstance().setLogLevel(Logger.LogLevel.VERBOSE);
+        Logger.setAllowPii(false);
+    }
+
+    @Test
+    public void isLoggableHonoursLogLevel() {
+        Logger.getInstance().setLogLevel(Logger.LogLevel.INFO);
+
+        assertTrue(Logger.isLoggable(Logger.LogLevel.ERROR, false));
+        assertTrue(Logger.isLoggable(Logger.LogLevel.INFO, false));
+        assertFalse(Logger.isLoggable(Logger.LogLevel.VERBOSE, false));
+    }
+
+    @Test
+    public void isLoggableHonoursPiiSetting() {
+        Logger.setAllowPii(false);
+        assertFalse(Logger.isLoggable(Logger.LogLevel.ERROR, true));
+        assertTrue(Logger.isLoggable(Logger.LogLevel.ERROR, false));
+
+        Logger.setAllowPii(true);
+        assertTrue(Logger.isLoggable(Logger.LogLevel.ERROR, true));
+    }
+
+    @Test
+    public void isLoggableRequiresBothLevelAndPii() {
+        Logger.getInstance().setLogLevel(Logger.LogLevel.WARN);
+        Logger.setAllowPii(true);
+
+        assertFalse(Logger.isLoggable(Logger.LogLevel.VERBOSE, true));
+        assertTrue(Logger.isLoggable(Logger.LogLevel.WARN, true));
+    }
+}
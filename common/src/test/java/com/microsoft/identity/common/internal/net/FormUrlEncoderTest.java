@@ -0,0 +1,99 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.net;
+
+import com.google.gson.annotations.SerializedName;
+import com.microsoft.identity.common.internal.providers.microsoft.azureactivedirectory.AzureActiveDirectoryTokenRequest;
+import com.microsoft.identity.common.internal.providers.microsoft.microsoftsts.MicrosoftStsTokenRequest;
+import com.microsoft.identity.common.internal.providers.oauth2.TokenRequest;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.UnsupportedEncodingException;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(JUnit4.class)
+public class FormUrlEncoderTest {
+
+    @Test
+    public void tokenRequestMatchesObjectMapper() throws UnsupportedEncodingException {
+        final MicrosoftStsTokenRequest request = new MicrosoftStsTokenRequest();
+        request.setClientId("4b0db8c2-9f26-4417-8bde-3f0e3656f8e0");
+        request.setScope("user.read openid profile offline_access");
+        request.setRefreshToken("0.ARwA-rt~token/with+reserved=chars&more");
+        request.setGrantType(TokenRequest.GrantTypes.REFRESH_TOKEN);
+        request.setRedirectUri("msauth://com.contoso/hash%3D");
+        request.setCorrelationId(UUID.randomUUID());
+        request.setClaims("{\"access_token\":{\"deviceid\":{\"essential\":true}}}");
+        request.setClientAppName("com.contoso.ünïcödé");
+        request.setClientAppVersion("1.0 € 😀");
+        request.setTokenScope("user.read");
+        request.setBrokerVersion("3.0.0");
+
+        assertMatchesObjectMapper(request);
+    }
+
+    @Test
+    public void malformedSurrogatesMatchObjectMapper() throws UnsupportedEncodingException {
+        final AzureActiveDirectoryTokenRequest request = new AzureActiveDirectoryTokenRequest();
+        request.setClientId("lone \ud83d high");
+        request.setScope("lone \ude00 low \ud83d😀 pair");
+
+        assertMatchesObjectMapper(request);
+    }
+
+    @Test
+    public void emptyRequestEncodesToNothing() throws UnsupportedEncodingException {
+        assertEquals(0, FormUrlEncoder.encode(new TokenRequest()).length);
+    }
+
+    @Test
+    public void unsupportedFieldTypesFallBackToObjectMapper() throws UnsupportedEncodingException {
+        final RequestWithDouble request = new RequestWithDouble();
+        request.mName = "name";
+        request.mWeight = 1.5;
+
+        assertMatchesObjectMapper(request);
+    }
+
+    private static void assertMatchesObjectMapper(final Object request)
+            throws UnsupportedEncodingException {
+        assertEquals(
+                ObjectMapper.serializeObjectToFormUrlEncoded(request),
+                new String(FormUrlEncoder.encode(request), ObjectMapper.ENCODING_SCHEME)
+        );
+    }
+
+    private static class RequestWithDouble {
+
+        @SerializedName("name")
+        private String mName;
+
+        @SerializedName("weight")
+        private double mWeight;
+    }
+}
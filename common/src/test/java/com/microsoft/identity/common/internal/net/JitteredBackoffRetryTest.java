@@ -0,0 +1,249 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.net;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+
+@RunWith(RobolectricTestRunner.class)
+public class JitteredBackoffRetryTest {
+
+    private static final String TOKEN_ENDPOINT = "https://login.microsoftonline.com/common/oauth2/v2.0/token";
+
+    @Test
+    public void retriesTransientFailuresUntilSuccess() throws Exception {
+        final JitteredBackoffRetry retry = newRetry(2, 100).build();
+        final ScriptedCall call = new ScriptedCall(response(503), new SocketTimeoutException(), response(200));
+
+        final HttpResponse response = retry.attempt(new URL(TOKEN_ENDPOINT), call);
+
+        Assert.assertEquals(200, response.getStatusCode());
+        Assert.assertEquals(3, retry.getStatistics().getAttemptCount());
+        Assert.assertEquals(2, retry.getStatistics().getRetryCount());
+        Assert.assertEquals(JitteredBackoffRetry.Outcome.NOT_RETRYABLE, retry.getLastOutcome());
+    }
+
+    @Test
+    public void returnsTheLastResponseOnceRetriesAreSpent() throws Exception {
+        final JitteredBackoffRetry retry = newRetry(1, 100).build();
+        final ScriptedCall call = new ScriptedCall(response(500), response(500), response(200));
+
+        final HttpResponse response = retry.attempt(new URL(TOKEN_ENDPOINT), call);
+
+        Assert.assertEquals(500, response.getStatusCode());
+        Assert.assertEquals(1, call.getRemaining());
+        Assert.assertEquals(JitteredBackoffRetry.Outcome.RETRIES_EXHAUSTED, retry.getLastOutcome());
+    }
+
+    @Test
+    public void doesNotRetryOtherFailures() throws Exception {
+        final JitteredBackoffRetry retry = newRetry(2, 100).build();
+
+        Assert.assertEquals(
+                400,
+                retry.attempt(new URL(TOKEN_ENDPOINT), new ScriptedCall(response(400))).getStatusCode()
+        );
+
+        try {
+            retry.attempt(new URL(TOKEN_ENDPOINT), new ScriptedCall(new UnknownHostException()));
+            Assert.fail("Expected the exception to be thrown");
+        } catch (final UnknownHostException e) {
+            // Expected
+        }
+
+        Assert.assertEquals(0, retry.getStatistics().getRetryCount());
+    }
+
+    @Test
+    public void retryAfterOverTheMaximumDelayIsNotWaitedFor() throws Exception {
+        final JitteredBackoffRetry retry = newRetry(2, 100).build();
+        final ScriptedCall call = new ScriptedCall(
+                response(429, Collections.singletonMap("retry-after", Collections.singletonList("120"))),
+                response(200)
+        );
+
+        Assert.assertEquals(429, retry.attempt(new URL(TOKEN_ENDPOINT), call).getStatusCode());
+        Assert.assertEquals(1, call.getRemaining());
+        Assert.assertEquals(JitteredBackoffRetry.Outcome.RETRY_AFTER_TOO_LONG, retry.getLastOutcome());
+    }
+
+    @Test
+    public void retryAfterIsParsedFromSecondsAndHttpDates() {
+        Assert.assertEquals(
+                3000,
+                JitteredBackoffRetry.getRetryAfterMillis(
+                        response(503, Collections.singletonMap("Retry-After", Collections.singletonList(" 3 ")))
+                )
+        );
+        Assert.assertEquals(
+                0,
+                JitteredBackoffRetry.getRetryAfterMillis(
+                        response(503, Collections.singletonMap(
+                                "Retry-After",
+                                Collections.singletonList("Wed, 21 Oct 2015 07:28:00 GMT")
+                        ))
+                )
+        );
+        Assert.assertEquals(-1, JitteredBackoffRetry.getRetryAfterMillis(response(503)));
+    }
+
+    @Test
+    public void spentBudgetStopsRetries() throws Exception {
+        final JitteredBackoffRetry retry = newRetry(2, 100)
+                .retryBudget(new RetryBudget(1, 0))
+                .build();
+        final ScriptedCall call = new ScriptedCall(response(503), response(503), response(200));
+
+        Assert.assertEquals(503, retry.attempt(new URL(TOKEN_ENDPOINT), call).getStatusCode());
+        Assert.assertEquals(1, retry.getStatistics().getRetryCount());
+        Assert.assertEquals(1, retry.getStatistics().getBudgetExhaustedCount());
+        Assert.assertEquals(JitteredBackoffRetry.Outcome.BUDGET_EXHAUSTED, retry.getLastOutcome());
+    }
+
+    @Test
+    public void openCircuitShortCircuitsUntilAProbeSucceeds() throws Exception {
+        final JitteredBackoffRetry retry = newRetry(0, 200)
+                .failureThreshold(2)
+                .build();
+        final URL tokenEndpoint = new URL(TOKEN_ENDPOINT);
+
+        retry.attempt(tokenEndpoint, new ScriptedCall(response(500)));
+        retry.attempt(tokenEndpoint, new ScriptedCall(response(500)));
+        Assert.assertEquals(1, retry.getStatistics().getCircuitOpenedCount());
+
+        try {
+            retry.attempt(tokenEndpoint, new ScriptedCall(response(200)));
+            Assert.fail("Expected the circuit to be open");
+        } catch (final CircuitOpenException e) {
+            // Expected
+        }
+        Assert.assertEquals(1, retry.getStatistics().getShortCircuitCount());
+        Assert.assertEquals(JitteredBackoffRetry.Outcome.CIRCUIT_OPEN, retry.getLastOutcome());
+
+        // Other hosts are not affected
+        Assert.assertEquals(
+                200,
+                retry.attempt(new URL("https://graph.microsoft.com/v1.0/me"), new ScriptedCall(response(200)))
+                        .getStatusCode()
+        );
+
+        Thread.sleep(250);
+        Assert.assertEquals(200, retry.attempt(tokenEndpoint, new ScriptedCall(response(200))).getStatusCode());
+        Assert.assertEquals(200, retry.attempt(tokenEndpoint, new ScriptedCall(response(200))).getStatusCode());
+    }
+
+    @Test
+    public void lastOutcomeIsKeptPerThread() throws Exception {
+        final JitteredBackoffRetry retry = newRetry(0, 100).build();
+        retry.attempt(new URL(TOKEN_ENDPOINT), new ScriptedCall(response(503)));
+
+        final JitteredBackoffRetry.Outcome[] otherThreadOutcome = new JitteredBackoffRetry.Outcome[1];
+        final Thread otherThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                otherThreadOutcome[0] = retry.getLastOutcome();
+            }
+        });
+        otherThread.start();
+        otherThread.join();
+
+        Assert.assertNull(otherThreadOutcome[0]);
+        Assert.assertEquals(JitteredBackoffRetry.Outcome.RETRIES_EXHAUSTED, retry.getLastOutcome());
+
+        retry.clearLastOutcome();
+        Assert.assertNull(retry.getLastOutcome());
+    }
+
+    @Test
+    public void failureMessageSaysWhyTheRetryStopped() {
+        Assert.assertEquals(
+                "Retry failed again with 503",
+                HttpRequest.getRetryFailureMessage(JitteredBackoffRetry.Outcome.RETRIES_EXHAUSTED, 503)
+        );
+        Assert.assertEquals(
+                "Request failed with 500, not retried as the retry budget is spent",
+                HttpRequest.getRetryFailureMessage(JitteredBackoffRetry.Outcome.BUDGET_EXHAUSTED, 500)
+        );
+        Assert.assertEquals(
+                "Request failed with 504, not retried as the circuit to the host is open",
+                HttpRequest.getRetryFailureMessage(JitteredBackoffRetry.Outcome.CIRCUIT_OPEN, 504)
+        );
+        Assert.assertEquals("Request failed with 500", HttpRequest.getRetryFailureMessage(null, 500));
+    }
+
+    private static JitteredBackoffRetry.JitteredBackoffRetryBuilder newRetry(final int maxRetries,
+                                                                              final long openDurationMillis) {
+        return JitteredBackoffRetry.builder()
+                .maxRetries(maxRetries)
+                .baseDelayMillis(1L)
+                .maxDelayMillis(10L)
+                .retryBudget(new RetryBudget(100, 0))
+                .openDurationMillis(openDurationMillis);
+    }
+
+    private static HttpResponse response(final int statusCode) {
+        return response(statusCode, Collections.<String, List<String>>emptyMap());
+    }
+
+    private static HttpResponse response(final int statusCode, final Map<String, List<String>> headers) {
+        return new HttpResponse(statusCode, "", headers);
+    }
+
+    /**
+     * Returns or throws the scripted outcomes in order.
+     */
+    private static class ScriptedCall implements Callable<HttpResponse> {
+
+        private final Queue<Object> mOutcomes = new LinkedList<>();
+
+        ScriptedCall(final Object... outcomes) {
+            Collections.addAll(mOutcomes, outcomes);
+        }
+
+        int getRemaining() {
+            return mOutcomes.size();
+        }
+
+        @Override
+        public HttpResponse call() throws IOException {
+            final Object outcome = mOutcomes.remove();
+            if (outcome instanceof IOException) {
+                throw (IOException) outcome;
+            }
+            return (HttpResponse) outcome;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.net;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+
+@RunWith(RobolectricTestRunner.class)
+public class PooledHttpClientTest {
+
+    private static final String TOKEN_ENDPOINT = "https://127.0.0.1/common/oauth2/v2.0/token";
+
+    @After
+    public void tearDown() {
+        HttpUrlConnectionFactory.clearMockedConnectionQueue();
+    }
+
+    @Test
+    public void postReadsTheBodyAndKeepsTheConnection() throws IOException {
+        final ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+        final HttpURLConnection connection = mockConnection(
+                HttpURLConnection.HTTP_OK,
+                "application/json; charset=utf-8",
+                new ByteArrayInputStream("{\"name\":\"caf\u00e9\"}".getBytes("UTF-8"))
+        );
+        Mockito.when(connection.getOutputStream()).thenReturn(requestBody);
+        HttpUrlConnectionFactory.addMockedConnection(connection);
+
+        final AtomicReference<HttpTimings> timings = new AtomicReference<>();
+        final PooledHttpClient client = PooledHttpClient.builder()
+                .metricsListener(new PooledHttpClient.MetricsListener() {
+                    @Override
+                    public void onRequestCompleted(final URL requestUrl,
+                                                   final int statusCode,
+                                                   final HttpTimings requestTimings) {
+                        timings.set(requestTimings);
+                    }
+                })
+                .build();
+
+        final HttpResponse response = client.post(
+                new URL(TOKEN_ENDPOINT),
+                Collections.singletonMap(HttpConstants.HeaderField.CONTENT_TYPE, "application/x-www-form-urlencoded"),
+                "grant_type=refresh_token".getBytes("UTF-8")
+        );
+
+        Assert.assertEquals(HttpURLConnection.HTTP_OK, response.getStatusCode());
+        Assert.assertEquals("{\"name\":\"caf\u00e9\"}", response.getBody());
+        Assert.assertEquals("grant_type=refresh_token", requestBody.toString("UTF-8"));
+        Assert.assertNotNull(timings.get());
+        Assert.assertEquals(16, timings.get().getResponseBytes());
+        Mockito.verify(connection).setFixedLengthStreamingMode(24);
+        Mockito.verify(connection, Mockito.never()).disconnect();
+    }
+
+    @Test
+    public void failedLookupDoesNotFailTheRequest() throws IOException {
+        final HttpURLConnection connection = mockConnection(
+                HttpURLConnection.HTTP_OK,
+                "application/json",
+                new ByteArrayInputStream("{}".getBytes("UTF-8"))
+        );
+        HttpUrlConnectionFactory.addMockedConnection(connection);
+
+        final AtomicReference<HttpTimings> timings = new AtomicReference<>();
+        final PooledHttpClient client = PooledHttpClient.builder()
+                .metricsListener(new PooledHttpClient.MetricsListener() {
+                    @Override
+                    public void onRequestCompleted(final URL requestUrl,
+                                                   final int statusCode,
+                                                   final HttpTimings requestTimings) {
+                        timings.set(requestTimings);
+                    }
+                })
+                .build();
+
+        // The .invalid top level domain never resolves
+        final HttpResponse response = client.get(
+                new URL("https://login.invalid/common/oauth2/v2.0/token"),
+                Collections.<String, String>emptyMap()
+        );
+
+        Assert.assertEquals(HttpURLConnection.HTTP_OK, response.getStatusCode());
+        Assert.assertEquals(HttpTimings.NOT_MEASURED, timings.get().getDnsMillis());
+    }
+
+    @Test
+    public void errorResponseIsReadFromTheErrorStream() throws IOException {
+        final HttpURLConnection connection = mockConnection(
+                HttpURLConnection.HTTP_BAD_REQUEST,
+                "application/json",
+                null
+        );
+        Mockito.when(connection.getInputStream()).thenThrow(new IOException("400"));
+        Mockito.when(connection.getErrorStream()).thenReturn(
+                new ByteArrayInputStream("{\"error\":\"invalid_grant\"}".getBytes("UTF-8"))
+        );
+        HttpUrlConnectionFactory.addMockedConnection(connection);
+
+        final HttpResponse response = PooledHttpClient.builder().build().get(
+                new URL(TOKEN_ENDPOINT),
+                Collections.<String, String>emptyMap()
+        );
+
+        Assert.assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, response.getStatusCode());
+        Assert.assertEquals("{\"error\":\"invalid_grant\"}", response.getBody());
+        Mockito.verify(connection, Mockito.never()).disconnect();
+    }
+
+    @Test
+    public void failedExchangeDisconnects() throws IOException {
+        final InputStream failingStream = Mockito.mock(InputStream.class);
+        Mockito.when(failingStream.read(Mockito.any(byte[].class))).thenThrow(new IOException("reset"));
+        final HttpURLConnection connection = mockConnection(
+                HttpURLConnection.HTTP_OK,
+                "application/json",
+                failingStream
+        );
+        HttpUrlConnectionFactory.addMockedConnection(connection);
+
+        try {
+            PooledHttpClient.builder().build().get(
+                    new URL(TOKEN_ENDPOINT),
+                    Collections.<String, String>emptyMap()
+            );
+            Assert.fail("Expected the read failure to be thrown");
+        } catch (final IOException e) {
+            Assert.assertEquals("reset", e.getMessage());
+        }
+
+        Mockito.verify(connection).disconnect();
+    }
+
+    private static HttpURLConnection mockConnection(final int statusCode,
+                                                    final String contentType,
+                                                    final InputStream responseStream) throws IOException {
+        final HttpURLConnection connection = Mockito.mock(HttpURLConnection.class);
+        Mockito.when(connection.getResponseCode()).thenReturn(statusCode);
+        Mockito.when(connection.getContentType()).thenReturn(contentType);
+        Mockito.when(connection.getContentLength()).thenReturn(-1);
+        if (responseStream != null) {
+            Mockito.when(connection.getInputStream()).thenReturn(responseStream);
+        }
+        return connection;
+    }
+}
@@ -0,0 +1,181 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.net.cache;
+
+import com.microsoft.identity.common.exception.ServiceException;
+import com.microsoft.identity.common.internal.net.HttpClient;
+import com.microsoft.identity.common.internal.net.HttpRequest;
+import com.microsoft.identity.common.internal.net.HttpResponse;
+import com.microsoft.identity.common.internal.providers.microsoft.azureactivedirectory.AzureActiveDirectory;
+import com.microsoft.identity.common.internal.providers.oauth2.OpenIdProviderConfiguration;
+import com.microsoft.identity.common.internal.providers.oauth2.OpenIdProviderConfigurationClient;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+
+import static com.microsoft.identity.common.exception.ServiceException.OPENID_PROVIDER_CONFIGURATION_FAILED_TO_LOAD;
+
+/**
+ * Exercises {@link MetadataCache} through {@link AzureActiveDirectory} and
+ * {@link OpenIdProviderConfigurationClient}, with the network replaced by a mocked {@link HttpClient}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class MetadataCacheIntegrationTest {
+
+    private static final String ISSUER = "https://login.microsoftonline.com/common/v2.0";
+
+    private static final String INSTANCE_DISCOVERY_RESPONSE = "{"
+            + "\"tenant_discovery_endpoint\":\"https://login.microsoftonline.com/common/v2.0/.well-known/openid-configuration\","
+            + "\"api-version\":\"1.1\","
+            + "\"metadata\":[{"
+            + "\"preferred_network\":\"login.microsoftonline.com\","
+            + "\"preferred_cache\":\"login.windows.net\","
+            + "\"aliases\":[\"login.microsoftonline.com\",\"login.windows.net\"]"
+            + "}]}";
+
+    private static final String OPENID_CONFIGURATION_RESPONSE = "{"
+            + "\"issuer\":\"https://login.microsoftonline.com/{tenantid}/v2.0\","
+            + "\"authorization_endpoint\":\"https://login.microsoftonline.com/common/oauth2/v2.0/authorize\""
+            + "}";
+
+    @Rule
+    public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    private HttpClient mHttpClient;
+
+    @Before
+    public void setUp() {
+        MetadataCache.resetForTesting();
+        mHttpClient = Mockito.mock(HttpClient.class);
+        HttpRequest.setHttpClient(mHttpClient);
+    }
+
+    @After
+    public void tearDown() {
+        HttpRequest.setHttpClient(null);
+        MetadataCache.resetForTesting();
+    }
+
+    @Test
+    public void cloudDiscoveryBeforeInitializeIsWrittenOnInitialize() throws IOException {
+        respondWith(new HttpResponse(200, INSTANCE_DISCOVERY_RESPONSE, new HashMap<String, List<String>>()));
+
+        // Discovery ahead of the first command, the cache has no directory yet
+        AzureActiveDirectory.performCloudDiscovery();
+        Assert.assertNotNull(AzureActiveDirectory.getAzureActiveDirectoryCloudFromHostName("login.windows.net"));
+
+        Assert.assertTrue(MetadataCache.initialize(mTemporaryFolder.getRoot()));
+
+        // The next process finds the response on disk
+        MetadataCache.resetForTesting();
+        MetadataCache.initialize(mTemporaryFolder.getRoot());
+        AzureActiveDirectory.performCloudDiscovery();
+
+        verifyRequestCount(1);
+    }
+
+    @Test
+    public void cloudDiscoveryErrorIsNotCached() throws IOException {
+        MetadataCache.initialize(mTemporaryFolder.getRoot());
+        respondWith(
+                new HttpResponse(400, "", new HashMap<String, List<String>>()),
+                new HttpResponse(200, INSTANCE_DISCOVERY_RESPONSE, new HashMap<String, List<String>>())
+        );
+
+        AzureActiveDirectory.performCloudDiscovery();
+        AzureActiveDirectory.performCloudDiscovery();
+
+        verifyRequestCount(2);
+        Assert.assertTrue(AzureActiveDirectory.isInitialized());
+    }
+
+    @Test
+    public void openIdConfigurationIsReusedByTheNextProcess() throws Exception {
+        MetadataCache.initialize(mTemporaryFolder.getRoot());
+        respondWith(new HttpResponse(200, OPENID_CONFIGURATION_RESPONSE, new HashMap<String, List<String>>()));
+
+        final OpenIdProviderConfiguration loaded =
+                new OpenIdProviderConfigurationClient(ISSUER).loadOpenIdProviderConfiguration();
+
+        MetadataCache.resetForTesting();
+        MetadataCache.initialize(mTemporaryFolder.getRoot());
+
+        final OpenIdProviderConfiguration reused =
+                new OpenIdProviderConfigurationClient(ISSUER).loadOpenIdProviderConfiguration();
+
+        verifyRequestCount(1);
+        Assert.assertEquals(loaded.getIssuer(), reused.getIssuer());
+        Assert.assertEquals(loaded.getAuthorizationEndpoint(), reused.getAuthorizationEndpoint());
+    }
+
+    @Test
+    public void openIdConfigurationErrorIsReportedAndNotCached() throws Exception {
+        MetadataCache.initialize(mTemporaryFolder.getRoot());
+        respondWith(
+                new HttpResponse(404, "", new HashMap<String, List<String>>()),
+                new HttpResponse(200, OPENID_CONFIGURATION_RESPONSE, new HashMap<String, List<String>>())
+        );
+
+        try {
+            new OpenIdProviderConfigurationClient(ISSUER).loadOpenIdProviderConfiguration();
+            Assert.fail("Expected a ServiceException");
+        } catch (final ServiceException e) {
+            Assert.assertEquals(OPENID_PROVIDER_CONFIGURATION_FAILED_TO_LOAD, e.getErrorCode());
+        }
+
+        Assert.assertNotNull(new OpenIdProviderConfigurationClient(ISSUER).loadOpenIdProviderConfiguration());
+        verifyRequestCount(2);
+    }
+
+    private void respondWith(final HttpResponse response, final HttpResponse... responses) throws IOException {
+        Mockito.when(
+                mHttpClient.method(
+                        Mockito.anyString(),
+                        Mockito.any(URL.class),
+                        Mockito.<String, String>anyMap(),
+                        Mockito.any(byte[].class)
+                )
+        ).thenReturn(response, responses);
+    }
+
+    private void verifyRequestCount(final int count) throws IOException {
+        Mockito.verify(mHttpClient, Mockito.times(count)).method(
+                Mockito.anyString(),
+                Mockito.any(URL.class),
+                Mockito.<String, String>anyMap(),
+                Mockito.any(byte[].class)
+        );
+    }
+}
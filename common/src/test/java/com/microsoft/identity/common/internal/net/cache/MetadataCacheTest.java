@@ -0,0 +1,195 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.net.cache;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(RobolectricTestRunner.class)
+public class MetadataCacheTest {
+
+    private static final String CONFIG_URL =
+            "https://login.microsoftonline.com/common/v2.0/.well-known/openid-configuration";
+
+    @Rule
+    public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void freshEntryIsLoadedOnce() throws IOException {
+        final MetadataCache<String> cache = newCache(TimeUnit.HOURS.toMillis(1), 0);
+        final CountingLoader loader = new CountingLoader("v1");
+
+        Assert.assertEquals("v1", cache.get(CONFIG_URL, loader));
+        Assert.assertEquals("v1", cache.get(CONFIG_URL, loader));
+        Assert.assertEquals(1, loader.getCount());
+    }
+
+    @Test
+    public void entryIsReusedByTheNextProcess() throws IOException {
+        newCache(TimeUnit.HOURS.toMillis(1), 0).get(CONFIG_URL, new CountingLoader("v1"));
+
+        final MetadataCache<String> nextProcessCache = newCache(TimeUnit.HOURS.toMillis(1), 0);
+        final CountingLoader loader = new CountingLoader("v2");
+
+        Assert.assertEquals("v1", nextProcessCache.get(CONFIG_URL, loader));
+        Assert.assertEquals(0, loader.getCount());
+    }
+
+    @Test
+    public void staleEntryIsServedWhileItIsReloaded() throws Exception {
+        final MetadataCache<String> cache = newCache(1, TimeUnit.HOURS.toMillis(1));
+        cache.get(CONFIG_URL, new CountingLoader("v1"));
+        Thread.sleep(10);
+
+        final CountDownLatch reloaded = new CountDownLatch(1);
+        final CountingLoader loader = new CountingLoader("v2") {
+            @NonNull
+            @Override
+            public String load() throws IOException {
+                try {
+                    return super.load();
+                } finally {
+                    reloaded.countDown();
+                }
+            }
+        };
+
+        Assert.assertEquals("v1", cache.get(CONFIG_URL, loader));
+        Assert.assertTrue(reloaded.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void expiredEntryIsReloadedByTheCaller() throws Exception {
+        final MetadataCache<String> cache = newCache(1, 1);
+        cache.get(CONFIG_URL, new CountingLoader("v1"));
+        Thread.sleep(10);
+
+        Assert.assertEquals("v2", cache.get(CONFIG_URL, new CountingLoader("v2")));
+    }
+
+    @Test
+    public void failedLoadIsNotCached() throws IOException {
+        final MetadataCache<String> cache = newCache(TimeUnit.HOURS.toMillis(1), 0);
+
+        try {
+            cache.get(CONFIG_URL, new MetadataCache.Loader<String>() {
+                @NonNull
+                @Override
+                public String load() throws IOException {
+                    throw new IOException("offline");
+                }
+            });
+            Assert.fail("Expected the load failure to be thrown");
+        } catch (final IOException e) {
+            Assert.assertEquals("offline", e.getMessage());
+        }
+
+        Assert.assertEquals("v1", cache.get(CONFIG_URL, new CountingLoader("v1")));
+    }
+
+    @Test
+    public void concurrentCallersShareASingleLoad() throws Exception {
+        final MetadataCache<String> cache = newCache(TimeUnit.HOURS.toMillis(1), 0);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountingLoader loader = new CountingLoader("v1") {
+            @NonNull
+            @Override
+            public String load() throws IOException {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.load();
+            }
+        };
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(new Callable<String>() {
+                @Override
+                public String call() throws IOException {
+                    return cache.get(CONFIG_URL, loader);
+                }
+            }));
+        }
+
+        Thread.sleep(100);
+        release.countDown();
+
+        for (final Future<String> result : results) {
+            Assert.assertEquals("v1", result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        Assert.assertEquals(1, loader.getCount());
+    }
+
+    private MetadataCache<String> newCache(final long timeToLiveMillis, final long maxStalenessMillis) {
+        return MetadataCache.<String>builder()
+                .name("test-metadata")
+                .type(String.class)
+                .timeToLiveMillis(timeToLiveMillis)
+                .maxStalenessMillis(maxStalenessMillis)
+                .cacheDirectory(mTemporaryFolder.getRoot())
+                .build();
+    }
+
+    private static class CountingLoader implements MetadataCache.Loader<String> {
+
+        private final String mValue;
+        private final AtomicInteger mCount = new AtomicInteger();
+
+        CountingLoader(final String value) {
+            mValue = value;
+        }
+
+        int getCount() {
+            return mCount.get();
+        }
+
+        @NonNull
+        @Override
+        public String load() throws IOException {
+            mCount.incrementAndGet();
+            return mValue;
+        }
+    }
+}
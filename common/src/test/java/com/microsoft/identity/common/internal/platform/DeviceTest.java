@@ -0,0 +1,60 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.platform;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Map;
+
+@RunWith(RobolectricTestRunner.class)
+public class DeviceTest {
+
+    @Test
+    public void platformIdParametersAreAMutableCopy() {
+        final Map<String, String> first = Device.getPlatformIdParameters();
+        final Map<String, String> second = Device.getPlatformIdParameters();
+
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(
+                Device.PlatformIdParameters.PRODUCT_NAME,
+                first.get(Device.PlatformIdParameters.PRODUCT)
+        );
+
+        first.put(Device.PlatformIdParameters.BROKER_VERSION, "3.0");
+        first.remove(Device.PlatformIdParameters.PRODUCT);
+
+        Assert.assertFalse(second.containsKey(Device.PlatformIdParameters.BROKER_VERSION));
+        Assert.assertEquals(Device.getCachedPlatformIdParameters(), second);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void cachedPlatformIdParametersAreShared() {
+        final Map<String, String> cached = Device.getCachedPlatformIdParameters();
+
+        Assert.assertSame(cached, Device.getCachedPlatformIdParameters());
+        cached.put(Device.PlatformIdParameters.BROKER_VERSION, "3.0");
+    }
+}
@@ -0,0 +1,125 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.telemetry;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TelemetryBufferTest {
+
+    private static Map<String, String> event(final String name) {
+        return Collections.singletonMap("event_name", name);
+    }
+
+    @Test
+    public void drainReturnsOnlyEventsOfThatRequestInOrder() {
+        final TelemetryBuffer buffer = TelemetryBuffer.builder().build();
+        final Map<String, String> first = event("first");
+        final Map<String, String> second = event("second");
+
+        buffer.add("a", first);
+        buffer.add("b", event("other"));
+        buffer.add("a", second);
+
+        final List<Map<String, String>> drained = buffer.drain("a");
+
+        assertEquals(2, drained.size());
+        assertSame(first, drained.get(0));
+        assertSame(second, drained.get(1));
+        assertEquals(1, buffer.getBucketCount());
+        assertTrue(buffer.drain("a").isEmpty());
+    }
+
+    @Test
+    public void correlationIdsMatchIgnoringCase() {
+        final TelemetryBuffer buffer = TelemetryBuffer.builder().build();
+
+        buffer.add("ABC-def", event("e"));
+
+        assertEquals(1, buffer.drain("abc-DEF").size());
+    }
+
+    @Test
+    public void eventsBeyondTheCapAreDropped() {
+        final TelemetryBuffer buffer = TelemetryBuffer.builder().maxEventsPerRequest(2).build();
+
+        buffer.add("a", event("1"));
+        buffer.add("a", event("2"));
+        buffer.add("a", event("3"));
+        buffer.add("b", event("4"));
+
+        assertEquals(2, buffer.drain("a").size());
+        assertEquals(1, buffer.drain("b").size());
+        assertEquals(1, buffer.getDroppedEventCount());
+    }
+
+    @Test
+    public void idleBucketsAreReaped() {
+        final TelemetryBuffer buffer = TelemetryBuffer.builder()
+                .maxBucketAgeMillis(1000L)
+                .reapIntervalMillis(100L)
+                .build();
+
+        buffer.add("orphan", event("1"), 10_000L);
+        buffer.add("orphan", event("2"), 10_000L);
+        buffer.add("active", event("3"), 10_500L);
+        buffer.add("active", event("4"), 11_200L);
+
+        assertEquals(1, buffer.getBucketCount());
+        assertEquals(2, buffer.getReapedEventCount());
+        assertTrue(buffer.drain("orphan").isEmpty());
+        assertEquals(2, buffer.drain("active").size());
+    }
+
+    @Test
+    public void reapIsSkippedWithinTheInterval() {
+        final TelemetryBuffer buffer = TelemetryBuffer.builder()
+                .maxBucketAgeMillis(1000L)
+                .reapIntervalMillis(10_000L)
+                .build();
+
+        buffer.add("orphan", event("1"), 20_000L);
+        buffer.add("active", event("2"), 25_000L);
+
+        assertEquals(2, buffer.getBucketCount());
+        assertEquals(0, buffer.getReapedEventCount());
+    }
+
+    @Test
+    public void addAfterDrainStartsANewBucket() {
+        final TelemetryBuffer buffer = TelemetryBuffer.builder().build();
+
+        buffer.add("a", event("1"));
+        buffer.drain("a");
+        buffer.add("a", event("2"));
+
+        assertEquals(1, buffer.drain("a").size());
+    }
+}
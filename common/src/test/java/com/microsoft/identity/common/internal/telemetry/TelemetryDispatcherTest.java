@@ -0,0 +1,140 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.telemetry;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TelemetryDispatcherTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private static List<Map<String, String>> payload(final String name) {
+        final List<Map<String, String>> payload = new ArrayList<>();
+        payload.add(Collections.singletonMap("event_name", name));
+        return payload;
+    }
+
+    @Test
+    public void payloadsWithinTheLingerTimeAreDeliveredAsOneBatch() throws InterruptedException {
+        final List<List<List<Map<String, String>>>> batches = new CopyOnWriteArrayList<>();
+        final CountDownLatch delivered = new CountDownLatch(1);
+        final TelemetryDispatcher dispatcher = TelemetryDispatcher.builder()
+                .listener(new TelemetryDispatcher.BatchListener() {
+                    @Override
+                    public void onBatch(@NonNull final List<List<Map<String, String>>> batch) {
+                        batches.add(batch);
+                        delivered.countDown();
+                    }
+                })
+                .batchSize(3)
+                .lingerMillis(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS))
+                .build();
+
+        assertTrue(dispatcher.dispatch(payload("1")));
+        assertTrue(dispatcher.dispatch(payload("2")));
+        assertTrue(dispatcher.dispatch(payload("3")));
+
+        // The batch is full, so it must not wait for the linger time to pass
+        assertTrue(delivered.await(TIMEOUT_SECONDS / 2, TimeUnit.SECONDS));
+        assertEquals(1, batches.size());
+        assertEquals(3, batches.get(0).size());
+        assertEquals("1", batches.get(0).get(0).get(0).get("event_name"));
+        assertEquals("3", batches.get(0).get(2).get(0).get("event_name"));
+    }
+
+    @Test
+    public void payloadsAreDroppedWhenTheQueueIsFull() throws InterruptedException {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch delivered = new CountDownLatch(2);
+        final TelemetryDispatcher dispatcher = TelemetryDispatcher.builder()
+                .listener(new TelemetryDispatcher.BatchListener() {
+                    @Override
+                    public void onBatch(@NonNull final List<List<Map<String, String>>> batch) {
+                        entered.countDown();
+
+                        try {
+                            release.await();
+                        } catch (final InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+
+                        delivered.countDown();
+                    }
+                })
+                .queueCapacity(1)
+                .batchSize(1)
+                .lingerMillis(0L)
+                .build();
+
+        assertTrue(dispatcher.dispatch(payload("1")));
+        assertTrue(entered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        // The worker is stuck in the observer, the second payload fills the queue
+        assertTrue(dispatcher.dispatch(payload("2")));
+        assertFalse(dispatcher.dispatch(payload("3")));
+
+        release.countDown();
+        assertTrue(delivered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        final TelemetryDispatchStatistics statistics = dispatcher.getStatistics();
+        assertEquals(2, statistics.getEnqueuedCount());
+        assertEquals(1, statistics.getDroppedCount());
+        assertEquals(1, statistics.getMaxQueueDepth());
+    }
+
+    @Test
+    public void failingListenerDoesNotStopDispatch() throws InterruptedException {
+        final CountDownLatch delivered = new CountDownLatch(2);
+        final TelemetryDispatcher dispatcher = TelemetryDispatcher.builder()
+                .listener(new TelemetryDispatcher.BatchListener() {
+                    @Override
+                    public void onBatch(@NonNull final List<List<Map<String, String>>> batch) {
+                        delivered.countDown();
+                        throw new IllegalStateException("observer failure");
+                    }
+                })
+                .batchSize(1)
+                .lingerMillis(0L)
+                .build();
+
+        dispatcher.dispatch(payload("1"));
+        dispatcher.dispatch(payload("2"));
+
+        assertTrue(delivered.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+}
@@ -29,6 +29,7 @@ import androidx.test.core.app.ApplicationProvider;
 
 import com.microsoft.identity.common.internal.telemetry.events.ApiStartEvent;
 import com.microsoft.identity.common.internal.telemetry.observers.ITelemetryAggregatedObserver;
+import com.microsoft.identity.common.internal.telemetry.observers.ITelemetryDefaultBatchObserver;
 import com.microsoft.identity.common.internal.telemetry.observers.ITelemetryDefaultObserver;
 import com.microsoft.identity.common.internal.telemetry.observers.ITelemetryObserver;
 
@@ -41,12 +42,17 @@ import org.robolectric.RobolectricTestRunner;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.fail;
 
 @RunWith(RobolectricTestRunner.class)
 public class TelemetryTest {
 
+    private static final long DISPATCH_TIMEOUT_SECONDS = 5;
+
     @Before
     public void setup() {
         final Context context = ApplicationProvider.getApplicationContext();
@@ -152,48 +158,61 @@ public class TelemetryTest {
     }
 
     @Test
-    public void testBasicDeviceInfoPresentInTelemetry() {
+    public void testBasicDeviceInfoPresentInTelemetry() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<List<Map<String, String>>> received = new AtomicReference<>();
+
         Telemetry.getInstance().addObserver(new ITelemetryDefaultObserver() {
             @Override
             public void onReceived(List<Map<String, String>> telemetryData) {
-                final Map<String, String> mapWithDeviceInfo = telemetryData.get(0);
-                Assert.assertTrue(mapWithDeviceInfo.containsKey(TelemetryEventStrings.App.NAME));
-                Assert.assertTrue(mapWithDeviceInfo.containsKey(TelemetryEventStrings.App.BUILD));
-                Assert.assertTrue(mapWithDeviceInfo.containsKey(TelemetryEventStrings.Device.MODEL));
-                Assert.assertTrue(mapWithDeviceInfo.containsKey(TelemetryEventStrings.Device.NAME));
-                Assert.assertTrue(mapWithDeviceInfo.containsKey(TelemetryEventStrings.Os.NAME));
-                Assert.assertTrue(mapWithDeviceInfo.containsKey(TelemetryEventStrings.Os.VERSION));
-                Assert.assertTrue(mapWithDeviceInfo.containsKey(TelemetryEventStrings.Device.TIMEZONE));
+                received.set(telemetryData);
+                latch.countDown();
             }
         });
 
         Telemetry.getInstance().flush();
+
+        Assert.assertTrue(latch.await(DISPATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        final Map<String, String> mapWithDeviceInfo = received.get().get(0);
+        Assert.assertTrue(mapWithDeviceInfo.containsKey(TelemetryEventStrings.App.NAME));
+        Assert.assertTrue(mapWithDeviceInfo.containsKey(TelemetryEventStrings.App.BUILD));
+        Assert.assertTrue(mapWithDeviceInfo.containsKey(TelemetryEventStrings.Device.MODEL));
+        Assert.assertTrue(mapWithDeviceInfo.containsKey(TelemetryEventStrings.Device.NAME));
+        Assert.assertTrue(mapWithDeviceInfo.containsKey(TelemetryEventStrings.Os.NAME));
+        Assert.assertTrue(mapWithDeviceInfo.containsKey(TelemetryEventStrings.Os.VERSION));
+        Assert.assertTrue(mapWithDeviceInfo.containsKey(TelemetryEventStrings.Device.TIMEZONE));
     }
 
     @Test
-    public void testITelemetryAggregatedObserver() {
+    public void testITelemetryAggregatedObserver() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Map<String, String>> received = new AtomicReference<>();
+
         Telemetry.getInstance().addObserver(new ITelemetryAggregatedObserver() {
             @Override
             public void onReceived(Map<String, String> telemetryData) {
-                final String apiId = telemetryData.get(TelemetryEventStrings.Key.API_ID);
-                Assert.assertEquals("100", apiId);
+                received.set(telemetryData);
+                latch.countDown();
             }
         });
 
         Telemetry.emit(new ApiStartEvent().putApiId("100"));
         Telemetry.getInstance().flush();
+
+        Assert.assertTrue(latch.await(DISPATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Assert.assertEquals("100", received.get().get(TelemetryEventStrings.Key.API_ID));
     }
 
     @Test
-    public void testITelemetryDefaultObserver() {
+    public void testITelemetryDefaultObserver() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<List<Map<String, String>>> received = new AtomicReference<>();
+
         Telemetry.getInstance().addObserver(new ITelemetryDefaultObserver() {
             @Override
             public void onReceived(List<Map<String, String>> telemetryData) {
-                final Map<String, String> mapWithExpectedInfo = telemetryData.get(0);
-                final String apiId = mapWithExpectedInfo.get(TelemetryEventStrings.Key.API_ID);
-                final String authorityType = mapWithExpectedInfo.get(TelemetryEventStrings.Key.AUTHORITY_TYPE);
-                Assert.assertEquals("100", apiId);
-                Assert.assertEquals("AAD", authorityType);
+                received.set(telemetryData);
+                latch.countDown();
             }
         });
 
@@ -201,6 +220,39 @@ public class TelemetryTest {
                 .putApiId("100")
                 .putAuthorityType("AAD"));
         Telemetry.getInstance().flush();
+
+        Assert.assertTrue(latch.await(DISPATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        final Map<String, String> mapWithExpectedInfo = received.get().get(0);
+        Assert.assertEquals("100", mapWithExpectedInfo.get(TelemetryEventStrings.Key.API_ID));
+        Assert.assertEquals("AAD", mapWithExpectedInfo.get(TelemetryEventStrings.Key.AUTHORITY_TYPE));
     }
 
+    @Test
+    public void testITelemetryDefaultBatchObserverReceivesRequestsInOneBatch() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<List<List<Map<String, String>>>> received = new AtomicReference<>();
+
+        Telemetry.getInstance().addObserver(new ITelemetryDefaultBatchObserver() {
+            @Override
+            public void onBatchReceived(List<List<Map<String, String>>> telemetryData) {
+                received.set(telemetryData);
+                latch.countDown();
+            }
+
+            @Override
+            public void onReceived(List<Map<String, String>> telemetryData) {
+                fail();
+            }
+        });
+
+        Telemetry.emit(new ApiStartEvent().putApiId("100").correlationId("first"));
+        Telemetry.emit(new ApiStartEvent().putApiId("200").correlationId("second"));
+        Telemetry.getInstance().flush("first");
+        Telemetry.getInstance().flush("second");
+
+        Assert.assertTrue(latch.await(DISPATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Assert.assertEquals(2, received.get().size());
+        Assert.assertEquals("100", received.get().get(0).get(0).get(TelemetryEventStrings.Key.API_ID));
+        Assert.assertEquals("200", received.get().get(1).get(0).get(TelemetryEventStrings.Key.API_ID));
+    }
 }
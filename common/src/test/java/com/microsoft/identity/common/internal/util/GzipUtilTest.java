@@ -0,0 +1,136 @@
+//  Copyright (c) Microsoft Corporation.
+//  All rights reserved.
+//
+//  This code is licensed under the MIT License.
+//
+//  Permission is hereby granted, free of charge, to any person obtaining a copy
+//  of this software and associated documentation files(the "Software"), to deal
+//  in the Software without restriction, including without limitation the rights
+//  to use, copy, modify, merge, publish, distribute, sublicense, and / or sell
+//  copies of the Software, and to permit persons to whom the Software is
+//  furnished to do so, subject to the following conditions :
+//
+//  The above copyright notice and this permission notice shall be included in
+//  all copies or substantial portions of the Software.
+//
+//  THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+//  IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+//  FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+//  AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+//  LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+//  OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+//  THE SOFTWARE.
+package com.microsoft.identity.common.internal.util;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GzipUtilTest {
+
+    private static final Type MAP_OF_STRINGS = new TypeToken<Map<String, String>>() {
+    }.getType();
+
+    private static String largeString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            builder.append("héllo ").append(i);
+        }
+        return builder.toString();
+    }
+
+    private static Map<String, String> largeMap() {
+        final Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put("key" + i, "value" + i);
+        }
+        return map;
+    }
+
+    @Test
+    public void compressedStringIsReadableByGzipInputStream() throws IOException {
+        final String input = largeString();
+        final GZIPInputStream gzipInputStream = new GZIPInputStream(
+                new ByteArrayInputStream(GzipUtil.compressString(input))
+        );
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[256];
+        int bytesRead;
+        while ((bytesRead = gzipInputStream.read(buffer)) >= 0) {
+            output.write(buffer, 0, bytesRead);
+        }
+
+        assertEquals(input, new String(output.toByteArray(), "UTF-8"));
+    }
+
+    @Test
+    public void decompressesGzipOutputStream() throws IOException {
+        final String input = largeString();
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final GZIPOutputStream gzipOutputStream = new GZIPOutputStream(output);
+        gzipOutputStream.write(input.getBytes("UTF-8"));
+        gzipOutputStream.close();
+
+        assertEquals(input, GzipUtil.decompressBytesToString(output.toByteArray()));
+    }
+
+    @Test
+    public void emptyStringRoundTrips() throws IOException {
+        assertEquals("", GzipUtil.decompressBytesToString(GzipUtil.compressString("")));
+    }
+
+    @Test
+    public void largeJsonPayloadIsCompressed() throws IOException {
+        final Gson gson = new Gson();
+        final Map<String, String> input = largeMap();
+
+        final GzipUtil.JsonPayload payload = GzipUtil.toJsonPayload(gson, input, MAP_OF_STRINGS);
+
+        assertTrue(payload.isCompressed());
+        assertNull(payload.getJson());
+        final Map<String, String> output = GzipUtil.fromCompressedJson(
+                payload.getCompressed(), gson, MAP_OF_STRINGS
+        );
+        assertEquals(input, output);
+    }
+
+    @Test
+    public void smallJsonPayloadIsNotCompressed() throws IOException {
+        final Map<String, String> input = new HashMap<>();
+        input.put("key", "value");
+
+        final GzipUtil.JsonPayload payload = GzipUtil.toJsonPayload(new Gson(), input, MAP_OF_STRINGS);
+
+        assertFalse(payload.isCompressed());
+        assertEquals("{\"key\":\"value\"}", payload.getJson());
+    }
+
+    @Test(expected = ZipException.class)
+    public void corruptTrailerIsRejected() throws IOException {
+        final byte[] compressed = GzipUtil.compressString(largeString());
+        compressed[compressed.length - 6] ^= 1;
+
+        GzipUtil.decompressBytesToString(compressed);
+    }
+
+    @Test(expected = ZipException.class)
+    public void nonGzipInputIsRejected() throws IOException {
+        GzipUtil.decompressBytesToString("not gzip at all, really".getBytes("UTF-8"));
+    }
+}